@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.codec.ClassTypeCodec;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for encoding, and decoding, ClassType's with the binary codec
+ * compared against rendering their String form.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBenchmark {
+
+    private final ClassTypeCodec codec = ClassTypeCodec.DEFAULT_CODEC;
+    private ClassType classType;
+    private byte[] encoded;
+    private ByteBuffer buffer;
+
+    /**
+     * Parse the benchmarked tree and size a buffer to exactly fit its record.
+     */
+    @Setup
+    public void setup() {
+        classType = ClassType.parse(ConcurrentHashMap.class);
+        encoded = codec.encode(classType);
+        buffer = ByteBuffer.allocate(encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(classType);
+    }
+
+    /**
+     * Encode into a reused buffer thereby avoiding the per-record byte array.
+     */
+    @Benchmark
+    public ByteBuffer encodeIntoBuffer() {
+        buffer.clear();
+        codec.encode(classType, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public ClassType decode() {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public String render() {
+        return classType.toString();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ClassTypeForest;
+import com.aries.classtype.parser.ClassTypeMatcher;
+import com.aries.classtype.parser.CompareResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for comparing, equating, printing and searching already parsed
+ * ClassType's. Each shape is compared against an equal tree, a tree which
+ * differs in its types, and a tree which only differs by unknown types.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompareBenchmark {
+
+    @Param({"SHALLOW", "DEEP", "WIDE"})
+    public Hierarchies.Shape shape;
+
+    private ClassType source;
+    private ClassType equalTarget;
+    private ClassType mismatchTarget;
+    private ClassTypeMatcher equalMatcher;
+    private ClassTypeMatcher mismatchMatcher;
+    private ClassTypeForest forest;
+
+    /**
+     * Parse the source and targets, and compile the matchers, compared against.
+     */
+    @Setup
+    public void setup() {
+        source = ClassType.parse(shape.type);
+        equalTarget = ClassType.parse(shape.type);
+
+        // same root with its last child swapped out for another type
+        final ClassType.Builder builder = source.toBuilder();
+        final int last = source.children().size() - 1;
+        mismatchTarget = builder.replace(last, ClassType.parse(Thread.class)).build();
+
+        equalMatcher = ClassTypeMatcher.compile(equalTarget);
+        mismatchMatcher = ClassTypeMatcher.compile(mismatchTarget);
+
+        // trees 0, 1 and 2 are the source, equal and mismatching targets
+        forest = ClassTypeForest.builder().add(source).add(equalTarget).add(mismatchTarget).build();
+    }
+
+    @Benchmark
+    public int compareMatch() {
+        return source.compare(equalTarget);
+    }
+
+    @Benchmark
+    public int compareToMatch() {
+        return source.compareTo(equalTarget);
+    }
+
+    @Benchmark
+    public int compareToMismatch() {
+        return source.compareTo(mismatchTarget);
+    }
+
+    @Benchmark
+    public int matcherMatch() {
+        return equalMatcher.compare(source);
+    }
+
+    @Benchmark
+    public int matcherMismatch() {
+        return mismatchMatcher.compare(source);
+    }
+
+    @Benchmark
+    public int forestCompareMatch() {
+        return forest.compare(forest.root(0), forest.root(1));
+    }
+
+    @Benchmark
+    public int forestCompareMismatch() {
+        return forest.compare(forest.root(0), forest.root(2));
+    }
+
+    @Benchmark
+    public String forestToString() {
+        return forest.toString(forest.root(0));
+    }
+
+    @Benchmark
+    public CompareResult compareWithMatch() {
+        return source.compareWith(equalTarget);
+    }
+
+    @Benchmark
+    public CompareResult compareWithMismatch() {
+        return source.compareWith(mismatchTarget);
+    }
+
+    @Benchmark
+    public boolean equalsMatch() {
+        return source.equals(equalTarget);
+    }
+
+    @Benchmark
+    public boolean equalsMismatch() {
+        return source.equals(mismatchTarget);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return source.hashCode();
+    }
+
+    @Benchmark
+    public String toStringOf() {
+        return source.toString();
+    }
+
+    @Benchmark
+    public ClassType firstTypeMatchingFound() {
+        return source.firstTypeMatching(".*Serializable.*");
+    }
+
+    @Benchmark
+    public ClassType firstTypeMatchingNotFound() {
+        return source.firstTypeMatching(".*NonExistentType.*");
+    }
+}
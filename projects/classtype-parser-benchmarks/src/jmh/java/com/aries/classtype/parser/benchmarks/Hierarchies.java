@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Class hierarchies of various shapes used as benchmark fixtures.
+ * 
+ * @author cdancy
+ */
+public final class Hierarchies {
+
+    /**
+     * The shapes of hierarchy benchmarks can be parameterized with. Each
+     * shape names the generic interface it implements such that reference
+     * libraries have something to resolve type arguments against.
+     */
+    public enum Shape {
+
+        // a single typed interface
+        SHALLOW(Shallow.class, Comparable.class),
+
+        // 8 generic super-classes each implementing a typed interface
+        DEEP(Deep.class, Supplier.class),
+
+        // many typed interfaces, some of which nest their types
+        WIDE(Wide.class, Function.class);
+
+        public final Class<?> type;
+        public final Class<?> genericInterface;
+
+        Shape(final Class<?> type, final Class<?> genericInterface) {
+            this.type = type;
+            this.genericInterface = genericInterface;
+        }
+    }
+
+    abstract static class Shallow implements Comparable<String> {
+
+    }
+
+    abstract static class Level1<A> implements Supplier<A> {
+
+    }
+
+    abstract static class Level2<B> extends Level1<Integer> implements Comparable<B> {
+
+    }
+
+    abstract static class Level3<C> extends Level2<String> implements Consumer<C> {
+
+    }
+
+    abstract static class Level4<D> extends Level3<Long> implements Predicate<D> {
+
+    }
+
+    abstract static class Level5<E> extends Level4<Short> implements Callable<E> {
+
+    }
+
+    abstract static class Level6<F> extends Level5<Byte> implements Iterable<F> {
+
+    }
+
+    abstract static class Level7<G> extends Level6<Double> implements Function<G, Boolean> {
+
+    }
+
+    abstract static class Level8<H> extends Level7<Float> implements Serializable {
+
+    }
+
+    abstract static class Deep extends Level8<Character> {
+
+    }
+
+    abstract static class Wide implements Function<Integer, Boolean>,
+            Comparable<String>,
+            Supplier<Long>,
+            Consumer<Short>,
+            Predicate<Byte>,
+            Callable<Map<String, List<Integer>>>,
+            Iterable<Set<String>>,
+            Serializable {
+
+    }
+
+    private Hierarchies() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseCache;
+import com.aries.classtype.parser.ParseOptions;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for `ClassType.parse` across hierarchies of various shapes.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParseBenchmark {
+
+    @Param({"SHALLOW", "DEEP", "WIDE"})
+    public Hierarchies.Shape shape;
+
+    private ParseOptions filteringOptions;
+    private ParseOptions internOptions;
+    private ParseOptions lazyOptions;
+
+    /**
+     * Create the ParseOptions exercised by the option-bearing benchmarks.
+     */
+    @Setup
+    public void setup() {
+        filteringOptions = ParseOptions.instance(".*Level[1-3].*", ".*Object.*", ".*Serializable.*", ".*Object.*");
+        internOptions = ParseOptions.builder().intern(true).build();
+        lazyOptions = ParseOptions.builder().lazy(true).build();
+    }
+
+    @Benchmark
+    public ClassType parse() {
+        return ClassType.parse(shape.type);
+    }
+
+    @Benchmark
+    public ClassType parseWithOptions() {
+        return ClassType.parse(shape.type, filteringOptions);
+    }
+
+    @Benchmark
+    public ClassType parseInterned() {
+        return ClassType.parse(shape.type, internOptions);
+    }
+
+    @Benchmark
+    public ClassType parseLazy() {
+        return ClassType.parse(shape.type, lazyOptions);
+    }
+
+    /**
+     * Parse lazily and then resolve only the first level of children.
+     */
+    @Benchmark
+    public ClassType parseLazyFirstLevel() {
+        final ClassType parsed = ClassType.parse(shape.type, lazyOptions);
+        parsed.children().size();
+        return parsed;
+    }
+
+    @Benchmark
+    public ClassType parseCached(final CacheState cache) {
+        return ClassType.parse(shape.type);
+    }
+
+    /**
+     * Enables the ParseCache for the benchmarks which request it.
+     */
+    @State(Scope.Benchmark)
+    public static class CacheState {
+
+        @Setup
+        public void enable() {
+            ParseCache.enable();
+        }
+
+        @TearDown
+        public void disable() {
+            ParseCache.disable();
+            ParseCache.clear();
+        }
+    }
+}
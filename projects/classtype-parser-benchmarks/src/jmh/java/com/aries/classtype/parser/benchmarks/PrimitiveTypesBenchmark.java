@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.types.PrimitiveTypes;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for resolving PrimitiveTypes from classes, names and values.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PrimitiveTypesBenchmark {
+
+    // held in fields so the JIT can't constant fold them away
+    private Class primitiveClass = int.class;
+    private Class boxedClass = Integer.class;
+    private String lowerCaseName = "boolean";
+    private String upperCaseName = "BOOLEAN";
+    private String unknownName = "java.util.UUID";
+    private Object value = 42;
+
+    @Benchmark
+    public PrimitiveTypes fromPrimitiveClass() {
+        return PrimitiveTypes.from(primitiveClass);
+    }
+
+    @Benchmark
+    public PrimitiveTypes fromBoxedClass() {
+        return PrimitiveTypes.from(boxedClass);
+    }
+
+    @Benchmark
+    public PrimitiveTypes fromLowerCaseName() {
+        return PrimitiveTypes.from(lowerCaseName);
+    }
+
+    @Benchmark
+    public PrimitiveTypes fromUpperCaseName() {
+        return PrimitiveTypes.from(upperCaseName);
+    }
+
+    @Benchmark
+    public PrimitiveTypes fromUnknownName() {
+        return PrimitiveTypes.from(unknownName);
+    }
+
+    @Benchmark
+    public PrimitiveTypes fromValue() {
+        return PrimitiveTypes.from(value);
+    }
+}
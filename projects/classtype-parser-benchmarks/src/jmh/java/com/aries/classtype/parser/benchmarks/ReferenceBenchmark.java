@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.ClassType;
+import com.google.common.reflect.TypeToken;
+import java.util.concurrent.TimeUnit;
+import net.jodah.typetools.TypeResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reference runs of the alternatives named in the README, against the very
+ * same hierarchies, to put the numbers of `ClassType.parse` in perspective.
+ * Note that neither alternative does exactly what `ClassType.parse` does: Guava
+ * resolves the full set of super-types while typetools resolves the type
+ * arguments of a single generic interface.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReferenceBenchmark {
+
+    @Param({"SHALLOW", "DEEP", "WIDE"})
+    public Hierarchies.Shape shape;
+
+    @Benchmark
+    public ClassType classTypeParse() {
+        return ClassType.parse(shape.type);
+    }
+
+    /**
+     * Walk the type hierarchy by way of Guava's TypeToken.
+     */
+    @Benchmark
+    public void guavaTypeToken(final Blackhole blackhole) {
+        for (final TypeToken<?> type : TypeToken.of(shape.type).getTypes()) {
+            blackhole.consume(type);
+        }
+    }
+
+    @Benchmark
+    public Class<?>[] typetoolsResolveRawArguments() {
+        return TypeResolver.resolveRawArguments(shape.genericInterface, shape.type);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseCache;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Multi-threaded scaling runs of `ClassType.parse` and `ClassType.compareTo`.
+ * Throughput of the N-thread variants should ideally be N times that of the
+ * single threaded variant: anything less points at contention.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScalingBenchmark {
+
+    @Param({"SHALLOW", "WIDE"})
+    public Hierarchies.Shape shape;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private ClassType source;
+    private ClassType target;
+
+    /**
+     * Enable the cache, if requested, and parse the trees compared against.
+     */
+    @Setup
+    public void setup() {
+        if (cached) {
+            ParseCache.enable();
+        }
+        source = ClassType.parse(shape.type);
+        target = ClassType.parse(shape.type);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ParseCache.disable();
+        ParseCache.clear();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ClassType parseOneThread() {
+        return ClassType.parse(shape.type);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public ClassType parseTwoThreads() {
+        return ClassType.parse(shape.type);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ClassType parseFourThreads() {
+        return ClassType.parse(shape.type);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public ClassType parseMaxThreads() {
+        return ClassType.parse(shape.type);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int compareToOneThread() {
+        return source.compareTo(target);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int compareToMaxThreads() {
+        return source.compareTo(target);
+    }
+}
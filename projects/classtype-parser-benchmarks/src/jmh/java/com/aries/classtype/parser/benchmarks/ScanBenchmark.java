@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.scan.ClassPathScanner;
+import com.aries.classtype.parser.scan.TypeIndex;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for scanning the Guava jar (about 2k classes) into a TypeIndex,
+ * and then building the trees of all of its classes, with a varying number
+ * of worker threads.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScanBenchmark {
+
+    @Param({"1", "4"})
+    private int threads;
+
+    private ClassPathScanner scanner;
+
+    @Setup
+    public void setup() throws URISyntaxException {
+        final Path jar = Paths.get(ImmutableList.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        scanner = ClassPathScanner.builder().root(jar).threads(threads).build();
+    }
+
+    @Benchmark
+    public TypeIndex scan() throws IOException {
+        return scanner.scan();
+    }
+
+    /**
+     * Scan and then build the tree of every class found, as a full index would.
+     */
+    @Benchmark
+    public int scanAndBuildTrees() throws IOException {
+        final TypeIndex index = scanner.scan();
+        int built = 0;
+        for (final String name : index.classNames()) {
+            try {
+                built += index.tree(name).children().size();
+            } catch (final IllegalArgumentException e) {
+
+                // recursive hierarchies can't be parsed by reflection either
+                built--;
+            }
+        }
+        return built;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.benchmarks;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.signature.ClassTypeRendering;
+import com.aries.classtype.parser.signature.ClassTypeSignature;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for parsing ClassType's from their signature, or String form,
+ * both cached and uncached, compared against parsing them by reflection.
+ * 
+ * @author cdancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SignatureBenchmark {
+
+    private final ClassTypeSignature cached = ClassTypeSignature.DEFAULT_SIGNATURE;
+    private final ClassTypeSignature uncached = ClassTypeSignature.builder().cacheSize(0).build();
+    private final ClassTypeRendering cachedRendering = ClassTypeRendering.DEFAULT_RENDERING;
+    private final ClassTypeRendering uncachedRendering = ClassTypeRendering.builder().cacheSize(0).build();
+    private String signature;
+    private String classSignature;
+    private String rendering;
+
+    /**
+     * Encode the signature and rendering of the benchmarked tree.
+     */
+    @Setup
+    public void setup() {
+        final ClassType classType = ClassType.parse(ConcurrentHashMap.class);
+        signature = cached.encode(classType);
+        rendering = classType.toString();
+        classSignature = "<K:Ljava/lang/Object;V:Ljava/lang/Object;>Ljava/util/AbstractMap<TK;TV;>;"
+                + "Ljava/util/concurrent/ConcurrentMap<TK;TV;>;Ljava/io/Serializable;";
+    }
+
+    @Benchmark
+    public ClassType parseCached() {
+        return cached.parse(signature);
+    }
+
+    @Benchmark
+    public ClassType parseUncached() {
+        return uncached.parse(signature);
+    }
+
+    @Benchmark
+    public ClassType parseClassSignatureCached() {
+        return cached.parse(ConcurrentHashMap.class, classSignature);
+    }
+
+    @Benchmark
+    public ClassType parseClassSignatureUncached() {
+        return uncached.parse(ConcurrentHashMap.class, classSignature);
+    }
+
+    @Benchmark
+    public String encode() {
+        return uncached.encode(uncached.parse(signature));
+    }
+
+    @Benchmark
+    public ClassType parseRenderingCached() {
+        return cachedRendering.parse(rendering);
+    }
+
+    @Benchmark
+    public ClassType parseRenderingUncached() {
+        return uncachedRendering.parse(rendering);
+    }
+
+    @Benchmark
+    public ClassType parseByReflection() {
+        return ClassType.parse(ConcurrentHashMap.class);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event emitted for comparisons of ClassType's (e.g.
+ * `ClassType.compare`) taking longer than its threshold (100 us by default).
+ * Can be enabled, disabled, and have its threshold changed, on its own
+ * through any JFR configuration.
+ *
+ * @author cdancy
+ */
+@Name(CompareEvent.NAME)
+@Label("ClassType Compare")
+@Category({"Java Application", "ClassType Parser"})
+@Description("Comparison of 2 ClassType trees")
+@StackTrace(false)
+@Enabled(true)
+@Threshold("100 us")
+final class CompareEvent extends Event {
+
+    static final String NAME = "com.aries.classtype.parser.Compare";
+
+    @Label("Source Class")
+    Class<?> sourceClass;
+
+    @Label("Target Class")
+    Class<?> targetClass;
+
+    @Label("Source")
+    String source;
+
+    @Label("Target")
+    String target;
+
+    @Label("Code")
+    @Description("Compare code: -1 mismatch, 0 match, 1 source unknown, 2 target unknown, 3 both unknown")
+    int code;
+
+    @Label("Outcome")
+    @Description("One of MATCH, UNKNOWN, MISMATCH or THROWN")
+    String outcome;
+}
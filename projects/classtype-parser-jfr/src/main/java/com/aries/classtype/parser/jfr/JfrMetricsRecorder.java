@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.jfr;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.CompareResult;
+import com.aries.classtype.parser.ParseOptions;
+import com.aries.classtype.parser.metrics.Metrics;
+import com.aries.classtype.parser.metrics.MetricsRecorder;
+import com.aries.classtype.parser.metrics.ParseOutcome;
+import java.util.function.IntSupplier;
+
+/**
+ * MetricsRecorder emitting Java Flight Recorder events for parses and
+ * comparisons. Events are begun within the `start` hooks, on the thread doing
+ * the work, such that JFR itself times them and applies each events threshold.
+ * Details (e.g. printed trees) are only gathered for events which will
+ * actually be committed.
+ * 
+ * <p>
+ * Install with `JfrMetricsRecorder.install()` and record as per usual, e.g.
+ * `-XX:StartFlightRecording`. The events then show up next to GC and
+ * safepoint events under the "ClassType Parser" category.
+ * </p>
+ *
+ * @author cdancy
+ */
+public final class JfrMetricsRecorder implements MetricsRecorder {
+
+    /**
+     * Create and install a JfrMetricsRecorder replacing any previously installed recorder.
+     * 
+     * @return installed JfrMetricsRecorder.
+     */
+    public static JfrMetricsRecorder install() {
+        final JfrMetricsRecorder recorder = new JfrMetricsRecorder();
+        Metrics.install(recorder);
+        return recorder;
+    }
+
+    @Override
+    public Object startParse() {
+        final ParseEvent event = new ParseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void recordParse(final Object token,
+            final Class root,
+            final ParseOptions options,
+            final long durationNanos,
+            final int nodes,
+            final IntSupplier depth,
+            final int reflectiveCalls,
+            final ParseOutcome outcome) {
+
+        if (token instanceof ParseEvent) {
+            final ParseEvent event = (ParseEvent) token;
+            event.end();
+            if (event.shouldCommit()) {
+                event.rootClass = root;
+                event.options = String.valueOf(options);
+                event.nodes = nodes;
+                event.depth = depth.getAsInt();
+                event.reflectiveCalls = reflectiveCalls;
+                event.outcome = outcome.name();
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public Object startCompare() {
+        final CompareEvent event = new CompareEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void recordCompare(final Object token,
+            final ClassType source,
+            final ClassType target,
+            final long durationNanos,
+            final int code,
+            final boolean thrown) {
+
+        if (token instanceof CompareEvent) {
+            final CompareEvent event = (CompareEvent) token;
+            event.end();
+            if (event.shouldCommit()) {
+                event.sourceClass = source.clazz();
+                event.targetClass = target != null ? target.clazz() : null;
+                event.source = source.toString();
+                event.target = String.valueOf(target);
+                event.code = code;
+                event.outcome = outcome(code, thrown);
+                event.commit();
+            }
+        }
+    }
+
+    private static String outcome(final int code, final boolean thrown) {
+        if (thrown) {
+            return "THROWN";
+        } else if (code == CompareResult.MISMATCH) {
+            return "MISMATCH";
+        } else if (code == CompareResult.MATCH) {
+            return "MATCH";
+        } else {
+            return "UNKNOWN";
+        }
+    }
+}
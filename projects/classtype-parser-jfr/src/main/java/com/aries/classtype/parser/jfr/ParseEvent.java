@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event emitted for calls to `ClassType.parse` taking longer
+ * than its threshold (1 ms by default). Can be enabled, disabled, and have its
+ * threshold changed, on its own through any JFR configuration, e.g.
+ * `jfr configure com.aries.classtype.parser.Parse#threshold=10ms`.
+ *
+ * @author cdancy
+ */
+@Name(ParseEvent.NAME)
+@Label("ClassType Parse")
+@Category({"Java Application", "ClassType Parser"})
+@Description("Parsing of a ClassType tree from a Class")
+@StackTrace(false)
+@Enabled(true)
+@Threshold("1 ms")
+final class ParseEvent extends Event {
+
+    static final String NAME = "com.aries.classtype.parser.Parse";
+
+    @Label("Root Class")
+    Class<?> rootClass;
+
+    @Label("Options")
+    String options;
+
+    @Label("Nodes")
+    @Description("Number of ClassType nodes built, 0 if served from cache")
+    int nodes;
+
+    @Label("Depth")
+    @Description("Depth of the resulting tree not counting unresolved lazy children")
+    int depth;
+
+    @Label("Reflective Calls")
+    int reflectiveCalls;
+
+    @Label("Outcome")
+    @Description("One of PARSED, CACHED, PROVIDED or FAILED")
+    String outcome;
+}
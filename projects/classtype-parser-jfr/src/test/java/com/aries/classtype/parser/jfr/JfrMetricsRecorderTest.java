@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.exceptions.TypeMismatchException;
+import com.aries.classtype.parser.metrics.Metrics;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for exercising JfrMetricsRecorder.
+ * 
+ * @author cdancy
+ */
+public class JfrMetricsRecorderTest {
+
+    abstract static class RecordedHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    @After
+    public void uninstall() {
+        Metrics.uninstall();
+    }
+
+    @Test
+    public void testEventsAreCommitted() throws Exception {
+        assertThat(JfrMetricsRecorder.install()).isSameAs(Metrics.recorder());
+
+        final List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(ParseEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(CompareEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            final ClassType classType = ClassType.parse(RecordedHandler.class);
+            classType.compareTo(ClassType.parse(RecordedHandler.class));
+            try {
+                classType.compare(ClassType.parse(String.class));
+                fail("Expected TypeMismatchException");
+            } catch (final TypeMismatchException e) {
+                assertThat(e).isNotNull();
+            }
+
+            recording.stop();
+            final Path file = Files.createTempFile("classtype-parser", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        final List<RecordedEvent> parses = ofType(events, ParseEvent.NAME);
+        assertThat(parses).hasSize(3);
+        final RecordedEvent parse = parses.get(0);
+        assertThat(parse.getClass("rootClass").getName()).isEqualTo(RecordedHandler.class.getName());
+        assertThat(parse.getInt("nodes")).isEqualTo(6);
+        assertThat(parse.getInt("depth")).isEqualTo(3);
+        assertThat(parse.getString("outcome")).isEqualTo("PARSED");
+        assertThat(parse.getString("options")).startsWith("ParseOptions{");
+
+        final List<RecordedEvent> compares = ofType(events, CompareEvent.NAME);
+        assertThat(compares).hasSize(2);
+        assertThat(compares.get(0).getString("outcome")).isEqualTo("MATCH");
+        assertThat(compares.get(1).getString("outcome")).isEqualTo("THROWN");
+        assertThat(compares.get(1).getInt("code")).isEqualTo(-1);
+        assertThat(compares.get(1).getClass("targetClass").getName()).isEqualTo(String.class.getName());
+    }
+
+    @Test
+    public void testNothingCommittedWhileNotRecording() {
+        JfrMetricsRecorder.install();
+        final ClassType classType = ClassType.parse(RecordedHandler.class);
+        assertThat(classType.compareTo(null)).isEqualTo(-1);
+    }
+
+    private static List<RecordedEvent> ofType(final List<RecordedEvent> events, final String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
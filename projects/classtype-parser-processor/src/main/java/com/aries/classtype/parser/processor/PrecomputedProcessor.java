@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.processor;
+
+import com.aries.classtype.parser.providers.Precomputed;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating, per package, a ClassTypeProvider named
+ * `PrecomputedClassTypes` which serves the precomputed trees of the classes
+ * of said package annotated with `@Precomputed`. Every generated provider is
+ * declared as a service such that `ClassType.parse` finds it on its own.
+ * 
+ * <p>
+ * The generated code builds each tree, upon first request, from class literals
+ * alone. Only classes the generated provider can't reference (e.g. private or
+ * package-private classes of other packages) are loaded by name. Trees are
+ * served only for ParseOptions with exactly the regexes they were computed with.
+ * </p>
+ * 
+ * @author cdancy
+ */
+@SupportedAnnotationTypes(PrecomputedProcessor.PRECOMPUTED)
+public final class PrecomputedProcessor extends AbstractProcessor {
+
+    static final String PRECOMPUTED = "com.aries.classtype.parser.providers.Precomputed";
+    static final String PROVIDER_NAME = "PrecomputedClassTypes";
+    static final String SERVICES = "META-INF/services/com.aries.classtype.parser.providers.ClassTypeProvider";
+
+    private static final String CLASS_TYPE = "com.aries.classtype.parser.ClassType";
+    private static final String PARSE_OPTIONS = "com.aries.classtype.parser.ParseOptions";
+    private static final String INDENT = "    ";
+
+    private final List<String> generated = new ArrayList<>();
+    private int round;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        round++;
+        final Elements elements = processingEnv.getElementUtils();
+
+        // sorted such that the generated code doesn't change from one build to the next
+        final Map<String, Map<String, Precomputation>> byPackage = new TreeMap<>();
+        for (final Element element : roundEnv.getElementsAnnotatedWith(Precomputed.class)) {
+            final TypeElement type = (TypeElement) element;
+            final Precomputed precomputed = type.getAnnotation(Precomputed.class);
+            try {
+                final TypeTree tree = new TypeTree.Builder(elements,
+                        precomputed.classRegex(),
+                        precomputed.classParamRegex(),
+                        precomputed.interfaceRegex(),
+                        precomputed.interfaceParamRegex()).build(type);
+                final String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+                byPackage.computeIfAbsent(packageName, key -> new TreeMap<>())
+                        .put(elements.getBinaryName(type).toString(), new Precomputation(type, precomputed, tree));
+            } catch (final PatternSyntaxException | IllegalStateException e) {
+                error("Could not precompute ClassType of " + type + ": " + e.getMessage(), type);
+            }
+        }
+
+        for (final Map.Entry<String, Map<String, Precomputation>> entry : byPackage.entrySet()) {
+
+            // classes annotated in later rounds (e.g. generated ones) get their own provider
+            final String simpleName = round > 1 ? PROVIDER_NAME + round : PROVIDER_NAME;
+            final String qualifiedName = entry.getKey().isEmpty() ? simpleName : entry.getKey() + "." + simpleName;
+            final List<Precomputation> precomputations = new ArrayList<>(entry.getValue().values());
+            final Element[] originating = new Element[precomputations.size()];
+            for (int i = 0; i < originating.length; i++) {
+                originating[i] = precomputations.get(i).type;
+            }
+
+            try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, originating).openWriter()) {
+                writer.write(new SourceWriter(elements, entry.getKey(), simpleName).write(precomputations));
+                generated.add(qualifiedName);
+            } catch (final IOException e) {
+                error("Could not write " + qualifiedName + ": " + e.getMessage(), originating[0]);
+            }
+        }
+
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            try {
+                final FileObject services = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES);
+                try (Writer writer = services.openWriter()) {
+                    for (final String provider : generated) {
+                        writer.write(provider);
+                        writer.write('\n');
+                    }
+                }
+            } catch (final IOException e) {
+                error("Could not write " + SERVICES + ": " + e.getMessage(), null);
+            }
+        }
+        return false;
+    }
+
+    private void error(final String message, final Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * A class annotated with `@Precomputed` along with its computed tree.
+     */
+    private static final class Precomputation {
+
+        final TypeElement type;
+        final Precomputed precomputed;
+        final TypeTree tree;
+
+        Precomputation(final TypeElement type, final Precomputed precomputed, final TypeTree tree) {
+            this.type = type;
+            this.precomputed = precomputed;
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * Writes the source of a single generated provider. Every type outside of
+     * `java.lang` is fully qualified so as to never clash with the classes of
+     * the package the provider is generated in.
+     */
+    private static final class SourceWriter {
+
+        private final Elements elements;
+        private final String packageName;
+        private final String simpleName;
+        private final StringBuilder source = new StringBuilder();
+
+        SourceWriter(final Elements elements, final String packageName, final String simpleName) {
+            this.elements = elements;
+            this.packageName = packageName;
+            this.simpleName = simpleName;
+        }
+
+        String write(final List<Precomputation> precomputations) {
+            if (!packageName.isEmpty()) {
+                line(0, "package " + packageName + ";");
+                line(0, "");
+            }
+            line(0, "/**");
+            line(0, " * ClassType trees precomputed, by " + PrecomputedProcessor.class.getSimpleName()
+                    + ", for the `@Precomputed` classes of this package.");
+            line(0, " */");
+            line(0, "@java.lang.SuppressWarnings(\"rawtypes\")");
+            line(0, "public final class " + simpleName + " implements com.aries.classtype.parser.providers.ClassTypeProvider {");
+            line(0, "");
+            line(1, "private static final java.lang.ClassLoader LOADER = " + simpleName + ".class.getClassLoader();");
+            line(0, "");
+            line(1, "@java.lang.Override");
+            line(1, "public " + CLASS_TYPE + " provide(final java.lang.Class clazz, final " + PARSE_OPTIONS + " options) {");
+            line(2, "final " + CLASS_TYPE + " classType;");
+            line(2, "switch (clazz.getName()) {");
+            for (int i = 0; i < precomputations.size(); i++) {
+                final Precomputation precomputation = precomputations.get(i);
+                final Precomputed precomputed = precomputation.precomputed;
+                line(3, "case " + elements.getConstantExpression(elements.getBinaryName(precomputation.type).toString()) + ":");
+                line(4, "classType = matches(options, " + regex(precomputed.classRegex()) + ", "
+                        + regex(precomputed.classParamRegex()) + ", " + regex(precomputed.interfaceRegex()) + ", "
+                        + regex(precomputed.interfaceParamRegex()) + ") ? Tree" + i + ".TREE : null;");
+                line(4, "break;");
+            }
+            line(3, "default:");
+            line(4, "return null;");
+            line(2, "}");
+            line(2, "return classType != null && classType.clazz() == clazz ? classType : null;");
+            line(1, "}");
+            line(0, "");
+            line(1, "private static boolean matches(final " + PARSE_OPTIONS + " options,");
+            line(3, "final java.lang.String classRegex,");
+            line(3, "final java.lang.String classParamRegex,");
+            line(3, "final java.lang.String interfaceRegex,");
+            line(3, "final java.lang.String interfaceParamRegex) {");
+            line(2, "return options.classResolver == com.aries.classtype.parser.resolvers.ClassResolver.defaultResolver()");
+            line(4, "&& java.util.Objects.equals(options.classRegex, classRegex)");
+            line(4, "&& java.util.Objects.equals(options.classParamRegex, classParamRegex)");
+            line(4, "&& java.util.Objects.equals(options.interfaceRegex, interfaceRegex)");
+            line(4, "&& java.util.Objects.equals(options.interfaceParamRegex, interfaceParamRegex);");
+            line(1, "}");
+            line(0, "");
+            line(1, "private static java.lang.Class load(final java.lang.String name) {");
+            line(2, "try {");
+            line(3, "return java.lang.Class.forName(name, false, LOADER);");
+            line(2, "} catch (final java.lang.ClassNotFoundException e) {");
+            line(3, "throw new java.lang.IllegalStateException(e);");
+            line(2, "}");
+            line(1, "}");
+
+            // each tree lives within its own holder class so as to only be built upon first request
+            for (int i = 0; i < precomputations.size(); i++) {
+                line(0, "");
+                line(1, "private static final class Tree" + i + " {");
+                line(0, "");
+                line(2, "static final " + CLASS_TYPE + " TREE = build();");
+                line(0, "");
+                line(2, "private static " + CLASS_TYPE + " build() {");
+                final Map<TypeElement, String> leaves = new HashMap<>();
+                final String root = node(precomputations.get(i).tree, leaves, new int[1]);
+                line(3, "return " + root + ";");
+                line(2, "}");
+                line(1, "}");
+            }
+            line(0, "}");
+            return source.toString();
+        }
+
+        /**
+         * Write the local variables, children first, building the passed tree
+         * sharing a single instance across all leaves of the same class.
+         * 
+         * @return name of the variable holding the passed tree.
+         */
+        private String node(final TypeTree tree, final Map<TypeElement, String> leaves, final int[] counter) {
+            if (tree.children.isEmpty() && leaves.containsKey(tree.element)) {
+                return leaves.get(tree.element);
+            }
+
+            final List<String> children = new ArrayList<>();
+            for (final TypeTree child : tree.children) {
+                children.add(node(child, leaves, counter));
+            }
+
+            final String name = "node" + counter[0]++;
+            final StringBuilder builder = new StringBuilder("final " + CLASS_TYPE + " " + name + " = "
+                    + CLASS_TYPE + ".builder(" + classExpression(tree.element) + ")");
+            for (final String child : children) {
+                builder.append(".child(").append(child).append(')');
+            }
+            line(3, builder.append(".build();").toString());
+            if (tree.children.isEmpty()) {
+                leaves.put(tree.element, name);
+            }
+            return name;
+        }
+
+        /**
+         * Get the class literal of the passed type or, if the generated
+         * provider can't reference said type, load it by name instead.
+         */
+        private String classExpression(final TypeElement type) {
+            for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+                final Set<Modifier> modifiers = element.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE)
+                        || (!modifiers.contains(Modifier.PUBLIC) && !isInPackage(type))) {
+                    return "load(" + elements.getConstantExpression(elements.getBinaryName(type).toString()) + ")";
+                }
+            }
+            return type.getQualifiedName() + ".class";
+        }
+
+        private boolean isInPackage(final TypeElement type) {
+            final PackageElement typePackage = elements.getPackageOf(type);
+            return typePackage.getQualifiedName().contentEquals(packageName);
+        }
+
+        private String regex(final String regex) {
+            return regex.isEmpty() ? "null" : elements.getConstantExpression(regex);
+        }
+
+        private void line(final int depth, final String line) {
+            for (int i = 0; i < depth && !line.isEmpty(); i++) {
+                source.append(INDENT);
+            }
+            source.append(line).append('\n');
+        }
+    }
+}
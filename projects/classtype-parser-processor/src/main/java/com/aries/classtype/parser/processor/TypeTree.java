@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+/**
+ * Compile time counterpart of `ClassType.parse`: builds, from the language
+ * model of a class, the very same tree parsing said class by reflection
+ * would produce with the same regexes.
+ * 
+ * <p>
+ * As with parsing, type parameters and any truly generic type arguments (e.g.
+ * type variables, wildcards and arrays) resolve to `java.lang.Object`, interfaces
+ * and type arguments are only climbed when parameterized, and super-classes are
+ * always climbed.
+ * </p>
+ * 
+ * @author cdancy
+ */
+final class TypeTree {
+
+    private static final String OBJECT_NAME = Object.class.getName();
+
+    final TypeElement element;
+    final List<TypeTree> children = new ArrayList<>();
+
+    private TypeTree(final TypeElement element) {
+        this.element = element;
+    }
+
+    /**
+     * Builds TypeTree's with a given set of regexes.
+     */
+    static final class Builder {
+
+        private final Elements elements;
+        private final TypeElement objectElement;
+        private final Pattern classPattern;
+        private final Pattern classParamPattern;
+        private final Pattern interfacePattern;
+        private final Pattern interfaceParamPattern;
+
+        /**
+         * Create a Builder where empty regexes are treated as not set.
+         * 
+         * @throws java.util.regex.PatternSyntaxException if any supplied regex is invalid.
+         */
+        Builder(final Elements elements,
+                final String classRegex,
+                final String classParamRegex,
+                final String interfaceRegex,
+                final String interfaceParamRegex) {
+            this.elements = elements;
+            this.objectElement = elements.getTypeElement(OBJECT_NAME);
+            this.classPattern = compile(classRegex);
+            this.classParamPattern = compile(classParamRegex);
+            this.interfacePattern = compile(interfaceRegex);
+            this.interfaceParamPattern = compile(interfaceParamRegex);
+        }
+
+        private static Pattern compile(final String regex) {
+            return regex.isEmpty() ? null : Pattern.compile(regex);
+        }
+
+        /**
+         * Build the TypeTree of the passed class.
+         * 
+         * @param type class to build the TypeTree of.
+         * @return built TypeTree.
+         * @throws IllegalStateException if a type within the hierarchy can't be resolved.
+         */
+        TypeTree build(final TypeElement type) {
+            return buildClass(type);
+        }
+
+        private TypeTree buildClass(final TypeElement type) {
+            final TypeTree tree = new TypeTree(type);
+            final int typeParameters = type.getTypeParameters().size();
+            if (typeParameters > 0 && !matches(classParamPattern, objectElement)) {
+                for (int i = 0; i < typeParameters; i++) {
+                    tree.children.add(new TypeTree(objectElement));
+                }
+            }
+
+            buildInterfaces(type, tree.children);
+            buildSuperClass(type, tree.children);
+            return tree;
+        }
+
+        private void buildInterfaces(final TypeElement type, final List<TypeTree> children) {
+            for (final TypeMirror mirror : type.getInterfaces()) {
+                final DeclaredType declared = declared(mirror);
+                final boolean parameterized = isParameterized(declared);
+                final TypeElement element = parameterized
+                        ? (TypeElement) declared.asElement()
+                        : leaf((TypeElement) declared.asElement());
+                if (!matches(interfacePattern, element)) {
+                    children.add(parameterized
+                            ? buildParameterized(declared)
+                            : new TypeTree(element));
+                }
+            }
+        }
+
+        private void buildSuperClass(final TypeElement type, final List<TypeTree> children) {
+            final TypeMirror mirror = type.getSuperclass();
+            if (mirror.getKind() != TypeKind.NONE) {
+                final DeclaredType declared = declared(mirror);
+                final TypeElement element = (TypeElement) declared.asElement();
+                if (!element.equals(objectElement) && !matches(classPattern, element)) {
+                    children.add(isParameterized(declared)
+                            ? buildParameterized(declared)
+                            : buildClass(element));
+                }
+            }
+        }
+
+        private TypeTree buildParameterized(final DeclaredType type) {
+            final TypeElement element = (TypeElement) type.asElement();
+            final TypeTree tree = new TypeTree(element);
+            for (final TypeMirror argument : type.getTypeArguments()) {
+                if (argument.getKind() == TypeKind.ERROR) {
+                    throw unresolved(argument);
+                }
+
+                // anything but a class (e.g. type variables, wildcards and arrays) is truly generic
+                final DeclaredType declared = argument.getKind() == TypeKind.DECLARED ? (DeclaredType) argument : null;
+                final boolean parameterized = declared != null && isParameterized(declared);
+                final TypeElement argumentElement;
+                if (parameterized) {
+                    argumentElement = (TypeElement) declared.asElement();
+                } else {
+                    argumentElement = declared != null ? leaf((TypeElement) declared.asElement()) : objectElement;
+                }
+                if (!matches(interfaceParamPattern, argumentElement)) {
+                    tree.children.add(parameterized
+                            ? buildParameterized(declared)
+                            : new TypeTree(argumentElement));
+                }
+            }
+
+            buildInterfaces(element, tree.children);
+            buildSuperClass(element, tree.children);
+            return tree;
+        }
+
+        /**
+         * The element reflection would see for a non-parameterized interface or
+         * type argument which, for classes of the default package, is Object.
+         */
+        private TypeElement leaf(final TypeElement element) {
+            return elements.getPackageOf(element).isUnnamed() ? objectElement : element;
+        }
+
+        /**
+         * Whether reflection would see the passed type as a ParameterizedType which is
+         * the case when either it, or the type enclosing it, has type arguments.
+         */
+        private static boolean isParameterized(final DeclaredType type) {
+            final TypeMirror enclosing = type.getEnclosingType();
+            return !type.getTypeArguments().isEmpty()
+                    || (enclosing.getKind() == TypeKind.DECLARED && isParameterized((DeclaredType) enclosing));
+        }
+
+        private boolean matches(final Pattern pattern, final TypeElement element) {
+            return pattern != null && pattern.matcher(elements.getBinaryName(element)).matches();
+        }
+
+        private static DeclaredType declared(final TypeMirror mirror) {
+            if (mirror.getKind() != TypeKind.DECLARED) {
+                throw unresolved(mirror);
+            }
+            return (DeclaredType) mirror;
+        }
+
+        private static IllegalStateException unresolved(final TypeMirror mirror) {
+            return new IllegalStateException("Could not resolve type: " + mirror);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+import com.aries.classtype.parser.providers.ClassTypeProvider;
+import com.aries.classtype.parser.providers.ClassTypeProviders;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for exercising PrecomputedProcessor.
+ * 
+ * @author cdancy
+ */
+public class PrecomputedProcessorTest {
+
+    private static final String PROVIDER = "p." + PrecomputedProcessor.PROVIDER_NAME;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    /**
+     * Processor, run ahead of the PrecomputedProcessor, generating a single
+     * `@Precomputed` class during the first round.
+     */
+    @SupportedAnnotationTypes("*")
+    public static class GeneratingProcessor extends AbstractProcessor {
+
+        private final String name;
+        private final String source;
+
+        GeneratingProcessor(final String name, final String source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+            if (!roundEnv.processingOver() && !roundEnv.getRootElements().isEmpty()
+                    && roundEnv.getRootElements().iterator().next().getSimpleName().contentEquals("Source")) {
+                try (Writer writer = processingEnv.getFiler().createSourceFile(name).openWriter()) {
+                    writer.write(source);
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Processor, run ahead of the PrecomputedProcessor, claiming the files the
+     * PrecomputedProcessor is about to write.
+     */
+    @SupportedAnnotationTypes("*")
+    public static class ClaimingProcessor extends AbstractProcessor {
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+            if (!roundEnv.processingOver()) {
+                try {
+                    processingEnv.getFiler().createSourceFile(PROVIDER).openWriter().close();
+                    processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                            PrecomputedProcessor.SERVICES).openWriter().close();
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return false;
+        }
+    }
+
+    @Test
+    public void testProvidesParsedTrees() throws Exception {
+        final ClassLoader loader = compile(Collections.emptyList(),
+                "p/Source.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Source<K, V> extends java.util.HashMap<K, java.util.List<V>>"
+                        + " implements java.io.Closeable, java.util.function.Function<String, V[]> {\n"
+                        + "    public void close() { }\n"
+                        + "    public V[] apply(String key) { return null; }\n"
+                        + "}\n",
+                "p/Color.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed public enum Color { RED }\n",
+                "p/Local.java", "package p;\n"
+                        + "class Local extends java.util.ArrayList<String> { }\n",
+                "p/Derived.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Derived extends Local implements Comparable<q.Base> {\n"
+                        + "    public int compareTo(q.Base other) { return 0; }\n"
+                        + "}\n",
+                "p/Holder.java", "package p;\n"
+                        + "public class Holder {\n"
+                        + "    @com.aries.classtype.parser.providers.Precomputed\n"
+                        + "    private static class Secret extends java.util.LinkedList<Secret> { }\n"
+                        + "    @com.aries.classtype.parser.providers.Precomputed\n"
+                        + "    public static class Open extends Secret { }\n"
+                        + "}\n",
+                "p/Outer.java", "package p;\n"
+                        + "public class Outer<T> {\n"
+                        + "    public class Inner extends java.util.ArrayList<T> { }\n"
+                        + "    @com.aries.classtype.parser.providers.Precomputed\n"
+                        + "    public static class Sub extends Outer<String>.Inner {\n"
+                        + "        public Sub(Outer<String> outer) { outer.super(); }\n"
+                        + "    }\n"
+                        + "}\n",
+                "q/Base.java", "package q;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Base extends Hidden<Integer> { }\n"
+                        + "class Hidden<T> extends java.util.AbstractList<T> {\n"
+                        + "    public T get(int index) { return null; }\n"
+                        + "    public int size() { return 0; }\n"
+                        + "}\n",
+                "Marker.java", "public interface Marker { }\n",
+                "Root.java", "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Root extends java.util.concurrent.ConcurrentHashMap<String, Root> implements Marker { }\n");
+        assertThat(diagnostics.getDiagnostics()).isEmpty();
+
+        final ParseOptions options = ParseOptions.builder().build();
+        final ClassTypeProvider provider = provider(loader, PROVIDER);
+        for (final String name : Arrays.asList("p.Source", "p.Color", "p.Derived", "p.Holder$Secret", "p.Holder$Open", "p.Outer$Sub")) {
+            final Class clazz = loader.loadClass(name);
+            final ClassType classType = provider.provide(clazz, options);
+            assertThat(classType).isEqualTo(ClassType.parse(clazz, options));
+            assertThat(classType.toString()).isEqualTo(ClassType.parse(clazz, options).toString());
+            assertThat(provider.provide(clazz, options)).isSameAs(classType);
+        }
+
+        final Class base = loader.loadClass("q.Base");
+        assertThat(provider(loader, "q." + PrecomputedProcessor.PROVIDER_NAME).provide(base, options))
+                .isEqualTo(ClassType.parse(base, options));
+        final Class root = loader.loadClass("Root");
+        assertThat(provider(loader, PrecomputedProcessor.PROVIDER_NAME).provide(root, options))
+                .isEqualTo(ClassType.parse(root, options));
+
+        // leaves of the same class are shared
+        final ClassType source = provider.provide(loader.loadClass("p.Source"), options);
+        assertThat(source.children().get(0)).isSameAs(source.children().get(1));
+
+        assertThat(provider.provide(String.class, options)).isNull();
+        assertThat(provider.provide(base, options)).isNull();
+        assertThat(provider.provide(loader.loadClass("p.Source"), ParseOptions.builder().classRegex("^java.util.AbstractMap$").build()))
+                .isNull();
+        final ParseOptions otherResolver = ParseOptions.builder()
+                .classResolver((name, resolverLoader) -> Class.forName(name, false, resolverLoader))
+                .build();
+        assertThat(provider.provide(loader.loadClass("p.Source"), otherResolver)).isNull();
+
+        // same name, yet another class
+        try (URLClassLoader isolated = new URLClassLoader(new URL[]{folder.getRoot().toPath().resolve("classes").toUri().toURL()}, null)) {
+            assertThat(provider.provide(isolated.loadClass("p.Color"), options)).isNull();
+        }
+
+        final List<String> services = Files.readAllLines(folder.getRoot().toPath()
+                .resolve("classes").resolve(PrecomputedProcessor.SERVICES), StandardCharsets.UTF_8);
+        assertThat(services).containsExactly(PrecomputedProcessor.PROVIDER_NAME, PROVIDER, "q." + PrecomputedProcessor.PROVIDER_NAME);
+    }
+
+    @Test
+    public void testProvidesFilteredTrees() throws Exception {
+        final ClassLoader loader = compile(Collections.emptyList(),
+                "p/Filtered.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed(classRegex = \"^java.util.AbstractMap$\",\n"
+                        + "        interfaceRegex = \"^java.io.Closeable$\", interfaceParamRegex = \"^java.lang.(String|Object)$\")\n"
+                        + "public class Filtered<K, V> extends java.util.HashMap<K, java.util.List<V>>"
+                        + " implements java.io.Closeable, java.util.function.Function<String, java.util.Map<String, V>> {\n"
+                        + "    public void close() { }\n"
+                        + "    public java.util.Map<String, V> apply(String key) { return null; }\n"
+                        + "}\n",
+                "p/Params.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed(classParamRegex = \"^java.lang.Object$\")\n"
+                        + "public class Params<T> extends java.util.ArrayList<T> { }\n");
+        assertThat(diagnostics.getDiagnostics()).isEmpty();
+
+        final ClassTypeProvider provider = provider(loader, PROVIDER);
+        final ParseOptions filtered = ParseOptions.builder()
+                .classRegex("^java.util.AbstractMap$")
+                .interfaceRegex("^java.io.Closeable$")
+                .interfaceParamRegex("^java.lang.(String|Object)$").build();
+        final Class clazz = loader.loadClass("p.Filtered");
+        assertThat(provider.provide(clazz, filtered)).isEqualTo(ClassType.parse(clazz, filtered));
+        assertThat(provider.provide(clazz, filtered).toString()).isEqualTo(ClassType.parse(clazz, filtered).toString());
+        assertThat(provider.provide(clazz, ParseOptions.builder().build())).isNull();
+
+        final ParseOptions params = ParseOptions.builder().classParamRegex("^java.lang.Object$").build();
+        final Class paramsClass = loader.loadClass("p.Params");
+        assertThat(provider.provide(paramsClass, params).toString()).isEqualTo(ClassType.parse(paramsClass, params).toString());
+    }
+
+    @Test
+    public void testParsedTreesAreMutable() throws Exception {
+        final ClassLoader loader = compile(Collections.emptyList(),
+                "p/Mutable.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Mutable extends java.util.ArrayList<String> { }\n");
+        assertThat(diagnostics.getDiagnostics()).isEmpty();
+
+        final Class clazz = loader.loadClass("p.Mutable");
+        final ClassTypeProvider provider = provider(loader, PROVIDER);
+        ClassTypeProviders.register(provider);
+        try {
+            final ClassType parsed = ClassType.parse(clazz);
+            assertThat(parsed).isEqualTo(provider.provide(clazz, ParseOptions.DEFAULT_PARSER_OPTIONS));
+            assertThat(parsed.isFrozen()).isFalse();
+
+            final int size = parsed.children().size();
+            parsed.child(ClassType.parse(Integer.class));
+            assertThat(parsed.children()).hasSize(size + 1);
+            assertThat(provider.provide(clazz, ParseOptions.DEFAULT_PARSER_OPTIONS).children()).hasSize(size);
+        } finally {
+            ClassTypeProviders.unregister(provider);
+        }
+    }
+
+    @Test
+    public void testProvidesTreesOfGeneratedClasses() throws Exception {
+        final ClassLoader loader = compile(Collections.singletonList(new GeneratingProcessor("p.Generated", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Generated extends java.util.ArrayList<String> { }\n")),
+                "p/Source.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Source extends java.util.ArrayList<Integer> { }\n");
+        assertThat(diagnostics.getDiagnostics()).isEmpty();
+
+        final ParseOptions options = ParseOptions.builder().build();
+        final Class generated = loader.loadClass("p.Generated");
+        assertThat(provider(loader, PROVIDER + "2").provide(generated, options)).isEqualTo(ClassType.parse(generated, options));
+        assertThat(provider(loader, PROVIDER).provide(generated, options)).isNull();
+
+        final List<String> services = Files.readAllLines(folder.getRoot().toPath()
+                .resolve("classes").resolve(PrecomputedProcessor.SERVICES), StandardCharsets.UTF_8);
+        assertThat(services).containsExactly(PROVIDER, PROVIDER + "2");
+    }
+
+    @Test
+    public void testReportsInvalidRegex() throws Exception {
+        compile(Collections.emptyList(), "p/Source.java", "package p;\n"
+                + "@com.aries.classtype.parser.providers.Precomputed(interfaceRegex = \"[\")\n"
+                + "public class Source { }\n");
+        assertThat(errors()).hasSize(1);
+        assertThat(errors().get(0)).startsWith("Could not precompute ClassType of p.Source: Unclosed character class");
+    }
+
+    @Test
+    public void testReportsUnresolvedTypes() throws Exception {
+        compile(Collections.emptyList(),
+                "p/Source.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Source extends does.not.Exist { }\n",
+                "p/Argument.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Argument extends java.util.ArrayList<does.not.Exist> { }\n");
+        assertThat(errors()).contains(
+                "Could not precompute ClassType of p.Argument: Could not resolve type: does.not.Exist",
+                "Could not precompute ClassType of p.Source: Could not resolve type: does.not.Exist");
+    }
+
+    @Test
+    public void testReportsUnwritableFiles() throws Exception {
+        compile(Collections.singletonList(new ClaimingProcessor()),
+                "p/Source.java", "package p;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Source { }\n",
+                "q/Source.java", "package q;\n"
+                        + "@com.aries.classtype.parser.providers.Precomputed\n"
+                        + "public class Source { }\n");
+        assertThat(errors()).hasSize(2);
+        assertThat(errors().get(0)).startsWith("Could not write " + PrecomputedProcessor.SERVICES + ": ");
+        assertThat(errors().get(1)).startsWith("Could not write " + PROVIDER + ": ");
+    }
+
+    /**
+     * Compile the passed sources, given as pairs of path and content, with the
+     * passed processors ahead of the PrecomputedProcessor.
+     */
+    private ClassLoader compile(final List<Processor> processors, final String... sources) throws IOException {
+        final Path sourceDir = folder.newFolder("sources").toPath();
+        final Path classDir = folder.newFolder("classes").toPath();
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < sources.length; i += 2) {
+            final Path file = sourceDir.resolve(sources[i]);
+            Files.createDirectories(file.getParent());
+            Files.write(file, sources[i + 1].getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", classDir.toString(),
+                            "-s", sourceDir.toString(), "-implicit:none"),
+                    null, fileManager.getJavaFileObjectsFromFiles(files));
+            final List<Processor> allProcessors = new ArrayList<>(processors);
+            allProcessors.add(new PrecomputedProcessor());
+            task.setProcessors(allProcessors);
+            task.call();
+        }
+        return new URLClassLoader(new URL[]{classDir.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private List<String> errors() {
+        final List<String> errors = new ArrayList<>();
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).startsWith("Could not")) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        Collections.sort(errors);
+        return errors;
+    }
+
+    private static ClassTypeProvider provider(final ClassLoader loader, final String name) throws Exception {
+        return (ClassTypeProvider) loader.loadClass(name).getConstructor().newInstance();
+    }
+}
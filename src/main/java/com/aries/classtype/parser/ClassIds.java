@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Global registry assigning a dense, non-negative, int id to every Class
+ * it's asked about. Ids allow for bitsets, int arrays and primitive hash
+ * maps to be used in place of Class keyed collections, as the class table of
+ * each ClassTypeForest does.
+ * 
+ * <p>
+ * Ids are held on the Class itself (i.e. through a ClassValue) while the
+ * reverse table only weakly references each Class. Neither prevents a
+ * ClassLoader from being unloaded and, once a Class has been collected,
+ * its id is recycled and handed out to the next Class registered.
+ * </p>
+ *
+ * @author cdancy
+ */
+public final class ClassIds {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static final ClassValue<Slot> SLOTS = new ClassValue<Slot>() {
+        @Override
+        protected Slot computeValue(final Class<?> clazz) {
+            return new Slot();
+        }
+    };
+
+    private static final ReferenceQueue<Class> QUEUE = new ReferenceQueue<>();
+
+    private static volatile Entry[] table = new Entry[DEFAULT_CAPACITY];
+    private static int[] freeIds = new int[DEFAULT_CAPACITY];
+    private static int freeCount;
+    private static int nextId;
+    private static int size;
+
+    private ClassIds() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+
+    /**
+     * Get the id of the passed Class registering it should it not
+     * already have one.
+     * 
+     * @param clazz non-null Class to get id for.
+     * @return dense, non-negative, id of Class.
+     */
+    public static int id(final Class clazz) {
+        final Slot slot = SLOTS.get(Objects.requireNonNull(clazz, "clazz cannot be NULL"));
+        final int id = slot.id;
+        return (id >= 0) ? id : register(clazz, slot);
+    }
+
+    /**
+     * Get the Class registered under the passed id.
+     * 
+     * @param id id of Class.
+     * @return registered Class or null if id is unknown or its Class has been unloaded.
+     */
+    public static Class clazz(final int id) {
+        final Entry[] entries = table;
+        if (id < 0 || id >= entries.length) {
+            return null;
+        }
+        final Entry entry = entries[id];
+        return (entry != null) ? entry.get() : null;
+    }
+
+    /**
+     * Get the number of currently registered classes.
+     * 
+     * @return number of registered classes.
+     */
+    public static synchronized int size() {
+        purge();
+        return size;
+    }
+
+    /**
+     * Get the upper bound, exclusive, of all ids handed out thus far
+     * which is useful for sizing arrays and bitsets indexed by id.
+     * 
+     * @return upper bound of ids.
+     */
+    public static synchronized int capacity() {
+        return nextId;
+    }
+
+    /**
+     * Assign an id to the passed Class unless another thread got here first.
+     * Slots are unique to each Class, as only one can ever be installed within
+     * the ClassValue, and so an id is never handed out to a Slot that lost.
+     */
+    private static synchronized int register(final Class clazz, final Slot slot) {
+        if (slot.id < 0) {
+            purge();
+
+            final int id = (freeCount > 0) ? freeIds[--freeCount] : nextId++;
+            Entry[] entries = table;
+            if (id >= entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            entries[id] = new Entry(clazz, id, QUEUE);
+            table = entries;
+            size++;
+            slot.id = id;
+        }
+        return slot.id;
+    }
+
+    /**
+     * Recycle the ids of those classes which have since been collected.
+     * Must be called while holding the lock.
+     */
+    private static void purge() {
+        Reference<? extends Class> reference;
+        while ((reference = QUEUE.poll()) != null) {
+            final int id = ((Entry) reference).id;
+            if (table[id] == reference) {
+                table[id] = null;
+                size--;
+                if (freeCount == freeIds.length) {
+                    freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+                }
+                freeIds[freeCount++] = id;
+            }
+        }
+    }
+
+    /**
+     * Id holder stored on each Class. Holds no reference back to its Class.
+     */
+    private static final class Slot {
+        private volatile int id = -1;
+    }
+
+    /**
+     * Weak reference to a registered Class remembering its id.
+     */
+    private static final class Entry extends WeakReference<Class> {
+
+        private final int id;
+
+        private Entry(final Class clazz, final int id, final ReferenceQueue<Class> queue) {
+            super(clazz, queue);
+            this.id = id;
+        }
+    }
+}
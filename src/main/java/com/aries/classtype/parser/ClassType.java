@@ -20,16 +20,36 @@ package com.aries.classtype.parser;
 import static com.aries.classtype.parser.utils.Constants.PERIOD_CHAR;
 
 import com.aries.classtype.parser.exceptions.TypeMismatchException;
-
+import com.aries.classtype.parser.metrics.Metrics;
+import com.aries.classtype.parser.metrics.MetricsRecorder;
+import com.aries.classtype.parser.metrics.ParseOutcome;
+import com.aries.classtype.parser.providers.ClassTypeProviders;
 import com.aries.classtype.parser.types.PrimitiveTypes;
 import com.aries.classtype.parser.utils.Constants;
-import com.aries.classtype.parser.utils.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
 import javax.lang.model.SourceVersion;
 
 /**
@@ -56,20 +76,87 @@ import javax.lang.model.SourceVersion;
  slow down a process which needs to be as fast as possible.
  </p>
  *
+ * <p>
+ * A ClassType can optionally be frozen (see `freeze()`) at which point it, and
+ * all of its children, can no longer be modified and can thus be freely shared
+ * across threads. Frozen ClassType's can be copied, and modified, by way of
+ * their `toBuilder()`.
+ * </p>
+ *
+ * <p>
+ * A ClassType is serialized as its preorder classes and child counts and is
+ * deserialized into its canonical (see `intern()`) instance. For a compact,
+ * and versioned, binary form see `codec.ClassTypeCodec`.
+ * </p>
+ *
+ * <p>
+ * When parsing lazily (see `ParseOptions.Builder.lazy`) the children of a given
+ * ClassType are only resolved from their reflective Type once first accessed.
+ * Lazily parsed ClassType's are frozen and resolve to exactly what an eager parse
+ * would have produced.
+ * </p>
+ *
  * @author dancc
  */
 @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-public class ClassType implements Comparable<ClassType> {
+public class ClassType implements Comparable<ClassType>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String OBJECT_NAME = Object.class.getName();
 
     private final Class clazz;
-    protected final List<ClassType> children = new ArrayList<>();
+
+    // never serialized as is but rather through its SerializedForm (see writeReplace)
+    protected final transient List<ClassType> children;
+    private final boolean frozen;
+    private final boolean interned;
+
+    // lazily computed, and only ever cached for frozen nodes, with 0 meaning not yet computed
+    private int hash;
+
+    // lazily rendered, and only ever cached for frozen nodes, toString form
+    private String rendered;
 
     private ClassType(final Class clazz) {
         this.clazz = clazz;
+        this.children = new ArrayList<>();
+        this.frozen = false;
+        this.interned = false;
+    }
+
+    private ClassType(final Class clazz, final LazyChildren lazyChildren) {
+        this.clazz = clazz;
+        this.children = lazyChildren;
+        this.frozen = true;
+        this.interned = false;
+    }
+
+    private ClassType(final Class clazz, final ClassType[] frozenChildren, final boolean interned) {
+        this.clazz = clazz;
+        this.children = frozenChildren.length > 0
+                ? new FrozenChildren(frozenChildren)
+                : FrozenChildren.EMPTY;
+        this.frozen = true;
+        this.interned = interned;
+    }
+
+    /**
+     * Create a Builder for constructing a frozen ClassType from scratch.
+     * 
+     * @param clazz the non-null Class the built ClassType will represent.
+     * @return new Builder.
+     */
+    public static Builder builder(final Class clazz) {
+        return new Builder(Objects.requireNonNull(clazz, "clazz cannot be NULL"),
+                FrozenChildren.EMPTY.array, 0);
     }
 
     /**
      * Parse a ClassType from some arbitrary Object (e.g. Class, Type, primitive, etc.).
+     * If the ParseCache is enabled the returned ClassType may be shared, and is then
+     * frozen, otherwise it is mutable whether parsed by reflection or provided by a
+     * registered ClassTypeProvider.
      * 
      * @param parseToClassType arbitrary Object to parse a ClassType from.
      * @return instantiated ClassType.
@@ -80,7 +167,10 @@ public class ClassType implements Comparable<ClassType> {
 
     /**
      * Parse a ClassType from some arbitrary Object (e.g. Class, Type, primitive, etc.) whilst
-     * supplying optional ParseOptions (can be null).
+     * supplying optional ParseOptions (can be null). If the ParseCache is enabled, or
+     * the ParseOptions request interning or lazy parsing, the returned ClassType may
+     * be shared, and is then frozen, otherwise it is mutable whether parsed by
+     * reflection or provided by a registered ClassTypeProvider.
      * 
      * @param parseToClassType arbitrary Object to parse a ClassType from.
      * @param options non-null ParseOptions the user may have optionally requested.
@@ -103,13 +193,137 @@ public class ClassType implements Comparable<ClassType> {
      */
     private static ClassType parseObject(final Object parseToClassType,
             final ParseOptions options) {
+        return load(resolveClass(parseToClassType), options);
+    }
+
+    /**
+     * Load, either from the cache or by parsing it, the ClassType of the
+     * passed Class recording the call should a MetricsRecorder be installed.
+     * 
+     * @param clazz the Class to parse a ClassType from.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     * @return instantiated ClassType.
+     */
+    private static ClassType load(final Class clazz,
+            final ParseOptions options) {
+
+        final MetricsRecorder recorder = Metrics.recorder();
+        if (recorder == MetricsRecorder.NOOP) {
+            return ParseCache.get(clazz, options, ClassType::parseRoot);
+        }
+
+        final Object token = recorder.startParse();
+        final long start = System.nanoTime();
+        final ParseCounter counter = ParseCounter.begin();
+        ClassType parsed = null;
+        try {
+            parsed = ParseCache.get(clazz, options, ClassType::parseRoot);
+            return parsed;
+        } finally {
+            ParseCounter.end(counter);
+            final long duration = System.nanoTime() - start;
+            final ClassType result = parsed;
+            recorder.recordParse(token, clazz, options, duration, counter.nodes,
+                    () -> result != null ? depthOf(result) : 0, counter.reflectiveCalls,
+                    result != null ? counter.outcome : ParseOutcome.FAILED);
+        }
+    }
+
+    /**
+     * Get the depth of the passed ClassType without resolving any lazy children.
+     * 
+     * @param classType ClassType to get depth of.
+     * @return depth where a lone node has a depth of 1.
+     */
+    private static int depthOf(final ClassType classType) {
+        final List<ClassType> children = classType.children;
+        if (children instanceof LazyChildren && ((LazyChildren) children).resolved == null) {
+            return 1;
+        }
+
+        int deepest = 0;
+        for (int i = 0; i < children.size(); i++) {
+            deepest = Math.max(deepest, depthOf(children.get(i)));
+        }
+        return deepest + 1;
+    }
+
+    /**
+     * Parse ClassType's from a Collection of arbitrary Objects (e.g. Class, Type, primitive,
+     * etc.) splitting the work across the common ForkJoinPool. See `parseAll(Collection,
+     * ParseOptions, Executor)` for details.
+     * 
+     * @param parseToClassTypes arbitrary Objects to parse ClassType's from.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     * @return list of frozen ClassType's in the same order as their input.
+     */
+    public static List<ClassType> parseAll(final Collection<?> parseToClassTypes,
+            final ParseOptions options) {
+        return parseAll(parseToClassTypes, options, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parse ClassType's from a Collection of arbitrary Objects (e.g. Class, Type, primitive,
+     * etc.) splitting the work across the passed Executor. Each distinct Class is only
+     * parsed once and thus repeated inputs (e.g. 2 instances of the same Class) map to
+     * the very same ClassType within the returned list. As said ClassType's may be
+     * shared they are always frozen.
+     * 
+     * @param parseToClassTypes arbitrary Objects to parse ClassType's from.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     * @param executor non-null Executor to run the individual parses on.
+     * @return list of frozen ClassType's in the same order as their input.
+     */
+    public static List<ClassType> parseAll(final Collection<?> parseToClassTypes,
+            final ParseOptions options,
+            final Executor executor) {
+
+        Objects.requireNonNull(parseToClassTypes, "parseToClassTypes cannot be NULL");
+        Objects.requireNonNull(options, "If supplied 'options' cannot be NULL");
+        Objects.requireNonNull(executor, "executor cannot be NULL");
+
+        // 1.) kick off a single, frozen, parse for every distinct Class.
+        final Map<Class, CompletableFuture<ClassType>> distinctParses = new IdentityHashMap<>();
+        final List<CompletableFuture<ClassType>> orderedParses = new ArrayList<>(parseToClassTypes.size());
+        for (final Object parseToClassType : parseToClassTypes) {
+            final CompletableFuture<ClassType> parse = distinctParses.computeIfAbsent(resolveClass(parseToClassType),
+                    clazz -> CompletableFuture.supplyAsync(() -> load(clazz, options).freeze(), executor));
+            orderedParses.add(parse);
+        }
+
+        // 2.) gather the results back up in input order.
+        final List<ClassType> parsed = new ArrayList<>(orderedParses.size());
+        for (final CompletableFuture<ClassType> parse : orderedParses) {
+            try {
+                parsed.add(parse.join());
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Resolve the Class to parse a ClassType from out of some arbitrary
+     * Object (e.g. Class, Type, etc.). Primitive classes resolve to their
+     * boxed counterpart and null resolves to our own Null.
+     * 
+     * @param parseToClassType arbitrary Object to resolve a Class from.
+     * @return resolved Class.
+     */
+    private static Class resolveClass(final Object parseToClassType) {
 
         Class potentialClazz;
         if (parseToClassType != null) {
             if (parseToClassType instanceof Class) {
                 potentialClazz = (Class)parseToClassType;
                 if (potentialClazz.isPrimitive()) {
-                    potentialClazz = PrimitiveTypes.from(potentialClazz.toGenericString()).getBoxedClass();
+                    potentialClazz = PrimitiveTypes.from(potentialClazz).getBoxedClass();
                 }
             } else {
                 potentialClazz = parseToClassType.getClass();
@@ -117,8 +331,46 @@ public class ClassType implements Comparable<ClassType> {
         } else {
             potentialClazz = PrimitiveTypes.NULL.getBoxedClass();
         }
+        return potentialClazz;
+    }
+
+    /**
+     * Parse a ClassType from a given Class, unless a registered ClassTypeProvider
+     * already provides it, interning it, and all of its children, should the
+     * passed ParseOptions request so. Provided trees are frozen and so, unless
+     * interned or parsed lazily (as both are frozen anyway), are copied into the
+     * mutable tree parsing by reflection would have produced.
+     * 
+     * @param clazz the Class to parse a ClassType from.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     * @return instantiated ClassType.
+     */
+    private static ClassType parseRoot(final Class clazz,
+            final ParseOptions options) {
+        final ClassType provided = ClassTypeProviders.provide(clazz, options);
+        if (provided != null) {
+            ParseCounter.outcome(ParseOutcome.PROVIDED);
+        }
+        final ClassType parsed = provided == null
+                ? parseClass(clazz, clazz.getClassLoader(), options)
+                : options.intern || options.lazy ? provided : thaw(provided);
+        return options.intern ? parsed.intern() : parsed;
+    }
 
-        return parseClass(potentialClazz, options);
+    /**
+     * Copy the passed, possibly frozen, ClassType into a mutable tree.
+     * 
+     * @param classType ClassType to copy.
+     * @return mutable copy of ClassType.
+     */
+    private static ClassType thaw(final ClassType classType) {
+        final ClassType copy = new ClassType(classType.clazz);
+        final List<ClassType> children = classType.children;
+        final int size = children.size();
+        for (int i = 0; i < size; i++) {
+            copy.children.add(thaw(children.get(i)));
+        }
+        return copy;
     }
 
     /**
@@ -126,47 +378,102 @@ public class ClassType implements Comparable<ClassType> {
      * optionally ignore generic types should they match a given regex.
      * 
      * @param clazz the Class to parse a ClassType from.
+     * @param loader ClassLoader of the root Class being parsed.
      * @param options non-null ParseOptions the user may have optionally requested.
      * @return instantiated ClassType.
      */
     private static ClassType parseClass(final Class clazz,
+            final ClassLoader loader,
             final ParseOptions options) {
 
-        // 1.) init the parent ClassType and attach any parameters as child ClassType's.
+        ParseCounter.node();
+        if (options.lazy) {
+            return new ClassType(clazz, new LazyChildren(clazz, null, loader, options));
+        }
+
         final ClassType parent = new ClassType(clazz);
-        if (options.classParamRegex != null) {
-            for (final TypeVariable childVariable : clazz.getTypeParameters()) {
-                final Class properTypeName = parseClassFromTypeName(childVariable.getTypeName());
-                if (!properTypeName.getName().matches(options.classParamRegex)) {
-                    final ClassType child = new ClassType(properTypeName);
-                    parent.child(child);
-                }
-            }
-        } else {
-            for (final TypeVariable childVariable : clazz.getTypeParameters()) {
-                final Class properTypeName = parseClassFromTypeName(childVariable.getTypeName());
-                final ClassType child = new ClassType(properTypeName);
-                parent.child(child);
+        parseClassChildren(clazz, parent.children, loader, options);
+        return parent;
+    }
+
+    /**
+     * Parse the child ClassType's of a given Class. If applicable we will
+     * optionally ignore generic types should they match a given regex.
+     * 
+     * @param clazz the Class to parse child ClassType's from.
+     * @param children the list we will insert potential child ClassType's into.
+     * @param loader ClassLoader of the root Class being parsed.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     */
+    private static void parseClassChildren(final Class clazz,
+            final List<ClassType> children,
+            final ClassLoader loader,
+            final ParseOptions options) {
+
+        // 1.) attach any parameters as child ClassType's. Type parameters
+        //     are truly generic and so always resolve to 'java.lang.Object'
+        //     which we need only match against the regex once.
+        final TypeVariable[] childVariables = clazz.getTypeParameters();
+        ParseCounter.reflectiveCall();
+        if (childVariables.length > 0
+                && (options.classParamPattern == null
+                || !options.classParamPattern.matcher(OBJECT_NAME).matches())) {
+            for (int i = 0; i < childVariables.length; i++) {
+                children.add(leaf(Object.class, options));
             }
         }
 
         // 2.) attach any interfaces and superclasses, recursively,
         //     as child ClassType's.
-        parseInterfaces(clazz, parent, options);
-        parseSuperClass(clazz, parent, options);
+        parseInterfaces(clazz, children, loader, options);
+        parseSuperClass(clazz, children, loader, options);
+    }
 
-        return parent;
+    /**
+     * Get the Class straight from the passed Type. Truly generic Type's
+     * (e.g. type variables, wildcards and generic arrays), as well as arrays,
+     * primitives and classes of the default package, have no single Class we
+     * could represent and so resolve to 'java.lang.Object'. Any other
+     * implementation of Type falls back to being resolved by name.
+     * 
+     * @param type Type to get Class from.
+     * @param loader ClassLoader of the root Class being parsed.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     * @return Class of Type.
+     */
+    private static Class classFromType(final Type type, final ClassLoader loader, final ParseOptions options) {
+        if (type instanceof Class) {
+            final Class typeClass = (Class) type;
+            return (typeClass.isArray()
+                    || typeClass.isPrimitive()
+                    || typeClass.getName().indexOf(PERIOD_CHAR) == -1)
+                    ? Object.class
+                    : typeClass;
+        } else if (type instanceof ParameterizedType) {
+            return (Class) ((ParameterizedType) type).getRawType();
+        } else if (type instanceof TypeVariable
+                || type instanceof WildcardType
+                || type instanceof GenericArrayType) {
+            return Object.class;
+        } else {
+            return classFromTypeName(type.getTypeName(), loader, options);
+        }
     }
 
     /**
-     * Parse a Class object from the passed type name. If the passed
-     * String is truly generic then we'll return an instance of
-     * 'java.lang.Object' otherwise we'll load a class from its value.
+     * Resolve a Class from the passed type name, by way of the requested
+     * ClassResolver, against the ClassLoader of the root Class being parsed.
+     * Said ClassLoader, unlike that of the generic type the name was found
+     * on (e.g. the bootstrap ClassLoader of `java.util.function.Function`),
+     * can see every class the hierarchy refers to. If the passed String is
+     * truly generic then we'll return an instance of 'java.lang.Object'.
      * 
      * @param typeName String generally gotten from Type.getTypeName().
+     * @param loader ClassLoader of the root Class being parsed.
+     * @param options non-null ParseOptions the user may have optionally requested.
      * @return Class parsed from type name.
      */
-    private static Class parseClassFromTypeName(final String typeName) {
+    private static Class classFromTypeName(final String typeName, final ClassLoader loader, final ParseOptions options) {
 
         // the idea here is that if the passed String is a reserved java name
         // or it does NOT contain a package declaration (i.e. no periods) then
@@ -177,37 +484,56 @@ public class ClassType implements Comparable<ClassType> {
             return (!SourceVersion.isName(typeName)
                     || typeName.indexOf(PERIOD_CHAR) == -1)
                     ? Object.class
-                    : Class.forName(typeName);
+                    : options.classResolver.resolve(typeName, loader);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Create a childless ClassType which, when parsing lazily, is frozen
+     * as are all ClassType's of a lazily parsed tree.
+     * 
+     * @param clazz the Class the ClassType will represent.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     * @return instantiated ClassType.
+     */
+    private static ClassType leaf(final Class clazz, final ParseOptions options) {
+        ParseCounter.node();
+        return options.lazy
+                ? new ClassType(clazz, FrozenChildren.EMPTY.array, false)
+                : new ClassType(clazz);
+    }
+
     /**
      * Parse a ClassType from the passed Classes (e.g. `clazz`) super-class. If the passed
      * class has no super-class then this call amounts to a no-op. If applicable we will
      * optionally ignore super-classes should they match a given regex.
      *
      * @param clazz the Class from whose super-classes we will parse ClassType's from and insert as children.
-     * @param parent the parent ClassType we will insert potential child ClassType's into.
+     * @param children the list we will insert potential child ClassType's into.
+     * @param loader ClassLoader of the root Class being parsed.
      * @param options non-null ParseOptions the user may have optionally requested.
      */
     private static void parseSuperClass(final Class clazz,
-            final ClassType parent,
+            final List<ClassType> children,
+            final ClassLoader loader,
             final ParseOptions options) {
 
         final Class superClass = clazz.getSuperclass();
+        ParseCounter.reflectiveCall();
         if (superClass != null
                 && !(superClass == Object.class)
-                && (options.classRegex == null
-                || !superClass.getName().matches(options.classRegex))) {
+                && (options.classPattern == null
+                || !options.classPattern.matcher(superClass.getName()).matches())) {
 
             final Type superType = clazz.getGenericSuperclass();
+            ParseCounter.reflectiveCall();
             final ClassType child = (superType instanceof ParameterizedType)
-                    ? parseParameterizedType((ParameterizedType)superType, options)
-                    : parseClass(superClass, options);
+                    ? parseParameterizedType((ParameterizedType)superType, loader, options)
+                    : parseClass(superClass, loader, options);
 
-            parent.child(child);
+            children.add(child);
         }
     }
 
@@ -217,32 +543,35 @@ public class ClassType implements Comparable<ClassType> {
      * optionally ignore interfaces should they match a given regex.
      *
      * @param clazz the Class from whose interfaces we will parse ClassType's from and insert as children.
-     * @param parent the parent ClassType we will insert potential child ClassType's into.
+     * @param children the list we will insert potential child ClassType's into.
+     * @param loader ClassLoader of the root Class being parsed.
      * @param options non-null ParseOptions the user may have optionally requested.
      */
     private static void parseInterfaces(final Class clazz,
-            final ClassType parent,
+            final List<ClassType> children,
+            final ClassLoader loader,
             final ParseOptions options) {
 
         // we're iterating over all interfaces and checking whether or not
         // said Type is an toObject of ParamterizedType or just a normal Type
         // and adding them as child ClassType's as is appropriate.
         final Type[] childInterfaces = clazz.getGenericInterfaces();
+        ParseCounter.reflectiveCall();
         if (childInterfaces.length > 0) {
-            if (options.interfaceRegex != null) {
+            if (options.interfacePattern != null) {
                 for (final Type childInterface : childInterfaces) {
                     if (childInterface instanceof ParameterizedType) {
                         final ParameterizedType childType = (ParameterizedType) childInterface;
                         final Class typeClass = (Class)childType.getRawType();
-                        if (!typeClass.getName().matches(options.interfaceRegex)) {
-                            final ClassType child = parseParameterizedType(childType, options);
-                            parent.child(child);
+                        if (!options.interfacePattern.matcher(typeClass.getName()).matches()) {
+                            final ClassType child = parseParameterizedType(childType, loader, options);
+                            children.add(child);
                         }
                     } else {
-                        final Class properTypeName = parseClassFromTypeName(childInterface.getTypeName());
-                        if (!properTypeName.getName().matches(options.interfaceRegex)) {
-                            final ClassType child = new ClassType(properTypeName);
-                            parent.child(child);
+                        final Class properTypeName = classFromType(childInterface, loader, options);
+                        if (!options.interfacePattern.matcher(properTypeName.getName()).matches()) {
+                            final ClassType child = leaf(properTypeName, options);
+                            children.add(child);
                         }
                     }
                 }
@@ -250,12 +579,12 @@ public class ClassType implements Comparable<ClassType> {
                 for (final Type childInterface : childInterfaces) {
                     if (childInterface instanceof ParameterizedType) {
                         final ParameterizedType childType = (ParameterizedType) childInterface;
-                        final ClassType child = parseParameterizedType(childType, options);
-                        parent.child(child);
+                        final ClassType child = parseParameterizedType(childType, loader, options);
+                        children.add(child);
                     } else {
-                        final Class properTypeName = parseClassFromTypeName(childInterface.getTypeName());
-                        final ClassType child = new ClassType(properTypeName);
-                        parent.child(child);
+                        final Class properTypeName = classFromType(childInterface, loader, options);
+                        final ClassType child = leaf(properTypeName, options);
+                        children.add(child);
                     }
                 }
             }
@@ -269,31 +598,57 @@ public class ClassType implements Comparable<ClassType> {
      * match a given regex.
      *
      * @param type the ParameterizedType to parse a ClassType from.
+     * @param loader ClassLoader of the root Class being parsed.
      * @param options non-null ParseOptions the user may have optionally requested.
      * @return instantiated ClassType.
      */
     private static ClassType parseParameterizedType(final ParameterizedType type,
+            final ClassLoader loader,
             final ParseOptions options) {
 
-        final ParameterizedType pType = (ParameterizedType)type;
-        final Class clazz = (Class)pType.getRawType();
+        final Class clazz = (Class)type.getRawType();
+        ParseCounter.node();
+        if (options.lazy) {
+            return new ClassType(clazz, new LazyChildren(clazz, type, loader, options));
+        }
+
         final ClassType parent = new ClassType(clazz);
-        final Type[] childTypes = pType.getActualTypeArguments();
+        parseParameterizedTypeChildren(type, parent.children, loader, options);
+        return parent;
+    }
+
+    /**
+     * Parse the child ClassType's of a given ParameterizedType. If applicable
+     * we will optionally ignore param/arg Type's should they match a given regex.
+     *
+     * @param type the ParameterizedType to parse child ClassType's from.
+     * @param children the list we will insert potential child ClassType's into.
+     * @param loader ClassLoader of the root Class being parsed.
+     * @param options non-null ParseOptions the user may have optionally requested.
+     */
+    private static void parseParameterizedTypeChildren(final ParameterizedType type,
+            final List<ClassType> children,
+            final ClassLoader loader,
+            final ParseOptions options) {
+
+        final Class clazz = (Class)type.getRawType();
+        final Type[] childTypes = type.getActualTypeArguments();
+        ParseCounter.reflectiveCall();
         if (childTypes.length > 0) {
-            if (options.interfaceParamRegex != null) {
+            if (options.interfaceParamPattern != null) {
                 for (final Type childArg : childTypes) {
                     if (childArg instanceof ParameterizedType) {
                         final ParameterizedType childType = (ParameterizedType)childArg;
                         final Class typeClass = (Class)childType.getRawType();
-                        if (!typeClass.getName().matches(options.interfaceParamRegex)) {
-                            final ClassType child = parseParameterizedType(childType, options);
-                            parent.child(child);
+                        if (!options.interfaceParamPattern.matcher(typeClass.getName()).matches()) {
+                            final ClassType child = parseParameterizedType(childType, loader, options);
+                            children.add(child);
                         }
                     } else {
-                        final Class properTypeName = parseClassFromTypeName(childArg.getTypeName());
-                        if (!properTypeName.getName().matches(options.interfaceParamRegex)) {
-                            final ClassType child = new ClassType(properTypeName);
-                            parent.child(child);
+                        final Class properTypeName = classFromType(childArg, loader, options);
+                        if (!options.interfaceParamPattern.matcher(properTypeName.getName()).matches()) {
+                            final ClassType child = leaf(properTypeName, options);
+                            children.add(child);
                         }
                     }
                 }
@@ -301,21 +656,19 @@ public class ClassType implements Comparable<ClassType> {
                 for (final Type childArg : childTypes) {
                     if (childArg instanceof ParameterizedType) {
                         final ParameterizedType childType = (ParameterizedType)childArg;
-                        final ClassType child = parseParameterizedType(childType, options);
-                        parent.child(child);
+                        final ClassType child = parseParameterizedType(childType, loader, options);
+                        children.add(child);
                     } else {
-                        final Class properTypeName = parseClassFromTypeName(childArg.getTypeName());
-                        final ClassType child = new ClassType(properTypeName);
-                        parent.child(child);
+                        final Class properTypeName = classFromType(childArg, loader, options);
+                        final ClassType child = leaf(properTypeName, options);
+                        children.add(child);
                     }
                 }
             }
         }
 
-        parseInterfaces(clazz, parent, options);
-        parseSuperClass(clazz, parent, options);
-
-        return parent;
+        parseInterfaces(clazz, children, loader, options);
+        parseSuperClass(clazz, children, loader, options);
     }
 
     /**
@@ -341,12 +694,94 @@ public class ClassType implements Comparable<ClassType> {
      * 
      * @param classType the non-null child ClassType
      * @return this ClassType
+     * @throws UnsupportedOperationException if this ClassType is frozen
      */
     public ClassType child(final ClassType classType) {
-        children.add(Objects.requireNonNull(classType, "Child ClassType cannot be NULL"));
+        Objects.requireNonNull(classType, "Child ClassType cannot be NULL");
+        if (frozen) {
+            throw new UnsupportedOperationException("Frozen ClassType '"
+                    + this.name() + "' cannot be modified");
+        }
+        children.add(classType);
         return this;
     }
 
+    /**
+     * Whether or not this ClassType, and by extension all of its children,
+     * is frozen and thus can no longer be modified.
+     * 
+     * @return true if frozen false otherwise.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Get a frozen version of this ClassType. If this ClassType is
+     * already frozen then this call amounts to a no-op.
+     * 
+     * @return frozen ClassType.
+     */
+    public ClassType freeze() {
+        if (frozen) {
+            return this;
+        }
+
+        final int size = children.size();
+        final ClassType[] frozenChildren = new ClassType[size];
+        for (int i = 0; i < size; i++) {
+            frozenChildren[i] = children.get(i).freeze();
+        }
+        return new ClassType(clazz, frozenChildren, false);
+    }
+
+    /**
+     * Get the canonical version of this ClassType. Structurally equal ClassType's
+     * (i.e. same Class and structurally equal children) intern to the very same
+     * frozen instance and thus so do all of their structurally equal sub-trees.
+     * Canonical instances are only weakly held and are released once no longer
+     * referenced elsewhere.
+     * 
+     * @return canonical, and frozen, ClassType.
+     */
+    public ClassType intern() {
+        if (interned) {
+            return this;
+        }
+
+        final int size = children.size();
+        final ClassType[] canonicalChildren = new ClassType[size];
+        for (int i = 0; i < size; i++) {
+            canonicalChildren[i] = children.get(i).intern();
+        }
+        return ClassTypeInterner.intern(new ClassType(clazz, canonicalChildren, true));
+    }
+
+    /**
+     * Whether or not this ClassType is the canonical instance
+     * gotten from `intern()`.
+     * 
+     * @return true if interned false otherwise.
+     */
+    public boolean isInterned() {
+        return interned;
+    }
+
+    /**
+     * Get a Builder pre-populated with this ClassType's children. The
+     * children of a frozen ClassType are shared with the Builder until
+     * the Builder is first modified.
+     * 
+     * @return new Builder.
+     */
+    public Builder toBuilder() {
+        final ClassType frozenType = freeze();
+        final ClassType[] frozenChildren = (frozenType.children instanceof FrozenChildren)
+                ? ((FrozenChildren) frozenType.children).array
+                : ((LazyChildren) frozenType.children).resolve();
+        return new Builder(clazz, frozenChildren, frozenChildren.length);
+    }
+
     /**
      * Find first ClassType matching the passed regex.
      * 
@@ -354,23 +789,31 @@ public class ClassType implements Comparable<ClassType> {
      * @return found ClassType or null if regex is null or none found.
      */
     public ClassType firstTypeMatching(final String regex) {
-        return (regex != null) ? _firstTypeMatching(regex, this) : null;
+        final MetricsRecorder recorder = Metrics.recorder();
+        if (recorder == MetricsRecorder.NOOP) {
+            return (regex != null) ? _firstTypeMatching(Pattern.compile(regex), this) : null;
+        }
+
+        final long start = System.nanoTime();
+        final ClassType found = (regex != null) ? _firstTypeMatching(Pattern.compile(regex), this) : null;
+        recorder.recordFirstTypeMatching(System.nanoTime() - start, found != null);
+        return found;
     }
 
     /**
      * Inner helper method used for recursively iterating through all potential
      * types to find a match.
      * 
-     * @param regex the regular expression used to match.
+     * @param pattern the Pattern used to match.
      * @param classType ClassType to check it, and its children, for match.
-     * @return found ClassType or null if regex is null or none found.
+     * @return found ClassType or null if none found.
      */
-    private ClassType _firstTypeMatching(final String regex, final ClassType classType) {
-        if (classType.name().matches(regex)) {
+    private ClassType _firstTypeMatching(final Pattern pattern, final ClassType classType) {
+        if (pattern.matcher(classType.name()).matches()) {
             return classType;
         } else {
-            for (int i = 0; i < classType.children().size(); i++) {
-                final ClassType innerClassType = _firstTypeMatching(regex, classType.children().get(i));
+            for (int i = 0; i < classType.children.size(); i++) {
+                final ClassType innerClassType = _firstTypeMatching(pattern, classType.children.get(i));
                 if (innerClassType != null) {
                     return innerClassType;
                 }
@@ -380,12 +823,12 @@ public class ClassType implements Comparable<ClassType> {
     }
 
     /**
-     * Get the list of child ClassType's this ClassType has.
+     * Get the read-only list of child ClassType's this ClassType has.
      * 
      * @return list of ClassType's or empty list if no ClassType's defined.
      */
     public List<ClassType> children() {
-        return children;
+        return frozen ? children : Collections.unmodifiableList(children);
     }
 
     /**
@@ -404,12 +847,26 @@ public class ClassType implements Comparable<ClassType> {
      * @throws TypeMismatchException if target is null or any 2 types cannot be compared
      */
     public int compare(final ClassType target) {
-        if (target != null) {
-            return compareTypes(this, target);
-        } else {
-            throw new TypeMismatchException("Source type '" + this.name()
-                    + "' cannot be comapred to NULL target type", this.name());
+        final int code = compareMeasured(target, true);
+        if (code == CompareResult.MISMATCH) {
+            throw CompareResult.mismatch(this, target).toException();
         }
+        return code;
+    }
+
+    /**
+     * Compare this ClassType to another ClassType without throwing on mismatches.
+     * Matches return a shared, and thus allocation free, CompareResult while
+     * mismatches only locate, and describe, the offending nodes once asked to.
+     * 
+     * @param target ClassType to compare this ClassType to (can be null).
+     * @return CompareResult describing the comparison.
+     */
+    public CompareResult compareWith(final ClassType target) {
+        final int code = compareMeasured(target, false);
+        return (code != CompareResult.MISMATCH)
+                ? CompareResult.of(code)
+                : CompareResult.mismatch(this, target);
     }
 
     /**
@@ -428,123 +885,169 @@ public class ClassType implements Comparable<ClassType> {
      */
     @Override
     public int compareTo(final ClassType target) {
-        try {
-            return compare(target);
-        } catch (TypeMismatchException e) {
-            return -1;
+        return compareMeasured(target, false);
+    }
+
+    /**
+     * Compare this ClassType to a potentially null target recording the
+     * comparison should a MetricsRecorder be installed.
+     * 
+     * @param target ClassType to compare this ClassType to (can be null).
+     * @param throwing whether the caller throws on mismatches.
+     * @return value representing comparison.
+     */
+    private int compareMeasured(final ClassType target, final boolean throwing) {
+        final MetricsRecorder recorder = Metrics.recorder();
+        if (recorder == MetricsRecorder.NOOP) {
+            return (target != null) ? compareTypes(this, target) : CompareResult.MISMATCH;
         }
+
+        final Object token = recorder.startCompare();
+        final long start = System.nanoTime();
+        final int code = (target != null) ? compareTypes(this, target) : CompareResult.MISMATCH;
+        recorder.recordCompare(token, this, target, System.nanoTime() - start, code,
+                throwing && code == CompareResult.MISMATCH);
+        return code;
     }
 
     /**
-     * Helper method to compare 2 ClassType's against each other. Throws
-     * RuntimeException if 2 types are not equal and can't be massaged into
-     * one or the other (i.e. java.lang.Integer into java.lang.Object).
+     * Helper method to compare 2 ClassType's against each other. Returns
+     * -1 if 2 types are not equal and can't be massaged into one or the
+     * other (i.e. java.lang.Integer into java.lang.Object). The details
+     * of any mismatch are left to CompareResult to figure out.
      * 
      * @param source ClassType to act as source.
      * @param target ClassType to act as target to compare against.
      * @return value representing comparison.
      */
-    private int compareTypes(final ClassType source, final ClassType target) {
+    private static int compareTypes(final ClassType source, final ClassType target) {
         if (source.clazz() == target.clazz()) {
 
             // All generic types get converted to 'java.lang.Object' thus if
             // we encounter one, or in this case 2 because of the match, then
             // return 3 as don't really know what exactly these Objects are.
             if (source.clazz() == Object.class) {
-                return 3;
+                return CompareResult.BOTH_UNKNOWN;
             }
 
-            final int sourceSize = source.children().size();
-            final int targetSize = target.children().size();
-            if (sourceSize == targetSize) {
-                int counter = 0;
-                for (int i = 0; i < sourceSize; i++) {
-                    final int localCount = compareTypes(source.children().get(i), target.children().get(i));
-                    switch (localCount) {
-                    case 0:
-                        break;
-                    case 1:
-                        if (counter == 0 || counter == 2) {
-                            counter ++;
-                        }
-                        break;
-                    case 2:
-                        if (counter < 2) {
-                            counter += 2;
-                        }
-                        break;
-                    case 3:
-                        counter = 3;
-                        break;
-                    default:
-                        break;
-                    }
-                }
-                return counter;
-            } else {
-
-                final StringBuilder subTypesMessage = new StringBuilder("Source type '")
-                        .append(source.name())
-                        .append("' has ")
-                        .append(sourceSize)
-                        .append(" subTypes ");
-                if (sourceSize > 0) {
-                    subTypesMessage.append('(');
-                    for (int index = 0; index < sourceSize; index++) {
-                        subTypesMessage.append(source.children().get(index).name());
-                        if (index != sourceSize - 1) {
-                            subTypesMessage.append(", ");
-                        }
-                    }
-                    subTypesMessage.append(") while '");
-                }
+            final int sourceSize = source.children.size();
+            if (sourceSize != target.children.size()) {
+                return CompareResult.MISMATCH;
+            }
 
-                subTypesMessage.append(target.name())
-                        .append("' has ")
-                        .append(targetSize)
-                        .append(" subTypes");
-                if (targetSize > 0) {
-                    subTypesMessage.append(" (");
-                    for (int index = 0; index < targetSize; index++) {
-                        subTypesMessage.append(target.children().get(index).name());
-                        if (index != targetSize - 1) {
-                            subTypesMessage.append(", ");
-                        }
-                    }
-                    subTypesMessage.append(')');
+            // 1 (source unknown) and 2 (target unknown) combine into 3 (both
+            // unknown) which is exactly what OR'ing the child results does.
+            int counter = CompareResult.MATCH;
+            for (int i = 0; i < sourceSize; i++) {
+                final int localCount = compareTypes(source.children.get(i), target.children.get(i));
+                if (localCount == CompareResult.MISMATCH) {
+                    return CompareResult.MISMATCH;
                 }
-
-                throw new TypeMismatchException(subTypesMessage.toString(),
-                        source.name(), target.name());
+                counter |= localCount;
             }
+            return counter;
+        } else if (source.clazz() == Object.class) {
+            return CompareResult.SOURCE_UNKNOWN;
+        } else if (target.clazz() == Object.class) {
+            return CompareResult.TARGET_UNKNOWN;
         } else {
-            if (source.clazz() == Object.class) {
-                return 1;
-            } else if (target.clazz() == Object.class) {
-                return 2;
-            } else {
-                throw new TypeMismatchException("Source type '"
-                    + source.name() + "' does not match target type '"
-                    + target.name() + "'", source.name(), target.name());
-            }
+            return CompareResult.MISMATCH;
         }
     }
 
-    @SuppressFBWarnings(value = "EQ_UNUSUAL", justification = "I know what I'm doing")
+    /**
+     * Structural equality: 2 ClassType's are equal if they share the very same
+     * Class and their children are pairwise equal. Unlike `compareTo` unknown
+     * types (i.e. java.lang.Object) are only ever equal to one another.
+     * 
+     * @param classType Object to compare against.
+     * @return true if structurally equal false otherwise.
+     */
     @Override
     public boolean equals(final Object classType) {
-        if (classType instanceof ClassType) {
-            return (this.compareTo((ClassType)classType) == 0);
-        } else {
+        return this == classType
+                || (classType instanceof ClassType && structurallyEqual(this, (ClassType) classType));
+    }
+
+    private static boolean structurallyEqual(final ClassType first, final ClassType second) {
+        if (first == second) {
+            return true;
+        } else if (first.clazz != second.clazz) {
+            return false;
+        } else if (first.interned && second.interned) {
+
+            // 2 distinct canonical instances can never be structurally equal
             return false;
+        } else if (first.frozen && second.frozen && first.hashCode() != second.hashCode()) {
+            return false;
+        }
+
+        final List<ClassType> firstChildren = first.children;
+        final List<ClassType> secondChildren = second.children;
+        final int size = firstChildren.size();
+        if (size != secondChildren.size()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!structurallyEqual(firstChildren.get(i), secondChildren.get(i))) {
+                return false;
+            }
         }
+        return true;
     }
 
+    /**
+     * Hash over this ClassType's Class and, recursively, those of its children.
+     * Frozen ClassType's compute their hash only once. The hash is always positive.
+     * 
+     * @return positive hash of this ClassType.
+     */
     @Override
     public int hashCode() {
-        int hash = 7;
-        hash = 89 * hash + Objects.hashCode(this.children);
-        return hash;
+        int localHash = hash;
+        if (localHash == 0) {
+            localHash = System.identityHashCode(clazz);
+            final int size = children.size();
+            for (int i = 0; i < size; i++) {
+                localHash = 31 * localHash + children.get(i).hashCode();
+            }
+            localHash &= Integer.MAX_VALUE;
+            if (localHash == 0) {
+                localHash = 1;
+            }
+            if (frozen) {
+                hash = localHash;
+            }
+        }
+        return localHash;
+    }
+
+    /**
+     * Write the String form of this ClassType (i.e. `toString`) into the passed
+     * Appendable (e.g. Writer, CharBuffer, etc.) without creating an intermediate
+     * String. Frozen sub-trees whose String form has already been rendered are
+     * written as is.
+     * 
+     * @param appendable non-null Appendable to write into.
+     * @throws IOException if the Appendable fails to be written to.
+     */
+    public void writeTo(final Appendable appendable) throws IOException {
+        Objects.requireNonNull(appendable, "appendable cannot be NULL");
+        if (appendable instanceof StringBuilder) {
+            print(this, (StringBuilder) appendable);
+        } else {
+            print(this, appendable);
+        }
+    }
+
+    /**
+     * Write the String form of this ClassType (i.e. `toString`) into the
+     * passed StringBuilder without creating an intermediate String.
+     * 
+     * @param builder non-null StringBuilder to write into.
+     */
+    public void writeTo(final StringBuilder builder) {
+        print(this, Objects.requireNonNull(builder, "builder cannot be NULL"));
     }
 
     /**
@@ -555,12 +1058,18 @@ public class ClassType implements Comparable<ClassType> {
      * @param builder StringBuilder to write ClassType data into
      */
     private static void print(final ClassType classType, final StringBuilder builder) {
+        final String cached = classType.rendered;
+        if (cached != null) {
+            builder.append(cached);
+            return;
+        }
+
         builder.append(classType.name());
-        if (classType.children().size() > 0) {
+        if (classType.children.size() > 0) {
             builder.append(Constants.GREATER_THAN);
-            final int size = classType.children().size();
+            final int size = classType.children.size();
             for (int i = 0; i < size; i++) {
-                print(classType.children().get(i), builder);
+                print(classType.children.get(i), builder);
                 if (size > 0 && i != (size - 1)) {
                     builder.append(Constants.COMMA_SPACE);
                 }
@@ -569,10 +1078,293 @@ public class ClassType implements Comparable<ClassType> {
         }
     }
 
+    /**
+     * Helper method to recursively print this ClassType, and all
+     * potential children, into an arbitrary Appendable.
+     * 
+     * @param classType ClassType to print
+     * @param appendable Appendable to write ClassType data into
+     * @throws IOException if the Appendable fails to be written to.
+     */
+    private static void print(final ClassType classType, final Appendable appendable) throws IOException {
+        final String cached = classType.rendered;
+        if (cached != null) {
+            appendable.append(cached);
+            return;
+        }
+
+        appendable.append(classType.name());
+        final int size = classType.children.size();
+        if (size > 0) {
+            appendable.append(Constants.GREATER_THAN);
+            for (int i = 0; i < size; i++) {
+                if (i != 0) {
+                    appendable.append(Constants.COMMA_SPACE);
+                }
+                print(classType.children.get(i), appendable);
+            }
+            appendable.append(Constants.LESS_THAN);
+        }
+    }
+
+    /**
+     * Get the String form of this ClassType (e.g. `java.lang.Comparable&lt;java.lang.String&gt;`).
+     * Frozen ClassType's render it only once.
+     * 
+     * @return String form of this ClassType.
+     */
     @Override
     public String toString() {
-        final StringBuilder builder = new StringBuilder();
-        print(this, builder);
-        return builder.toString();
+        String localRendered = rendered;
+        if (localRendered == null) {
+            final StringBuilder builder = new StringBuilder();
+            print(this, builder);
+            localRendered = builder.toString();
+            if (frozen) {
+                rendered = localRendered;
+            }
+        }
+        return localRendered;
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+    private void readObject(final ObjectInputStream stream) throws InvalidObjectException {
+        throw new InvalidObjectException("ClassType can only be deserialized from its SerializedForm");
+    }
+
+    /**
+     * Read-only, array-backed, list of children used by frozen ClassType's.
+     */
+    private static final class FrozenChildren extends AbstractList<ClassType> implements RandomAccess {
+
+        private static final FrozenChildren EMPTY = new FrozenChildren(new ClassType[0]);
+
+        private final ClassType[] array;
+
+        private FrozenChildren(final ClassType[] array) {
+            this.array = array;
+        }
+
+        @Override
+        public ClassType get(final int index) {
+            return array[index];
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+    }
+
+    /**
+     * Builder for constructing frozen ClassType's. The backing array of
+     * children is copied on first write such that creating a Builder from
+     * an existing frozen ClassType, and building it back unchanged, is cheap.
+     */
+    public static final class Builder {
+
+        private final Class clazz;
+        private ClassType[] children;
+        private int size;
+        private boolean shared;
+
+        private Builder(final Class clazz, final ClassType[] children, final int size) {
+            this.clazz = clazz;
+            this.children = children;
+            this.size = size;
+            this.shared = true;
+        }
+
+        /**
+         * Append a child ClassType. The child is frozen if not already so.
+         * 
+         * @param classType the non-null child ClassType.
+         * @return this Builder.
+         */
+        public Builder child(final ClassType classType) {
+            Objects.requireNonNull(classType, "Child ClassType cannot be NULL");
+            ensureWritable(size + 1);
+            children[size++] = classType.freeze();
+            return this;
+        }
+
+        /**
+         * Replace the child ClassType found at the passed index. The
+         * child is frozen if not already so.
+         * 
+         * @param index index of the child to replace.
+         * @param classType the non-null child ClassType.
+         * @return this Builder.
+         */
+        public Builder replace(final int index, final ClassType classType) {
+            Objects.requireNonNull(classType, "Child ClassType cannot be NULL");
+            checkIndex(index);
+            ensureWritable(size);
+            children[index] = classType.freeze();
+            return this;
+        }
+
+        /**
+         * Remove the child ClassType found at the passed index.
+         * 
+         * @param index index of the child to remove.
+         * @return this Builder.
+         */
+        public Builder remove(final int index) {
+            checkIndex(index);
+            ensureWritable(size);
+            System.arraycopy(children, index + 1, children, index, size - index - 1);
+            children[--size] = null;
+            return this;
+        }
+
+        /**
+         * Build a frozen ClassType from the current state of this Builder.
+         * 
+         * @return frozen ClassType.
+         */
+        public ClassType build() {
+            if (size != children.length) {
+                children = Arrays.copyOf(children, size);
+            }
+            shared = true;
+            return new ClassType(clazz, children, false);
+        }
+
+        private void checkIndex(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+
+        private void ensureWritable(final int capacity) {
+            if (shared || capacity > children.length) {
+                children = Arrays.copyOf(children, Math.max(capacity, children.length * 2));
+                shared = false;
+            }
+        }
+    }
+
+    /**
+     * Read-only list of children, used by lazily parsed ClassType's, which
+     * resolves said children from their reflective Type on first access.
+     * Resolution happens at most once no matter how many threads race for it.
+     */
+    private static final class LazyChildren extends AbstractList<ClassType> implements RandomAccess {
+
+        private Class clazz;
+        private ParameterizedType type;
+        private ClassLoader loader;
+        private ParseOptions options;
+        private volatile ClassType[] resolved;
+
+        private LazyChildren(final Class clazz,
+                final ParameterizedType type,
+                final ClassLoader loader,
+                final ParseOptions options) {
+            this.clazz = clazz;
+            this.type = type;
+            this.loader = loader;
+            this.options = options;
+        }
+
+        @Override
+        public ClassType get(final int index) {
+            return resolve()[index];
+        }
+
+        @Override
+        public int size() {
+            return resolve().length;
+        }
+
+        private ClassType[] resolve() {
+            ClassType[] found = resolved;
+            if (found == null) {
+                synchronized (this) {
+                    found = resolved;
+                    if (found == null) {
+                        final List<ClassType> children = new ArrayList<>();
+                        if (type != null) {
+                            parseParameterizedTypeChildren(type, children, loader, options);
+                        } else {
+                            parseClassChildren(clazz, children, loader, options);
+                        }
+                        found = children.isEmpty()
+                                ? FrozenChildren.EMPTY.array
+                                : children.toArray(new ClassType[children.size()]);
+                        resolved = found;
+
+                        // no longer needed so let the reflective bits go
+                        clazz = null;
+                        type = null;
+                        loader = null;
+                        options = null;
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Serialized form of a ClassType: its classes, in preorder, along with
+     * the number of children each has. Deserializing rebuilds the tree
+     * bottom-up straight into its canonical, interned, instance.
+     */
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Class[] classes;
+        private final int[] childCounts;
+
+        SerializedForm(final ClassType classType) {
+            final List<ClassType> nodes = new ArrayList<>();
+            flatten(classType, nodes);
+            this.classes = new Class[nodes.size()];
+            this.childCounts = new int[nodes.size()];
+            for (int i = 0; i < classes.length; i++) {
+                classes[i] = nodes.get(i).clazz;
+                childCounts[i] = nodes.get(i).children.size();
+            }
+        }
+
+        private static void flatten(final ClassType classType, final List<ClassType> nodes) {
+            nodes.add(classType);
+            final int size = classType.children.size();
+            for (int i = 0; i < size; i++) {
+                flatten(classType.children.get(i), nodes);
+            }
+        }
+
+        private Object readResolve() throws InvalidObjectException {
+            if (classes == null || childCounts == null || classes.length == 0 || classes.length != childCounts.length) {
+                throw new InvalidObjectException("Malformed ClassType: classes and childCounts do not line up");
+            }
+
+            // walking the preorder nodes in reverse leaves the children
+            // of any given node sitting, in order, atop the stack.
+            final ClassType[] stack = new ClassType[classes.length];
+            int top = 0;
+            for (int i = classes.length - 1; i >= 0; i--) {
+                final int childCount = childCounts[i];
+                if (classes[i] == null || childCount < 0 || childCount > top) {
+                    throw new InvalidObjectException("Malformed ClassType: node " + i + " is invalid");
+                }
+                final ClassType[] canonicalChildren = new ClassType[childCount];
+                for (int j = 0; j < childCount; j++) {
+                    canonicalChildren[j] = stack[--top];
+                }
+                stack[top++] = ClassTypeInterner.intern(new ClassType(classes[i], canonicalChildren, true));
+            }
+            if (top != 1) {
+                throw new InvalidObjectException("Malformed ClassType: found " + top + " roots");
+            }
+            return stack[0];
+        }
     }
 }
@@ -0,0 +1,424 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import com.aries.classtype.parser.utils.Constants;
+import com.aries.classtype.parser.utils.IntIntMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * A compact, read-only, struct-of-arrays representation of many ClassType trees.
+ * 
+ * <p>
+ * Rather than holding an object, and a list of children, per node a forest
+ * holds a single table of the distinct classes found across all of its trees
+ * and, per node, an int index into said table along with the offset and count
+ * of its children. The children of any given node are laid out contiguously
+ * which makes the n'th child of a node simply `childOffset(node) + n`.
+ * </p>
+ * 
+ * <p>
+ * Nodes are addressed by their int index and trees by the order in which they
+ * were added to the Builder. Traversal, comparison and printing all work directly
+ * on the backing arrays with the same semantics as their ClassType counterparts.
+ * </p>
+ *
+ * @author cdancy
+ */
+public final class ClassTypeForest {
+
+    private final Class[] classTable;
+    private final int[] classIds;
+    private final int[] childOffsets;
+    private final int[] childCounts;
+    private final int[] roots;
+
+    private ClassTypeForest(final Class[] classTable,
+            final int[] classIds,
+            final int[] childOffsets,
+            final int[] childCounts,
+            final int[] roots) {
+        this.classTable = classTable;
+        this.classIds = classIds;
+        this.childOffsets = childOffsets;
+        this.childCounts = childCounts;
+        this.roots = roots;
+    }
+
+    /**
+     * Get a new Builder to add ClassType trees to.
+     * 
+     * @return new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of trees held within this forest.
+     * 
+     * @return number of trees.
+     */
+    public int trees() {
+        return roots.length;
+    }
+
+    /**
+     * Get the total number of nodes held within this forest.
+     * 
+     * @return number of nodes.
+     */
+    public int nodes() {
+        return classIds.length;
+    }
+
+    /**
+     * Get the number of distinct classes held within this forest.
+     * 
+     * @return number of distinct classes.
+     */
+    public int classes() {
+        return classTable.length;
+    }
+
+    /**
+     * Get the root node of the tree at the passed index.
+     * 
+     * @param tree index of tree in the order it was added.
+     * @return root node index.
+     */
+    public int root(final int tree) {
+        return roots[tree];
+    }
+
+    /**
+     * Get the index, into this forests class table, of the passed node.
+     * 
+     * @param node node index.
+     * @return class id local to this forest.
+     */
+    public int classId(final int node) {
+        return classIds[node];
+    }
+
+    /**
+     * Get the Class of the passed node.
+     * 
+     * @param node node index.
+     * @return Class of node.
+     */
+    public Class clazz(final int node) {
+        return classTable[classIds[node]];
+    }
+
+    /**
+     * Get the name of the Class of the passed node.
+     * 
+     * @param node node index.
+     * @return name of Class of node.
+     */
+    public String name(final int node) {
+        return clazz(node).getName();
+    }
+
+    /**
+     * Get the number of children of the passed node.
+     * 
+     * @param node node index.
+     * @return number of children.
+     */
+    public int childCount(final int node) {
+        return childCounts[node];
+    }
+
+    /**
+     * Get the node index of the first child of the passed node. Only
+     * meaningful when the node has children.
+     * 
+     * @param node node index.
+     * @return node index of first child.
+     */
+    public int childOffset(final int node) {
+        return childOffsets[node];
+    }
+
+    /**
+     * Get the node index of the n'th child of the passed node.
+     * 
+     * @param node node index.
+     * @param index index of child.
+     * @return node index of child.
+     */
+    public int child(final int node, final int index) {
+        if (index < 0 || index >= childCounts[node]) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + childCounts[node]);
+        }
+        return childOffsets[node] + index;
+    }
+
+    /**
+     * Visit the passed node, and all of its descendants, in pre-order.
+     * 
+     * @param node node index to start from.
+     * @param visitor consumer of each visited node index.
+     */
+    public void forEach(final int node, final IntConsumer visitor) {
+        Objects.requireNonNull(visitor, "visitor cannot be NULL");
+        visit(node, visitor);
+    }
+
+    private void visit(final int node, final IntConsumer visitor) {
+        visitor.accept(node);
+        final int offset = childOffsets[node];
+        final int count = childCounts[node];
+        for (int i = 0; i < count; i++) {
+            visit(offset + i, visitor);
+        }
+    }
+
+    /**
+     * Compare 2 nodes of this forest with the same semantics as
+     * `ClassType.compareTo`.
+     * 
+     * @param source node index to act as source.
+     * @param target node index to act as target.
+     * @return value representing comparison.
+     */
+    public int compare(final int source, final int target) {
+        return compare(this, source, this, target);
+    }
+
+    /**
+     * Compare a node of this forest to a node of another forest with
+     * the same semantics as `ClassType.compareTo`.
+     * 
+     * @param source node index, within this forest, to act as source.
+     * @param targetForest forest holding the target node.
+     * @param target node index, within targetForest, to act as target.
+     * @return value representing comparison.
+     */
+    public int compare(final int source, final ClassTypeForest targetForest, final int target) {
+        Objects.requireNonNull(targetForest, "targetForest cannot be NULL");
+        return compare(this, source, targetForest, target);
+    }
+
+    private static int compare(final ClassTypeForest sourceForest,
+            final int source,
+            final ClassTypeForest targetForest,
+            final int target) {
+
+        final Class sourceClass = sourceForest.clazz(source);
+        final Class targetClass = targetForest.clazz(target);
+        if (sourceClass == targetClass) {
+            if (sourceClass == Object.class) {
+                return CompareResult.BOTH_UNKNOWN;
+            }
+
+            final int count = sourceForest.childCounts[source];
+            if (count != targetForest.childCounts[target]) {
+                return CompareResult.MISMATCH;
+            }
+
+            final int sourceOffset = sourceForest.childOffsets[source];
+            final int targetOffset = targetForest.childOffsets[target];
+            int code = CompareResult.MATCH;
+            for (int i = 0; i < count; i++) {
+                final int localCode = compare(sourceForest, sourceOffset + i, targetForest, targetOffset + i);
+                if (localCode == CompareResult.MISMATCH) {
+                    return CompareResult.MISMATCH;
+                }
+                code |= localCode;
+            }
+            return code;
+        } else if (sourceClass == Object.class) {
+            return CompareResult.SOURCE_UNKNOWN;
+        } else if (targetClass == Object.class) {
+            return CompareResult.TARGET_UNKNOWN;
+        } else {
+            return CompareResult.MISMATCH;
+        }
+    }
+
+    /**
+     * Print the passed node, and all of its descendants, in the same
+     * format as `ClassType.toString`.
+     * 
+     * @param node node index.
+     * @return String representation of node.
+     */
+    public String toString(final int node) {
+        final StringBuilder builder = new StringBuilder();
+        print(node, builder);
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassTypeForest{trees=" + roots.length
+                + ", nodes=" + classIds.length
+                + ", classes=" + classTable.length + "}";
+    }
+
+    private void print(final int node, final StringBuilder builder) {
+        builder.append(name(node));
+        final int count = childCounts[node];
+        if (count > 0) {
+            builder.append(Constants.GREATER_THAN);
+            final int offset = childOffsets[node];
+            for (int i = 0; i < count; i++) {
+                if (i != 0) {
+                    builder.append(Constants.COMMA_SPACE);
+                }
+                print(offset + i, builder);
+            }
+            builder.append(Constants.LESS_THAN);
+        }
+    }
+
+    /**
+     * Convert the passed node, and all of its descendants, back into
+     * a frozen ClassType.
+     * 
+     * @param node node index.
+     * @return frozen ClassType.
+     */
+    public ClassType toClassType(final int node) {
+        final ClassType.Builder builder = ClassType.builder(clazz(node));
+        final int offset = childOffsets[node];
+        final int count = childCounts[node];
+        for (int i = 0; i < count; i++) {
+            builder.child(toClassType(offset + i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder used to lay out ClassType trees into a ClassTypeForest.
+     */
+    public static final class Builder {
+
+        private static final int DEFAULT_CAPACITY = 16;
+
+        // global ClassIds id to index within this forests class table
+        private final IntIntMap classIndexes = new IntIntMap(-1);
+        private Class[] classTable = new Class[DEFAULT_CAPACITY];
+        private int[] classIds = new int[DEFAULT_CAPACITY];
+        private int[] childOffsets = new int[DEFAULT_CAPACITY];
+        private int[] childCounts = new int[DEFAULT_CAPACITY];
+        private int[] roots = new int[DEFAULT_CAPACITY];
+        private int nodeCount;
+        private int treeCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Add a ClassType tree to the forest. The tree will be addressable
+         * by the order in which it was added (e.g. the first tree added is 0).
+         * 
+         * @param classType non-null ClassType to add.
+         * @return this Builder.
+         */
+        public Builder add(final ClassType classType) {
+            Objects.requireNonNull(classType, "classType cannot be NULL");
+            if (treeCount == roots.length) {
+                roots = Arrays.copyOf(roots, treeCount * 2);
+            }
+            final int root = allocate(1);
+            roots[treeCount++] = root;
+            place(root, classType);
+            return this;
+        }
+
+        /**
+         * Add many ClassType trees to the forest in iteration order.
+         * 
+         * @param classTypes non-null ClassType's to add.
+         * @return this Builder.
+         */
+        public Builder addAll(final Iterable<ClassType> classTypes) {
+            Objects.requireNonNull(classTypes, "classTypes cannot be NULL");
+            for (final ClassType classType : classTypes) {
+                add(classType);
+            }
+            return this;
+        }
+
+        /**
+         * Build the ClassTypeForest.
+         * 
+         * @return new ClassTypeForest.
+         */
+        public ClassTypeForest build() {
+            return new ClassTypeForest(Arrays.copyOf(classTable, classIndexes.size()),
+                    Arrays.copyOf(classIds, nodeCount),
+                    Arrays.copyOf(childOffsets, nodeCount),
+                    Arrays.copyOf(childCounts, nodeCount),
+                    Arrays.copyOf(roots, treeCount));
+        }
+
+        /**
+         * Fill in the already allocated node with the passed ClassType and
+         * allocate, contiguously, a block for its children before recursing
+         * into each of them.
+         */
+        private void place(final int node, final ClassType classType) {
+            classIds[node] = classId(classType.clazz());
+            final List<ClassType> children = classType.children;
+            final int count = children.size();
+            final int offset = allocate(count);
+            childOffsets[node] = offset;
+            childCounts[node] = count;
+            for (int i = 0; i < count; i++) {
+                place(offset + i, children.get(i));
+            }
+        }
+
+        private int allocate(final int count) {
+            final int offset = nodeCount;
+            final int required = nodeCount + count;
+            if (required > classIds.length) {
+                final int capacity = Math.max(required, classIds.length * 2);
+                classIds = Arrays.copyOf(classIds, capacity);
+                childOffsets = Arrays.copyOf(childOffsets, capacity);
+                childCounts = Arrays.copyOf(childCounts, capacity);
+            }
+            nodeCount = required;
+            return offset;
+        }
+
+        private int classId(final Class clazz) {
+            final int globalId = ClassIds.id(clazz);
+            final int existing = classIndexes.get(globalId);
+            if (existing >= 0) {
+                return existing;
+            }
+
+            final int classId = classIndexes.size();
+            if (classId == classTable.length) {
+                classTable = Arrays.copyOf(classTable, classId * 2);
+            }
+            classTable[classId] = clazz;
+            classIndexes.put(globalId, classId);
+            return classId;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent, weakly referenced, table of canonical ClassType's. Entries are
+ * compared shallowly: 2 ClassType's are considered equal if they share the same
+ * Class and the very same (i.e. already canonical) children. Canonical ClassType's
+ * no longer referenced outside of this table are purged on subsequent calls.
+ *
+ * @author cdancy
+ */
+final class ClassTypeInterner {
+
+    private static final ConcurrentMap<Entry, Entry> TABLE = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ClassType> QUEUE = new ReferenceQueue<>();
+
+    private ClassTypeInterner() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+
+    /**
+     * Get the canonical ClassType structurally equal to the passed candidate
+     * making the candidate itself canonical should one not already exist.
+     * 
+     * @param candidate frozen ClassType whose children are all canonical.
+     * @return canonical ClassType.
+     */
+    static ClassType intern(final ClassType candidate) {
+        purge();
+
+        final Entry entry = new Entry(candidate, QUEUE);
+        while (true) {
+            final Entry existing = TABLE.putIfAbsent(entry, entry);
+            if (existing == null) {
+                return candidate;
+            }
+
+            final ClassType canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+
+            // lost a race with the garbage collector so evict and retry
+            TABLE.remove(existing, existing);
+        }
+    }
+
+    /**
+     * Get the number of canonical ClassType's currently held.
+     * 
+     * @return number of entries.
+     */
+    static int size() {
+        purge();
+        return TABLE.size();
+    }
+
+    private static void purge() {
+        Reference<? extends ClassType> cleared;
+        while ((cleared = QUEUE.poll()) != null) {
+            TABLE.remove(cleared, cleared);
+        }
+    }
+
+    /**
+     * Weak reference to a candidate, or canonical, ClassType which remembers
+     * its hash such that it can still be found, and removed, once cleared.
+     */
+    private static final class Entry extends WeakReference<ClassType> {
+
+        private final int hash;
+
+        private Entry(final ClassType classType, final ReferenceQueue<ClassType> queue) {
+            super(classType, queue);
+            this.hash = shallowHash(classType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            } else if (other instanceof Entry && ((Entry) other).hash == hash) {
+                final ClassType first = get();
+                final ClassType second = ((Entry) other).get();
+                return first != null && second != null && shallowEquals(first, second);
+            } else {
+                return false;
+            }
+        }
+
+        private static int shallowHash(final ClassType classType) {
+            int result = System.identityHashCode(classType.clazz());
+            final List<ClassType> children = classType.children;
+            for (int i = 0; i < children.size(); i++) {
+                result = 31 * result + System.identityHashCode(children.get(i));
+            }
+            return result;
+        }
+
+        private static boolean shallowEquals(final ClassType first, final ClassType second) {
+            if (first.clazz() != second.clazz()) {
+                return false;
+            }
+
+            final List<ClassType> firstChildren = first.children;
+            final List<ClassType> secondChildren = second.children;
+            final int size = firstChildren.size();
+            if (size != secondChildren.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (firstChildren.get(i) != secondChildren.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A ClassType compiled into a matcher for repeatedly comparing many source
+ * ClassType's against the very same target ClassType.
+ * 
+ * <p>
+ * The target is frozen, and then flattened, upon compilation into pre-order arrays
+ * of its classes, child counts and sub-tree sizes. Comparing a source then only walks the source
+ * tree while indexing into said arrays. The semantics, and codes returned, are
+ * exactly those of `source.compareTo(target)` while nothing is allocated unless
+ * a CompareResult describing a mismatch is explicitly requested.
+ * </p>
+ *
+ * @author cdancy
+ */
+public final class ClassTypeMatcher {
+
+    private final ClassType target;
+    private final Class[] classes;
+    private final int[] childCounts;
+    private final int[] subTreeSizes;
+
+    private ClassTypeMatcher(final ClassType target, final int size) {
+        this.target = target;
+        this.classes = new Class[size];
+        this.childCounts = new int[size];
+        this.subTreeSizes = new int[size];
+        flatten(target, 0);
+    }
+
+    /**
+     * Compile a ClassType into a ClassTypeMatcher. The target is frozen, such
+     * that later modifications of the passed ClassType are not seen, and lazily
+     * parsed ClassType's are fully resolved in the process.
+     * 
+     * @param target non-null ClassType source ClassType's will be compared against.
+     * @return new ClassTypeMatcher.
+     */
+    public static ClassTypeMatcher compile(final ClassType target) {
+        Objects.requireNonNull(target, "target cannot be NULL");
+        final ClassType frozenTarget = target.freeze();
+        return new ClassTypeMatcher(frozenTarget, count(frozenTarget));
+    }
+
+    /**
+     * Get the frozen ClassType this matcher was compiled from.
+     * 
+     * @return frozen target ClassType.
+     */
+    public ClassType target() {
+        return target;
+    }
+
+    /**
+     * Compare the passed source ClassType to the target of this matcher.
+     * 
+     * <p>
+     * -1 == source and target do not match
+     * 0 == source and target match
+     * 1 == source has unknown Type
+     * 2 == target has unknown Type
+     * 3 == source and target both have unknown Types
+     * </p>
+     * 
+     * @param source ClassType to compare against the target (can be null).
+     * @return value representing comparison.
+     */
+    public int compare(final ClassType source) {
+        return (source != null) ? match(source, 0) : CompareResult.MISMATCH;
+    }
+
+    /**
+     * Whether the passed source ClassType fully matches (i.e. code 0)
+     * the target of this matcher.
+     * 
+     * @param source ClassType to compare against the target (can be null).
+     * @return true if matching false otherwise.
+     */
+    public boolean matches(final ClassType source) {
+        return compare(source) == CompareResult.MATCH;
+    }
+
+    /**
+     * Compare the passed source ClassType to the target of this matcher
+     * returning a CompareResult which can describe any mismatch.
+     * 
+     * @param source non-null ClassType to compare against the target.
+     * @return CompareResult describing the comparison.
+     */
+    public CompareResult compareWith(final ClassType source) {
+        Objects.requireNonNull(source, "source cannot be NULL");
+        final int code = match(source, 0);
+        return (code != CompareResult.MISMATCH)
+                ? CompareResult.of(code)
+                : CompareResult.mismatch(source, target);
+    }
+
+    /**
+     * Compare a source ClassType against the flattened target node found
+     * at the passed index. The children of said target node directly follow
+     * it and each is followed by its own sub-tree.
+     * 
+     * @param source ClassType to act as source.
+     * @param index pre-order index of the target node to compare against.
+     * @return value representing comparison.
+     */
+    private int match(final ClassType source, final int index) {
+        final Class sourceClass = source.clazz();
+        final Class targetClass = classes[index];
+        if (sourceClass == targetClass) {
+            if (targetClass == Object.class) {
+                return CompareResult.BOTH_UNKNOWN;
+            }
+
+            final int count = childCounts[index];
+            final List<ClassType> children = source.children;
+            if (children.size() != count) {
+                return CompareResult.MISMATCH;
+            }
+
+            int code = CompareResult.MATCH;
+            int childIndex = index + 1;
+            for (int i = 0; i < count; i++) {
+                final int localCode = match(children.get(i), childIndex);
+                if (localCode == CompareResult.MISMATCH) {
+                    return CompareResult.MISMATCH;
+                }
+                code |= localCode;
+                childIndex += subTreeSizes[childIndex];
+            }
+            return code;
+        } else if (sourceClass == Object.class) {
+            return CompareResult.SOURCE_UNKNOWN;
+        } else if (targetClass == Object.class) {
+            return CompareResult.TARGET_UNKNOWN;
+        } else {
+            return CompareResult.MISMATCH;
+        }
+    }
+
+    private int flatten(final ClassType classType, final int index) {
+        final List<ClassType> children = classType.children;
+        final int count = children.size();
+        classes[index] = classType.clazz();
+        childCounts[index] = count;
+
+        int nextIndex = index + 1;
+        for (int i = 0; i < count; i++) {
+            nextIndex = flatten(children.get(i), nextIndex);
+        }
+        subTreeSizes[index] = nextIndex - index;
+        return nextIndex;
+    }
+
+    private static int count(final ClassType classType) {
+        final List<ClassType> children = classType.children;
+        int total = 1;
+        for (int i = 0; i < children.size(); i++) {
+            total += count(children.get(i));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import com.aries.classtype.parser.exceptions.TypeMismatchException;
+import java.util.List;
+
+/**
+ * The result of comparing 2 ClassType's (see `ClassType.compareWith`).
+ * 
+ * <p>
+ * -1 == source and target do not match
+ * 0 == source and target match
+ * 1 == source has unknown Type
+ * 2 == target has unknown Type
+ * 3 == source and target both have unknown Types
+ * </p>
+ * 
+ * <p>
+ * Results for codes 0 through 3 are shared constants. Mismatches remember only
+ * the 2 ClassType's that were compared: the offending nodes, the path to them,
+ * and the message describing them, are worked out the first time asked for.
+ * </p>
+ *
+ * @author cdancy
+ */
+public final class CompareResult {
+
+    public static final int MISMATCH = -1;
+    public static final int MATCH = 0;
+    public static final int SOURCE_UNKNOWN = 1;
+    public static final int TARGET_UNKNOWN = 2;
+    public static final int BOTH_UNKNOWN = 3;
+
+    private static final CompareResult[] RESULTS = {
+        new CompareResult(MATCH, null, null),
+        new CompareResult(SOURCE_UNKNOWN, null, null),
+        new CompareResult(TARGET_UNKNOWN, null, null),
+        new CompareResult(BOTH_UNKNOWN, null, null)
+    };
+
+    private static final int[] EMPTY_PATH = new int[0];
+
+    private final int code;
+    private final ClassType source;
+    private final ClassType target;
+    private volatile Location location;
+
+    private CompareResult(final int code, final ClassType source, final ClassType target) {
+        this.code = code;
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Get the shared CompareResult of a non-mismatching comparison.
+     * 
+     * @param code one of 0 through 3.
+     * @return shared CompareResult.
+     */
+    static CompareResult of(final int code) {
+        return RESULTS[code];
+    }
+
+    /**
+     * Create a CompareResult for 2 mismatching ClassType's.
+     * 
+     * @param source non-null root ClassType acting as source.
+     * @param target root ClassType acting as target (can be null).
+     * @return new CompareResult.
+     */
+    static CompareResult mismatch(final ClassType source, final ClassType target) {
+        return new CompareResult(MISMATCH, source, target);
+    }
+
+    /**
+     * Get the code of this comparison.
+     * 
+     * @return one of -1 through 3.
+     */
+    public int code() {
+        return code;
+    }
+
+    /**
+     * Whether source and target fully match (i.e. code 0).
+     * 
+     * @return true if matching false otherwise.
+     */
+    public boolean isMatch() {
+        return code == MATCH;
+    }
+
+    /**
+     * Whether source and target do not match (i.e. code -1).
+     * 
+     * @return true if mismatching false otherwise.
+     */
+    public boolean isMismatch() {
+        return code == MISMATCH;
+    }
+
+    /**
+     * Get the path, as child indexes from the compared roots, leading to
+     * the first pair of mismatching nodes.
+     * 
+     * @return path of child indexes or empty array if roots mismatch or no mismatch.
+     */
+    public int[] path() {
+        return code == MISMATCH ? location().path.clone() : EMPTY_PATH;
+    }
+
+    /**
+     * Get the source node of the first pair of mismatching nodes.
+     * 
+     * @return mismatching source ClassType or null if no mismatch.
+     */
+    public ClassType source() {
+        return code == MISMATCH ? location().source : null;
+    }
+
+    /**
+     * Get the target node of the first pair of mismatching nodes.
+     * 
+     * @return mismatching target ClassType or null if no mismatch or target was null.
+     */
+    public ClassType target() {
+        return code == MISMATCH ? location().target : null;
+    }
+
+    /**
+     * Whether the first pair of mismatching nodes share the same Class but
+     * differ in their number of children.
+     * 
+     * @return true if child counts mismatch false otherwise.
+     */
+    public boolean childCountMismatch() {
+        return code == MISMATCH && location().childCountMismatch;
+    }
+
+    /**
+     * Render the message describing the first pair of mismatching nodes.
+     * 
+     * @return message or null if no mismatch.
+     */
+    public String message() {
+        if (code != MISMATCH) {
+            return null;
+        }
+
+        final Location found = location();
+        if (found.target == null) {
+            return "Source type '" + found.source.name()
+                    + "' cannot be comapred to NULL target type";
+        } else if (found.childCountMismatch) {
+            final StringBuilder subTypesMessage = new StringBuilder("Source type '")
+                    .append(found.source.name())
+                    .append("' has ")
+                    .append(found.source.children.size())
+                    .append(" subTypes ");
+            if (!found.source.children.isEmpty()) {
+                subTypesMessage.append('(');
+                appendNames(found.source.children, subTypesMessage);
+                subTypesMessage.append(") while '");
+            }
+
+            subTypesMessage.append(found.target.name())
+                    .append("' has ")
+                    .append(found.target.children.size())
+                    .append(" subTypes");
+            if (!found.target.children.isEmpty()) {
+                subTypesMessage.append(" (");
+                appendNames(found.target.children, subTypesMessage);
+                subTypesMessage.append(')');
+            }
+            return subTypesMessage.toString();
+        } else {
+            return "Source type '" + found.source.name()
+                    + "' does not match target type '"
+                    + found.target.name() + "'";
+        }
+    }
+
+    /**
+     * Create the TypeMismatchException describing this mismatch.
+     * 
+     * @return new TypeMismatchException.
+     * @throws IllegalStateException if this result is not a mismatch.
+     */
+    public TypeMismatchException toException() {
+        if (code != MISMATCH) {
+            throw new IllegalStateException("Result with code " + code + " is not a mismatch");
+        }
+
+        final Location found = location();
+        return found.target != null
+                ? new TypeMismatchException(message(), found.source.name(), found.target.name())
+                : new TypeMismatchException(message(), found.source.name());
+    }
+
+    @Override
+    public String toString() {
+        return code == MISMATCH
+                ? "CompareResult{code=" + code + ", message=" + message() + "}"
+                : "CompareResult{code=" + code + "}";
+    }
+
+    private Location location() {
+        Location found = location;
+        if (found == null) {
+            found = (target != null) ? locate(source, target, 0) : null;
+            if (found == null) {
+                found = new Location(source, target, EMPTY_PATH, false);
+            }
+            location = found;
+        }
+        return found;
+    }
+
+    /**
+     * Walk source and target, exactly as `ClassType.compareTo` does, looking
+     * for the first pair of mismatching nodes. The path is filled in on the
+     * way back up.
+     * 
+     * @param source ClassType to act as source.
+     * @param target ClassType to act as target.
+     * @param depth depth of the passed nodes from the compared roots.
+     * @return Location of the first mismatch or null if none found.
+     */
+    private static Location locate(final ClassType source, final ClassType target, final int depth) {
+        if (source.clazz() == target.clazz()) {
+            if (source.clazz() == Object.class) {
+                return null;
+            }
+
+            final int size = source.children.size();
+            if (size != target.children.size()) {
+                return new Location(source, target, new int[depth], true);
+            }
+
+            for (int i = 0; i < size; i++) {
+                final Location found = locate(source.children.get(i), target.children.get(i), depth + 1);
+                if (found != null) {
+                    found.path[depth] = i;
+                    return found;
+                }
+            }
+            return null;
+        } else if (source.clazz() == Object.class || target.clazz() == Object.class) {
+            return null;
+        } else {
+            return new Location(source, target, new int[depth], false);
+        }
+    }
+
+    private static void appendNames(final List<ClassType> classTypes, final StringBuilder builder) {
+        final int size = classTypes.size();
+        for (int index = 0; index < size; index++) {
+            builder.append(classTypes.get(index).name());
+            if (index != size - 1) {
+                builder.append(", ");
+            }
+        }
+    }
+
+    /**
+     * The first pair of mismatching nodes and the path leading to them.
+     */
+    private static final class Location {
+
+        private final ClassType source;
+        private final ClassType target;
+        private final int[] path;
+        private final boolean childCountMismatch;
+
+        private Location(final ClassType source,
+                final ClassType target,
+                final int[] path,
+                final boolean childCountMismatch) {
+            this.source = source;
+            this.target = target;
+            this.path = path;
+            this.childCountMismatch = childCountMismatch;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import com.aries.classtype.parser.metrics.Metrics;
+import com.aries.classtype.parser.metrics.ParseOutcome;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Cache of previously parsed ClassType's keyed by their Class and the
+ * ParseOptions used to parse them.
+ * 
+ * <p>
+ * Entries are attached to the Class itself by way of a `ClassValue` and thus
+ * live and die with said Class: nothing held here will prevent a ClassLoader
+ * from being unloaded. The cache is disabled by default as the ClassType's
+ * handed out are frozen, and shared between all callers, whereas a plain
+ * `ClassType.parse` otherwise hands out a freshly built and mutable tree.
+ * </p>
+ * 
+ * <p>
+ * The number of cached entries can be bounded, and which classes are cached
+ * at all filtered, by enabling the cache with a `Policy`. Bounded caches evict
+ * by way of a second-chance (i.e. CLOCK) approximation of LRU: hits merely flag
+ * their entry as recently used while only misses take a lock to insert, and
+ * potentially evict, entries. The eviction index holds each Class weakly and
+ * forgets entries whose Class has been unloaded.
+ * </p>
+ *
+ * @author cdancy
+ */
+public final class ParseCache {
+
+    /**
+     * Admission filter ignoring synthetic classes (e.g. lambdas, dynamic proxies and the like)
+     * which tend to be one-off and would otherwise only crowd out useful entries.
+     */
+    public static final Predicate<Class> IGNORE_SYNTHETIC = clazz -> !clazz.isSynthetic()
+            && !Proxy.isProxyClass(clazz)
+            && clazz.getName().indexOf("$$") == -1;
+
+    private static final Object LOCK = new Object();
+    private static final ReferenceQueue<Class> QUEUE = new ReferenceQueue<>();
+
+    private static volatile boolean enabled = false;
+    private static volatile Policy policy = Policy.DEFAULT;
+    private static volatile ClassValue<ConcurrentMap<ParseOptions, Entry>> entries = newEntries();
+
+    // eviction index guarded by LOCK
+    private static ArrayDeque<Node> clock = new ArrayDeque<>();
+    private static long size;
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+    private static final LongAdder LOAD_TIME = new LongAdder();
+
+    private ParseCache() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+
+    /**
+     * Enable caching of parsed ClassType's using the current Policy.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Enable caching of parsed ClassType's using the passed Policy. Should
+     * the new Policy be more restrictive than the last then surplus entries
+     * are evicted immediately.
+     * 
+     * @param newPolicy non-null Policy to apply.
+     */
+    public static void enable(final Policy newPolicy) {
+        Objects.requireNonNull(newPolicy, "policy cannot be NULL");
+        synchronized (LOCK) {
+            policy = newPolicy;
+            evict(newPolicy.maximumSize);
+        }
+        enabled = true;
+    }
+
+    /**
+     * Disable caching of parsed ClassType's. Previously cached entries
+     * are kept, and will be served again, should the cache be re-enabled.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Whether or not caching of parsed ClassType's is currently enabled.
+     * 
+     * @return true if enabled false otherwise.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the Policy currently in effect.
+     * 
+     * @return current Policy.
+     */
+    public static Policy policy() {
+        return policy;
+    }
+
+    /**
+     * Drop all cached ClassType's and reset all statistics.
+     */
+    public static void clear() {
+        synchronized (LOCK) {
+            entries = newEntries();
+            clock = new ArrayDeque<>();
+            size = 0;
+            HITS.reset();
+            MISSES.reset();
+            EVICTIONS.reset();
+            LOAD_TIME.reset();
+        }
+    }
+
+    /**
+     * Get a snapshot of this caches statistics.
+     * 
+     * @return point in time Stats.
+     */
+    public static Stats stats() {
+        final long currentSize;
+        synchronized (LOCK) {
+            purge();
+            currentSize = size;
+        }
+        return new Stats(HITS.sum(), MISSES.sum(), EVICTIONS.sum(), LOAD_TIME.sum(), currentSize);
+    }
+
+    /**
+     * Get the cached ClassType for the passed Class and ParseOptions loading,
+     * and caching, it should one not already exist. If the cache is disabled,
+     * or the Class is not admitted by the current Policy, this call amounts
+     * to invoking the passed loader.
+     * 
+     * @param clazz the Class to get a ClassType for.
+     * @param options non-null ParseOptions used to parse the ClassType.
+     * @param loader function used to parse a ClassType on cache misses.
+     * @return cached, or freshly parsed, ClassType which is frozen if cached.
+     */
+    static ClassType get(final Class clazz,
+            final ParseOptions options,
+            final BiFunction<Class, ParseOptions, ClassType> loader) {
+
+        if (!enabled) {
+            return loader.apply(clazz, options);
+        }
+
+        final Policy currentPolicy = policy;
+        if (currentPolicy.admission != null && !currentPolicy.admission.test(clazz)) {
+            return loader.apply(clazz, options);
+        }
+
+        // we purposely don't use `computeIfAbsent` here so as not to hold
+        // the map lock while recursively walking the class hierarchy.
+        final ClassValue<ConcurrentMap<ParseOptions, Entry>> currentEntries = entries;
+        final ConcurrentMap<ParseOptions, Entry> classEntries = currentEntries.get(clazz);
+        final Entry found = classEntries.get(options);
+        if (found != null) {
+            found.node.touch();
+            HITS.increment();
+            Metrics.recorder().recordCacheHit();
+            ParseCounter.outcome(ParseOutcome.CACHED);
+            return found.classType;
+        }
+
+        MISSES.increment();
+        final long start = System.nanoTime();
+        final ClassType parsed = loader.apply(clazz, options).freeze();
+        final long loadTime = System.nanoTime() - start;
+        LOAD_TIME.add(loadTime);
+        Metrics.recorder().recordCacheMiss(loadTime);
+
+        final Entry entry = new Entry(parsed, new Node(clazz, options, QUEUE));
+        final Entry raced = classEntries.putIfAbsent(options, entry);
+        if (raced != null) {
+            return raced.classType;
+        }
+
+        synchronized (LOCK) {
+            if (entries == currentEntries) {
+                clock.addLast(entry.node);
+                size++;
+                evict(policy.maximumSize);
+            } else {
+
+                // cleared while we were loading so drop what we just put
+                classEntries.remove(options, entry);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Evict entries, sweeping the clock and giving recently used entries a
+     * second chance, until no more than the passed number of entries remain.
+     * Must be called while holding the lock.
+     */
+    private static void evict(final long maximumSize) {
+        purge();
+        while (size > maximumSize) {
+            final Node node = clock.pollFirst();
+            if (node.removed) {
+                continue;
+            } else if (node.referenced) {
+                node.referenced = false;
+                clock.addLast(node);
+                continue;
+            }
+
+            node.removed = true;
+            size--;
+            final Class clazz = node.get();
+            if (clazz != null) {
+                final ParseOptions options = node.options.get();
+                if (options != null) {
+                    final ConcurrentMap<ParseOptions, Entry> classEntries = entries.get(clazz);
+                    final Entry entry = classEntries.get(options);
+                    if (entry != null && entry.node == node) {
+                        classEntries.remove(options, entry);
+                    }
+                }
+                EVICTIONS.increment();
+                Metrics.recorder().recordCacheEviction();
+            }
+        }
+
+        // unloaded entries linger within the clock until swept so compact
+        // it should they ever come to outnumber the live ones.
+        if (clock.size() > (size * 2) + 16) {
+            clock.removeIf(node -> node.removed);
+        }
+    }
+
+    /**
+     * Forget entries whose Class has since been unloaded. Must be called
+     * while holding the lock.
+     */
+    private static void purge() {
+        Reference<? extends Class> reference;
+        while ((reference = QUEUE.poll()) != null) {
+            final Node node = (Node) reference;
+            if (!node.removed) {
+                node.removed = true;
+                size--;
+            }
+        }
+    }
+
+    private static ClassValue<ConcurrentMap<ParseOptions, Entry>> newEntries() {
+        return new ClassValue<ConcurrentMap<ParseOptions, Entry>>() {
+            @Override
+            protected ConcurrentMap<ParseOptions, Entry> computeValue(final Class<?> type) {
+                return new ConcurrentHashMap<>(4);
+            }
+        };
+    }
+
+    /**
+     * Cached ClassType along with its place in the eviction index.
+     */
+    private static final class Entry {
+
+        private final ClassType classType;
+        private final Node node;
+
+        private Entry(final ClassType classType, final Node node) {
+            this.classType = classType;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Place within the eviction index. Only weakly references its Class and
+     * ParseOptions, the latter of which may carry an arbitrary ClassResolver,
+     * and never its ClassType, so as not to pin any ClassLoader. The ParseOptions
+     * are strongly held by the cached entry itself for as long as it exists.
+     */
+    private static final class Node extends WeakReference<Class> {
+
+        private final WeakReference<ParseOptions> options;
+        private volatile boolean referenced;
+
+        // guarded by LOCK
+        private boolean removed;
+
+        private Node(final Class clazz, final ParseOptions options, final ReferenceQueue<Class> queue) {
+            super(clazz, queue);
+            this.options = new WeakReference<>(options);
+        }
+
+        private void touch() {
+
+            // only write when needed so as not to bounce the cache line between readers
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+
+    /**
+     * Sizing and admission policy of the cache.
+     */
+    public static final class Policy {
+
+        /**
+         * Unbounded Policy admitting all classes.
+         */
+        public static final Policy DEFAULT = builder().build();
+
+        public final long maximumSize;
+        public final Predicate<Class> admission;
+
+        private Policy(final Builder builder) {
+            this.maximumSize = builder.maximumSize;
+            this.admission = builder.admission;
+        }
+
+        /**
+         * Get a new Builder to create a Policy from.
+         * 
+         * @return new Builder.
+         */
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        /**
+         * Builder used to create a Policy.
+         */
+        public static final class Builder {
+
+            private long maximumSize = Long.MAX_VALUE;
+            private Predicate<Class> admission;
+
+            private Builder() {
+            }
+
+            /**
+             * Maximum number of entries to cache.
+             * 
+             * @param maximumSize non-negative maximum number of entries.
+             * @return this Builder.
+             */
+            public Builder maximumSize(final long maximumSize) {
+                if (maximumSize < 0) {
+                    throw new IllegalArgumentException("maximumSize cannot be negative: " + maximumSize);
+                }
+                this.maximumSize = maximumSize;
+                return this;
+            }
+
+            /**
+             * Filter deciding which classes are cached at all. Classes not
+             * admitted are parsed on every request.
+             * 
+             * @param admission filter to apply or null to admit all classes.
+             * @return this Builder.
+             */
+            public Builder admission(final Predicate<Class> admission) {
+                this.admission = admission;
+                return this;
+            }
+
+            /**
+             * Build the Policy.
+             * 
+             * @return new Policy.
+             */
+            public Policy build() {
+                return new Policy(this);
+            }
+        }
+    }
+
+    /**
+     * Point in time statistics of the cache.
+     */
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long totalLoadTime;
+        private final long size;
+
+        private Stats(final long hits, final long misses, final long evictions, final long totalLoadTime, final long size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.totalLoadTime = totalLoadTime;
+            this.size = size;
+        }
+
+        /**
+         * Number of requests served from the cache.
+         * 
+         * @return number of hits.
+         */
+        public long hits() {
+            return hits;
+        }
+
+        /**
+         * Number of requests which had to parse, and then cache, a ClassType.
+         * 
+         * @return number of misses.
+         */
+        public long misses() {
+            return misses;
+        }
+
+        /**
+         * Number of entries evicted to respect the maximum size. Entries
+         * dropped because their Class was unloaded are not counted.
+         * 
+         * @return number of evictions.
+         */
+        public long evictions() {
+            return evictions;
+        }
+
+        /**
+         * Total time spent parsing ClassType's on misses.
+         * 
+         * @return total load time in nanoseconds.
+         */
+        public long totalLoadTime() {
+            return totalLoadTime;
+        }
+
+        /**
+         * Number of entries currently cached.
+         * 
+         * @return number of entries.
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Ratio of requests served from the cache.
+         * 
+         * @return hit rate between 0 and 1 or 1 if no requests were made.
+         */
+        public double hitRate() {
+            final long requests = hits + misses;
+            return requests == 0 ? 1.0D : (double) hits / requests;
+        }
+
+        /**
+         * Average time spent parsing a ClassType on a miss.
+         * 
+         * @return average load time in nanoseconds.
+         */
+        public double averageLoadTime() {
+            return misses == 0 ? 0.0D : (double) totalLoadTime / misses;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hits
+                    + ", misses=" + misses
+                    + ", evictions=" + evictions
+                    + ", totalLoadTime=" + totalLoadTime
+                    + ", size=" + size + "}";
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import com.aries.classtype.parser.metrics.Metrics;
+import com.aries.classtype.parser.metrics.ParseOutcome;
+
+/**
+ * Per-thread tally of the nodes built, and reflective calls made, by the
+ * parse currently running on said thread along with how it came by its
+ * ClassType. Tallies are only kept while a
+ * MetricsRecorder is installed: otherwise each hook amounts to a single
+ * volatile read of the installed recorder.
+ *
+ * @author cdancy
+ */
+final class ParseCounter {
+
+    private static final ThreadLocal<ParseCounter> CURRENT = new ThreadLocal<>();
+
+    private final ParseCounter previous;
+    int nodes;
+    int reflectiveCalls;
+    ParseOutcome outcome = ParseOutcome.PARSED;
+
+    private ParseCounter(final ParseCounter previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Start tallying for the current thread.
+     * 
+     * @return the new tally which must be passed back to `end`.
+     */
+    static ParseCounter begin() {
+        final ParseCounter counter = new ParseCounter(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /**
+     * Stop tallying for the current thread going back to whichever
+     * tally, if any, was in place beforehand.
+     * 
+     * @param counter tally returned by `begin`.
+     */
+    static void end(final ParseCounter counter) {
+        if (counter.previous != null) {
+            CURRENT.set(counter.previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static void node() {
+        if (Metrics.isEnabled()) {
+            final ParseCounter counter = CURRENT.get();
+            if (counter != null) {
+                counter.nodes++;
+            }
+        }
+    }
+
+    static void reflectiveCall() {
+        if (Metrics.isEnabled()) {
+            final ParseCounter counter = CURRENT.get();
+            if (counter != null) {
+                counter.reflectiveCalls++;
+            }
+        }
+    }
+
+    static void outcome(final ParseOutcome outcome) {
+        if (Metrics.isEnabled()) {
+            final ParseCounter counter = CURRENT.get();
+            if (counter != null) {
+                counter.outcome = outcome;
+            }
+        }
+    }
+}
@@ -17,8 +17,19 @@
 
 package com.aries.classtype.parser;
 
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
 /**
  * Options available when parsing a ClassType using the `ClassType.parse` method.
+ * Any supplied regex is compiled once, upon creation, into its respective Pattern
+ * such that parsing does not have to re-compile it for every visited node.
+ * 
+ * <p>
+ * Beyond the 4 regexes, which can be supplied directly through `instance`, all
+ * other options are set by way of a Builder (e.g. `ParseOptions.builder()`).
+ * </p>
  * 
  * @author cdancy
  */
@@ -31,6 +42,16 @@ public class ParseOptions {
     public final String interfaceRegex;
     public final String interfaceParamRegex;
 
+    public final Pattern classPattern;
+    public final Pattern classParamPattern;
+    public final Pattern interfacePattern;
+    public final Pattern interfaceParamPattern;
+
+    public final boolean intern;
+    public final boolean lazy;
+
+    public final ClassResolver classResolver;
+
     /**
      * Create a new ParseOptions for use with `ClassType.parse()` calls.
      *
@@ -38,16 +59,33 @@ public class ParseOptions {
      * @param classParamRegex the super-classes params/args to ignore.
      * @param interfaceRegex the interfaces to ignore.
      * @param interfaceParamRegex the interface params/args to ignore.
+     * @throws java.util.regex.PatternSyntaxException if any supplied regex is invalid.
      */
     public ParseOptions(final String classRegex,
             final String classParamRegex,
             final String interfaceRegex,
             final String interfaceParamRegex) {
 
-        this.classRegex = classRegex;
-        this.classParamRegex = classParamRegex;
-        this.interfaceRegex = interfaceRegex;
-        this.interfaceParamRegex = interfaceParamRegex;
+        this(builder().classRegex(classRegex)
+                .classParamRegex(classParamRegex)
+                .interfaceRegex(interfaceRegex)
+                .interfaceParamRegex(interfaceParamRegex));
+    }
+
+    private ParseOptions(final Builder builder) {
+        this.classRegex = builder.classRegex;
+        this.classParamRegex = builder.classParamRegex;
+        this.interfaceRegex = builder.interfaceRegex;
+        this.interfaceParamRegex = builder.interfaceParamRegex;
+
+        this.classPattern = compile(classRegex);
+        this.classParamPattern = compile(classParamRegex);
+        this.interfacePattern = compile(interfaceRegex);
+        this.interfaceParamPattern = compile(interfaceParamRegex);
+
+        this.intern = builder.intern;
+        this.lazy = builder.lazy;
+        this.classResolver = builder.classResolver;
     }
 
     public static ParseOptions instance(final String classRegex,
@@ -56,4 +94,163 @@ public class ParseOptions {
             final String interfaceParamRegex) {
         return new ParseOptions(classRegex, classParamRegex, interfaceRegex, interfaceParamRegex);
     }
+
+    /**
+     * Create a Builder for constructing ParseOptions.
+     * 
+     * @return new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static Pattern compile(final String regex) {
+        return regex != null ? Pattern.compile(regex) : null;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        } else if (other instanceof ParseOptions) {
+            final ParseOptions options = (ParseOptions) other;
+            return Objects.equals(classRegex, options.classRegex)
+                    && Objects.equals(classParamRegex, options.classParamRegex)
+                    && Objects.equals(interfaceRegex, options.interfaceRegex)
+                    && Objects.equals(interfaceParamRegex, options.interfaceParamRegex)
+                    && intern == options.intern
+                    && lazy == options.lazy
+                    && classResolver.equals(options.classResolver);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classRegex, classParamRegex, interfaceRegex, interfaceParamRegex, intern, lazy, classResolver);
+    }
+
+    @Override
+    public String toString() {
+        return "ParseOptions{classRegex=" + classRegex
+                + ", classParamRegex=" + classParamRegex
+                + ", interfaceRegex=" + interfaceRegex
+                + ", interfaceParamRegex=" + interfaceParamRegex
+                + ", intern=" + intern
+                + ", lazy=" + lazy
+                + ", classResolver=" + (classResolver == ClassResolver.defaultResolver() ? "default" : classResolver) + "}";
+    }
+
+    /**
+     * Builder for constructing ParseOptions.
+     */
+    public static final class Builder {
+
+        private String classRegex;
+        private String classParamRegex;
+        private String interfaceRegex;
+        private String interfaceParamRegex;
+        private boolean intern;
+        private boolean lazy;
+        private ClassResolver classResolver = ClassResolver.defaultResolver();
+
+        private Builder() {
+        }
+
+        /**
+         * Set the regex of super-classes to ignore.
+         * 
+         * @param classRegex the super-classes to ignore.
+         * @return this Builder.
+         */
+        public Builder classRegex(final String classRegex) {
+            this.classRegex = classRegex;
+            return this;
+        }
+
+        /**
+         * Set the regex of super-class params/args to ignore.
+         * 
+         * @param classParamRegex the super-classes params/args to ignore.
+         * @return this Builder.
+         */
+        public Builder classParamRegex(final String classParamRegex) {
+            this.classParamRegex = classParamRegex;
+            return this;
+        }
+
+        /**
+         * Set the regex of interfaces to ignore.
+         * 
+         * @param interfaceRegex the interfaces to ignore.
+         * @return this Builder.
+         */
+        public Builder interfaceRegex(final String interfaceRegex) {
+            this.interfaceRegex = interfaceRegex;
+            return this;
+        }
+
+        /**
+         * Set the regex of interface params/args to ignore.
+         * 
+         * @param interfaceParamRegex the interface params/args to ignore.
+         * @return this Builder.
+         */
+        public Builder interfaceParamRegex(final String interfaceParamRegex) {
+            this.interfaceParamRegex = interfaceParamRegex;
+            return this;
+        }
+
+        /**
+         * Whether parsed ClassType's should be interned (see `ClassType.intern()`)
+         * such that structurally equal sub-trees are shared. Defaults to false.
+         * 
+         * @param intern true to intern parsed ClassType's.
+         * @return this Builder.
+         */
+        public Builder intern(final boolean intern) {
+            this.intern = intern;
+            return this;
+        }
+
+        /**
+         * Whether parsed ClassType's should resolve their children lazily, from
+         * their reflective Type, only once first accessed. Lazily parsed ClassType's
+         * are frozen. Interning requires the whole tree and so takes precedence.
+         * Defaults to false.
+         * 
+         * @param lazy true to parse lazily.
+         * @return this Builder.
+         */
+        public Builder lazy(final boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        /**
+         * Set the ClassResolver used to load classes by name for those Type's
+         * which cannot provide their Class directly. Defaults to a shared
+         * resolver caching results per ClassLoader. As ParseOptions key the
+         * ParseCache any ClassResolver, and whatever it references, lives for
+         * as long as ClassType's parsed with it remain cached.
+         * 
+         * @param classResolver non-null, non-initializing, ClassResolver.
+         * @return this Builder.
+         */
+        public Builder classResolver(final ClassResolver classResolver) {
+            this.classResolver = Objects.requireNonNull(classResolver, "classResolver cannot be NULL");
+            return this;
+        }
+
+        /**
+         * Build the ParseOptions.
+         * 
+         * @return new ParseOptions.
+         * @throws java.util.regex.PatternSyntaxException if any supplied regex is invalid.
+         */
+        public ParseOptions build() {
+            return new ParseOptions(this);
+        }
+    }
 }
@@ -0,0 +1,507 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.catalog;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+import com.aries.classtype.parser.codec.ClassTypeCodec;
+import com.aries.classtype.parser.providers.ClassTypeProvider;
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent, memory-mapped, catalog of ClassType trees meant to spare a JVM
+ * from re-parsing the same classes upon every start.
+ * 
+ * <p>
+ * A catalog is written once (see `builder()`) and then opened, by way of
+ * memory-mapping, on subsequent starts. Opening only reads the header: each
+ * tree is looked up through a sorted index of name hashes and decoded, with
+ * ClassTypeCodec, the first time it's requested. Registered as a
+ * ClassTypeProvider the catalog is consulted by `ClassType.parse` which
+ * falls back to parsing whenever the catalog can't serve a given class.
+ * </p>
+ * 
+ * <p>
+ * A catalog is stale, and thus serves nothing, when its stamp (e.g. the
+ * version of the application) differs from the one it's opened with. With
+ * `Validation.CLASS_FILES` every tree is furthermore checked, upon first use,
+ * against a checksum of the class files of its non-bootstrap classes.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class ClassTypeCatalog implements ClassTypeProvider {
+
+    /**
+     * Version of the file format written by, and the only one readable by, this catalog.
+     */
+    public static final int VERSION = 1;
+
+    static final int MAGIC = 0x43544341;
+
+    // index entries are made up of the name hash and the offset of the entry
+    private static final int INDEX_ENTRY_SIZE = 8;
+
+    private static final Object MISSING = new Object();
+
+    /**
+     * How much the trees of an opened catalog are checked before being served.
+     */
+    public enum Validation {
+
+        /**
+         * Trust every tree as long as the stamp of the catalog matches.
+         */
+        STAMP,
+
+        /**
+         * Additionally checksum the class files of every tree upon first use.
+         */
+        CLASS_FILES
+    }
+
+    private final ByteBuffer mapping;
+    private final Validation validation;
+    private final String[] regexes;
+    private final int indexStart;
+    private final int size;
+
+    // decoded trees are held per Class, rather than per entry, so as to
+    // never pin the ClassLoader of whichever Class requested them first.
+    private final ClassValue<Object> decoded = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(final Class<?> clazz) {
+            final int index = indexOf(clazz.getName());
+            return index >= 0 ? decode(index, clazz) : MISSING;
+        }
+    };
+
+    private ClassTypeCatalog(final ByteBuffer mapping,
+            final Validation validation,
+            final String[] regexes,
+            final int indexStart,
+            final int size) {
+        this.mapping = mapping;
+        this.validation = validation;
+        this.regexes = regexes;
+        this.indexStart = indexStart;
+        this.size = size;
+    }
+
+    /**
+     * Get a new Builder to populate, and write, a catalog with.
+     * 
+     * @return new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Open, by memory-mapping, the catalog found at the passed Path validating
+     * it only by its stamp. See `open(Path, String, Validation)` for details.
+     * 
+     * @param file non-null Path of the catalog.
+     * @param stamp non-null stamp the catalog must have been written with.
+     * @return opened catalog.
+     * @throws IOException if the catalog fails to be read.
+     */
+    public static ClassTypeCatalog open(final Path file, final String stamp) throws IOException {
+        return open(file, stamp, Validation.STAMP);
+    }
+
+    /**
+     * Open, by memory-mapping, the catalog found at the passed Path. Catalogs
+     * not written with the passed stamp, or by another version of this
+     * catalog or its codec, are opened as stale catalogs serving nothing.
+     * 
+     * @param file non-null Path of the catalog.
+     * @param stamp non-null stamp the catalog must have been written with.
+     * @param validation non-null Validation to apply to each tree.
+     * @return opened catalog.
+     * @throws IOException if the catalog fails to be read.
+     */
+    public static ClassTypeCatalog open(final Path file, final String stamp, final Validation validation) throws IOException {
+        Objects.requireNonNull(stamp, "stamp cannot be NULL");
+        Objects.requireNonNull(validation, "validation cannot be NULL");
+
+        final MappedByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (mapping.getInt() != MAGIC
+                    || mapping.getInt() != VERSION
+                    || mapping.getInt() != ClassTypeCodec.VERSION
+                    || !stamp.equals(readString(mapping))) {
+                return stale(validation);
+            }
+
+            final String[] regexes = new String[4];
+            for (int i = 0; i < regexes.length; i++) {
+                regexes[i] = readString(mapping);
+            }
+            final int size = mapping.getInt();
+            if (size < 0 || (long) size * INDEX_ENTRY_SIZE > mapping.remaining()) {
+                return stale(validation);
+            }
+            return new ClassTypeCatalog(mapping, validation, regexes, mapping.position(), size);
+        } catch (final RuntimeException e) {
+            return stale(validation);
+        }
+    }
+
+    private static ClassTypeCatalog stale(final Validation validation) {
+        return new ClassTypeCatalog(ByteBuffer.allocate(0), validation, null, 0, 0);
+    }
+
+    /**
+     * Whether this catalog is stale, and thus serves nothing, because it
+     * was written with another stamp or can't otherwise be read.
+     * 
+     * @return true if stale false otherwise.
+     */
+    public boolean isStale() {
+        return regexes == null;
+    }
+
+    /**
+     * Get the number of trees held within this catalog.
+     * 
+     * @return number of trees.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the ClassType of the passed Class from this catalog alone.
+     * 
+     * @param clazz non-null Class to get the ClassType of.
+     * @return frozen ClassType or null if not found or stale.
+     */
+    public ClassType get(final Class clazz) {
+        final Object found = decoded.get(clazz);
+        return found != MISSING ? (ClassType) found : null;
+    }
+
+    /**
+     * Provide the ClassType of the passed Class should this catalog hold
+     * it and have been written with the same class and interface regexes.
+     * Requests made with anything but the default ClassResolver are never
+     * served as the catalog can't know how said resolver would have resolved.
+     */
+    @Override
+    public ClassType provide(final Class clazz, final ParseOptions options) {
+        if (regexes == null
+                || options.classResolver != ClassResolver.defaultResolver()
+                || !Objects.equals(regexes[0], options.classRegex)
+                || !Objects.equals(regexes[1], options.classParamRegex)
+                || !Objects.equals(regexes[2], options.interfaceRegex)
+                || !Objects.equals(regexes[3], options.interfaceParamRegex)) {
+            return null;
+        }
+        return get(clazz);
+    }
+
+    /**
+     * Binary search the index, sorted by name hash, for the entry of the passed name.
+     */
+    private int indexOf(final String name) {
+        final int hash = name.hashCode();
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int middleHash = mapping.getInt(indexStart + middle * INDEX_ENTRY_SIZE);
+            if (middleHash < hash) {
+                low = middle + 1;
+            } else if (middleHash > hash) {
+                high = middle - 1;
+            } else {
+
+                // walk back to the first entry of this hash and on through all of them
+                int candidate = middle;
+                while (candidate > 0 && mapping.getInt(indexStart + (candidate - 1) * INDEX_ENTRY_SIZE) == hash) {
+                    candidate--;
+                }
+                final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+                for (; candidate < size && mapping.getInt(indexStart + candidate * INDEX_ENTRY_SIZE) == hash; candidate++) {
+                    if (nameMatches(entryOffset(candidate), nameBytes)) {
+                        return candidate;
+                    }
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private int entryOffset(final int index) {
+        return mapping.getInt(indexStart + index * INDEX_ENTRY_SIZE + 4);
+    }
+
+    private boolean nameMatches(final int offset, final byte[] nameBytes) {
+        if (offset < 0
+                || offset > mapping.limit() - 4 - nameBytes.length
+                || mapping.getInt(offset) != nameBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < nameBytes.length; i++) {
+            if (mapping.get(offset + 4 + i) != nameBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode the tree of the passed index returning MISSING should it
+     * not be decodable for the passed Class (e.g. from its ClassLoader)
+     * or no longer match its class files.
+     */
+    private Object decode(final int index, final Class clazz) {
+        final int checksum;
+        final ClassType classType;
+        try {
+
+            // a corrupt entry throws from anywhere within and must fall back to parsing
+            final ByteBuffer entry = mapping.duplicate();
+            entry.position(entryOffset(index));
+            entry.position(entry.position() + 4 + entry.getInt());
+            checksum = entry.getInt();
+
+            final ClassTypeCodec codec = clazz.getClassLoader() != null
+                    ? ClassTypeCodec.builder().classLoader(clazz.getClassLoader()).build()
+                    : ClassTypeCodec.DEFAULT_CODEC;
+            classType = codec.decode(entry);
+        } catch (final RuntimeException e) {
+            return MISSING;
+        }
+
+        final boolean valid = classType.clazz() == clazz
+                && (validation != Validation.CLASS_FILES || checksum == checksum(classType));
+        return valid ? classType : MISSING;
+    }
+
+    /**
+     * Checksum the names, and class files, of every distinct non-bootstrap
+     * class found within the passed tree. Bootstrap classes only ever change
+     * along with the JVM itself which is better accounted for by the stamp.
+     * 
+     * @param classType ClassType to checksum.
+     * @return checksum.
+     */
+    static int checksum(final ClassType classType) {
+        final CRC32 crc = new CRC32();
+        final Set<Class> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        checksum(classType, crc, seen, new byte[8192]);
+        return (int) crc.getValue();
+    }
+
+    private static void checksum(final ClassType classType, final CRC32 crc, final Set<Class> seen, final byte[] buffer) {
+        final Class clazz = classType.clazz();
+        final ClassLoader loader = clazz.getClassLoader();
+        if (loader != null && seen.add(clazz)) {
+            crc.update(clazz.getName().getBytes(StandardCharsets.UTF_8));
+            try (InputStream classFile = loader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+                if (classFile != null) {
+                    int read;
+                    while ((read = classFile.read(buffer)) != -1) {
+                        crc.update(buffer, 0, read);
+                    }
+                }
+            } catch (final IOException e) {
+                crc.update(-1);
+            }
+        }
+
+        final List<ClassType> children = classType.children();
+        for (int i = 0; i < children.size(); i++) {
+            checksum(children.get(i), crc, seen, buffer);
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Builder used to populate, and write, a ClassTypeCatalog.
+     */
+    public static final class Builder {
+
+        private final Map<String, Class> classes = new LinkedHashMap<>();
+        private String stamp;
+        private ParseOptions options = ParseOptions.DEFAULT_PARSER_OPTIONS;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the stamp (e.g. version of the application) the catalog
+         * must later be opened with for it not to be stale.
+         * 
+         * @param stamp non-null stamp.
+         * @return this Builder.
+         */
+        public Builder stamp(final String stamp) {
+            this.stamp = Objects.requireNonNull(stamp, "stamp cannot be NULL");
+            return this;
+        }
+
+        /**
+         * Set the ParseOptions classes are parsed with. Only requests made with
+         * the same class and interface regexes, and the default ClassResolver,
+         * are later served by the catalog.
+         * 
+         * @param options non-null ParseOptions.
+         * @return this Builder.
+         */
+        public Builder options(final ParseOptions options) {
+            this.options = Objects.requireNonNull(options, "options cannot be NULL");
+            return this;
+        }
+
+        /**
+         * Add a Class to parse into the catalog.
+         * 
+         * @param clazz non-null Class to add.
+         * @return this Builder.
+         */
+        public Builder add(final Class clazz) {
+            classes.putIfAbsent(clazz.getName(), clazz);
+            return this;
+        }
+
+        /**
+         * Add many Classes to parse into the catalog.
+         * 
+         * @param clazzes non-null Classes to add.
+         * @return this Builder.
+         */
+        public Builder addAll(final Collection<? extends Class> clazzes) {
+            for (final Class clazz : clazzes) {
+                add(clazz);
+            }
+            return this;
+        }
+
+        /**
+         * Parse every added Class and write the catalog to the passed Path.
+         * The catalog is first written aside and then moved into place such
+         * that JVMs concurrently opening it never see a partially written one.
+         * 
+         * @param file non-null Path to write the catalog to.
+         * @throws IOException if the catalog fails to be written.
+         */
+        public void write(final Path file) throws IOException {
+            Objects.requireNonNull(stamp, "stamp must be set");
+            final String[] names = classes.keySet().toArray(new String[0]);
+
+            // index is sorted by name hash with the entries themselves in the same order
+            final Integer[] order = new Integer[names.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (first, second) -> Integer.compare(names[first].hashCode(), names[second].hashCode()));
+
+            final ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+            final DataOutputStream entries = new DataOutputStream(entryBytes);
+            final int[] offsets = new int[names.length];
+            for (int i = 0; i < order.length; i++) {
+                final Class clazz = classes.get(names[order[i]]);
+                final ClassType classType = ClassType.parse(clazz, options);
+                offsets[i] = entries.size();
+                writeString(entries, clazz.getName());
+                entries.writeInt(checksum(classType));
+                entries.write(ClassTypeCodec.DEFAULT_CODEC.encode(classType));
+            }
+
+            final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            final DataOutputStream header = new DataOutputStream(headerBytes);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(ClassTypeCodec.VERSION);
+            writeString(header, stamp);
+            writeString(header, options.classRegex);
+            writeString(header, options.classParamRegex);
+            writeString(header, options.interfaceRegex);
+            writeString(header, options.interfaceParamRegex);
+            header.writeInt(names.length);
+
+            final int entriesStart = header.size() + names.length * INDEX_ENTRY_SIZE;
+            for (int i = 0; i < order.length; i++) {
+                header.writeInt(names[order[i]].hashCode());
+                header.writeInt(entriesStart + offsets[i]);
+            }
+
+            final Path directory = file.toAbsolutePath().getParent();
+            final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream output = Files.newOutputStream(temporary)) {
+                    headerBytes.writeTo(output);
+                    entryBytes.writeTo(output);
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
@@ -0,0 +1,660 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.codec;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import com.aries.classtype.parser.types.PrimitiveTypes;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Versioned, compact, binary encoding of ClassType trees.
+ * 
+ * <p>
+ * Every tree is written as a self-delimiting record made up of a header
+ * (magic byte, format version and the varint length of the body) followed
+ * by the body itself:
+ * </p>
+ * 
+ * <ul>
+ * <li>a dictionary of the distinct class names found within the tree, sorted
+ * and front-coded such that each name only stores the number of leading chars
+ * it shares with its predecessor (e.g. its package) and the UTF-8 remainder.</li>
+ * <li>the nodes of the tree in preorder, each being a single varint packing
+ * the index of its class together with whether or not it has children and,
+ * only if it does, the varint count of said children.</li>
+ * </ul>
+ * 
+ * <p>
+ * Classes are indexed first by their position within the dictionary and then,
+ * past its end, by their position within a fixed table of well-known JDK classes
+ * (e.g. `java.lang.Object`) which are thus never written out by name. Said table
+ * is as much a part of the format as its layout: it can only ever be changed along
+ * with the VERSION.
+ * </p>
+ * 
+ * <p>
+ * Decoding resolves each dictionary name only once, through the configured
+ * ClassResolver, and then rebuilds the frozen tree bottom-up without any
+ * further lookups. Equal leaves within a decoded tree share the same instance.
+ * Records whose header declares a body larger than the configured maximum
+ * record size are rejected before anything is allocated for them.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class ClassTypeCodec {
+
+    /**
+     * Version of the format written by, and the only one readable by, this codec.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Default maximum number of bytes the body of a decoded record may declare.
+     */
+    public static final int DEFAULT_MAX_RECORD_SIZE = 1 << 20;
+
+    public static final ClassTypeCodec DEFAULT_CODEC = builder().build();
+
+    static final int MAGIC = 0xCA;
+
+    // magic and version bytes followed by, at most, a 5 byte varint
+    private static final int MAX_HEADER_SIZE = 7;
+
+    // most frequently seen first so as to keep their indexes within a single byte
+    static final Class[] WELL_KNOWN_CLASSES = {
+        Object.class, java.io.Serializable.class, Comparable.class, Cloneable.class, String.class, CharSequence.class,
+        Iterable.class, java.util.Collection.class, List.class, Map.class, java.util.Set.class,
+        java.util.RandomAccess.class, java.util.AbstractCollection.class, java.util.AbstractList.class,
+        java.util.AbstractMap.class, java.util.AbstractSet.class, java.util.function.Function.class,
+        Number.class, Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class,
+        Boolean.class, Character.class, Void.class, Enum.class, Class.class, Runnable.class, AutoCloseable.class,
+        java.io.Closeable.class, Throwable.class, Exception.class, RuntimeException.class, Error.class,
+        java.util.Queue.class, java.util.Deque.class, java.util.SortedMap.class, java.util.SortedSet.class,
+        java.util.NavigableMap.class, java.util.NavigableSet.class, java.util.AbstractQueue.class,
+        java.util.AbstractSequentialList.class, ArrayList.class, java.util.LinkedList.class,
+        HashMap.class, java.util.LinkedHashMap.class, java.util.TreeMap.class, java.util.HashSet.class,
+        java.util.LinkedHashSet.class, java.util.TreeSet.class, java.util.ArrayDeque.class, java.util.Iterator.class,
+        java.util.Optional.class, java.util.EventListener.class, java.util.concurrent.ConcurrentMap.class,
+        java.util.concurrent.ConcurrentNavigableMap.class, java.util.concurrent.ConcurrentHashMap.class,
+        java.util.concurrent.Callable.class, java.util.concurrent.Future.class, java.util.concurrent.BlockingQueue.class,
+        java.util.function.BiFunction.class, java.util.function.Supplier.class, java.util.function.Consumer.class,
+        java.util.function.BiConsumer.class, java.util.function.Predicate.class, java.util.function.BiPredicate.class,
+        java.util.function.UnaryOperator.class, java.util.function.BinaryOperator.class,
+    };
+
+    private static final Map<Class, Integer> WELL_KNOWN_IDS = new IdentityHashMap<>();
+
+    static {
+        for (int i = 0; i < WELL_KNOWN_CLASSES.length; i++) {
+            WELL_KNOWN_IDS.put(WELL_KNOWN_CLASSES[i], i);
+        }
+    }
+
+    private final ClassResolver classResolver;
+    private final ClassLoader classLoader;
+    private final boolean intern;
+    private final int maxRecordSize;
+
+    private ClassTypeCodec(final Builder builder) {
+        this.classResolver = builder.classResolver;
+        this.classLoader = builder.classLoader;
+        this.intern = builder.intern;
+        this.maxRecordSize = builder.maxRecordSize;
+    }
+
+    /**
+     * Get a new Builder to configure a ClassTypeCodec with.
+     * 
+     * @return new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Encode the passed ClassType into a new byte array.
+     * 
+     * @param classType non-null ClassType to encode.
+     * @return encoded record.
+     */
+    public byte[] encode(final ClassType classType) {
+        final Encoding encoding = Encoding.of(classType);
+        final ByteBuffer buffer = ByteBuffer.allocate(encoding.size());
+        encoding.writeTo(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Encode the passed ClassType into the passed ByteBuffer starting at,
+     * and advancing, its current position. Nothing is written should the
+     * ByteBuffer not have enough room left for the whole record.
+     * 
+     * @param classType non-null ClassType to encode.
+     * @param buffer non-null ByteBuffer to write into.
+     * @throws BufferOverflowException if the record does not fit.
+     */
+    public void encode(final ClassType classType, final ByteBuffer buffer) {
+        final Encoding encoding = Encoding.of(classType);
+        if (buffer.remaining() < encoding.size()) {
+            throw new BufferOverflowException();
+        }
+        encoding.writeTo(buffer);
+    }
+
+    /**
+     * Decode the one, and only, record held within the passed byte array.
+     * 
+     * @param bytes non-null encoded record.
+     * @return decoded, and frozen, ClassType.
+     * @throws IllegalArgumentException if the bytes are not a valid record.
+     */
+    public ClassType decode(final byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final ClassType classType;
+        try {
+            classType = decode(buffer);
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated ClassType record of " + bytes.length + " bytes", e);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Found " + buffer.remaining() + " trailing bytes after ClassType record");
+        }
+        return classType;
+    }
+
+    /**
+     * Decode the next record from the passed ByteBuffer starting at, and
+     * advancing past said record, its current position. Should the ByteBuffer
+     * not yet hold the whole record its position is left untouched such that
+     * decoding can be retried once more bytes have arrived.
+     * 
+     * @param buffer non-null ByteBuffer to read from.
+     * @return decoded, and frozen, ClassType.
+     * @throws BufferUnderflowException if the ByteBuffer does not hold the whole record.
+     * @throws IllegalArgumentException if the bytes are not a valid record or
+     *     the record exceeds the maximum record size.
+     */
+    public ClassType decode(final ByteBuffer buffer) {
+        final int start = buffer.position();
+        final int bodyLength;
+        try {
+            bodyLength = readHeader(buffer);
+            if (buffer.remaining() < bodyLength) {
+                throw new BufferUnderflowException();
+            }
+        } catch (final BufferUnderflowException e) {
+            buffer.position(start);
+            throw e;
+        }
+
+        final ByteBuffer body = buffer.slice();
+        body.limit(bodyLength);
+        final ClassType classType = decodeBody(body);
+        buffer.position(buffer.position() + bodyLength);
+        return classType;
+    }
+
+    /**
+     * Write the passed ClassType, as a single record, to the passed blocking channel.
+     * 
+     * @param classType non-null ClassType to encode.
+     * @param channel non-null channel to write to.
+     * @throws IOException if the channel fails to be written to.
+     */
+    public void write(final ClassType classType, final WritableByteChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(encode(classType));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Read the next record from the passed blocking channel. Only the bytes of
+     * said record are consumed such that records can be read one after another.
+     * 
+     * @param channel non-null channel to read from.
+     * @return decoded, and frozen, ClassType or null if the channel has ended.
+     * @throws EOFException if the channel ends part way through a record.
+     * @throws IOException if the channel fails to be read from.
+     * @throws IllegalArgumentException if the bytes are not a valid record or
+     *     the record exceeds the maximum record size.
+     */
+    public ClassType read(final ReadableByteChannel channel) throws IOException {
+
+        // the header is read byte by byte, once past magic and version, so as
+        // to never consume bytes belonging to whatever follows this record.
+        final ByteBuffer header = ByteBuffer.allocate(MAX_HEADER_SIZE);
+        header.limit(2);
+        if (!fill(channel, header)) {
+            return null;
+        }
+        boolean continued = true;
+        while (continued) {
+            header.limit(header.position() + 1);
+            if (!fill(channel, header)) {
+                throw new EOFException("Channel ended part way through ClassType record");
+            }
+            continued = header.get(header.position() - 1) < 0 && header.position() < MAX_HEADER_SIZE;
+        }
+        header.flip();
+
+        final ByteBuffer body = ByteBuffer.allocate(readHeader(header));
+        if (!fill(channel, body)) {
+            throw new EOFException("Channel ended part way through ClassType record");
+        }
+        body.flip();
+        return decodeBody(body);
+    }
+
+    /**
+     * Read bytes from the channel until the passed ByteBuffer is full.
+     * 
+     * @return false if the channel ended before a single byte was read.
+     */
+    private static boolean fill(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        final int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.position() == start) {
+                    return false;
+                }
+                throw new EOFException("Channel ended part way through ClassType record");
+            }
+        }
+        return true;
+    }
+
+    private int readHeader(final ByteBuffer buffer) {
+        final int magic = buffer.get() & 0xFF;
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Not a ClassType record, found magic byte " + magic);
+        }
+        final int version = buffer.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported ClassType record version " + version + ", expected " + VERSION);
+        }
+        final int bodyLength = readVarint(buffer);
+        if (bodyLength > maxRecordSize) {
+            throw new IllegalArgumentException("ClassType record of " + bodyLength
+                    + " bytes exceeds maximum record size of " + maxRecordSize + " bytes");
+        }
+        return bodyLength;
+    }
+
+    private ClassType decodeBody(final ByteBuffer body) {
+        try {
+            final int dictionarySize = readVarint(body);
+            if (dictionarySize > body.remaining()) {
+                throw malformed("dictionary size " + dictionarySize + " exceeds record");
+            }
+
+            final ClassLoader loader = loader();
+            final Class[] dictionary = new Class[dictionarySize + WELL_KNOWN_CLASSES.length];
+            System.arraycopy(WELL_KNOWN_CLASSES, 0, dictionary, dictionarySize, WELL_KNOWN_CLASSES.length);
+            String previous = "";
+            for (int i = 0; i < dictionarySize; i++) {
+                final int shared = readVarint(body);
+                final int suffixLength = readVarint(body);
+                if (shared > previous.length() || suffixLength > body.remaining()) {
+                    throw malformed("dictionary entry " + i + " exceeds record");
+                }
+                final String name = previous.substring(0, shared) + readUtf8(body, suffixLength);
+                dictionary[i] = resolve(name, loader);
+                previous = name;
+            }
+
+            // every node takes at least 1 byte which bounds what we allocate up front
+            final int nodeCount = readVarint(body);
+            if (nodeCount == 0 || nodeCount > body.remaining()) {
+                throw malformed("node count " + nodeCount + " does not match record");
+            }
+            final int[] ids = new int[nodeCount];
+            final int[] childCounts = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                final int packed = readVarint(body);
+                ids[i] = packed >>> 1;
+                if (ids[i] >= dictionary.length) {
+                    throw malformed("node " + i + " references unknown class " + ids[i]);
+                }
+                childCounts[i] = (packed & 1) != 0 ? readVarint(body) : 0;
+            }
+            if (body.hasRemaining()) {
+                throw malformed(body.remaining() + " unread bytes");
+            }
+
+            final ClassType root = build(dictionary, ids, childCounts);
+            return intern ? root.intern() : root;
+        } catch (final BufferUnderflowException e) {
+            throw malformed("body is shorter than its fields");
+        }
+    }
+
+    /**
+     * Rebuild the tree bottom-up by walking the preorder nodes in reverse such
+     * that the children of any node are already sitting, in order, atop the stack.
+     */
+    private static ClassType build(final Class[] dictionary, final int[] ids, final int[] childCounts) {
+        final ClassType[] stack = new ClassType[ids.length];
+        final ClassType[] leaves = new ClassType[dictionary.length];
+        int top = 0;
+        for (int i = ids.length - 1; i >= 0; i--) {
+            final int childCount = childCounts[i];
+            final ClassType node;
+            if (childCount == 0) {
+                ClassType leaf = leaves[ids[i]];
+                if (leaf == null) {
+                    leaf = ClassType.builder(dictionary[ids[i]]).build();
+                    leaves[ids[i]] = leaf;
+                }
+                node = leaf;
+            } else {
+                if (childCount > top) {
+                    throw malformed("node " + i + " claims " + childCount + " children but only " + top + " follow");
+                }
+                final ClassType.Builder builder = ClassType.builder(dictionary[ids[i]]);
+                for (int j = 0; j < childCount; j++) {
+                    builder.child(stack[--top]);
+                }
+                node = builder.build();
+            }
+            stack[top++] = node;
+        }
+        if (top != 1) {
+            throw malformed("found " + top + " roots");
+        }
+        return stack[0];
+    }
+
+    private ClassLoader loader() {
+        if (classLoader != null) {
+            return classLoader;
+        }
+        final ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        return contextLoader != null ? contextLoader : ClassTypeCodec.class.getClassLoader();
+    }
+
+    private Class resolve(final String name, final ClassLoader loader) {
+        final PrimitiveTypes primitive = PrimitiveTypes.from(name);
+        if (primitive != null && primitive.getPrimitveClass().getName().equals(name)) {
+            return primitive.getPrimitveClass();
+        }
+        try {
+            return classResolver.resolve(name, loader);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static IllegalArgumentException malformed(final String reason) {
+        return new IllegalArgumentException("Malformed ClassType record: " + reason);
+    }
+
+    private static String readUtf8(final ByteBuffer buffer, final int length) {
+        final String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    static int readVarint(final ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            if (current >= 0) {
+
+                // only the low 4 bits of a fifth byte still fit within an int
+                if (value < 0 || (shift == 28 && (current & 0x70) != 0)) {
+                    throw malformed("varint exceeds int range");
+                }
+                return value;
+            }
+        }
+        throw malformed("varint longer than 5 bytes");
+    }
+
+    static void writeVarint(final ByteBuffer buffer, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    static int varintSize(final int value) {
+        int size = 1;
+        int remaining = value >>> 7;
+        while (remaining != 0) {
+            size++;
+            remaining >>>= 7;
+        }
+        return size;
+    }
+
+    /**
+     * Number of leading chars shared by both names, never splitting a surrogate pair.
+     */
+    static int sharedPrefix(final String previous, final String name) {
+        final int max = Math.min(previous.length(), name.length());
+        int shared = 0;
+        while (shared < max && previous.charAt(shared) == name.charAt(shared)) {
+            shared++;
+        }
+        if (shared > 0 && Character.isHighSurrogate(name.charAt(shared - 1))) {
+            shared--;
+        }
+        return shared;
+    }
+
+    /**
+     * The fully laid out, but not yet written, record of a single tree
+     * such that its exact size is known before anything gets written.
+     */
+    private static final class Encoding {
+
+        private final int[] shared;
+        private final byte[][] suffixes;
+        private final int[] ids;
+        private final int[] childCounts;
+        private final int bodyLength;
+
+        private Encoding(final int[] shared, final byte[][] suffixes, final int[] ids, final int[] childCounts) {
+            this.shared = shared;
+            this.suffixes = suffixes;
+            this.ids = ids;
+            this.childCounts = childCounts;
+
+            int length = varintSize(suffixes.length) + varintSize(ids.length);
+            for (int i = 0; i < suffixes.length; i++) {
+                length += varintSize(shared[i]) + varintSize(suffixes[i].length) + suffixes[i].length;
+            }
+            for (int i = 0; i < ids.length; i++) {
+                length += childCounts[i] > 0
+                        ? varintSize(ids[i] << 1 | 1) + varintSize(childCounts[i])
+                        : varintSize(ids[i] << 1);
+            }
+            this.bodyLength = length;
+        }
+
+        static Encoding of(final ClassType root) {
+            Objects.requireNonNull(root, "classType cannot be NULL");
+            final List<ClassType> nodes = new ArrayList<>();
+            flatten(root, nodes);
+
+            final Map<String, Integer> index = new HashMap<>();
+            for (final ClassType node : nodes) {
+                if (!WELL_KNOWN_IDS.containsKey(node.clazz())) {
+                    index.put(node.name(), 0);
+                }
+            }
+            final String[] names = index.keySet().toArray(new String[0]);
+            Arrays.sort(names);
+
+            final int[] shared = new int[names.length];
+            final byte[][] suffixes = new byte[names.length][];
+            String previous = "";
+            for (int i = 0; i < names.length; i++) {
+                final String name = names[i];
+                index.put(name, i);
+                shared[i] = sharedPrefix(previous, name);
+                suffixes[i] = name.substring(shared[i]).getBytes(StandardCharsets.UTF_8);
+                previous = name;
+            }
+
+            final int[] ids = new int[nodes.size()];
+            final int[] childCounts = new int[nodes.size()];
+            for (int i = 0; i < ids.length; i++) {
+                final ClassType node = nodes.get(i);
+                final Integer wellKnownId = WELL_KNOWN_IDS.get(node.clazz());
+                ids[i] = wellKnownId != null ? names.length + wellKnownId : index.get(node.name());
+                childCounts[i] = node.children().size();
+            }
+            return new Encoding(shared, suffixes, ids, childCounts);
+        }
+
+        private static void flatten(final ClassType classType, final List<ClassType> nodes) {
+            nodes.add(classType);
+            final List<ClassType> children = classType.children();
+            for (int i = 0; i < children.size(); i++) {
+                flatten(children.get(i), nodes);
+            }
+        }
+
+        int size() {
+            return 2 + varintSize(bodyLength) + bodyLength;
+        }
+
+        void writeTo(final ByteBuffer buffer) {
+            buffer.put((byte) MAGIC);
+            buffer.put((byte) VERSION);
+            writeVarint(buffer, bodyLength);
+            writeVarint(buffer, suffixes.length);
+            for (int i = 0; i < suffixes.length; i++) {
+                writeVarint(buffer, shared[i]);
+                writeVarint(buffer, suffixes[i].length);
+                buffer.put(suffixes[i]);
+            }
+            writeVarint(buffer, ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                if (childCounts[i] > 0) {
+                    writeVarint(buffer, ids[i] << 1 | 1);
+                    writeVarint(buffer, childCounts[i]);
+                } else {
+                    writeVarint(buffer, ids[i] << 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder used to create a ClassTypeCodec.
+     */
+    public static final class Builder {
+
+        private ClassResolver classResolver = ClassResolver.defaultResolver();
+        private ClassLoader classLoader;
+        private boolean intern;
+        private int maxRecordSize = DEFAULT_MAX_RECORD_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the ClassResolver used to resolve the names found within
+         * decoded records. Defaults to `ClassResolver.defaultResolver()`.
+         * 
+         * @param classResolver non-null ClassResolver.
+         * @return this Builder.
+         */
+        public Builder classResolver(final ClassResolver classResolver) {
+            this.classResolver = Objects.requireNonNull(classResolver, "classResolver cannot be NULL");
+            return this;
+        }
+
+        /**
+         * Set the ClassLoader names are resolved against. Defaults to the
+         * context ClassLoader of the decoding thread.
+         * 
+         * @param classLoader non-null ClassLoader.
+         * @return this Builder.
+         */
+        public Builder classLoader(final ClassLoader classLoader) {
+            this.classLoader = Objects.requireNonNull(classLoader, "classLoader cannot be NULL");
+            return this;
+        }
+
+        /**
+         * Set whether decoded trees should be interned (i.e. canonical).
+         * 
+         * @param intern true to intern decoded trees.
+         * @return this Builder.
+         */
+        public Builder intern(final boolean intern) {
+            this.intern = intern;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of bytes the body of a decoded record may
+         * declare. Defaults to `DEFAULT_MAX_RECORD_SIZE`.
+         * 
+         * @param maxRecordSize positive maximum record size.
+         * @return this Builder.
+         * @throws IllegalArgumentException if the passed maxRecordSize is not positive.
+         */
+        public Builder maxRecordSize(final int maxRecordSize) {
+            if (maxRecordSize <= 0) {
+                throw new IllegalArgumentException("maxRecordSize must be positive: " + maxRecordSize);
+            }
+            this.maxRecordSize = maxRecordSize;
+            return this;
+        }
+
+        /**
+         * Build a new ClassTypeCodec from the current state of this Builder.
+         * 
+         * @return new ClassTypeCodec.
+         */
+        public ClassTypeCodec build() {
+            return new ClassTypeCodec(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.metrics;
+
+/**
+ * JMX view of the measurements gathered by a StatisticsRecorder. Latencies
+ * are in nanoseconds and percentiles are accurate to within a factor of 2.
+ * 
+ * @author cdancy
+ */
+public interface ClassTypeMetricsMXBean {
+
+    long getParseCount();
+
+    double getParseMeanNanos();
+
+    long getParseP50Nanos();
+
+    long getParseP99Nanos();
+
+    long getParseMaxNanos();
+
+    long getNodesBuilt();
+
+    double getNodesPerParseMean();
+
+    long getReflectiveCalls();
+
+    long getCompareCount();
+
+    double getCompareMeanNanos();
+
+    long getCompareP99Nanos();
+
+    long getMismatchExceptions();
+
+    long getFirstTypeMatchingCount();
+
+    double getFirstTypeMatchingMeanNanos();
+
+    long getFirstTypeMatchingP99Nanos();
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    long getCacheEvictions();
+
+    /**
+     * Ratio of cache requests served from the cache which, as with
+     * `ParseCache.Stats.hitRate()`, is 1 should no requests have been made.
+     * 
+     * @return hit ratio between 0 and 1.
+     */
+    double getCacheHitRatio();
+
+    double getCacheLoadMeanNanos();
+
+    /**
+     * Forget all measurements taken thus far.
+     */
+    void reset();
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values bucketed by powers of 2. Bucket
+ * `n` holds values within [2^(n-1), 2^n) (bucket 0 holding only 0) such that
+ * percentiles are accurate to within a factor of 2 for a fixed 65 counters.
+ * 
+ * @author cdancy
+ */
+public final class Log2Histogram {
+
+    private static final int BUCKETS = 65;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a single value. Negative values are recorded as 0.
+     * 
+     * @param value value to record.
+     */
+    public void record(final long value) {
+        final long positive = Math.max(0, value);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(positive));
+        count.increment();
+        sum.add(positive);
+        max.accumulate(positive);
+    }
+
+    /**
+     * Number of values recorded.
+     * 
+     * @return number of values.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Sum of all values recorded.
+     * 
+     * @return sum of values.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Largest value recorded.
+     * 
+     * @return largest value or 0 if none recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Mean of all values recorded.
+     * 
+     * @return mean or 0 if none recorded.
+     */
+    public double mean() {
+        final long total = count();
+        return total == 0 ? 0.0D : (double) sum() / total;
+    }
+
+    /**
+     * Get the upper bound of the bucket holding the passed percentile.
+     * 
+     * @param percentile percentile between 0 and 1 (e.g. 0.99).
+     * @return upper bound of the values at said percentile or 0 if none recorded.
+     */
+    public long percentile(final double percentile) {
+        if (percentile < 0.0D || percentile > 1.0D) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1: " + percentile);
+        }
+
+        long total = 0;
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        final long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return (i == 0) ? 0 : Math.min(max(), (i == Long.SIZE) ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Forget all values recorded.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
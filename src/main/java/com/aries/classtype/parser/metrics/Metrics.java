@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Holder of the MetricsRecorder currently installed. Defaults to
+ * `MetricsRecorder.NOOP` in which case the parser skips taking
+ * measurements altogether.
+ * 
+ * @author cdancy
+ */
+public final class Metrics {
+
+    /**
+     * ObjectName under which `registerMBean` exposes a StatisticsRecorder.
+     */
+    public static final String OBJECT_NAME = "com.aries.classtype.parser:type=Metrics";
+
+    private static volatile MetricsRecorder recorder = MetricsRecorder.NOOP;
+
+    private Metrics() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+
+    /**
+     * Get the MetricsRecorder currently installed.
+     * 
+     * @return installed MetricsRecorder.
+     */
+    public static MetricsRecorder recorder() {
+        return recorder;
+    }
+
+    /**
+     * Install a MetricsRecorder replacing whichever was previously installed.
+     * 
+     * @param newRecorder non-null MetricsRecorder to install.
+     */
+    public static void install(final MetricsRecorder newRecorder) {
+        recorder = Objects.requireNonNull(newRecorder, "recorder cannot be NULL");
+    }
+
+    /**
+     * Go back to recording nothing at all.
+     */
+    public static void uninstall() {
+        recorder = MetricsRecorder.NOOP;
+    }
+
+    /**
+     * Whether a MetricsRecorder, other than the no-op default, is installed.
+     * 
+     * @return true if recording false otherwise.
+     */
+    public static boolean isEnabled() {
+        return recorder != MetricsRecorder.NOOP;
+    }
+
+    /**
+     * Register the passed StatisticsRecorder with the platform MBeanServer
+     * under `OBJECT_NAME` replacing any previous registration.
+     * 
+     * @param statistics non-null StatisticsRecorder to expose.
+     * @return ObjectName registered under.
+     */
+    public static ObjectName registerMBean(final StatisticsRecorder statistics) {
+        Objects.requireNonNull(statistics, "statistics cannot be NULL");
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(statistics, name);
+            return name;
+        } catch (final JMException e) {
+            throw new IllegalStateException("Failed registering MBean: " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Unregister whichever StatisticsRecorder is registered under `OBJECT_NAME`.
+     */
+    public static void unregisterMBean() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (final JMException e) {
+            throw new IllegalStateException("Failed unregistering MBean: " + OBJECT_NAME, e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.metrics;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+import java.util.function.IntSupplier;
+
+/**
+ * Receives measurements taken around the parsers hot paths. All methods
+ * default to doing nothing such that implementations need only override
+ * those they are interested in. Implementations must be thread-safe and
+ * should return quickly as they are called inline.
+ * 
+ * <p>
+ * Each measured operation first calls its `start` method, on the very same
+ * thread, and passes whatever it returned back to the detailed `record` method
+ * once done. This lets recorders, such as those emitting Java Flight Recorder
+ * events, time the operation themselves. The detailed `record` methods default
+ * to calling their simpler counterparts.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Recorder which does nothing. While installed no measurements are taken at all.
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+    };
+
+    /**
+     * Called right before a `ClassType.parse` begins.
+     * 
+     * @return token passed back to the detailed `recordParse` (can be null).
+     */
+    default Object startParse() {
+        return null;
+    }
+
+    /**
+     * Record a call to `ClassType.parse`.
+     * 
+     * @param durationNanos time taken in nanoseconds.
+     * @param nodes number of ClassType nodes built (0 if served from cache).
+     * @param reflectiveCalls number of reflective calls made (e.g. `getGenericInterfaces`).
+     */
+    default void recordParse(final long durationNanos, final int nodes, final int reflectiveCalls) {
+    }
+
+    /**
+     * Record a call to `ClassType.parse` along with all of its details. The
+     * depth walks the resulting tree and so should only be computed by those
+     * recorders actually making use of it.
+     * 
+     * @param token whatever `startParse` returned.
+     * @param root the Class parsed.
+     * @param options ParseOptions used.
+     * @param durationNanos time taken in nanoseconds.
+     * @param nodes number of ClassType nodes built (0 if served from cache).
+     * @param depth computes the depth of the resulting tree, not counting unresolved lazy children, or 0 if failed.
+     * @param reflectiveCalls number of reflective calls made (e.g. `getGenericInterfaces`).
+     * @param outcome how the resulting ClassType came about.
+     */
+    default void recordParse(final Object token,
+            final Class root,
+            final ParseOptions options,
+            final long durationNanos,
+            final int nodes,
+            final IntSupplier depth,
+            final int reflectiveCalls,
+            final ParseOutcome outcome) {
+        recordParse(durationNanos, nodes, reflectiveCalls);
+    }
+
+    /**
+     * Called right before a comparison (e.g. `ClassType.compare`) begins.
+     * 
+     * @return token passed back to the detailed `recordCompare` (can be null).
+     */
+    default Object startCompare() {
+        return null;
+    }
+
+    /**
+     * Record a comparison (i.e. `ClassType.compare`, `compareTo` or `compareWith`).
+     * 
+     * @param durationNanos time taken in nanoseconds.
+     * @param mismatch true if a TypeMismatchException was thrown.
+     */
+    default void recordCompare(final long durationNanos, final boolean mismatch) {
+    }
+
+    /**
+     * Record a comparison along with all of its details.
+     * 
+     * @param token whatever `startCompare` returned.
+     * @param source ClassType acting as source.
+     * @param target ClassType acting as target (can be null).
+     * @param durationNanos time taken in nanoseconds.
+     * @param code resulting compare code (see `CompareResult`).
+     * @param thrown true if a TypeMismatchException is about to be thrown.
+     */
+    default void recordCompare(final Object token,
+            final ClassType source,
+            final ClassType target,
+            final long durationNanos,
+            final int code,
+            final boolean thrown) {
+        recordCompare(durationNanos, thrown);
+    }
+
+    /**
+     * Record a call to `ClassType.firstTypeMatching`.
+     * 
+     * @param durationNanos time taken in nanoseconds.
+     * @param found true if a matching ClassType was found.
+     */
+    default void recordFirstTypeMatching(final long durationNanos, final boolean found) {
+    }
+
+    /**
+     * Record a ParseCache hit.
+     */
+    default void recordCacheHit() {
+    }
+
+    /**
+     * Record a ParseCache miss.
+     * 
+     * @param loadNanos time taken to parse the missing ClassType in nanoseconds.
+     */
+    default void recordCacheMiss(final long loadNanos) {
+    }
+
+    /**
+     * Record a ParseCache eviction.
+     */
+    default void recordCacheEviction() {
+    }
+}
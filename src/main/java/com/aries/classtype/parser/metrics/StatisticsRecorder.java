@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricsRecorder keeping counts and log2 latency histograms of everything
+ * recorded. Can be exposed over JMX by way of `Metrics.registerMBean`.
+ * 
+ * @author cdancy
+ */
+public final class StatisticsRecorder implements MetricsRecorder, ClassTypeMetricsMXBean {
+
+    private final Log2Histogram parseLatency = new Log2Histogram();
+    private final Log2Histogram parseNodes = new Log2Histogram();
+    private final LongAdder reflectiveCalls = new LongAdder();
+    private final Log2Histogram compareLatency = new Log2Histogram();
+    private final LongAdder mismatches = new LongAdder();
+    private final Log2Histogram firstTypeMatchingLatency = new Log2Histogram();
+    private final LongAdder cacheHits = new LongAdder();
+    private final Log2Histogram cacheLoadLatency = new Log2Histogram();
+    private final LongAdder cacheEvictions = new LongAdder();
+
+    @Override
+    public void recordParse(final long durationNanos, final int nodes, final int reflectiveCallCount) {
+        parseLatency.record(durationNanos);
+        parseNodes.record(nodes);
+        reflectiveCalls.add(reflectiveCallCount);
+    }
+
+    @Override
+    public void recordCompare(final long durationNanos, final boolean mismatch) {
+        compareLatency.record(durationNanos);
+        if (mismatch) {
+            mismatches.increment();
+        }
+    }
+
+    @Override
+    public void recordFirstTypeMatching(final long durationNanos, final boolean found) {
+        firstTypeMatchingLatency.record(durationNanos);
+    }
+
+    @Override
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void recordCacheMiss(final long loadNanos) {
+        cacheLoadLatency.record(loadNanos);
+    }
+
+    @Override
+    public void recordCacheEviction() {
+        cacheEvictions.increment();
+    }
+
+    /**
+     * Histogram of `ClassType.parse` latencies in nanoseconds.
+     * 
+     * @return parse latency histogram.
+     */
+    public Log2Histogram parseLatency() {
+        return parseLatency;
+    }
+
+    /**
+     * Histogram of the number of nodes built per `ClassType.parse`.
+     * 
+     * @return nodes per parse histogram.
+     */
+    public Log2Histogram parseNodes() {
+        return parseNodes;
+    }
+
+    /**
+     * Histogram of `ClassType.compare` latencies in nanoseconds.
+     * 
+     * @return compare latency histogram.
+     */
+    public Log2Histogram compareLatency() {
+        return compareLatency;
+    }
+
+    /**
+     * Histogram of `ClassType.firstTypeMatching` latencies in nanoseconds.
+     * 
+     * @return firstTypeMatching latency histogram.
+     */
+    public Log2Histogram firstTypeMatchingLatency() {
+        return firstTypeMatchingLatency;
+    }
+
+    /**
+     * Histogram of ParseCache load latencies, on misses, in nanoseconds.
+     * 
+     * @return cache load latency histogram.
+     */
+    public Log2Histogram cacheLoadLatency() {
+        return cacheLoadLatency;
+    }
+
+    @Override
+    public long getParseCount() {
+        return parseLatency.count();
+    }
+
+    @Override
+    public double getParseMeanNanos() {
+        return parseLatency.mean();
+    }
+
+    @Override
+    public long getParseP50Nanos() {
+        return parseLatency.percentile(0.5D);
+    }
+
+    @Override
+    public long getParseP99Nanos() {
+        return parseLatency.percentile(0.99D);
+    }
+
+    @Override
+    public long getParseMaxNanos() {
+        return parseLatency.max();
+    }
+
+    @Override
+    public long getNodesBuilt() {
+        return parseNodes.sum();
+    }
+
+    @Override
+    public double getNodesPerParseMean() {
+        return parseNodes.mean();
+    }
+
+    @Override
+    public long getReflectiveCalls() {
+        return reflectiveCalls.sum();
+    }
+
+    @Override
+    public long getCompareCount() {
+        return compareLatency.count();
+    }
+
+    @Override
+    public double getCompareMeanNanos() {
+        return compareLatency.mean();
+    }
+
+    @Override
+    public long getCompareP99Nanos() {
+        return compareLatency.percentile(0.99D);
+    }
+
+    @Override
+    public long getMismatchExceptions() {
+        return mismatches.sum();
+    }
+
+    @Override
+    public long getFirstTypeMatchingCount() {
+        return firstTypeMatchingLatency.count();
+    }
+
+    @Override
+    public double getFirstTypeMatchingMeanNanos() {
+        return firstTypeMatchingLatency.mean();
+    }
+
+    @Override
+    public long getFirstTypeMatchingP99Nanos() {
+        return firstTypeMatchingLatency.percentile(0.99D);
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheLoadLatency.count();
+    }
+
+    @Override
+    public long getCacheEvictions() {
+        return cacheEvictions.sum();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        final long hits = getCacheHits();
+        final long requests = hits + getCacheMisses();
+        return requests == 0 ? 1.0D : (double) hits / requests;
+    }
+
+    @Override
+    public double getCacheLoadMeanNanos() {
+        return cacheLoadLatency.mean();
+    }
+
+    @Override
+    public void reset() {
+        parseLatency.reset();
+        parseNodes.reset();
+        reflectiveCalls.reset();
+        compareLatency.reset();
+        mismatches.reset();
+        firstTypeMatchingLatency.reset();
+        cacheHits.reset();
+        cacheLoadLatency.reset();
+        cacheEvictions.reset();
+    }
+}
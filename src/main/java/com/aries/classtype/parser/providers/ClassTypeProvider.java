@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.providers;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+
+/**
+ * Source of already computed ClassType trees (e.g. persisted, generated at
+ * compile time, etc.) consulted, once registered with ClassTypeProviders,
+ * by `ClassType.parse` before falling back to parsing by reflection.
+ * Implementations must be thread-safe.
+ * 
+ * @author cdancy
+ */
+@FunctionalInterface
+public interface ClassTypeProvider {
+
+    /**
+     * Provide the ClassType of the passed Class. The provided tree must be
+     * exactly what parsing the Class with the passed ParseOptions would produce.
+     * 
+     * @param clazz non-null Class to provide the ClassType of.
+     * @param options non-null ParseOptions the ClassType is requested with.
+     * @return frozen ClassType or null if this provider can't provide it.
+     */
+    ClassType provide(Class clazz, ParseOptions options);
+}
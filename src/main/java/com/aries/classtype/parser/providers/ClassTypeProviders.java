@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.providers;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the ClassTypeProvider's consulted, in registration order, by
+ * `ClassType.parse`. With nothing registered consulting them amounts to a
+ * single volatile read.
+ * 
+ * <p>
+ * ClassTypeProvider's declared as services (i.e. within
+ * `META-INF/services/com.aries.classtype.parser.providers.ClassTypeProvider`),
+ * such as those generated for `@Precomputed` classes, which are visible from
+ * the context ClassLoader are registered upon first use. Those of other
+ * ClassLoader's can be registered with `registerServices`.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class ClassTypeProviders {
+
+    private static final ClassTypeProvider[] NONE = new ClassTypeProvider[0];
+
+    // copy-on-write as registering is rare whereas consulting happens on every parse
+    private static volatile ClassTypeProvider[] providers = NONE;
+
+    static {
+        registerServices(Thread.currentThread().getContextClassLoader());
+    }
+
+    private ClassTypeProviders() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+
+    /**
+     * Register a ClassTypeProvider to be consulted after all those registered before it.
+     * Registering an already registered ClassTypeProvider is a no-op.
+     * 
+     * @param provider non-null ClassTypeProvider to register.
+     */
+    public static synchronized void register(final ClassTypeProvider provider) {
+        Objects.requireNonNull(provider, "provider cannot be NULL");
+        if (!Arrays.asList(providers).contains(provider)) {
+            final ClassTypeProvider[] registered = Arrays.copyOf(providers, providers.length + 1);
+            registered[providers.length] = provider;
+            providers = registered;
+        }
+    }
+
+    /**
+     * Register every ClassTypeProvider declared as a service visible from the
+     * passed ClassLoader skipping those whose class is already registered as
+     * well as those which fail to load.
+     * 
+     * @param loader ClassLoader to look services up from or null for the system ClassLoader.
+     * @return number of newly registered ClassTypeProvider's.
+     */
+    public static synchronized int registerServices(final ClassLoader loader) {
+        int registered = 0;
+        final Iterator<ClassTypeProvider> services = ServiceLoader.load(ClassTypeProvider.class, loader).iterator();
+        while (true) {
+            final ClassTypeProvider service;
+            try {
+                if (!services.hasNext()) {
+                    return registered;
+                }
+                service = services.next();
+            } catch (final ServiceConfigurationError e) {
+
+                // a single broken service must not keep the others from loading
+                continue;
+            }
+
+            if (!isRegistered(service.getClass())) {
+                register(service);
+                registered++;
+            }
+        }
+    }
+
+    private static boolean isRegistered(final Class<?> providerClass) {
+        for (final ClassTypeProvider provider : providers) {
+            if (provider.getClass() == providerClass) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unregister a previously registered ClassTypeProvider.
+     * 
+     * @param provider ClassTypeProvider to unregister.
+     * @return true if it was registered false otherwise.
+     */
+    public static synchronized boolean unregister(final ClassTypeProvider provider) {
+        final int index = Arrays.asList(providers).indexOf(provider);
+        if (index < 0) {
+            return false;
+        }
+
+        final ClassTypeProvider[] registered = new ClassTypeProvider[providers.length - 1];
+        System.arraycopy(providers, 0, registered, 0, index);
+        System.arraycopy(providers, index + 1, registered, index, registered.length - index);
+        providers = registered;
+        return true;
+    }
+
+    /**
+     * Unregister every ClassTypeProvider.
+     */
+    public static synchronized void clear() {
+        providers = NONE;
+    }
+
+    /**
+     * Get the ClassTypeProvider's currently registered in the order they're consulted.
+     * 
+     * @return read-only list of ClassTypeProvider's.
+     */
+    public static List<ClassTypeProvider> providers() {
+        return Collections.unmodifiableList(Arrays.asList(providers));
+    }
+
+    /**
+     * Provide the ClassType of the passed Class from the first registered
+     * ClassTypeProvider able to do so.
+     * 
+     * @param clazz non-null Class to provide the ClassType of.
+     * @param options non-null ParseOptions the ClassType is requested with.
+     * @return frozen ClassType or null if no ClassTypeProvider could provide it.
+     */
+    public static ClassType provide(final Class clazz, final ParseOptions options) {
+        final ClassTypeProvider[] current = providers;
+        for (int i = 0; i < current.length; i++) {
+            final ClassType provided = current[i].provide(clazz, options);
+            if (provided != null) {
+                return provided;
+            }
+        }
+        return null;
+    }
+}
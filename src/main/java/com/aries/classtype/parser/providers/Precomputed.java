@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.providers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class whose ClassType is to be precomputed at compile time by the
+ * `classtype-parser-processor` annotation processor. The processor generates,
+ * per package, a ClassTypeProvider building the exact tree `ClassType.parse`
+ * would have produced with the given regexes and registers it as a service
+ * such that parsing finds it without any reflection.
+ * 
+ * <p>
+ * An empty regex, the default, is the equivalent of not setting said regex
+ * on the ParseOptions the precomputed tree is then served for. Trees are
+ * only ever served for ParseOptions making use of the default ClassResolver.
+ * </p>
+ * 
+ * @author cdancy
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Precomputed {
+
+    /**
+     * The super-classes to ignore.
+     * 
+     * @return regex or empty for none.
+     */
+    String classRegex() default "";
+
+    /**
+     * The super-classes params/args to ignore.
+     * 
+     * @return regex or empty for none.
+     */
+    String classParamRegex() default "";
+
+    /**
+     * The interfaces to ignore.
+     * 
+     * @return regex or empty for none.
+     */
+    String interfaceRegex() default "";
+
+    /**
+     * The interface params/args to ignore.
+     * 
+     * @return regex or empty for none.
+     */
+    String interfaceParamRegex() default "";
+}
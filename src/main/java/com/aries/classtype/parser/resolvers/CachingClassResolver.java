@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.resolvers;
+
+import com.aries.classtype.parser.utils.BoundedCache;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ClassResolver caching, per ClassLoader, the outcome of every resolution
+ * including those classes which could not be found. Classes are never initialized.
+ * 
+ * <p>
+ * ClassLoaders are only weakly referenced, as are the classes resolved through
+ * them, and so nothing held here will prevent a ClassLoader from being unloaded.
+ * Looking up the names of a given ClassLoader never locks and only the bounded
+ * number of most recently used names, found or not, are remembered per ClassLoader.
+ * Classes which only come to exist after a failed resolution (e.g. defined at
+ * runtime) will continue to not be found until their ClassLoader is invalidated
+ * or their name is evicted.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class CachingClassResolver implements ClassResolver {
+
+    /**
+     * Default maximum number of names remembered per ClassLoader.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    static final CachingClassResolver SHARED = new CachingClassResolver(ClassResolver.nonCaching());
+
+    // marker for names known to not be resolvable
+    private static final Object NOT_FOUND = new Object();
+
+    private final ClassResolver delegate;
+    private final int maximumSize;
+    private final ConcurrentMap<Object, LoaderNames> loaders = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> unloaded = new ReferenceQueue<>();
+    private final BoundedCache<String, Object> bootstrap;
+
+    // the ClassLoader last resolved against, which nearly always is the next one as well
+    private volatile LoaderNames recent;
+
+    /**
+     * Create a new CachingClassResolver on top of the passed delegate
+     * remembering up to `DEFAULT_MAXIMUM_SIZE` names per ClassLoader.
+     * 
+     * @param delegate non-null, non-initializing, ClassResolver to resolve cache misses with.
+     */
+    public CachingClassResolver(final ClassResolver delegate) {
+        this(delegate, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a new CachingClassResolver on top of the passed delegate.
+     * 
+     * @param delegate non-null, non-initializing, ClassResolver to resolve cache misses with.
+     * @param maximumSize maximum number of names remembered per ClassLoader.
+     * @throws IllegalArgumentException if the passed maximumSize is negative.
+     */
+    public CachingClassResolver(final ClassResolver delegate, final int maximumSize) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate cannot be NULL");
+        this.bootstrap = new BoundedCache<>(maximumSize);
+        this.maximumSize = maximumSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Class resolve(final String name, final ClassLoader loader) throws ClassNotFoundException {
+        final BoundedCache<String, Object> names = names(loader);
+        final Object cached = names.get(name);
+        if (cached == NOT_FOUND) {
+            throw new ClassNotFoundException(name);
+        } else if (cached != null) {
+            final Class clazz = ((WeakReference<Class>) cached).get();
+            if (clazz != null) {
+                return clazz;
+            }
+
+            // a cleared entry can't be replaced but, as classes outlive neither their
+            // own ClassLoader nor those delegating to it, is all but unreachable
+            return delegate.resolve(name, loader);
+        }
+
+        try {
+            final Class clazz = delegate.resolve(name, loader);
+            names.putIfAbsent(name, new WeakReference<>(clazz));
+            return clazz;
+        } catch (final ClassNotFoundException e) {
+            names.putIfAbsent(name, NOT_FOUND);
+            throw e;
+        }
+    }
+
+    /**
+     * Forget everything resolved against the passed ClassLoader.
+     * 
+     * @param loader ClassLoader to forget or null for the bootstrap ClassLoader.
+     */
+    public void invalidate(final ClassLoader loader) {
+        if (loader == null) {
+            bootstrap.clear();
+        } else {
+            final LoaderNames removed = loaders.remove(new LoaderKey(loader));
+            if (removed != null && recent == removed) {
+                recent = null;
+            }
+        }
+        expunge();
+    }
+
+    /**
+     * Forget everything resolved thus far.
+     */
+    public void invalidateAll() {
+        bootstrap.clear();
+        loaders.clear();
+        recent = null;
+        expunge();
+    }
+
+    private BoundedCache<String, Object> names(final ClassLoader loader) {
+        if (loader == null) {
+            return bootstrap;
+        }
+
+        final LoaderNames last = recent;
+        if (last != null && last.get() == loader) {
+            return last.names;
+        }
+
+        LoaderNames found = loaders.get(new LoaderKey(loader));
+        if (found == null) {
+            expunge();
+            final LoaderNames created = new LoaderNames(loader, unloaded, new BoundedCache<>(maximumSize));
+            found = loaders.putIfAbsent(created, created);
+            if (found == null) {
+                found = created;
+            }
+        }
+        recent = found;
+        return found.names;
+    }
+
+    /**
+     * Forget the names of those ClassLoaders which have since been unloaded.
+     */
+    private void expunge() {
+        Reference<? extends ClassLoader> reference;
+        while ((reference = unloaded.poll()) != null) {
+            loaders.remove(reference);
+        }
+    }
+
+    /**
+     * Names resolved against a given, weakly referenced, ClassLoader which also
+     * acts as its own key. Equal to any other LoaderNames, or LoaderKey, referencing
+     * the same, not yet collected, ClassLoader.
+     */
+    private static final class LoaderNames extends WeakReference<ClassLoader> {
+
+        private final int hash;
+        private final BoundedCache<String, Object> names;
+
+        private LoaderNames(final ClassLoader loader,
+                final ReferenceQueue<ClassLoader> queue,
+                final BoundedCache<String, Object> names) {
+            super(loader, queue);
+            this.hash = System.identityHashCode(loader);
+            this.names = names;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            final ClassLoader loader = get();
+            if (loader == null) {
+                return false;
+            } else if (other instanceof LoaderNames) {
+                return loader == ((LoaderNames) other).get();
+            } else if (other instanceof LoaderKey) {
+                return loader == ((LoaderKey) other).loader;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Allocation-light key used to look up the LoaderNames of a given ClassLoader.
+     * Equal to any other LoaderKey, or LoaderNames, referencing the same ClassLoader
+     * such that equality holds whichever side the map compares from.
+     */
+    private static final class LoaderKey {
+
+        private final ClassLoader loader;
+
+        private LoaderKey(final ClassLoader loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof LoaderKey) {
+                return loader == ((LoaderKey) other).loader;
+            } else if (other instanceof LoaderNames) {
+                return loader != null && loader == ((LoaderNames) other).get();
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(loader);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.resolvers;
+
+/**
+ * Resolves classes by name against an explicit ClassLoader. Implementations
+ * must never initialize the classes they resolve and must be thread-safe.
+ * 
+ * @author cdancy
+ */
+@FunctionalInterface
+public interface ClassResolver {
+
+    /**
+     * Resolve the Class of the passed name.
+     * 
+     * @param name binary name of Class to resolve (e.g. `java.util.Map$Entry`).
+     * @param loader ClassLoader to resolve against or null for the bootstrap ClassLoader.
+     * @return resolved, but not initialized, Class.
+     * @throws ClassNotFoundException if no such Class can be found.
+     */
+    Class resolve(String name, ClassLoader loader) throws ClassNotFoundException;
+
+    /**
+     * Get the shared, caching, ClassResolver used by default.
+     * 
+     * @return default ClassResolver.
+     */
+    static ClassResolver defaultResolver() {
+        return CachingClassResolver.SHARED;
+    }
+
+    /**
+     * Get a ClassResolver which delegates every request straight to its ClassLoader.
+     * 
+     * @return non-caching ClassResolver.
+     */
+    static ClassResolver nonCaching() {
+        return (name, loader) -> Class.forName(name, false, loader);
+    }
+}
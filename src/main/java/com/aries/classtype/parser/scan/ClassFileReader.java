@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the name, super-class, interfaces and generic signature of a class
+ * straight from its class file, skipping everything else (i.e. fields,
+ * methods and their code), without ever loading said class.
+ * 
+ * @author cdancy
+ */
+final class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String SIGNATURE = "Signature";
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+    private final String[] strings;
+
+    private ClassFileReader(final ByteBuffer buffer, final int poolSize) {
+        this.buffer = buffer;
+        this.offsets = new int[poolSize];
+        this.strings = new String[poolSize];
+    }
+
+    /**
+     * Read the passed class file.
+     * 
+     * @param classFile class file, from its position to its limit, to read.
+     * @param root index of the root the class file was found in.
+     * @return read ClassInfo.
+     * @throws IllegalArgumentException if the passed bytes aren't a well-formed class file.
+     */
+    static ClassInfo read(final ByteBuffer classFile, final int root) {
+        final ByteBuffer buffer = classFile.slice();
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw malformed("bad magic");
+            }
+            skip(buffer, 4);
+
+            final ClassFileReader reader = new ClassFileReader(buffer, unsigned(buffer.getShort()));
+            reader.readConstantPool();
+
+            skip(buffer, 2);
+            final String name = reader.className(unsigned(buffer.getShort()));
+            final int superIndex = unsigned(buffer.getShort());
+            final String superName = superIndex != 0 ? reader.className(superIndex) : null;
+
+            final int interfaceCount = unsigned(buffer.getShort());
+            final String[] interfaces = interfaceCount > 0 ? new String[interfaceCount] : ClassInfo.NO_INTERFACES;
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaces[i] = reader.className(unsigned(buffer.getShort()));
+            }
+
+            // fields and then methods
+            skipMembers(buffer);
+            skipMembers(buffer);
+
+            String signature = null;
+            final int attributeCount = unsigned(buffer.getShort());
+            for (int i = 0; i < attributeCount; i++) {
+                final int nameIndex = unsigned(buffer.getShort());
+                final int length = buffer.getInt();
+                if (SIGNATURE.equals(reader.utf8(nameIndex))) {
+                    signature = reader.utf8(unsigned(buffer.getShort()));
+                    skip(buffer, length - 2);
+                } else {
+                    skip(buffer, length);
+                }
+            }
+            return new ClassInfo(name, superName, interfaces, signature, root);
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw malformed("truncated");
+        }
+    }
+
+    private void readConstantPool() {
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] = buffer.position();
+            final int tag = buffer.get();
+            switch (tag) {
+            case CONSTANT_UTF8:
+                skip(buffer, unsigned(buffer.getShort()));
+                break;
+            case CONSTANT_CLASS:
+            case 8: // String
+            case 16: // MethodType
+            case 19: // Module
+            case 20: // Package
+                skip(buffer, 2);
+                break;
+            case 15: // MethodHandle
+                skip(buffer, 3);
+                break;
+            case 3: // Integer
+            case 4: // Float
+            case 9: // Fieldref
+            case 10: // Methodref
+            case 11: // InterfaceMethodref
+            case 12: // NameAndType
+            case 17: // Dynamic
+            case 18: // InvokeDynamic
+                skip(buffer, 4);
+                break;
+            case 5: // Long
+            case 6: // Double
+
+                // these take up 2 entries of the pool
+                skip(buffer, 8);
+                i++;
+                break;
+            default:
+                throw malformed("unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private String className(final int index) {
+        final int offset = offset(index, CONSTANT_CLASS);
+        return utf8(unsigned(buffer.getShort(offset + 1))).replace('/', '.');
+    }
+
+    /**
+     * Decode, once, the modified UTF-8 constant at the passed index.
+     */
+    private String utf8(final int index) {
+        String string = strings[index];
+        if (string == null) {
+            final int offset = offset(index, CONSTANT_UTF8);
+            final int length = unsigned(buffer.getShort(offset + 1));
+            final char[] chars = new char[length];
+            int count = 0;
+            for (int position = offset + 3, end = position + length; position < end; count++) {
+                final int first = buffer.get(position++) & 0xFF;
+                if (first < 0x80) {
+                    chars[count] = (char) first;
+                } else if ((first & 0xE0) == 0xC0) {
+                    chars[count] = (char) (((first & 0x1F) << 6) | (buffer.get(position++) & 0x3F));
+                } else if ((first & 0xF0) == 0xE0) {
+                    chars[count] = (char) (((first & 0x0F) << 12)
+                            | ((buffer.get(position++) & 0x3F) << 6)
+                            | (buffer.get(position++) & 0x3F));
+                } else {
+                    throw malformed("bad modified UTF-8");
+                }
+            }
+            string = strings[index] = new String(chars, 0, count);
+        }
+        return string;
+    }
+
+    private int offset(final int index, final int tag) {
+        if (index <= 0 || index >= offsets.length || buffer.get(offsets[index]) != tag) {
+            throw malformed("bad constant pool index " + index);
+        }
+        return offsets[index];
+    }
+
+    private static void skipMembers(final ByteBuffer buffer) {
+        final int count = unsigned(buffer.getShort());
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 6);
+            final int attributeCount = unsigned(buffer.getShort());
+            for (int j = 0; j < attributeCount; j++) {
+                skip(buffer, 2);
+                skip(buffer, buffer.getInt());
+            }
+        }
+    }
+
+    private static void skip(final ByteBuffer buffer, final int count) {
+        if (count < 0 || count > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + count);
+    }
+
+    private static int unsigned(final short value) {
+        return value & 0xFFFF;
+    }
+
+    private static IllegalArgumentException malformed(final String reason) {
+        return new IllegalArgumentException("Malformed class file: " + reason);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import com.aries.classtype.parser.signature.ClassSignature;
+
+/**
+ * What the scanning of a single class file retains: enough to build the
+ * ClassType-equivalent tree of said class without ever loading it.
+ * 
+ * @author cdancy
+ */
+final class ClassInfo {
+
+    static final String[] NO_INTERFACES = new String[0];
+
+    final String name;
+    final String superName;
+    final String[] interfaces;
+    final String signature;
+
+    // index of the root the class was found in where lower indexes take precedence
+    final int root;
+
+    // parsed only when a tree involving this class is first requested
+    private volatile ClassSignature parsedSignature;
+
+    ClassInfo(final String name, final String superName, final String[] interfaces, final String signature, final int root) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.signature = signature;
+        this.root = root;
+    }
+
+    /**
+     * Get the parsed generic signature of this class.
+     * 
+     * @return parsed ClassSignature or null if this class has no generic signature.
+     * @throws IllegalArgumentException if the generic signature is malformed.
+     */
+    ClassSignature signature() {
+        ClassSignature localSignature = parsedSignature;
+        if (localSignature == null && signature != null) {
+            localSignature = parsedSignature = ClassSignature.parse(signature);
+        }
+        return localSignature;
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Scans jars and directories of class files into a TypeIndex without ever
+ * loading, let alone initializing, a single class.
+ * 
+ * <p>
+ * Jars are memory-mapped and read straight from their central directory. The
+ * calling thread walks each root, in order, handing every class file off to a
+ * fixed pool of workers which inflate and read them. The queue in between is
+ * bounded: once full the calling thread reads class files itself, which keeps
+ * the number of class files in flight, and thereby memory, bounded. Should a
+ * class be found within multiple roots the first root wins as it would on a
+ * class-path.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class ClassPathScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String MODULE_INFO = "module-info.class";
+    private static final String META_INF = "META-INF";
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final List<Path> roots;
+    private final int threads;
+    private final int queueCapacity;
+    private final ClassLoader fallback;
+
+    private ClassPathScanner(final Builder builder) {
+        this.roots = Collections.unmodifiableList(new ArrayList<>(builder.roots));
+        this.threads = builder.threads;
+        this.queueCapacity = builder.queueCapacity;
+        this.fallback = builder.fallback;
+    }
+
+    /**
+     * Create a Builder for constructing a ClassPathScanner.
+     * 
+     * @return new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the roots, in order of precedence, this scanner scans.
+     * 
+     * @return unmodifiable List of roots.
+     */
+    public List<Path> roots() {
+        return roots;
+    }
+
+    /**
+     * Scan every root, skipping those which don't exist, into a TypeIndex.
+     * 
+     * @return TypeIndex of every class found.
+     * @throws IOException if any root or class file fails to be read.
+     * @throws InterruptedIOException if the calling thread is interrupted while scanning.
+     */
+    public TypeIndex scan() throws IOException {
+        final ConcurrentMap<String, ClassInfo> classes = new ConcurrentHashMap<>();
+        final Queue<IOException> failures = new ConcurrentLinkedQueue<>();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), WorkerFactory.INSTANCE, new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            for (int i = 0; i < roots.size(); i++) {
+                final Path root = roots.get(i);
+                if (Files.isDirectory(root)) {
+                    scanDirectory(root, i, executor, classes, failures);
+                } else if (Files.exists(root)) {
+                    scanJar(root, i, executor, classes, failures);
+                }
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // workers are still draining the queue
+            }
+        } catch (final InterruptedException | ClosedByInterruptException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted scanning " + roots);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Iterator<IOException> iterator = failures.iterator();
+        if (iterator.hasNext()) {
+            final IOException failure = iterator.next();
+            while (iterator.hasNext()) {
+                failure.addSuppressed(iterator.next());
+            }
+            throw failure;
+        }
+        return new TypeIndex(classes, fallback);
+    }
+
+    private static void scanDirectory(final Path root,
+            final int index,
+            final ThreadPoolExecutor executor,
+            final ConcurrentMap<String, ClassInfo> classes,
+            final Queue<IOException> failures) throws IOException, InterruptedException {
+        try (Stream<Path> files = Files.walk(root)) {
+            final Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                final Path file = iterator.next();
+                final String relative = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (isClassFile(relative) && Files.isRegularFile(file)) {
+                    checkInterrupted();
+                    executor.execute(() -> {
+                        try {
+                            add(ByteBuffer.wrap(Files.readAllBytes(file)), index, classes);
+                        } catch (final IOException | RuntimeException e) {
+                            failures.add(new IOException("Could not read " + file, e));
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private static void scanJar(final Path root,
+            final int index,
+            final ThreadPoolExecutor executor,
+            final ConcurrentMap<String, ClassInfo> classes,
+            final Queue<IOException> failures) throws IOException, InterruptedException {
+        final MappedZip zip = MappedZip.open(root);
+        if (zip == null) {
+            streamJar(root, index, executor, classes, failures);
+            return;
+        }
+
+        for (final MappedZip.Entry entry : zip.entries) {
+            if (isClassFile(entry.name)) {
+                checkInterrupted();
+                executor.execute(() -> {
+                    try {
+                        add(zip.read(entry), index, classes);
+                    } catch (final RuntimeException e) {
+                        failures.add(new IOException("Could not read " + entry.name + " of " + root, e));
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Stream, rather than map, the passed jar which is the only option for ZIP64 jars.
+     */
+    private static void streamJar(final Path root,
+            final int index,
+            final ThreadPoolExecutor executor,
+            final ConcurrentMap<String, ClassInfo> classes,
+            final Queue<IOException> failures) throws IOException, InterruptedException {
+        try (ZipInputStream input = new ZipInputStream(new BufferedInputStream(Files.newInputStream(root)))) {
+            for (ZipEntry entry = input.getNextEntry(); entry != null; entry = input.getNextEntry()) {
+                final String name = entry.getName();
+                if (!entry.isDirectory() && isClassFile(name)) {
+                    checkInterrupted();
+                    final byte[] bytes = readAll(input);
+                    executor.execute(() -> {
+                        try {
+                            add(ByteBuffer.wrap(bytes), index, classes);
+                        } catch (final RuntimeException e) {
+                            failures.add(new IOException("Could not read " + name + " of " + root, e));
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop handing class files off as soon as the scanning thread is interrupted.
+     */
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private static void add(final ByteBuffer classFile, final int index, final ConcurrentMap<String, ClassInfo> classes) {
+        final ClassInfo info = ClassFileReader.read(classFile, index);
+        classes.merge(info.name, info, (existing, added) -> existing.root <= added.root ? existing : added);
+    }
+
+    /**
+     * Whether the passed path, relative to its root, is that of a class file
+     * worth indexing (i.e. neither a module descriptor nor anything under
+     * `META-INF` such as the versioned classes of multi-release jars).
+     */
+    private static boolean isClassFile(final String path) {
+        return path.endsWith(CLASS_SUFFIX)
+                && !path.startsWith(META_INF + '/')
+                && !path.equals(MODULE_INFO);
+    }
+
+    static byte[] readAll(final InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Creates the daemon threads workers run on.
+     */
+    private enum WorkerFactory implements ThreadFactory {
+        INSTANCE;
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "classtype-parser-scanner-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Builder used to create a ClassPathScanner.
+     */
+    public static final class Builder {
+
+        private final List<Path> roots = new ArrayList<>();
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private ClassLoader fallback = ClassLoader.getSystemClassLoader().getParent();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a jar, or directory of class files, to scan.
+         * 
+         * @param root non-null jar or directory.
+         * @return this Builder.
+         */
+        public Builder root(final Path root) {
+            roots.add(Objects.requireNonNull(root, "root cannot be NULL"));
+            return this;
+        }
+
+        /**
+         * Add every entry of the passed class-path (e.g. `System.getProperty("java.class.path")`).
+         * 
+         * @param classPath non-null class-path whose entries are separated by `File.pathSeparator`.
+         * @return this Builder.
+         */
+        public Builder classPath(final String classPath) {
+            for (final String entry : classPath.split(File.pathSeparator)) {
+                if (!entry.isEmpty()) {
+                    root(Paths.get(entry));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Set the number of worker threads reading class files. Defaults to
+         * the number of available processors.
+         * 
+         * @param threads positive number of worker threads.
+         * @return this Builder.
+         */
+        public Builder threads(final int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("threads must be positive: " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Set the number of class files which may be queued up for the workers.
+         * Defaults to 1024.
+         * 
+         * @param queueCapacity positive capacity of the queue.
+         * @return this Builder.
+         */
+        public Builder queueCapacity(final int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Set the ClassLoader whose resources the class files of classes not
+         * found within the scanned roots are read from. Defaults to the parent
+         * of the system ClassLoader, which covers the classes of the JDK.
+         * 
+         * @param fallback ClassLoader to fall back to or null to not fall back at all.
+         * @return this Builder.
+         */
+        public Builder fallback(final ClassLoader fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        /**
+         * Build the ClassPathScanner.
+         * 
+         * @return new ClassPathScanner.
+         */
+        public ClassPathScanner build() {
+            return new ClassPathScanner(this);
+        }
+    }
+}
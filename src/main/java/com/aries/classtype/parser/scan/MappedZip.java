@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Memory-mapped zip (e.g. jar) archive read straight from its central directory.
+ * Entries are read through absolute accesses only such that any number of
+ * threads can read entries of the same archive at once.
+ * 
+ * <p>
+ * ZIP64 archives, as well as archives too large to be mapped at once, aren't
+ * supported: `open` returns null for those so that the caller can fall back to
+ * streaming them instead.
+ * </p>
+ * 
+ * @author cdancy
+ */
+final class MappedZip {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int ENTRY_SIGNATURE = 0x02014b50;
+    private static final int ENTRY_SIZE = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_SIZE = 30;
+    private static final int ZIP64_COUNT = 0xFFFF;
+    private static final long ZIP64_SIZE = 0xFFFFFFFFL;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private final ByteBuffer buffer;
+    final List<Entry> entries;
+
+    private MappedZip(final ByteBuffer buffer, final List<Entry> entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    /**
+     * A single (file) entry of a zip archive.
+     */
+    static final class Entry {
+
+        final String name;
+        final int method;
+        final int compressedSize;
+        final int size;
+        final int localOffset;
+
+        Entry(final String name, final int method, final int compressedSize, final int size, final int localOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localOffset = localOffset;
+        }
+    }
+
+    /**
+     * Map the passed zip archive and read its central directory.
+     * 
+     * @param file zip archive to open.
+     * @return opened MappedZip or null if the passed archive is a ZIP64 archive or too large.
+     * @throws IOException if the passed archive can't be mapped or isn't a well-formed zip archive.
+     */
+    static MappedZip open(final Path file) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        final int end = findEnd(buffer);
+        if (end < 0) {
+            throw new IOException("Not a zip archive: " + file);
+        }
+
+        final int count = unsignedShort(buffer, end + 10);
+        final long directoryOffset = unsignedInt(buffer, end + 16);
+        if (count == ZIP64_COUNT || directoryOffset == ZIP64_SIZE) {
+            return null;
+        }
+
+        final List<Entry> entries = new ArrayList<>(count);
+        int offset = (int) directoryOffset;
+        for (int i = 0; i < count; i++) {
+            if (offset < 0 || offset > buffer.limit() - ENTRY_SIZE || buffer.getInt(offset) != ENTRY_SIGNATURE) {
+                throw new IOException("Malformed central directory in " + file);
+            }
+
+            final int nameLength = unsignedShort(buffer, offset + 28);
+            final long compressedSize = unsignedInt(buffer, offset + 20);
+            final long size = unsignedInt(buffer, offset + 24);
+            final long localOffset = unsignedInt(buffer, offset + 42);
+            if (compressedSize == ZIP64_SIZE || size == ZIP64_SIZE || localOffset == ZIP64_SIZE) {
+                return null;
+            }
+
+            // sizes and offsets are read as ints from here on and must not turn negative
+            if (nameLength > buffer.limit() - offset - ENTRY_SIZE
+                    || compressedSize > Integer.MAX_VALUE
+                    || size > Integer.MAX_VALUE
+                    || localOffset > Integer.MAX_VALUE) {
+                throw new IOException("Malformed central directory in " + file);
+            }
+
+            final byte[] name = new byte[nameLength];
+            final ByteBuffer nameBuffer = buffer.duplicate();
+            nameBuffer.position(offset + ENTRY_SIZE);
+            nameBuffer.get(name);
+
+            // directories are of no interest
+            if (nameLength > 0 && name[nameLength - 1] != '/') {
+                entries.add(new Entry(new String(name, StandardCharsets.UTF_8), unsignedShort(buffer, offset + 10),
+                        (int) compressedSize, (int) size, (int) localOffset));
+            }
+            offset += ENTRY_SIZE + nameLength + unsignedShort(buffer, offset + 30) + unsignedShort(buffer, offset + 32);
+        }
+        return new MappedZip(buffer, entries);
+    }
+
+    /**
+     * Read, inflating it as needed, the contents of the passed entry.
+     * 
+     * @param entry entry, of this archive, to read.
+     * @return read contents.
+     * @throws IllegalArgumentException if the passed entry is corrupt or compressed with an unsupported method.
+     */
+    ByteBuffer read(final Entry entry) {
+        final int local = entry.localOffset;
+        if (local > buffer.limit() - LOCAL_SIZE || buffer.getInt(local) != LOCAL_SIGNATURE) {
+            throw new IllegalArgumentException("Malformed local header of " + entry.name);
+        }
+
+        final int data = local + LOCAL_SIZE + unsignedShort(buffer, local + 26) + unsignedShort(buffer, local + 28);
+        if (data > buffer.limit() - entry.compressedSize) {
+            throw new IllegalArgumentException("Truncated entry " + entry.name);
+        }
+
+        final ByteBuffer compressed = buffer.duplicate();
+        compressed.position(data);
+        compressed.limit(data + entry.compressedSize);
+        if (entry.method == STORED) {
+            return compressed.slice();
+        } else if (entry.method != DEFLATED) {
+            throw new IllegalArgumentException("Unsupported compression method " + entry.method + " of " + entry.name);
+        }
+
+        final byte[] input = new byte[entry.compressedSize];
+        compressed.get(input);
+        final byte[] output = new byte[entry.size];
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            int inflated = 0;
+            while (inflated < output.length && !inflater.finished() && !inflater.needsInput()) {
+                inflated += inflater.inflate(output, inflated, output.length - inflated);
+            }
+            if (inflated != output.length) {
+                throw new IllegalArgumentException("Corrupt entry " + entry.name);
+            }
+        } catch (final DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt entry " + entry.name, e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(output);
+    }
+
+    /**
+     * Find the end of central directory record which is followed only by the archive's comment.
+     */
+    private static int findEnd(final ByteBuffer buffer) {
+        final int last = buffer.limit() - END_SIZE;
+        for (int offset = last; offset >= 0 && offset >= last - MAX_COMMENT_SIZE; offset--) {
+            if (buffer.getInt(offset) == END_SIGNATURE && unsignedShort(buffer, offset + 20) == last - offset) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static int unsignedShort(final ByteBuffer buffer, final int offset) {
+        return buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private static long unsignedInt(final ByteBuffer buffer, final int offset) {
+        return buffer.getInt(offset) & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import com.aries.classtype.parser.utils.Constants;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, name-based, counterpart of a ClassType as built by a TypeIndex
+ * from class files alone. Its String form is that of the ClassType parsing
+ * the very same class would produce (e.g. `java.util.ArrayList&lt;java.lang.String, ...&gt;`).
+ * 
+ * @author cdancy
+ */
+public final class ScannedType {
+
+    private final String name;
+    private final List<ScannedType> children;
+    private int hash;
+
+    ScannedType(final String name, final List<ScannedType> children) {
+        this.name = name;
+        this.children = children;
+    }
+
+    /**
+     * Get the binary name (e.g. `java.util.Map$Entry`) of the class this ScannedType represents.
+     * 
+     * @return binary name of class.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Get the children of this ScannedType.
+     * 
+     * @return unmodifiable List of children.
+     */
+    public List<ScannedType> children() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Resolve every class of this tree, thereby loading them, into the equivalent ClassType.
+     * 
+     * @param resolver non-null ClassResolver to resolve classes with.
+     * @param loader ClassLoader to resolve classes against or null for the bootstrap ClassLoader.
+     * @return equivalent, frozen, ClassType.
+     * @throws ClassNotFoundException if any class of this tree can't be resolved.
+     */
+    public ClassType toClassType(final ClassResolver resolver, final ClassLoader loader) throws ClassNotFoundException {
+        Objects.requireNonNull(resolver, "resolver cannot be NULL");
+        return toClassType(this, resolver, loader, new HashMap<>());
+    }
+
+    private static ClassType toClassType(final ScannedType scannedType,
+            final ClassResolver resolver,
+            final ClassLoader loader,
+            final Map<String, Class> resolved) throws ClassNotFoundException {
+        Class clazz = resolved.get(scannedType.name);
+        if (clazz == null) {
+            clazz = resolver.resolve(scannedType.name, loader);
+            resolved.put(scannedType.name, clazz);
+        }
+
+        final ClassType.Builder builder = ClassType.builder(clazz);
+        for (final ScannedType child : scannedType.children) {
+            builder.child(toClassType(child, resolver, loader, resolved));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof ScannedType)) {
+            return false;
+        }
+
+        final ScannedType scannedType = (ScannedType) other;
+        return hashCode() == scannedType.hashCode()
+                && name.equals(scannedType.name)
+                && children.equals(scannedType.children);
+    }
+
+    @Override
+    public int hashCode() {
+        int localHash = hash;
+        if (localHash == 0) {
+            localHash = name.hashCode();
+            for (final ScannedType child : children) {
+                localHash = 31 * localHash + child.hashCode();
+            }
+            hash = localHash;
+        }
+        return localHash;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        print(this, builder);
+        return builder.toString();
+    }
+
+    private static void print(final ScannedType scannedType, final StringBuilder builder) {
+        builder.append(scannedType.name);
+        final int size = scannedType.children.size();
+        if (size > 0) {
+            builder.append(Constants.GREATER_THAN);
+            for (int i = 0; i < size; i++) {
+                if (i != 0) {
+                    builder.append(Constants.COMMA_SPACE);
+                }
+                print(scannedType.children.get(i), builder);
+            }
+            builder.append(Constants.LESS_THAN);
+        }
+    }
+}
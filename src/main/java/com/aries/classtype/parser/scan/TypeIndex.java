@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import com.aries.classtype.parser.ParseOptions;
+import com.aries.classtype.parser.signature.ClassSignature;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the classes found by a ClassPathScanner from which ScannedType's,
+ * mirroring exactly what `ClassType.parse` would produce, are built without
+ * ever loading a class.
+ * 
+ * <p>
+ * Classes referenced by, but not found within, the scanned roots (e.g. those of
+ * the JDK) are read, still as class files only, through the fallback ClassLoader
+ * of the scanner. Classes which can't be found at all end up as leaves.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class TypeIndex {
+
+    private static final String OBJECT_NAME = Object.class.getName();
+    private static final Object MISSING = new Object();
+
+    private final Map<String, ClassInfo> classes;
+    private final ClassLoader fallback;
+    private final ConcurrentMap<String, Object> fallbackClasses = new ConcurrentHashMap<>();
+
+    // trees built without any regexes, shared by all the trees climbing them
+    private final ConcurrentMap<String, ScannedType> unfilteredTrees = new ConcurrentHashMap<>();
+
+    TypeIndex(final Map<String, ClassInfo> classes, final ClassLoader fallback) {
+        this.classes = classes;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Get the number of classes found within the scanned roots.
+     * 
+     * @return number of scanned classes.
+     */
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * Get the binary names of the classes found within the scanned roots.
+     * 
+     * @return unmodifiable Set of binary names.
+     */
+    public Set<String> classNames() {
+        return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    /**
+     * Whether a class of the passed binary name was found within the scanned roots.
+     * 
+     * @param name binary name of class.
+     * @return true if found, false otherwise.
+     */
+    public boolean contains(final String name) {
+        return classes.containsKey(name);
+    }
+
+    /**
+     * Build the ScannedType of the passed class as `ClassType.parse` would.
+     * 
+     * @param name binary name (e.g. `java.util.Map$Entry`) of class.
+     * @return built ScannedType or null if no such class can be found.
+     * @throws IllegalArgumentException if the class files involved are malformed or
+     *     the generic hierarchy is recursive such that parsing would never end.
+     */
+    public ScannedType tree(final String name) {
+        return tree(name, ParseOptions.DEFAULT_PARSER_OPTIONS);
+    }
+
+    /**
+     * Build the ScannedType of the passed class as `ClassType.parse` would
+     * with the same ParseOptions.
+     * 
+     * @param name binary name (e.g. `java.util.Map$Entry`) of class.
+     * @param options non-null ParseOptions whose regexes to honor.
+     * @return built ScannedType or null if no such class can be found.
+     * @throws IllegalArgumentException if the class files involved are malformed or
+     *     the generic hierarchy is recursive such that parsing would never end.
+     */
+    public ScannedType tree(final String name, final ParseOptions options) {
+        Objects.requireNonNull(name, "name cannot be NULL");
+        Objects.requireNonNull(options, "options cannot be NULL");
+        final ClassInfo info = info(name);
+        return info != null ? new TreeBuilder(options).buildClass(info) : null;
+    }
+
+    /**
+     * Builds the ScannedType's of a single request keeping track of the
+     * parameterized types currently being built.
+     */
+    private final class TreeBuilder {
+
+        private final ParseOptions options;
+        private final Set<ClassSignature.GenericType> path = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        TreeBuilder(final ParseOptions options) {
+            this.options = options;
+        }
+
+        ScannedType buildClass(final ClassInfo info) {
+            final boolean unfiltered = options.classPattern == null
+                    && options.classParamPattern == null
+                    && options.interfacePattern == null
+                    && options.interfaceParamPattern == null;
+            if (unfiltered) {
+                final ScannedType tree = unfilteredTrees.get(info.name);
+                if (tree != null) {
+                    return tree;
+                }
+            }
+
+            final List<ScannedType> children = new ArrayList<>();
+            final ClassSignature signature = info.signature();
+            if (signature != null && signature.typeParameters() > 0 && !matches(options.classParamPattern, OBJECT_NAME)) {
+                for (int i = 0; i < signature.typeParameters(); i++) {
+                    children.add(leaf(OBJECT_NAME));
+                }
+            }
+
+            buildInterfaces(info, children);
+            buildSuperClass(info, children);
+            final ScannedType tree = new ScannedType(info.name, children);
+            if (unfiltered) {
+                final ScannedType existing = unfilteredTrees.putIfAbsent(info.name, tree);
+                return existing != null ? existing : tree;
+            }
+            return tree;
+        }
+
+        private void buildInterfaces(final ClassInfo info, final List<ScannedType> children) {
+            final ClassSignature signature = info.signature();
+            if (signature != null) {
+                for (final ClassSignature.GenericType type : signature.interfaces()) {
+                    final String name = type.isParameterized() ? type.name() : erased(type.name());
+                    if (!matches(options.interfacePattern, name)) {
+                        children.add(type.isParameterized() ? buildParameterized(type) : leaf(name));
+                    }
+                }
+            } else {
+                for (final String name : info.interfaces) {
+                    final String erasedName = erased(name);
+                    if (!matches(options.interfacePattern, erasedName)) {
+                        children.add(leaf(erasedName));
+                    }
+                }
+            }
+        }
+
+        private void buildSuperClass(final ClassInfo info, final List<ScannedType> children) {
+            final String superName = info.superName;
+            if (superName != null && !superName.equals(OBJECT_NAME) && !matches(options.classPattern, superName)) {
+                final ClassSignature signature = info.signature();
+                if (signature != null && signature.superClass().isParameterized()) {
+                    children.add(buildParameterized(signature.superClass()));
+                } else {
+                    final ClassInfo superInfo = info(superName);
+                    children.add(superInfo != null ? buildClass(superInfo) : leaf(superName));
+                }
+            }
+        }
+
+        private ScannedType buildParameterized(final ClassSignature.GenericType type) {
+
+            // parsing by reflection would never end, recursing through the very same types over and over
+            if (!path.add(type)) {
+                throw new IllegalArgumentException("Recursive generic hierarchy through " + type.name());
+            }
+
+            final List<ScannedType> children = new ArrayList<>();
+            for (final ClassSignature.GenericType argument : type.arguments()) {
+
+                // anything but a class (e.g. type variables, wildcards and arrays) is truly generic
+                final String argumentName = argument == null
+                        ? OBJECT_NAME
+                        : argument.isParameterized() ? argument.name() : erased(argument.name());
+                if (!matches(options.interfaceParamPattern, argumentName)) {
+                    children.add(argument != null && argument.isParameterized()
+                            ? buildParameterized(argument)
+                            : leaf(argumentName));
+                }
+            }
+
+            final ClassInfo info = info(type.name());
+            if (info != null) {
+                buildInterfaces(info, children);
+                buildSuperClass(info, children);
+            }
+            path.remove(type);
+            return new ScannedType(type.name(), children);
+        }
+    }
+
+    private static ScannedType leaf(final String name) {
+        return new ScannedType(name, Collections.emptyList());
+    }
+
+    /**
+     * Get the name of the class a type, which is neither parameterized nor a
+     * super-class, stands for where, as with reflection, classes of the default
+     * package stand for `java.lang.Object`.
+     */
+    private static String erased(final String name) {
+        return name.indexOf('.') == -1 ? OBJECT_NAME : name;
+    }
+
+    private static boolean matches(final Pattern pattern, final String name) {
+        return pattern != null && pattern.matcher(name).matches();
+    }
+
+    /**
+     * Get the ClassInfo of the passed class, reading it through the fallback
+     * ClassLoader should it not have been scanned.
+     */
+    private ClassInfo info(final String name) {
+        final ClassInfo info = classes.get(name);
+        if (info != null || fallback == null) {
+            return info;
+        }
+
+        Object fallbackInfo = fallbackClasses.get(name);
+        if (fallbackInfo == null) {
+            fallbackInfo = readFallback(name);
+            final Object existing = fallbackClasses.putIfAbsent(name, fallbackInfo);
+            fallbackInfo = existing != null ? existing : fallbackInfo;
+        }
+        return fallbackInfo != MISSING ? (ClassInfo) fallbackInfo : null;
+    }
+
+    private Object readFallback(final String name) {
+        try (InputStream input = fallback.getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if (input == null) {
+                return MISSING;
+            }
+            final ClassInfo info = ClassFileReader.read(ByteBuffer.wrap(ClassPathScanner.readAll(input)), Integer.MAX_VALUE);
+            return info.name.equals(name) ? info : MISSING;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not read class file of " + name, e);
+        }
+    }
+}
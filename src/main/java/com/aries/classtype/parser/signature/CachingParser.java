@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.signature;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import com.aries.classtype.parser.utils.BoundedCache;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Base of the parsers which resolve, by name, the classes of some textual form
+ * of a ClassType and cache the parsed trees by said form.
+ * 
+ * <p>
+ * Parsed trees hold their classes strongly and what a name resolves to depends
+ * on the ClassLoader it is resolved against. Trees are thus cached per
+ * ClassLoader and only for ClassLoader's which can't be unloaded before this
+ * parser is: either the one explicitly configured, or the system ClassLoader,
+ * the ClassLoader of this library and their ancestors. Parsing against any
+ * other context ClassLoader (e.g. that of a plugin) is never cached.
+ * </p>
+ * 
+ * @author cdancy
+ */
+abstract class CachingParser {
+
+    private static final ClassLoader[] CACHEABLE_LOADERS = cacheableLoaders();
+
+    private final ClassResolver classResolver;
+    private final ClassLoader classLoader;
+    private final ClassLoader[] loaders;
+    private final List<BoundedCache<String, ClassType>> caches;
+
+    CachingParser(final Builder<?> builder) {
+        this.classResolver = builder.classResolver;
+        this.classLoader = builder.classLoader;
+        this.loaders = classLoader != null ? new ClassLoader[] {classLoader} : CACHEABLE_LOADERS;
+        this.caches = new ArrayList<>(loaders.length);
+        for (int i = 0; i < loaders.length; i++) {
+            caches.add(new BoundedCache<>(builder.cacheSize));
+        }
+    }
+
+    private static ClassLoader[] cacheableLoaders() {
+        final List<ClassLoader> loaders = new ArrayList<>();
+        for (ClassLoader loader = ClassLoader.getSystemClassLoader(); loader != null; loader = loader.getParent()) {
+            loaders.add(loader);
+        }
+        for (ClassLoader loader = CachingParser.class.getClassLoader(); loader != null; loader = loader.getParent()) {
+            if (!loaders.contains(loader)) {
+                loaders.add(loader);
+            }
+        }
+        return loaders.toArray(new ClassLoader[loaders.size()]);
+    }
+
+    /**
+     * Parse, unless already cached for the ClassLoader classes are currently
+     * resolved against, the ClassType of the passed source.
+     * 
+     * @param source non-null source to parse.
+     * @return parsed ClassType.
+     */
+    final ClassType cached(final String source) {
+        final ClassLoader loader = loader();
+        final BoundedCache<String, ClassType> cache = cacheOf(loader);
+        if (cache == null) {
+            return load(source, loader);
+        }
+
+        final ClassType cached = cache.get(source);
+        return cached != null ? cached : cache.putIfAbsent(source, load(source, loader));
+    }
+
+    /**
+     * Parse the ClassType of the passed source.
+     * 
+     * @param source non-null source to parse.
+     * @param loader ClassLoader to resolve classes against.
+     * @return parsed ClassType.
+     */
+    abstract ClassType load(String source, ClassLoader loader);
+
+    /**
+     * Resolve the passed name through the configured ClassResolver.
+     * 
+     * @param name binary name of the class to resolve.
+     * @param loader ClassLoader to resolve the class against.
+     * @param kind what the source is (e.g. `signature`) for error reporting.
+     * @param source source the name was found in for error reporting.
+     * @return resolved Class.
+     * @throws IllegalArgumentException if the class can't be resolved.
+     */
+    final Class resolve(final String name, final ClassLoader loader, final String kind, final String source) {
+        try {
+            return classResolver.resolve(name, loader);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalArgumentException("Could not resolve " + name + " of " + kind + ": " + source, e);
+        }
+    }
+
+    final ClassResolver classResolver() {
+        return classResolver;
+    }
+
+    /**
+     * Get the number of parsed trees currently cached, across all ClassLoader's.
+     * 
+     * @return number of cached trees.
+     */
+    public int cacheSize() {
+        int size = 0;
+        for (final BoundedCache<String, ClassType> cache : caches) {
+            size += cache.size();
+        }
+        return size;
+    }
+
+    /**
+     * Evict all cached trees.
+     */
+    public void clearCache() {
+        for (final BoundedCache<String, ClassType> cache : caches) {
+            cache.clear();
+        }
+    }
+
+    private ClassLoader loader() {
+        if (classLoader != null) {
+            return classLoader;
+        }
+        final ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        return contextLoader != null ? contextLoader : CachingParser.class.getClassLoader();
+    }
+
+    private BoundedCache<String, ClassType> cacheOf(final ClassLoader loader) {
+        for (int i = 0; i < loaders.length; i++) {
+            if (loaders[i] == loader) {
+                return caches.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Childless ClassType's of a single parsed tree which, being immutable, are shared within it.
+     */
+    static final class Leaves {
+
+        private Map<Class, ClassType> leaves;
+
+        ClassType get(final Class clazz) {
+            if (leaves == null) {
+                leaves = new IdentityHashMap<>();
+            }
+            ClassType leaf = leaves.get(clazz);
+            if (leaf == null) {
+                leaf = ClassType.builder(clazz).build();
+                leaves.put(clazz, leaf);
+            }
+            return leaf;
+        }
+    }
+
+    /**
+     * Builder of the settings shared by all CachingParser's.
+     * 
+     * @param <B> type of the concrete Builder.
+     */
+    abstract static class Builder<B extends Builder<B>> {
+
+        private ClassResolver classResolver = ClassResolver.defaultResolver();
+        private ClassLoader classLoader;
+        private int cacheSize = 1024;
+
+        Builder() {
+        }
+
+        /**
+         * Set the ClassResolver classes are resolved by name with.
+         * 
+         * @param classResolver non-null ClassResolver.
+         * @return this Builder.
+         */
+        public B classResolver(final ClassResolver classResolver) {
+            this.classResolver = Objects.requireNonNull(classResolver, "classResolver cannot be NULL");
+            return self();
+        }
+
+        /**
+         * Set the ClassLoader classes are resolved against. Defaults to
+         * the context ClassLoader of the parsing thread.
+         * 
+         * @param classLoader non-null ClassLoader.
+         * @return this Builder.
+         */
+        public B classLoader(final ClassLoader classLoader) {
+            this.classLoader = Objects.requireNonNull(classLoader, "classLoader cannot be NULL");
+            return self();
+        }
+
+        /**
+         * Set the maximum number of parsed trees kept cached per ClassLoader. Defaults to 1024.
+         * 
+         * @param cacheSize maximum number of cached trees where 0 disables caching.
+         * @return this Builder.
+         * @throws IllegalArgumentException if the passed cacheSize is negative.
+         */
+        public B cacheSize(final int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cacheSize cannot be negative: " + cacheSize);
+            }
+            this.cacheSize = cacheSize;
+            return self();
+        }
+
+        final int cacheSize() {
+            return cacheSize;
+        }
+
+        abstract B self();
+    }
+}
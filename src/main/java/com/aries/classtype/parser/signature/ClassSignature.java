@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.signature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The parts of a class's generic signature (i.e. its `Signature` attribute,
+ * e.g. `&lt;T:Ljava/lang/Object;&gt;Ljava/util/AbstractList&lt;TT;&gt;;Ljava/io/Serializable;`)
+ * which reflection exposes through `getTypeParameters`, `getGenericSuperclass`
+ * and `getGenericInterfaces`.
+ * 
+ * @author cdancy
+ */
+public final class ClassSignature {
+
+    private final int typeParameters;
+    private final GenericType superClass;
+    private final List<GenericType> interfaces;
+
+    private ClassSignature(final int typeParameters, final GenericType superClass, final List<GenericType> interfaces) {
+        this.typeParameters = typeParameters;
+        this.superClass = superClass;
+        this.interfaces = interfaces;
+    }
+
+    /**
+     * A class type as found within a signature. Anything else (e.g. type variables,
+     * wildcards and arrays) is truly generic and represented by null.
+     */
+    public static final class GenericType {
+
+        private final String name;
+        private final List<GenericType> arguments;
+        private final boolean parameterized;
+
+        private GenericType(final String name, final List<GenericType> arguments, final boolean parameterized) {
+            this.name = name;
+            this.arguments = arguments;
+            this.parameterized = parameterized;
+        }
+
+        /**
+         * Get the binary name (e.g. `java.util.Map$Entry`) of this type.
+         * 
+         * @return binary name of type.
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Get the type arguments of this type, those of its enclosing types
+         * excluded, where truly generic arguments are null.
+         * 
+         * @return unmodifiable List of type arguments.
+         */
+        public List<GenericType> arguments() {
+            return arguments;
+        }
+
+        /**
+         * Whether reflection would see a ParameterizedType which is the case
+         * when either this type, or any type enclosing it, has type arguments.
+         * 
+         * @return true if parameterized false otherwise.
+         */
+        public boolean isParameterized() {
+            return parameterized;
+        }
+    }
+
+    /**
+     * Parse the passed class signature.
+     * 
+     * @param signature non-null class signature to parse.
+     * @return parsed ClassSignature.
+     * @throws IllegalArgumentException if the passed signature is malformed.
+     */
+    public static ClassSignature parse(final String signature) {
+        return new Parser(Objects.requireNonNull(signature, "signature cannot be NULL")).classSignature();
+    }
+
+    /**
+     * Get the number of type parameters the class declares.
+     * 
+     * @return number of type parameters.
+     */
+    public int typeParameters() {
+        return typeParameters;
+    }
+
+    /**
+     * Get the super-class, which is `java.lang.Object` for interfaces.
+     * 
+     * @return super-class.
+     */
+    public GenericType superClass() {
+        return superClass;
+    }
+
+    /**
+     * Get the interfaces the class directly implements, in order of declaration.
+     * 
+     * @return unmodifiable List of interfaces.
+     */
+    public List<GenericType> interfaces() {
+        return interfaces;
+    }
+
+    /**
+     * Single-use, recursive-descent, parser of class signatures.
+     */
+    private static final class Parser {
+
+        private final String signature;
+        private int position;
+
+        Parser(final String signature) {
+            this.signature = signature;
+        }
+
+        ClassSignature classSignature() {
+            int typeParameters = 0;
+            if (peek() == '<') {
+                position++;
+                while (peek() != '>') {
+                    final int colon = signature.indexOf(':', position);
+                    if (colon <= position) {
+                        throw malformed();
+                    }
+                    position = colon;
+                    typeParameters++;
+
+                    // the class bound may be missing, the interface bounds follow it
+                    while (peek() == ':') {
+                        position++;
+                        if (peek() != ':') {
+                            referenceType();
+                        }
+                    }
+                }
+                position++;
+            }
+
+            final GenericType superClass = classType();
+            final List<GenericType> interfaces = new ArrayList<>();
+            while (position < signature.length()) {
+                interfaces.add(classType());
+            }
+            return new ClassSignature(typeParameters, superClass,
+                    interfaces.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(interfaces));
+        }
+
+        private GenericType classType() {
+            expect('L');
+            final StringBuilder name = new StringBuilder();
+            List<GenericType> arguments = Collections.emptyList();
+            boolean parameterized = false;
+            while (true) {
+                final char next = next();
+                if (next == ';') {
+                    return new GenericType(name.toString(), Collections.unmodifiableList(arguments), parameterized);
+                } else if (next == '<') {
+                    arguments = new ArrayList<>();
+                    while (peek() != '>') {
+                        arguments.add(typeArgument());
+                    }
+                    position++;
+                    parameterized = true;
+                } else if (next == '.') {
+
+                    // only the type arguments of the inner-most class are exposed
+                    name.append('$');
+                    arguments = Collections.emptyList();
+                } else {
+                    name.append(next == '/' ? '.' : next);
+                }
+            }
+        }
+
+        private GenericType typeArgument() {
+            final char next = peek();
+            if (next == '*') {
+                position++;
+                return null;
+            } else if (next == '+' || next == '-') {
+                position++;
+                referenceType();
+                return null;
+            }
+            return referenceType();
+        }
+
+        private GenericType referenceType() {
+            final char next = peek();
+            if (next == 'L') {
+                return classType();
+            } else if (next == 'T') {
+                final int semicolon = signature.indexOf(';', position);
+                if (semicolon < 0) {
+                    throw malformed();
+                }
+                position = semicolon + 1;
+            } else if (next == '[') {
+                position++;
+                if ("BCDFIJSZ".indexOf(peek()) >= 0) {
+                    position++;
+                } else {
+                    referenceType();
+                }
+            } else {
+                throw malformed();
+            }
+            return null;
+        }
+
+        private void expect(final char expected) {
+            if (next() != expected) {
+                throw malformed();
+            }
+        }
+
+        private char next() {
+            final char next = peek();
+            position++;
+            return next;
+        }
+
+        private char peek() {
+            if (position >= signature.length()) {
+                throw malformed();
+            }
+            return signature.charAt(position);
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed class signature at " + position + ": " + signature);
+        }
+    }
+}
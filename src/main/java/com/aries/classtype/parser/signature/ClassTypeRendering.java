@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.signature;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.types.PrimitiveTypes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parses ClassType trees back from their String form (i.e. that of
+ * `ClassType.toString()`):
+ * 
+ * <pre>
+ * java.util.HashMap&lt;java.lang.String, java.util.List&lt;java.lang.Integer&gt;&gt;
+ * </pre>
+ * 
+ * <p>
+ * Renderings are parsed in a single pass, without any regular expression or
+ * reflection beyond resolving each class by name through the configured
+ * ClassResolver, and are lenient only as far as whitespace around names goes.
+ * Parsed trees are always canonical (i.e. interned) and are cached by
+ * rendering, per ClassLoader (see CachingParser), such that parsing the same
+ * rendering again amounts to a single lookup.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class ClassTypeRendering extends CachingParser {
+
+    public static final ClassTypeRendering DEFAULT_RENDERING = builder().build();
+
+    // primitive classes can't be resolved by name through a ClassLoader
+    private static final Map<String, Class> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (final PrimitiveTypes primitive : PrimitiveTypes.values()) {
+            final Class clazz = primitive.getPrimitveClass();
+            if (clazz.isPrimitive()) {
+                PRIMITIVES.put(clazz.getName(), clazz);
+            }
+        }
+    }
+
+    private ClassTypeRendering(final Builder builder) {
+        super(builder);
+    }
+
+    /**
+     * Get a new Builder to configure a ClassTypeRendering with.
+     * 
+     * @return new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parse the canonical ClassType of the passed rendering.
+     * 
+     * @param rendering non-null rendering (e.g. `java.util.List&lt;java.lang.String&gt;`) to parse.
+     * @return parsed, and interned, ClassType.
+     * @throws IllegalArgumentException if the rendering is malformed or any of
+     *     its classes can't be resolved.
+     */
+    public ClassType parse(final CharSequence rendering) {
+        return cached(Objects.requireNonNull(rendering, "rendering cannot be NULL").toString());
+    }
+
+    @Override
+    ClassType load(final String rendering, final ClassLoader loader) {
+        return new Parser(rendering, loader).parse().intern();
+    }
+
+    /**
+     * Single-use, recursive-descent, parser of a single rendering.
+     */
+    private final class Parser {
+
+        private final String rendering;
+        private final ClassLoader loader;
+        private int position;
+
+        private final Leaves leaves = new Leaves();
+
+        Parser(final String rendering, final ClassLoader loader) {
+            this.rendering = rendering;
+            this.loader = loader;
+        }
+
+        ClassType parse() {
+            final ClassType classType = node();
+            if (position != rendering.length()) {
+                throw malformed("trailing characters");
+            }
+            return classType;
+        }
+
+        private ClassType node() {
+            skipWhitespace();
+            final int start = position;
+            while (position < rendering.length() && !isDelimiter(rendering.charAt(position))) {
+                position++;
+            }
+            if (position == start) {
+                throw malformed("expected class name");
+            }
+            final Class clazz = resolve(rendering.substring(start, position));
+            skipWhitespace();
+
+            if (position == rendering.length() || rendering.charAt(position) != '<') {
+                return leaf(clazz);
+            }
+
+            position++;
+            final ClassType.Builder builder = ClassType.builder(clazz);
+            while (true) {
+                builder.child(node());
+                final char next = next();
+                if (next == '>') {
+                    break;
+                } else if (next != ',') {
+                    position--;
+                    throw malformed("expected ',' or '>'");
+                }
+            }
+            skipWhitespace();
+            return builder.build();
+        }
+
+        private ClassType leaf(final Class clazz) {
+            return leaves.get(clazz);
+        }
+
+        private Class resolve(final String name) {
+            final Class primitive = PRIMITIVES.get(name);
+            if (primitive != null) {
+                return primitive;
+            }
+            return ClassTypeRendering.this.resolve(name, loader, "rendering", rendering);
+        }
+
+        private void skipWhitespace() {
+            while (position < rendering.length() && Character.isWhitespace(rendering.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean isDelimiter(final char current) {
+            return current == '<' || current == '>' || current == ',' || Character.isWhitespace(current);
+        }
+
+        private char next() {
+            if (position >= rendering.length()) {
+                throw malformed("unexpected end");
+            }
+            return rendering.charAt(position++);
+        }
+
+        private IllegalArgumentException malformed(final String reason) {
+            return new IllegalArgumentException("Malformed rendering at " + position + " (" + reason + "): " + rendering);
+        }
+    }
+
+    /**
+     * Builder used to create a ClassTypeRendering.
+     */
+    public static final class Builder extends CachingParser.Builder<Builder> {
+
+        private Builder() {
+        }
+
+        @Override
+        Builder self() {
+            return this;
+        }
+
+        /**
+         * Build the ClassTypeRendering.
+         * 
+         * @return new ClassTypeRendering.
+         */
+        public ClassTypeRendering build() {
+            return new ClassTypeRendering(this);
+        }
+    }
+}
@@ -0,0 +1,597 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.signature;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import com.aries.classtype.parser.types.PrimitiveTypes;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Encodes ClassType trees into, and parses them back from, strings written in
+ * the syntax of JVM generic signatures (i.e. that of the `Signature` attribute
+ * of class files) where the children of a node are its type arguments:
+ * 
+ * <pre>
+ * Ljava/util/HashMap&lt;Ljava/lang/String;Ljava/util/List&lt;Ljava/lang/Integer;&gt;;&gt;;
+ * </pre>
+ * 
+ * <p>
+ * Primitive and array classes are written as their descriptor (e.g. `I` and
+ * `[Ljava/lang/String;`) followed, only should they have children, by said
+ * children between angle brackets. Any signature of the JVM itself parses as well:
+ * type variables and wildcards become `java.lang.Object` (as they would when
+ * parsing by reflection), generic array types become the array of their erased
+ * component and the type arguments of any outer class are dropped in favor of
+ * those of the inner-most class. Such trees round-trip through `encode` but,
+ * keeping arrays and the arguments of a single type only, differ from what
+ * `ClassType.parse` makes of the class declaring said signature.
+ * </p>
+ * 
+ * <p>
+ * The tree `ClassType.parse` builds by reflection is instead had by parsing
+ * the class signature (e.g. `Ljava/lang/Object;Ljava/lang/Comparable&lt;TT;&gt;;`)
+ * of its Class through `parse(Class, CharSequence)`: its type parameters become
+ * `java.lang.Object` children followed by its interfaces and then its
+ * super-class, each with its own hierarchy, exactly as reflection would have it.
+ * </p>
+ * 
+ * <p>
+ * Parsing involves no reflection beyond resolving each class by name through
+ * the configured ClassResolver and parsing, through `ClassType.parse`, those
+ * classes whose hierarchy a signature does not spell out. Parsed trees are
+ * frozen, share their equal leaves, and are cached such that parsing the same
+ * signature again amounts to a single lookup: type signatures per ClassLoader
+ * (see CachingParser) and class signatures alongside their Class.
+ * </p>
+ * 
+ * @author cdancy
+ */
+public final class ClassTypeSignature extends CachingParser {
+
+    public static final ClassTypeSignature DEFAULT_SIGNATURE = builder().build();
+
+    private static final char[] OBJECT_DESCRIPTOR = "Ljava.lang.Object;".toCharArray();
+    private static final String OBJECT_NAME = Object.class.getName();
+
+    private final boolean intern;
+    private final boolean caching;
+    private final ParseOptions options;
+
+    // parsed class signatures are held per Class, along with the signature
+    // they were parsed from, so as to never pin the ClassLoader of said Class.
+    private volatile ClassValue<AtomicReference<ParsedClass>> classes = newClassCache();
+
+    private ClassTypeSignature(final Builder builder) {
+        super(builder);
+        this.intern = builder.intern;
+        this.caching = builder.cacheSize() > 0;
+        this.options = classResolver() == ClassResolver.defaultResolver()
+                ? ParseOptions.DEFAULT_PARSER_OPTIONS
+                : ParseOptions.builder().classResolver(classResolver()).build();
+    }
+
+    private static ClassValue<AtomicReference<ParsedClass>> newClassCache() {
+        return new ClassValue<AtomicReference<ParsedClass>>() {
+            @Override
+            protected AtomicReference<ParsedClass> computeValue(final Class<?> clazz) {
+                return new AtomicReference<>();
+            }
+        };
+    }
+
+    /**
+     * Get a new Builder to configure a ClassTypeSignature with.
+     * 
+     * @return new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Encode the passed ClassType into its signature.
+     * 
+     * @param classType non-null ClassType to encode.
+     * @return signature of ClassType.
+     * @throws IllegalArgumentException if the tree holds a class which can't be
+     *     named (e.g. hidden classes or lambdas).
+     */
+    public String encode(final ClassType classType) {
+        final StringBuilder builder = new StringBuilder();
+        encode(classType, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Encode the passed ClassType, appending its signature to the passed StringBuilder.
+     * 
+     * @param classType non-null ClassType to encode.
+     * @param builder non-null StringBuilder to append to.
+     * @throws IllegalArgumentException if the tree holds a class which can't be
+     *     named (e.g. hidden classes or lambdas).
+     */
+    public void encode(final ClassType classType, final StringBuilder builder) {
+        Objects.requireNonNull(classType, "classType cannot be NULL");
+        Objects.requireNonNull(builder, "builder cannot be NULL");
+        write(classType, builder);
+    }
+
+    private static void write(final ClassType classType, final StringBuilder builder) {
+        final Class clazz = classType.clazz();
+        final String name = clazz.getName();
+        final boolean reference = !clazz.isPrimitive() && !clazz.isArray();
+        if (clazz.isPrimitive()) {
+            builder.append(PrimitiveTypes.from(clazz).getDescriptor());
+        } else {
+            if (reference) {
+                builder.append('L');
+            }
+            final int start = builder.length();
+            builder.append(name);
+            for (int i = start; i < builder.length(); i++) {
+                final char current = builder.charAt(i);
+                if (current == '.') {
+                    builder.setCharAt(i, '/');
+                } else if (current == '/') {
+                    throw new IllegalArgumentException("Cannot encode unnamed class " + name);
+                }
+            }
+        }
+
+        final List<ClassType> children = classType.children();
+        final int size = children.size();
+        if (size > 0) {
+            builder.append('<');
+            for (int i = 0; i < size; i++) {
+                write(children.get(i), builder);
+            }
+            builder.append('>');
+        }
+        if (reference) {
+            builder.append(';');
+        }
+    }
+
+    /**
+     * Parse the ClassType of the passed signature.
+     * 
+     * @param signature non-null signature to parse.
+     * @return parsed, and frozen, ClassType.
+     * @throws IllegalArgumentException if the signature is malformed or any of
+     *     its classes can't be resolved.
+     */
+    public ClassType parse(final CharSequence signature) {
+        return cached(Objects.requireNonNull(signature, "signature cannot be NULL").toString());
+    }
+
+    /**
+     * Parse the ClassType of the UTF-8 encoded signature found within the passed bytes.
+     * 
+     * @param bytes non-null bytes holding the signature.
+     * @param offset index of the first byte of the signature.
+     * @param length number of bytes of the signature.
+     * @return parsed, and frozen, ClassType.
+     * @throws IllegalArgumentException if the signature is malformed or any of
+     *     its classes can't be resolved.
+     */
+    public ClassType parse(final byte[] bytes, final int offset, final int length) {
+        return parse(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse the ClassType of the passed Class from its class signature (i.e. the
+     * `Signature` attribute of its class file) which is the very tree
+     * `ClassType.parse` would build for said Class by reflection.
+     * 
+     * @param clazz non-null, neither primitive nor array, Class the signature belongs to.
+     * @param classSignature non-null class signature of Class to parse.
+     * @return parsed, and frozen, ClassType.
+     * @throws IllegalArgumentException if the Class is primitive or an array, the
+     *     signature is malformed, or any of its classes can't be resolved.
+     */
+    public ClassType parse(final Class clazz, final CharSequence classSignature) {
+        Objects.requireNonNull(clazz, "clazz cannot be NULL");
+        final String key = Objects.requireNonNull(classSignature, "classSignature cannot be NULL").toString();
+        if (clazz.isPrimitive() || clazz.isArray()) {
+            throw new IllegalArgumentException("Class has no class signature: " + clazz.getName());
+        }
+
+        final AtomicReference<ParsedClass> entry = classes.get(clazz);
+        final ParsedClass cached = entry.get();
+        if (cached != null && cached.signature.equals(key)) {
+            return cached.classType;
+        }
+
+        final ClassType parsed = new ClassParser(clazz, key).parse();
+        final ClassType classType = intern ? parsed.intern() : parsed;
+        if (caching) {
+            entry.set(new ParsedClass(key, classType));
+        }
+        return classType;
+    }
+
+    @Override
+    ClassType load(final String signature, final ClassLoader loader) {
+        final ClassType parsed = new Parser(signature, loader).parse();
+        return intern ? parsed.intern() : parsed;
+    }
+
+    /**
+     * Evict all cached trees, those of class signatures included.
+     */
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        classes = newClassCache();
+    }
+
+    /**
+     * Class signature along with the tree parsed from it.
+     */
+    private static final class ParsedClass {
+
+        private final String signature;
+        private final ClassType classType;
+
+        ParsedClass(final String signature, final ClassType classType) {
+            this.signature = signature;
+            this.classType = classType;
+        }
+    }
+
+    /**
+     * Single-use builder of the tree of a single class signature.
+     */
+    private final class ClassParser {
+
+        private final Class clazz;
+        private final String signature;
+        private final ClassLoader loader;
+        private final Leaves leaves = new Leaves();
+
+        ClassParser(final Class clazz, final String signature) {
+            this.clazz = clazz;
+            this.signature = signature;
+            this.loader = clazz.getClassLoader();
+        }
+
+        ClassType parse() {
+            final ClassSignature parsed = ClassSignature.parse(signature);
+            final ClassType.Builder builder = ClassType.builder(clazz);
+            for (int i = 0; i < parsed.typeParameters(); i++) {
+                builder.child(leaves.get(Object.class));
+            }
+            for (final ClassSignature.GenericType type : parsed.interfaces()) {
+                builder.child(type.isParameterized() ? parameterized(type) : leaves.get(erased(type.name())));
+            }
+
+            final ClassSignature.GenericType superClass = parsed.superClass();
+            if (superClass.isParameterized()) {
+                builder.child(parameterized(superClass));
+            } else if (!superClass.name().equals(OBJECT_NAME)) {
+                builder.child(ClassType.parse(resolve(superClass.name()), options));
+            }
+            return builder.build();
+        }
+
+        /**
+         * Build the tree of the passed parameterized type: its type arguments
+         * followed by the interfaces and super-class of its raw class.
+         */
+        private ClassType parameterized(final ClassSignature.GenericType type) {
+            final Class raw = resolve(type.name());
+            final ClassType.Builder builder = ClassType.builder(raw);
+            for (final ClassSignature.GenericType argument : type.arguments()) {
+                if (argument == null) {
+                    builder.child(leaves.get(Object.class));
+                } else if (argument.isParameterized()) {
+                    builder.child(parameterized(argument));
+                } else {
+                    builder.child(leaves.get(erased(argument.name())));
+                }
+            }
+
+            // the tree of the raw class leads with its type parameters which
+            // the type arguments above stand in for.
+            final List<ClassType> inherited = ClassType.parse(raw, options).children();
+            for (int i = raw.getTypeParameters().length; i < inherited.size(); i++) {
+                builder.child(inherited.get(i));
+            }
+            return builder.build();
+        }
+
+        /**
+         * Resolve the class of a type which is neither parameterized nor a
+         * super-class where, as with reflection, classes of the default
+         * package stand for `java.lang.Object`.
+         */
+        private Class erased(final String name) {
+            return name.indexOf('.') == -1 ? Object.class : resolve(name);
+        }
+
+        private Class resolve(final String name) {
+            return ClassTypeSignature.this.resolve(name, loader, "class signature", signature);
+        }
+    }
+
+    /**
+     * Single-use, recursive-descent, parser of a single signature.
+     */
+    private final class Parser {
+
+        private final String signature;
+        private final ClassLoader loader;
+        private int position;
+
+        // scratch space binary names are translated into, used as a stack
+        // as the names of enclosing classes may still be extended after
+        // their type arguments were parsed (e.g. `LOuter<TT;>.Inner;`)
+        private char[] name = new char[64];
+        private int top;
+
+        private final Leaves leaves = new Leaves();
+
+        Parser(final String signature, final ClassLoader loader) {
+            this.signature = signature;
+            this.loader = loader;
+        }
+
+        ClassType parse() {
+            final ClassType classType = node();
+            if (position != signature.length()) {
+                throw malformed("trailing characters");
+            }
+            return classType;
+        }
+
+        private ClassType node() {
+            final char next = peek();
+            switch (next) {
+            case 'L':
+                return classNode();
+            case '[':
+                return withChildren(resolve(arrayName()));
+            case 'T':
+                final int end = signature.indexOf(';', position);
+                if (end < 0) {
+                    throw malformed("unterminated type variable");
+                }
+                position = end + 1;
+                return leaf(Object.class);
+            case '*':
+                position++;
+                return leaf(Object.class);
+            case '+':
+            case '-':
+                position++;
+                skip();
+                return leaf(Object.class);
+            default:
+                final PrimitiveTypes primitive = PrimitiveTypes.fromDescriptor(next);
+                if (primitive == null) {
+                    throw malformed("unexpected '" + next + "'");
+                }
+                position++;
+                return withChildren(primitive.getPrimitveClass());
+            }
+        }
+
+        private ClassType classNode() {
+            position++;
+            final int start = top;
+            int length = start;
+            ClassType.Builder builder = null;
+            while (true) {
+                final char next = next();
+                if (next == ';') {
+                    return builder != null ? builder.build() : leaf(resolve(new String(name, start, length - start)));
+                } else if (next == '<') {
+                    builder = ClassType.builder(resolve(new String(name, start, length - start)));
+                    top = length;
+                    while (peek() != '>') {
+                        builder.child(node());
+                    }
+                    top = start;
+                    position++;
+                    if (peek() != ';' && peek() != '.') {
+                        throw malformed("expected ';' or '.'");
+                    }
+                } else if (next == '.') {
+
+                    // only the type arguments of the inner-most class are kept
+                    builder = null;
+                    length = append(length, '$');
+                } else if (next == '>') {
+                    throw malformed("unexpected '>'");
+                } else {
+                    length = append(length, next == '/' ? '.' : next);
+                }
+            }
+        }
+
+        /**
+         * Read the binary name (e.g. `[Ljava.lang.String;`) of the array type
+         * starting at the current position dropping any type arguments.
+         */
+        private String arrayName() {
+            int length = top;
+            while (peek() == '[') {
+                position++;
+                length = append(length, '[');
+            }
+
+            final char next = next();
+            if (next == 'L') {
+                length = append(length, 'L');
+                for (char current = next(); current != ';'; current = next()) {
+                    if (current == '<') {
+                        position--;
+                        skipArguments();
+                    } else {
+                        length = append(length, current == '/' ? '.' : current == '.' ? '$' : current);
+                    }
+                }
+                length = append(length, ';');
+            } else if (next == 'T') {
+
+                // as erased, arrays of type variables are arrays of objects
+                while (next() != ';') {
+                    continue;
+                }
+                for (final char current : OBJECT_DESCRIPTOR) {
+                    length = append(length, current);
+                }
+            } else if (PrimitiveTypes.fromDescriptor(next) != null && next != 'V') {
+                length = append(length, next);
+            } else {
+                position--;
+                throw malformed("bad array component");
+            }
+            return new String(name, top, length - top);
+        }
+
+        /**
+         * Skip, without resolving any class, the single type starting at the current position.
+         */
+        private void skip() {
+            final char next = next();
+            if (next == 'L') {
+                for (char current = next(); current != ';'; current = next()) {
+                    if (current == '<') {
+                        position--;
+                        skipArguments();
+                    }
+                }
+            } else if (next == '[') {
+                skip();
+            } else if (next == 'T') {
+                while (next() != ';') {
+                    continue;
+                }
+            } else if (PrimitiveTypes.fromDescriptor(next) == null) {
+                position--;
+                throw malformed("unexpected '" + next + "'");
+            }
+        }
+
+        private void skipArguments() {
+            position++;
+            while (peek() != '>') {
+                final char next = peek();
+                if (next == '*') {
+                    position++;
+                } else {
+                    if (next == '+' || next == '-') {
+                        position++;
+                    }
+                    skip();
+                }
+            }
+            position++;
+        }
+
+        private ClassType withChildren(final Class clazz) {
+            if (position >= signature.length() || signature.charAt(position) != '<') {
+                return leaf(clazz);
+            }
+
+            position++;
+            final ClassType.Builder builder = ClassType.builder(clazz);
+            while (peek() != '>') {
+                builder.child(node());
+            }
+            position++;
+            return builder.build();
+        }
+
+        private ClassType leaf(final Class clazz) {
+            return leaves.get(clazz);
+        }
+
+        private Class resolve(final String binaryName) {
+            return ClassTypeSignature.this.resolve(binaryName, loader, "signature", signature);
+        }
+
+        private int append(final int length, final char current) {
+            if (length == name.length) {
+                name = Arrays.copyOf(name, length * 2);
+            }
+            name[length] = current;
+            return length + 1;
+        }
+
+        private char next() {
+            final char next = peek();
+            position++;
+            return next;
+        }
+
+        private char peek() {
+            if (position >= signature.length()) {
+                throw malformed("unexpected end");
+            }
+            return signature.charAt(position);
+        }
+
+        private IllegalArgumentException malformed(final String reason) {
+            return new IllegalArgumentException("Malformed signature at " + position + " (" + reason + "): " + signature);
+        }
+    }
+
+    /**
+     * Builder used to create a ClassTypeSignature.
+     */
+    public static final class Builder extends CachingParser.Builder<Builder> {
+
+        private boolean intern;
+
+        private Builder() {
+        }
+
+        /**
+         * Set whether parsed trees are interned.
+         * 
+         * @param intern true to intern parsed trees.
+         * @return this Builder.
+         */
+        public Builder intern(final boolean intern) {
+            this.intern = intern;
+            return this;
+        }
+
+        @Override
+        Builder self() {
+            return this;
+        }
+
+        /**
+         * Build the ClassTypeSignature.
+         * 
+         * @return new ClassTypeSignature.
+         */
+        public ClassTypeSignature build() {
+            return new ClassTypeSignature(this);
+        }
+    }
+}
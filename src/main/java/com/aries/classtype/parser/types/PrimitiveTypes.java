@@ -17,47 +17,92 @@
 
 package com.aries.classtype.parser.types;
 
-import com.aries.classtype.parser.utils.Constants;
 import com.aries.classtype.parser.domain.Null;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Java primitive types, and some of our own, along with various attributes
  * surrounding their use.
  * 
+ * <p>
+ * Lookups are served from tables built once upon class initialization and
+ * thus don't allocate nor rely on exceptions for unknown inputs.
+ * </p>
+ * 
  * @author dancc
  */
 @SuppressWarnings("ImmutableEnumChecker")
 public enum PrimitiveTypes {
 
     // numbers
-    SHORT("short", (short)0, short.class, Short.class, false),
-    INT("int", (int)0, int.class, Integer.class, false),
-    LONG("long", (long)0L, long.class, Long.class, false),
-    FLOAT("float", (float)0.0f, float.class, Float.class, false),
-    DOUBLE("double", (double)0.0d, double.class, Double.class, false),
-    BYTE("byte", (byte)0, byte.class, Byte.class, false),
+    SHORT("short", 'S', (short)0, short.class, Short.class, false),
+    INT("int", 'I', (int)0, int.class, Integer.class, false),
+    LONG("long", 'J', (long)0L, long.class, Long.class, false),
+    FLOAT("float", 'F', (float)0.0f, float.class, Float.class, false),
+    DOUBLE("double", 'D', (double)0.0d, double.class, Double.class, false),
+    BYTE("byte", 'B', (byte)0, byte.class, Byte.class, false),
 
     // non-numbers
-    CHAR("char", '\u0000', char.class, Character.class, false),
-    BOOLEAN("boolean", false,  boolean.class, Boolean.class, false),
-    VOID("void", null, void.class, Void.class, true),
+    CHAR("char", 'C', '\u0000', char.class, Character.class, false),
+    BOOLEAN("boolean", 'Z', false,  boolean.class, Boolean.class, false),
+    VOID("void", 'V', null, void.class, Void.class, true),
 
     // special custom primitives
-    NULL("null", null, Null.class, Null.class, true);
+    NULL("null", Character.MIN_VALUE, null, Null.class, Null.class, true);
+
+    private static final PrimitiveTypes[] NO_TYPES = new PrimitiveTypes[0];
+    private static final Map<Class, PrimitiveTypes> BY_CLASS = new IdentityHashMap<>();
+    private static final PrimitiveTypes[] BY_DESCRIPTOR = new PrimitiveTypes['Z' - 'A' + 1];
+    private static final PrimitiveTypes[][] BY_NAME_LENGTH;
+
+    static {
+
+        // names are bucketed by their length such that a lookup only ever
+        // compares against the handful of names which could possibly match.
+        final Map<Integer, List<PrimitiveTypes>> byLength = new HashMap<>();
+        int maxLength = 0;
+        for (final PrimitiveTypes type : values()) {
+            BY_CLASS.put(type.primitiveClass, type);
+            BY_CLASS.put(type.boxedClass, type);
+            if (type.descriptor != Character.MIN_VALUE) {
+                BY_DESCRIPTOR[type.descriptor - 'A'] = type;
+            }
+
+            for (final String name : new String[] {type.name, type.primitiveClass.getName()}) {
+                final List<PrimitiveTypes> bucket = byLength.computeIfAbsent(name.length(), key -> new ArrayList<>());
+                if (!bucket.contains(type)) {
+                    bucket.add(type);
+                }
+                maxLength = Math.max(maxLength, name.length());
+            }
+        }
+
+        BY_NAME_LENGTH = new PrimitiveTypes[maxLength + 1][];
+        for (int i = 0; i < BY_NAME_LENGTH.length; i++) {
+            final List<PrimitiveTypes> bucket = byLength.get(i);
+            BY_NAME_LENGTH[i] = bucket != null ? bucket.toArray(NO_TYPES) : NO_TYPES;
+        }
+    }
 
     private final String name;
+    private final char descriptor;
     private final Object defaultValue;
     private final Class primitiveClass;
     private final Class boxedClass;
     private final boolean nullable;
 
     private PrimitiveTypes(final String name,
+            final char descriptor,
             final Object defaultValue,
             final Class primitiveClass,
             final Class boxedClass,
             final boolean nullable) {
         this.name = name;
+        this.descriptor = descriptor;
         this.defaultValue = defaultValue;
         this.primitiveClass = primitiveClass;
         this.boxedClass = boxedClass;
@@ -68,6 +113,15 @@ public enum PrimitiveTypes {
         return this.name;
     }
 
+    /**
+     * Get the JVM descriptor character of this PrimitiveType (e.g. 'I' for int).
+     * 
+     * @return descriptor character or Character.MIN_VALUE for NULL which has none.
+     */
+    public char getDescriptor() {
+        return this.descriptor;
+    }
+
     public Object getDefaultValue() {
         return this.defaultValue;
     }
@@ -85,37 +139,72 @@ public enum PrimitiveTypes {
     }
 
     /**
-     * Get the corresponding PrimitiveType of given Object.
+     * Get the corresponding PrimitiveType of given Object. PrimitiveTypes resolve
+     * to themselves, Classes are looked up by identity, CharSequences by
+     * (case-insensitive) name, and any other Object by the Class of its value
+     * (e.g. `42` resolves to INT). Boxed classes (e.g. `Integer.class`) resolve
+     * to their PrimitiveType just as primitive classes do, whereas they used to
+     * resolve to null when classes were looked up by name.
      * 
      * @param obj Object to infer PrimitiveType from.
-     * @return PrimitiveType.
+     * @return PrimitiveType or null if none found.
      */
     public static PrimitiveTypes from(final Object obj) {
-        return obj == null
-                ? PrimitiveTypes.NULL
-                : from(obj instanceof Class
-                        ? ((Class)obj).getName()
-                        : obj.toString());
+        if (obj == null) {
+            return PrimitiveTypes.NULL;
+        } else if (obj instanceof PrimitiveTypes) {
+            return (PrimitiveTypes) obj;
+        } else if (obj instanceof Class) {
+            return BY_CLASS.get(obj);
+        } else if (obj instanceof CharSequence) {
+            return fromName(obj.toString());
+        } else {
+            return BY_CLASS.get(obj.getClass());
+        }
     }
 
-    private static PrimitiveTypes from(final String name) {
-        PrimitiveTypes possibleType = null;
-        if (name == null || name.trim().equalsIgnoreCase(Constants.NULL_STRING)) {
-            possibleType = PrimitiveTypes.NULL;
-        } else {
+    /**
+     * Get the corresponding PrimitiveType of the given primitive, or boxed, Class.
+     * 
+     * @param clazz Class to infer PrimitiveType from.
+     * @return PrimitiveType or null if none found.
+     */
+    public static PrimitiveTypes from(final Class clazz) {
+        return clazz == null ? PrimitiveTypes.NULL : BY_CLASS.get(clazz);
+    }
+
+    /**
+     * Get the corresponding PrimitiveType of the given JVM descriptor character.
+     * 
+     * @param descriptor JVM descriptor character (e.g. 'I' for int).
+     * @return PrimitiveType or null if none found.
+     */
+    public static PrimitiveTypes fromDescriptor(final char descriptor) {
+        final int index = descriptor - 'A';
+        return index >= 0 && index < BY_DESCRIPTOR.length ? BY_DESCRIPTOR[index] : null;
+    }
+
+    private static PrimitiveTypes fromName(final String name) {
+
+        // trim by way of indexes so as not to allocate a new String
+        int begin = 0;
+        int end = name.length();
+        while (begin < end && name.charAt(begin) <= ' ') {
+            begin++;
+        }
+        while (end > begin && name.charAt(end - 1) <= ' ') {
+            end--;
+        }
 
-            try {
-                possibleType = PrimitiveTypes.valueOf(name.toUpperCase(Locale.US));
-            } catch (final Exception e) {
-                for (int i = 0; i < PrimitiveTypes.values().length; i++) {
-                    final PrimitiveTypes iteration = PrimitiveTypes.values()[i];
-                    if (name.equalsIgnoreCase(iteration.getPrimitveClass().getName())) {
-                        possibleType = iteration;
-                        break;
-                    }
+        final int length = end - begin;
+        if (length < BY_NAME_LENGTH.length) {
+            for (final PrimitiveTypes candidate : BY_NAME_LENGTH[length]) {
+                if (name.regionMatches(true, begin, candidate.name, 0, length)
+                        || name.regionMatches(true, begin, candidate.primitiveClass.getName(), 0, length)) {
+                    return candidate;
                 }
             }
         }
-        return possibleType;
+        return null;
     }
 }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.utils;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent cache holding at most a fixed number of entries. As with the
+ * ParseCache entries are evicted by way of a second-chance (i.e. CLOCK)
+ * approximation of LRU: hits merely flag their entry as recently used, without
+ * any locking, whereas only insertions take a lock to, potentially, evict.
+ * 
+ * @param <K> type of keys.
+ * @param <V> type of values.
+ * @author cdancy
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maximumSize;
+    private final ConcurrentMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+
+    // eviction index guarded by itself
+    private final ArrayDeque<Node<K, V>> clock = new ArrayDeque<>();
+
+    /**
+     * Create a BoundedCache.
+     * 
+     * @param maximumSize maximum number of entries where 0 disables caching altogether.
+     * @throws IllegalArgumentException if the passed maximumSize is negative.
+     */
+    public BoundedCache(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize cannot be negative: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Get the value cached for the passed key.
+     * 
+     * @param key non-null key to look up.
+     * @return cached value or null if none.
+     */
+    public V get(final K key) {
+        final Node<K, V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.touch();
+        return node.value;
+    }
+
+    /**
+     * Cache the passed value unless a value is already cached for the passed key.
+     * 
+     * @param key non-null key to cache the value for.
+     * @param value non-null value to cache.
+     * @return the value now cached for the key, or the passed value should caching be disabled.
+     */
+    public V putIfAbsent(final K key, final V value) {
+        if (maximumSize == 0) {
+            return value;
+        }
+
+        synchronized (clock) {
+            final Node<K, V> existing = entries.get(key);
+            if (existing != null) {
+                existing.touch();
+                return existing.value;
+            }
+
+            final Node<K, V> node = new Node<>(key, value);
+            entries.put(key, node);
+            clock.addLast(node);
+            while (entries.size() > maximumSize) {
+                final Node<K, V> candidate = clock.pollFirst();
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                    clock.addLast(candidate);
+                } else {
+                    entries.remove(candidate.key);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get the number of cached entries.
+     * 
+     * @return number of cached entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the maximum number of entries this cache holds.
+     * 
+     * @return maximum number of entries.
+     */
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Evict all entries.
+     */
+    public void clear() {
+        synchronized (clock) {
+            entries.clear();
+            clock.clear();
+        }
+    }
+
+    /**
+     * Cached value along with its place in the eviction index.
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+        private final V value;
+        private volatile boolean referenced;
+
+        private Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        private void touch() {
+
+            // only write when needed so as not to bounce the cache line between readers
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.utils;
+
+/**
+ * Hashing helpers shared by the open-addressing int collections.
+ * 
+ * @author cdancy
+ */
+final class IntHashing {
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private IntHashing() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+
+    /**
+     * Get the slot index of the passed key. Keys are scrambled first as ids,
+     * and the like, tend to be sequential.
+     * 
+     * @param key key to get index for.
+     * @param mask table capacity minus 1.
+     * @return slot index.
+     */
+    static int index(final int key, final int mask) {
+        final int hash = key * GOLDEN_RATIO;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Get the number of entries at which a table of the passed mask
+     * should be grown (i.e. 3/4 full).
+     * 
+     * @param mask table capacity minus 1.
+     * @return resize threshold.
+     */
+    static int threshold(final int mask) {
+        final int capacity = mask + 1;
+        return capacity - (capacity >>> 2);
+    }
+
+    /**
+     * Get the power of 2 table capacity able to hold the passed number
+     * of entries without being resized.
+     * 
+     * @param expectedSize number of entries expected to be held.
+     * @return table capacity.
+     */
+    static int capacityFor(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative: " + expectedSize);
+        }
+        final long required = Math.max(2, (long) Math.ceil(expectedSize / 0.75D) + 1);
+        return (int) Math.min(MAX_CAPACITY, Long.highestOneBit(required - 1) << 1);
+    }
+
+    /**
+     * Whether the entry found at index, whose ideal slot is home, may be
+     * moved back into the gap left behind by a removal. It may not if its
+     * home lies cyclically within (gap, index] as it would no longer be found.
+     * 
+     * @param home ideal slot of entry.
+     * @param gap slot left empty by removal.
+     * @param index current slot of entry.
+     * @return true if entry can be moved into gap false otherwise.
+     */
+    static boolean movable(final int home, final int gap, final int index) {
+        return (gap < index)
+                ? (home <= gap || home > index)
+                : (home <= gap && home > index);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing, linear-probing, hash map of int keys to int values which
+ * neither boxes nor allocates per entry. Not thread-safe.
+ * 
+ * @author cdancy
+ */
+public final class IntIntMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    /**
+     * Create a new IntIntMap.
+     * 
+     * @param missingValue value returned by lookups for keys not present.
+     */
+    public IntIntMap(final int missingValue) {
+        this(missingValue, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new IntIntMap.
+     * 
+     * @param missingValue value returned by lookups for keys not present.
+     * @param expectedSize number of entries expected to be held.
+     */
+    public IntIntMap(final int missingValue, final int expectedSize) {
+        this.missingValue = missingValue;
+        allocate(IntHashing.capacityFor(expectedSize));
+    }
+
+    /**
+     * Get the value mapped to the passed key.
+     * 
+     * @param key key to look up.
+     * @return mapped value or the missing value.
+     */
+    public int get(final int key) {
+        final int slot = find(key);
+        return (slot >= 0) ? values[slot] : missingValue;
+    }
+
+    /**
+     * Whether the passed key is present.
+     * 
+     * @param key key to look up.
+     * @return true if present false otherwise.
+     */
+    public boolean containsKey(final int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Map the passed key to the passed value.
+     * 
+     * @param key key to map.
+     * @param value value to map key to.
+     * @return previously mapped value or the missing value.
+     */
+    public int put(final int key, final int value) {
+        int slot = IntHashing.index(key, mask);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                final int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= IntHashing.threshold(mask)) {
+            rehash();
+        }
+        return missingValue;
+    }
+
+    /**
+     * Remove the passed key.
+     * 
+     * @param key key to remove.
+     * @return previously mapped value or the missing value.
+     */
+    public int remove(final int key) {
+        final int slot = find(key);
+        if (slot < 0) {
+            return missingValue;
+        }
+
+        final int previous = values[slot];
+        int gap = slot;
+        int index = slot;
+        while (true) {
+            index = (index + 1) & mask;
+            if (!used[index]) {
+                break;
+            }
+            if (IntHashing.movable(IntHashing.index(keys[index], mask), gap, index)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        used[gap] = false;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Get the number of entries.
+     * 
+     * @return number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether this map has no entries.
+     * 
+     * @return true if empty false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Visit every entry in no particular order.
+     * 
+     * @param consumer consumer of each key and value.
+     */
+    public void forEach(final EntryConsumer consumer) {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int find(final int key) {
+        int slot = IntHashing.index(key, mask);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash() {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    /**
+     * Consumer of int keys and int values.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * Accept a single entry.
+         * 
+         * @param key key of entry.
+         * @param value value of entry.
+         */
+        void accept(int key, int value);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassIds.
+ * 
+ * @author cdancy
+ */
+public class ClassIdsTest {
+
+    @Test
+    public void testIdsAreStableAndReversible() {
+        final int id = ClassIds.id(String.class);
+        assertThat(id).isGreaterThanOrEqualTo(0);
+        assertThat(ClassIds.id(String.class)).isEqualTo(id);
+        assertThat(ClassIds.clazz(id)).isEqualTo(String.class);
+        assertThat(ClassIds.capacity()).isGreaterThan(id);
+        assertThat(ClassIds.size()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testDistinctClassesGetDistinctIds() {
+        final Class[] classes = {int.class, Integer.class, int[].class, Object.class, ClassIdsTest.class};
+        final Set<Integer> ids = new HashSet<>();
+        for (final Class clazz : classes) {
+            ids.add(ClassIds.id(clazz));
+        }
+        assertThat(ids).hasSize(classes.length);
+    }
+
+    @Test
+    public void testUnknownIds() {
+        assertThat(ClassIds.clazz(-1)).isNull();
+        assertThat(ClassIds.clazz(Integer.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        final Class[] classes = {Thread.class, Runnable.class, StringBuilder.class, Character.class, Void.class};
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<int[]>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> {
+                    final int[] ids = new int[classes.length];
+                    for (int index = 0; index < classes.length; index++) {
+                        ids[index] = ClassIds.id(classes[index]);
+                    }
+                    return ids;
+                });
+            }
+            final List<Future<int[]>> results = executor.invokeAll(tasks);
+            final int[] expected = results.get(0).get();
+            for (final Future<int[]> result : results) {
+                assertThat(result.get()).containsExactly(expected);
+            }
+            for (int index = 0; index < classes.length; index++) {
+                assertThat(ClassIds.clazz(expected[index])).isEqualTo(classes[index]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testNullClass() {
+        ClassIds.id(null);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Shared ClassType's, and the handler classes they are parsed from, used by
+ * tests which exercise some alternate representation against ClassType itself.
+ *
+ * @author cdancy
+ */
+public final class ClassTypeFixtures {
+
+    public abstract static class IntegerHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    public abstract static class ObjectHandler implements Function<Object, Boolean>, Comparable<String> {
+
+    }
+
+    public abstract static class WildcardHandler implements Function<Object, Object>, Comparable<String> {
+
+    }
+
+    public abstract static class LongHandler implements Function<Long, Boolean>, Comparable<String> {
+
+    }
+
+    public abstract static class ReversedHandler implements Comparable<String>, Function<Integer, Boolean> {
+
+    }
+
+    private ClassTypeFixtures() {
+        throw new UnsupportedOperationException("Purposely not implemented");
+    }
+
+    /**
+     * Get a fresh list of ClassType's covering handlers which differ only by
+     * unknown types, by child order or by a missing child, along with JDK
+     * collections, primitives and arrays. The first 2 are always the parsed
+     * IntegerHandler followed by the parsed ObjectHandler.
+     *
+     * @return new, and modifiable, list of ClassType's.
+     */
+    public static List<ClassType> trees() {
+        final List<ClassType> trees = new ArrayList<>();
+        trees.add(ClassType.parse(IntegerHandler.class));
+        trees.add(ClassType.parse(ObjectHandler.class));
+        trees.add(ClassType.parse(WildcardHandler.class));
+        trees.add(ClassType.parse(LongHandler.class));
+        trees.add(ClassType.parse(ReversedHandler.class));
+        trees.add(ClassType.parse(IntegerHandler.class).toBuilder().remove(1).build());
+        trees.add(ClassType.parse(HashMap.class));
+        trees.add(ClassType.parse(ConcurrentHashMap.class));
+        trees.add(ClassType.parse(String.class));
+        trees.add(ClassType.parse(int.class));
+        trees.add(ClassType.builder(int.class).build());
+        trees.add(ClassType.builder(String[].class).child(ClassType.builder(long.class).build()).build());
+        return trees;
+    }
+}
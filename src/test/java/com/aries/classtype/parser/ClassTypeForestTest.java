@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aries.classtype.parser.ClassTypeFixtures.IntegerHandler;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassTypeForest.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeForestTest {
+
+    @Test
+    public void testRoundTrip() {
+        final List<ClassType> fixtures = ClassTypeFixtures.trees();
+        final ClassTypeForest forest = ClassTypeForest.builder().addAll(fixtures).build();
+        assertThat(forest.trees()).isEqualTo(fixtures.size());
+        for (int tree = 0; tree < fixtures.size(); tree++) {
+            final ClassType expected = fixtures.get(tree);
+            final int root = forest.root(tree);
+            assertThat(forest.clazz(root)).isEqualTo(expected.clazz());
+            assertThat(forest.name(root)).isEqualTo(expected.name());
+            assertThat(forest.childCount(root)).isEqualTo(expected.children().size());
+            assertThat(forest.toString(root)).isEqualTo(expected.toString());
+
+            final ClassType converted = forest.toClassType(root);
+            assertThat(converted.isFrozen()).isTrue();
+            assertThat(converted.toString()).isEqualTo(expected.toString());
+            assertThat(converted.compareTo(expected)).isEqualTo(expected.compareTo(expected));
+        }
+    }
+
+    @Test
+    public void testCompareAgreesWithClassType() {
+        final List<ClassType> fixtures = ClassTypeFixtures.trees();
+        final ClassTypeForest forest = ClassTypeForest.builder().addAll(fixtures).build();
+        final ClassTypeForest other = ClassTypeForest.builder().addAll(fixtures).build();
+        for (int source = 0; source < fixtures.size(); source++) {
+            for (int target = 0; target < fixtures.size(); target++) {
+                final int expected = fixtures.get(source).compareTo(fixtures.get(target));
+                assertThat(forest.compare(forest.root(source), forest.root(target))).isEqualTo(expected);
+                assertThat(forest.compare(forest.root(source), other, other.root(target))).isEqualTo(expected);
+            }
+        }
+
+        // the Function interfaces of the 2 handlers differ only by an unknown type
+        final int integerFunction = forest.child(forest.root(0), 0);
+        final int objectFunction = forest.child(forest.root(1), 0);
+        assertThat(forest.compare(integerFunction, objectFunction)).isEqualTo(CompareResult.TARGET_UNKNOWN);
+        assertThat(forest.compare(objectFunction, integerFunction)).isEqualTo(CompareResult.SOURCE_UNKNOWN);
+    }
+
+    @Test
+    public void testSharedClassTableAndContiguousChildren() {
+        final ClassTypeForest forest = ClassTypeForest.builder()
+                .add(ClassType.parse(IntegerHandler.class))
+                .add(ClassType.parse(IntegerHandler.class))
+                .build();
+        assertThat(forest.nodes()).isEqualTo(ClassTypeForest.builder().add(ClassType.parse(IntegerHandler.class)).build().nodes() * 2);
+        assertThat(forest.classes()).isLessThan(forest.nodes());
+
+        final int root = forest.root(0);
+        for (int i = 0; i < forest.childCount(root); i++) {
+            assertThat(forest.child(root, i)).isEqualTo(forest.childOffset(root) + i);
+        }
+        assertThat(forest.classId(forest.root(0))).isEqualTo(forest.classId(forest.root(1)));
+    }
+
+    @Test
+    public void testForEachVisitsInPreOrder() {
+        final ClassType classType = ClassType.parse(IntegerHandler.class);
+        final ClassTypeForest forest = ClassTypeForest.builder().add(classType).build();
+
+        final StringBuilder builder = new StringBuilder();
+        forest.forEach(forest.root(0), node -> builder.append(forest.clazz(node).getSimpleName()).append(' '));
+
+        final StringBuilder expected = new StringBuilder();
+        preOrder(classType, expected);
+        assertThat(builder.toString()).isEqualTo(expected.toString());
+        assertThat(forest.toString()).contains("trees=1");
+    }
+
+    private static void preOrder(final ClassType classType, final StringBuilder builder) {
+        builder.append(classType.clazz().getSimpleName()).append(' ');
+        for (final ClassType child : classType.children()) {
+            preOrder(child, builder);
+        }
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testChildOutOfBounds() {
+        final ClassTypeForest forest = ClassTypeForest.builder().add(ClassType.builder(Integer.class).build()).build();
+        forest.child(forest.root(0), 0);
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testAddNull() {
+        ClassTypeForest.builder().add(null);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.function.Function;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassType interning.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeInternerTest {
+
+    abstract static class FirstHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    abstract static class SecondHandler implements Comparable<String>, Serializable {
+
+    }
+
+    @Test
+    public void testEqualTreesInternToSameInstance() {
+        final ClassType first = ClassType.parse(FirstHandler.class).intern();
+        final ClassType second = ClassType.parse(FirstHandler.class).intern();
+        assertThat(first).isSameAs(second);
+        assertThat(first.isInterned()).isTrue();
+        assertThat(first.isFrozen()).isTrue();
+        assertThat(first.intern()).isSameAs(first);
+        assertThat(first.toString()).isEqualTo(ClassType.parse(FirstHandler.class).toString());
+    }
+
+    @Test
+    public void testEqualSubTreesAreShared() {
+        final ClassType first = ClassType.parse(FirstHandler.class).intern();
+        final ClassType second = ClassType.parse(SecondHandler.class).intern();
+
+        final ClassType firstComparable = first.firstTypeMatching(".*Comparable.*");
+        final ClassType secondComparable = second.firstTypeMatching(".*Comparable.*");
+        assertThat(firstComparable).isSameAs(secondComparable);
+        assertThat(firstComparable.children().get(0)).isSameAs(ClassType.builder(String.class).build().intern());
+    }
+
+    @Test
+    public void testDifferentTreesInternToDifferentInstances() {
+        final ClassType first = ClassType.parse(FirstHandler.class).intern();
+        final ClassType second = ClassType.parse(SecondHandler.class).intern();
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.equals(second)).isFalse();
+        assertThat(first.equals(first)).isTrue();
+        assertThat(ClassTypeInterner.size()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testBuiltTreesInternWithParsedTrees() {
+        final ClassType built = ClassType.builder(Comparable.class)
+                .child(ClassType.builder(String.class).build())
+                .build()
+                .intern();
+        final ClassType parsed = ClassType.parse(FirstHandler.class).intern();
+        assertThat(parsed.children().get(1)).isSameAs(built);
+    }
+
+    @Test
+    public void testParseWithInternOption() {
+        final ParseOptions options = ParseOptions.builder().intern(true).build();
+        final ClassType first = ClassType.parse(FirstHandler.class, options);
+        final ClassType second = ClassType.parse(FirstHandler.class, options);
+        assertThat(first.isInterned()).isTrue();
+        assertThat(first).isSameAs(second);
+        assertThat(ClassType.parse(FirstHandler.class).isInterned()).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aries.classtype.parser.ClassTypeFixtures.IntegerHandler;
+import com.aries.classtype.parser.ClassTypeFixtures.LongHandler;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassTypeMatcher.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeMatcherTest {
+
+    private static List<ClassType> fixtures() {
+        final List<ClassType> fixtures = ClassTypeFixtures.trees();
+        for (final ClassType root : ClassTypeFixtures.trees()) {
+            fixtures.addAll(root.children());
+        }
+        return fixtures;
+    }
+
+    @Test
+    public void testMatcherAgreesWithCompareTo() {
+        final List<ClassType> fixtures = fixtures();
+        for (final ClassType target : fixtures) {
+            final ClassTypeMatcher matcher = ClassTypeMatcher.compile(target);
+            assertThat(matcher.target()).isEqualTo(target);
+            assertThat(matcher.target().isFrozen()).isTrue();
+            for (final ClassType source : fixtures) {
+                final int expected = source.compareTo(target);
+                assertThat(matcher.compare(source)).isEqualTo(expected);
+                assertThat(matcher.matches(source)).isEqualTo(expected == CompareResult.MATCH);
+                assertThat(matcher.compareWith(source).code()).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void testMismatchDescription() {
+        final String function = "java.util.function.Function";
+        final ClassTypeMatcher matcher = ClassTypeMatcher.compile(ClassType.parse(LongHandler.class).firstTypeMatching(function));
+        final CompareResult result = matcher.compareWith(ClassType.parse(IntegerHandler.class).firstTypeMatching(function));
+        assertThat(result.isMismatch()).isTrue();
+        assertThat(result.path()).containsExactly(0);
+        assertThat(result.source().clazz()).isEqualTo(Integer.class);
+        assertThat(result.target().clazz()).isEqualTo(Long.class);
+    }
+
+    @Test
+    public void testTargetModifiedAfterCompile() {
+        final ClassType target = ClassType.parse(String.class);
+        final ClassTypeMatcher matcher = ClassTypeMatcher.compile(target);
+        target.child(ClassType.parse(Integer.class));
+        assertThat(matcher.target().children()).hasSize(target.children().size() - 1);
+        assertThat(matcher.matches(ClassType.parse(String.class))).isTrue();
+        assertThat(matcher.matches(target)).isFalse();
+        assertThat(matcher.compareWith(target).target()).isSameAs(matcher.target());
+    }
+
+    @Test
+    public void testLazyTarget() {
+        final ClassType lazy = ClassType.parse(IntegerHandler.class, ParseOptions.builder().lazy(true).build());
+        final ClassTypeMatcher matcher = ClassTypeMatcher.compile(lazy);
+        assertThat(matcher.matches(ClassType.parse(IntegerHandler.class))).isTrue();
+    }
+
+    @Test
+    public void testNullSource() {
+        final ClassTypeMatcher matcher = ClassTypeMatcher.compile(ClassType.parse(String.class));
+        assertThat(matcher.compare(null)).isEqualTo(CompareResult.MISMATCH);
+        assertThat(matcher.matches(null)).isFalse();
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testCompileNullTarget() {
+        ClassTypeMatcher.compile(null);
+    }
+}
@@ -19,14 +19,37 @@ package com.aries.classtype.parser;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.aries.classtype.parser.domain.Null;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import org.junit.Test;
 
@@ -122,6 +145,19 @@ public class ClassTypeTest {
 
     }
 
+    static final AtomicInteger INITIALIZATIONS = new AtomicInteger();
+
+    static class NeverInitialized {
+        static {
+            INITIALIZATIONS.incrementAndGet();
+        }
+    }
+
+    abstract static class TypeArgumentKinds implements Function<NeverInitialized, NeverInitialized[]>,
+            Comparable<List<? extends Number>> {
+
+    }
+
     @Test
     public void testNullType() {
 
@@ -177,6 +213,149 @@ public class ClassTypeTest {
         assertThat(first.equals(ClassType.parse(String.class))).isTrue();
     }
 
+    @Test
+    public void testTypeArgumentsResolvedWithoutInitialization() {
+
+        final ClassType instance = ClassType.parse(TypeArgumentKinds.class);
+        final ClassType function = instance.children().get(0);
+        assertThat(function.children().get(0).clazz()).isEqualTo(NeverInitialized.class);
+        assertThat(function.children().get(1).clazz()).isEqualTo(Object.class);
+
+        final ClassType list = instance.children().get(1).children().get(0);
+        assertThat(list.clazz()).isEqualTo(List.class);
+        assertThat(list.children().get(0).clazz()).isEqualTo(Object.class);
+        assertThat(INITIALIZATIONS.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void testTypeNameFallback() throws Exception {
+
+        final Method classFromType = ClassType.class.getDeclaredMethod("classFromType", Type.class, ClassLoader.class, ParseOptions.class);
+        classFromType.setAccessible(true);
+        final ClassLoader loader = ClassTypeTest.class.getClassLoader();
+        final ParseOptions options = ParseOptions.DEFAULT_PARSER_OPTIONS;
+        assertThat(classFromType.invoke(null, namedType(NeverInitialized.class.getName()), loader, options))
+                .isEqualTo(NeverInitialized.class);
+        assertThat(classFromType.invoke(null, namedType("T"), loader, options)).isEqualTo(Object.class);
+        assertThat(classFromType.invoke(null, namedType("java.lang.String[]"), loader, options)).isEqualTo(Object.class);
+        assertThat(INITIALIZATIONS.get()).isEqualTo(0);
+        try {
+            classFromType.invoke(null, namedType("com.aries.DoesNotExist"), loader, options);
+            fail("Expected RuntimeException for unknown class");
+        } catch (final InvocationTargetException e) {
+            assertThat(e.getCause()).isInstanceOf(RuntimeException.class).hasCauseInstanceOf(ClassNotFoundException.class);
+        }
+
+        // names are resolved through the requested ClassResolver against the passed ClassLoader
+        final List<ClassLoader> loaders = new ArrayList<>();
+        final ParseOptions resolving = ParseOptions.builder().classResolver((name, resolvingLoader) -> {
+            loaders.add(resolvingLoader);
+            return String.class;
+        }).build();
+        assertThat(classFromType.invoke(null, namedType("com.aries.Anything"), loader, resolving)).isEqualTo(String.class);
+        assertThat(loaders).containsExactly(loader);
+    }
+
+    @Test
+    public void testTypeNameFallbackWithinJdkGenericType() throws Exception {
+
+        // Function lives within the bootstrap ClassLoader which can't see our
+        // own classes and so names must resolve against the root's ClassLoader.
+        final Method parseParameterizedType = ClassType.class.getDeclaredMethod("parseParameterizedType",
+                ParameterizedType.class, ClassLoader.class, ParseOptions.class);
+        parseParameterizedType.setAccessible(true);
+        final ParameterizedType function = new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return new Type[] {namedType(NeverInitialized.class.getName()), Boolean.class};
+            }
+
+            @Override
+            public Type getRawType() {
+                return Function.class;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+        assertThat(Function.class.getClassLoader()).isNull();
+
+        final ClassType parsed = (ClassType) parseParameterizedType.invoke(null, function,
+                ClassTypeTest.class.getClassLoader(), ParseOptions.DEFAULT_PARSER_OPTIONS);
+        assertThat(parsed.toString()).isEqualTo("java.util.function.Function<"
+                + NeverInitialized.class.getName() + ", java.lang.Boolean>");
+        assertThat(INITIALIZATIONS.get()).isEqualTo(0);
+    }
+
+    private static Type namedType(final String typeName) {
+        return new Type() {
+            @Override
+            public String getTypeName() {
+                return typeName;
+            }
+        };
+    }
+
+    @Test
+    public void testStructuralEqualityWithUnknownTypes() {
+
+        // java.util.ArrayList<java.lang.Object, ...> only ever compares with code 3
+        final ClassType first = ClassType.parse(ArrayList.class);
+        final ClassType second = ClassType.parse(ArrayList.class);
+        assertThat(first.compareTo(second)).isEqualTo(CompareResult.BOTH_UNKNOWN);
+        assertThat(first).isEqualTo(second);
+        assertThat(first.hashCode()).isEqualTo(second.hashCode());
+
+        final ClassType known = ClassType.builder(List.class).child(ClassType.builder(Integer.class).build()).build();
+        final ClassType unknown = ClassType.builder(List.class).child(ClassType.builder(Object.class).build()).build();
+        assertThat(known).isNotEqualTo(unknown);
+        assertThat(unknown).isNotEqualTo(known);
+        assertThat(known).isNotEqualTo(null);
+        assertThat(known).isNotEqualTo("java.util.List<java.lang.Integer>");
+    }
+
+    @Test
+    public void testHashCodeIncludesClazz() {
+
+        final ClassType child = ClassType.builder(String.class).build();
+        final ClassType list = ClassType.builder(List.class).child(child).build();
+        final ClassType set = ClassType.builder(Set.class).child(child).build();
+        assertThat(list).isNotEqualTo(set);
+        assertThat(list.hashCode()).isNotEqualTo(set.hashCode());
+    }
+
+    @Test
+    public void testHashCodeConsistentAcrossFrozenAndMutable() {
+
+        final ClassType mutable = ClassType.parse(HashMap.class);
+        final ClassType frozen = ClassType.parse(HashMap.class).freeze();
+        final ClassType lazy = ClassType.parse(HashMap.class, ParseOptions.builder().lazy(true).build());
+        assertThat(mutable).isEqualTo(frozen).isEqualTo(lazy);
+        assertThat(mutable.hashCode()).isEqualTo(frozen.hashCode()).isEqualTo(lazy.hashCode());
+        assertThat(frozen.hashCode()).isEqualTo(frozen.hashCode());
+
+        // mutable nodes recompute their hash as children are added
+        final int before = mutable.hashCode();
+        mutable.child(ClassType.parse(String.class));
+        assertThat(mutable.hashCode()).isNotEqualTo(before);
+        assertThat(mutable).isNotEqualTo(frozen);
+    }
+
+    @Test
+    public void testClassTypeAsMapKey() {
+
+        final Map<ClassType, String> map = new HashMap<>();
+        for (final Class clazz : Arrays.asList(String.class, Integer.class, HashMap.class, ArrayList.class)) {
+            map.put(ClassType.parse(clazz).freeze(), clazz.getName());
+        }
+        for (final Class clazz : Arrays.asList(String.class, Integer.class, HashMap.class, ArrayList.class)) {
+            assertThat(map.get(ClassType.parse(clazz))).isEqualTo(clazz.getName());
+        }
+        assertThat(map.get(ClassType.parse(Long.class))).isNull();
+    }
+
     @Test
     public void testEmptyStringType() {
 
@@ -351,4 +530,293 @@ public class ClassTypeTest {
         assertTrue(classType.children().get(1).children().size() == 1);
         assertTrue(classType.children().get(1).children().get(0).name().equalsIgnoreCase(String.class.getName()));
     }
+
+    @Test
+    public void testChildrenAreReadOnly() {
+        final ClassType classType = ClassType.parse(HelloWorld.class);
+        assertThat(classType.isFrozen()).isFalse();
+        try {
+            classType.children().add(ClassType.parse(String.class));
+            fail("Expected UnsupportedOperationException");
+        } catch (final UnsupportedOperationException e) {
+            assertThat(classType.children().size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testFreeze() {
+        final ClassType classType = ClassType.parse(HelloWorld.class);
+        final ClassType frozen = classType.freeze();
+        assertThat(frozen).isNotSameAs(classType);
+        assertThat(frozen.isFrozen()).isTrue();
+        assertThat(frozen.freeze()).isSameAs(frozen);
+        assertThat(frozen.toString()).isEqualTo(classType.toString());
+        assertThat(frozen.compareTo(classType)).isEqualTo(0);
+        assertThat(frozen.children().get(0).isFrozen()).isTrue();
+        assertThat(frozen.children().get(0).children().get(0).isFrozen()).isTrue();
+
+        // modifying the original has no bearing on the frozen copy
+        classType.child(ClassType.parse(String.class));
+        assertThat(classType.children().size()).isEqualTo(3);
+        assertThat(frozen.children().size()).isEqualTo(2);
+    }
+
+    @Test (expected = UnsupportedOperationException.class)
+    public void testAddingChildToFrozenType() {
+        ClassType.parse(String.class).freeze().child(ClassType.parse(Integer.class));
+    }
+
+    @Test (expected = UnsupportedOperationException.class)
+    public void testModifyingFrozenChildren() {
+        ClassType.parse(HelloWorld.class).freeze().children().remove(0);
+    }
+
+    @Test
+    public void testBuilder() {
+        final ClassType classType = ClassType.builder(Function.class)
+                .child(ClassType.parse(Integer.class))
+                .child(ClassType.builder(Boolean.class).build())
+                .build();
+        assertThat(classType.isFrozen()).isTrue();
+        assertThat(classType.children().get(0).isFrozen()).isTrue();
+        assertThat(classType.toString()).isEqualTo(Function.class.getName()
+                + "<" + ClassType.parse(Integer.class) + ", " + Boolean.class.getName() + ">");
+        assertThat(ClassType.builder(String.class).build().children()).isEmpty();
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testBuilderWithNullClass() {
+        ClassType.builder(null);
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testBuilderWithNullChild() {
+        ClassType.builder(String.class).child(null);
+    }
+
+    @Test
+    public void testToBuilderIsCopyOnWrite() {
+        final ClassType frozen = ClassType.parse(HelloWorld.class).freeze();
+        final ClassType.Builder builder = frozen.toBuilder();
+        final ClassType unchanged = builder.build();
+        assertThat(unchanged).isNotSameAs(frozen);
+        assertThat(unchanged.children().get(0)).isSameAs(frozen.children().get(0));
+
+        final ClassType modified = builder.remove(0)
+                .child(ClassType.parse(String.class))
+                .replace(0, ClassType.parse(Integer.class))
+                .build();
+        assertThat(modified.children().size()).isEqualTo(2);
+        assertThat(modified.children().get(0).clazz()).isEqualTo(Integer.class);
+        assertThat(modified.children().get(1).clazz()).isEqualTo(String.class);
+
+        // neither the original nor the earlier build are affected
+        assertThat(frozen.toString()).isEqualTo(ClassType.parse(HelloWorld.class).toString());
+        assertThat(unchanged.toString()).isEqualTo(frozen.toString());
+    }
+
+    @Test
+    public void testToBuilderFromMutableType() {
+        final ClassType classType = ClassType.parse(HelloWorld.class);
+        final ClassType built = classType.toBuilder().build();
+        assertThat(built.isFrozen()).isTrue();
+        assertThat(built.toString()).isEqualTo(classType.toString());
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testBuilderRemoveOutOfBounds() {
+        ClassType.builder(String.class).remove(0);
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testBuilderReplaceOutOfBounds() {
+        ClassType.builder(String.class).replace(-1, ClassType.parse(String.class));
+    }
+
+    @Test
+    public void testParseAllPreservesInputOrder() {
+        final List<Object> inputs = Arrays.asList(HelloWorld.class, 123, null, String.class, HelloWorld3.class, int.class);
+        final List<ClassType> parsed = ClassType.parseAll(inputs, ParseOptions.DEFAULT_PARSER_OPTIONS);
+        assertThat(parsed).hasSize(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            assertThat(parsed.get(i).toString()).isEqualTo(ClassType.parse(inputs.get(i)).toString());
+        }
+    }
+
+    @Test
+    public void testParseAllDeduplicatesClasses() {
+        final AtomicInteger submitted = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Executor countingExecutor = task -> {
+                submitted.incrementAndGet();
+                executor.execute(task);
+            };
+            final List<Object> inputs = Arrays.asList(HelloWorld.class, 1, HelloWorld.class, Integer.class, int.class, "hello");
+            final ParseOptions options = ParseOptions.instance(null, null, COMPARABLE_REGEX, null);
+            final List<ClassType> parsed = ClassType.parseAll(inputs, options, countingExecutor);
+            assertThat(submitted.get()).isEqualTo(3);
+            assertThat(parsed.get(0)).isSameAs(parsed.get(2));
+            assertThat(parsed).allMatch(ClassType::isFrozen);
+            assertThat(parsed.get(1)).isSameAs(parsed.get(3)).isSameAs(parsed.get(4));
+            assertThat(parsed.get(0).children()).hasSize(1);
+            assertThat(parsed.get(5).clazz()).isEqualTo(String.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParseAllWithEmptyCollection() {
+        assertThat(ClassType.parseAll(Collections.emptyList(), ParseOptions.DEFAULT_PARSER_OPTIONS)).isEmpty();
+    }
+
+    @Test
+    public void testParseAllRethrowsParseFailures() {
+        final Executor failingExecutor = task -> {
+            throw new IllegalStateException("rejected");
+        };
+        try {
+            ClassType.parseAll(Arrays.asList(String.class), ParseOptions.DEFAULT_PARSER_OPTIONS, failingExecutor);
+            fail("Expected IllegalStateException");
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage()).isEqualTo("rejected");
+        }
+    }
+
+    @Test
+    public void testWriteToAppendable() throws IOException {
+        final ClassType classType = ClassType.parse(HashMap.class);
+        final StringWriter writer = new StringWriter();
+        classType.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(classType.toString());
+
+        final StringWriter frozenWriter = new StringWriter();
+        final ClassType frozen = classType.freeze();
+        frozen.toString();
+        frozen.writeTo(frozenWriter);
+        assertThat(frozenWriter.toString()).isEqualTo(writer.toString());
+    }
+
+    @Test
+    public void testWriteToExistingStringBuilder() throws IOException {
+        final ClassType classType = ClassType.parse(HashMap.class);
+        final StringBuilder builder = new StringBuilder("type=");
+        classType.writeTo(builder);
+        assertThat(builder.toString()).isEqualTo("type=" + classType);
+
+        final StringBuilder appendableBuilder = new StringBuilder("type=");
+        classType.writeTo((Appendable) appendableBuilder);
+        assertThat(appendableBuilder.toString()).isEqualTo(builder.toString());
+    }
+
+    @Test
+    public void testWriteToPropagatesIOException() {
+        final Appendable broken = new Appendable() {
+            @Override
+            public Appendable append(final CharSequence csq) throws IOException {
+                throw new IOException("broken");
+            }
+
+            @Override
+            public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+                throw new IOException("broken");
+            }
+
+            @Override
+            public Appendable append(final char character) throws IOException {
+                throw new IOException("broken");
+            }
+        };
+        try {
+            ClassType.parse(HashMap.class).writeTo(broken);
+            fail("Expected IOException");
+        } catch (final IOException e) {
+            assertThat(e.getMessage()).isEqualTo("broken");
+        }
+    }
+
+    @Test
+    public void testToStringMemoizedOnlyWhenFrozen() {
+        final ClassType frozen = ClassType.parse(HashMap.class).freeze();
+        final String rendered = frozen.toString();
+        assertThat(frozen.toString()).isSameAs(rendered);
+
+        final ClassType parent = ClassType.builder(List.class).child(frozen.children().get(0)).build().freeze();
+        assertThat(parent.toString()).isEqualTo("java.util.List<" + frozen.children().get(0) + ">");
+
+        final ClassType mutable = ClassType.parse(HashMap.class);
+        final String before = mutable.toString();
+        assertThat(mutable.toString()).isNotSameAs(before).isEqualTo(before);
+    }
+
+    private static Object roundTrip(final Object object) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(object);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return input.readObject();
+        }
+    }
+
+    @Test
+    public void testJavaSerializationResolvesToCanonicalInstance() throws Exception {
+        final ClassType parsed = ClassType.parse(HashMap.class);
+        final ClassType deserialized = (ClassType) roundTrip(parsed);
+        assertThat(deserialized).isEqualTo(parsed).isSameAs(parsed.intern());
+        assertThat(deserialized.isInterned()).isTrue();
+
+        final ClassType lazy = ClassType.parse(HashMap.class, ParseOptions.builder().lazy(true).build());
+        assertThat(roundTrip(lazy)).isSameAs(deserialized);
+        assertThat(roundTrip(Arrays.asList(parsed, lazy))).isEqualTo(Arrays.asList(deserialized, deserialized));
+    }
+
+    @Test
+    public void testSerializedFormRejectsMalformedInput() throws Exception {
+        final Class<?> formClass = Class.forName(ClassType.class.getName() + "$SerializedForm");
+        final Constructor<?> constructor = formClass.getDeclaredConstructor(ClassType.class);
+        constructor.setAccessible(true);
+        final Field classes = formClass.getDeclaredField("classes");
+        final Field childCounts = formClass.getDeclaredField("childCounts");
+        classes.setAccessible(true);
+        childCounts.setAccessible(true);
+        final Method readResolve = formClass.getDeclaredMethod("readResolve");
+        readResolve.setAccessible(true);
+
+        final Object[][] malformed = {
+            {null, new int[] {0}},
+            {new Class[] {String.class}, null},
+            {new Class[0], new int[0]},
+            {new Class[] {String.class}, new int[] {0, 0}},
+            {new Class[] {null}, new int[] {0}},
+            {new Class[] {String.class}, new int[] {-1}},
+            {new Class[] {String.class}, new int[] {1}},
+            {new Class[] {String.class, String.class}, new int[] {0, 0}},
+        };
+        for (final Object[] fields : malformed) {
+            final Object form = constructor.newInstance(ClassType.parse(String.class));
+            classes.set(form, fields[0]);
+            childCounts.set(form, fields[1]);
+            try {
+                readResolve.invoke(form);
+                fail("Expected InvalidObjectException");
+            } catch (final InvocationTargetException e) {
+                assertThat(e.getCause()).isInstanceOf(InvalidObjectException.class);
+                assertThat(e.getCause().getMessage()).startsWith("Malformed ClassType");
+            }
+        }
+    }
+
+    @Test
+    public void testDirectDeserializationIsRejected() throws Exception {
+        final Method readObject = ClassType.class.getDeclaredMethod("readObject", ObjectInputStream.class);
+        readObject.setAccessible(true);
+        try {
+            readObject.invoke(ClassType.parse(String.class), (Object) null);
+            fail("Expected InvalidObjectException");
+        } catch (final InvocationTargetException e) {
+            assertThat(e.getCause()).isInstanceOf(InvalidObjectException.class);
+        }
+    }
 }
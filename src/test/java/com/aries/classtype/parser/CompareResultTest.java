@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.exceptions.TypeMismatchException;
+import java.util.function.Function;
+import org.junit.Test;
+
+/**
+ * Tests for exercising CompareResult.
+ * 
+ * @author cdancy
+ */
+public class CompareResultTest {
+
+    abstract static class IntegerHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    abstract static class ObjectHandler implements Function<Object, Boolean>, Comparable<String> {
+
+    }
+
+    abstract static class LongHandler implements Function<Long, Boolean>, Comparable<String> {
+
+    }
+
+    @Test
+    public void testMatchResultsAreShared() {
+        final ClassType source = ClassType.parse(IntegerHandler.class);
+        final CompareResult result = source.compareWith(ClassType.parse(IntegerHandler.class));
+        assertThat(result.code()).isEqualTo(CompareResult.MATCH);
+        assertThat(result.isMatch()).isTrue();
+        assertThat(result.isMismatch()).isFalse();
+        assertThat(result).isSameAs(source.compareWith(source));
+        assertThat(result.path()).isEmpty();
+        assertThat(result.source()).isNull();
+        assertThat(result.target()).isNull();
+        assertThat(result.childCountMismatch()).isFalse();
+        assertThat(result.message()).isNull();
+        assertThat(result.toString()).contains("code=0");
+    }
+
+    @Test
+    public void testUnknownTypeCodes() {
+        final ClassType integerHandler = ClassType.parse(IntegerHandler.class).firstTypeMatching(".*Function.*");
+        final ClassType objectHandler = ClassType.parse(ObjectHandler.class).firstTypeMatching(".*Function.*");
+        assertThat(objectHandler.compareWith(integerHandler).code()).isEqualTo(CompareResult.SOURCE_UNKNOWN);
+        assertThat(integerHandler.compareWith(objectHandler).code()).isEqualTo(CompareResult.TARGET_UNKNOWN);
+        assertThat(objectHandler.compareWith(objectHandler).code()).isEqualTo(CompareResult.BOTH_UNKNOWN);
+        assertThat(objectHandler.compareWith(objectHandler).isMatch()).isFalse();
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        final ClassType source = ClassType.parse(IntegerHandler.class).firstTypeMatching(".*Function.*");
+        final ClassType target = ClassType.parse(LongHandler.class).firstTypeMatching(".*Function.*");
+        final CompareResult result = source.compareWith(target);
+        assertThat(result.code()).isEqualTo(CompareResult.MISMATCH);
+        assertThat(result.isMismatch()).isTrue();
+        assertThat(result.path()).containsExactly(0);
+        assertThat(result.source().clazz()).isEqualTo(Integer.class);
+        assertThat(result.target().clazz()).isEqualTo(Long.class);
+        assertThat(result.childCountMismatch()).isFalse();
+        assertThat(result.message()).isEqualTo("Source type 'java.lang.Integer' does not match target type 'java.lang.Long'");
+        assertThat(result.toString()).contains(result.message());
+        assertThat(source.compareTo(target)).isEqualTo(CompareResult.MISMATCH);
+
+        final TypeMismatchException exception = result.toException();
+        assertThat(exception.getMessage()).isEqualTo(result.message());
+        assertThat(exception.source).isEqualTo(Integer.class.getName());
+        assertThat(exception.target).isEqualTo(Long.class.getName());
+    }
+
+    @Test
+    public void testChildCountMismatch() {
+        final ClassType source = ClassType.parse(IntegerHandler.class);
+        final ClassType target = source.toBuilder().remove(1).build();
+        final CompareResult result = source.compareWith(target);
+        assertThat(result.isMismatch()).isTrue();
+        assertThat(result.path()).isEmpty();
+        assertThat(result.childCountMismatch()).isTrue();
+        assertThat(result.source()).isSameAs(source);
+        assertThat(result.message()).isEqualTo("Source type '" + IntegerHandler.class.getName()
+                + "' has 2 subTypes (java.util.function.Function, java.lang.Comparable) while '"
+                + IntegerHandler.class.getName() + "' has 1 subTypes (java.util.function.Function)");
+
+        final ClassType leaf = ClassType.builder(Comparable.class).build();
+        assertThat(leaf.compareWith(target.children().get(0)).message()).isEqualTo(
+                "Source type 'java.lang.Comparable' does not match target type 'java.util.function.Function'");
+        assertThat(leaf.compareWith(ClassType.builder(Comparable.class).child(leaf).build()).message())
+                .isEqualTo("Source type 'java.lang.Comparable' has 0 subTypes java.lang.Comparable' has 1 subTypes (java.lang.Comparable)");
+    }
+
+    @Test
+    public void testNullTarget() {
+        final ClassType source = ClassType.parse(IntegerHandler.class);
+        final CompareResult result = source.compareWith(null);
+        assertThat(result.isMismatch()).isTrue();
+        assertThat(result.source()).isSameAs(source);
+        assertThat(result.target()).isNull();
+        assertThat(result.message()).contains("NULL target type");
+        assertThat(result.toException().target).isNull();
+    }
+
+    @Test
+    public void testCompareThrowsSameException() {
+        final ClassType source = ClassType.parse(IntegerHandler.class);
+        final ClassType target = ClassType.parse(LongHandler.class);
+        try {
+            source.compare(target);
+            fail("Expected TypeMismatchException");
+        } catch (final TypeMismatchException e) {
+            assertThat(e.getMessage()).isEqualTo(source.compareWith(target).message());
+        }
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testToExceptionOnMatch() {
+        final ClassType source = ClassType.parse(IntegerHandler.class);
+        source.compareWith(source).toException();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.Test;
+
+/**
+ * Tests for exercising lazily parsed ClassType's.
+ * 
+ * @author cdancy
+ */
+public class LazyParseTest {
+
+    private static final ParseOptions LAZY = ParseOptions.builder().lazy(true).build();
+
+    abstract static class LazyHandler<T> extends ArrayList<Function<T, Boolean>> implements Comparable<String> {
+
+    }
+
+    @Test
+    public void testLazyParseMatchesEagerParse() {
+        for (final Class clazz : new Class[] {LazyHandler.class, HashMap.class, Properties.class, String.class, Integer.class}) {
+            final ClassType eager = ClassType.parse(clazz);
+            final ClassType lazy = ClassType.parse(clazz, LAZY);
+            assertThat(lazy.toString()).isEqualTo(eager.toString());
+            assertThat(lazy.compareTo(eager)).isEqualTo(eager.compareTo(eager));
+            assertThat(lazy.hashCode()).isEqualTo(eager.hashCode());
+        }
+    }
+
+    @Test
+    public void testLazyParseMatchesEagerParseWithRegexes() {
+        final ParseOptions eagerOptions = ParseOptions.instance(".*AbstractList.*", ".*Object.*", ".*Comparable.*", ".*Boolean.*");
+        final ParseOptions lazyOptions = ParseOptions.builder()
+                .classRegex(".*AbstractList.*")
+                .classParamRegex(".*Object.*")
+                .interfaceRegex(".*Comparable.*")
+                .interfaceParamRegex(".*Boolean.*")
+                .lazy(true)
+                .build();
+        assertThat(lazyOptions).isNotEqualTo(eagerOptions);
+        assertThat(ClassType.parse(LazyHandler.class, lazyOptions).toString())
+                .isEqualTo(ClassType.parse(LazyHandler.class, eagerOptions).toString());
+    }
+
+    @Test
+    public void testLazyTypesAreFrozen() {
+        final ClassType lazy = ClassType.parse(LazyHandler.class, LAZY);
+        assertThat(lazy.isFrozen()).isTrue();
+        assertThat(lazy.freeze()).isSameAs(lazy);
+        assertThat(lazy.children().get(0).isFrozen()).isTrue();
+        assertThat(lazy.children().get(2).children().get(0).isFrozen()).isTrue();
+
+        final ClassType modified = lazy.toBuilder().remove(0).build();
+        assertThat(modified.children().size()).isEqualTo(lazy.children().size() - 1);
+    }
+
+    @Test
+    public void testFirstLevelOnly() {
+        final ClassType lazy = ClassType.parse(LazyHandler.class, LAZY);
+        final ClassType comparable = lazy.children().get(1);
+        assertThat(comparable.clazz()).isEqualTo(Comparable.class);
+        assertThat(comparable.children().get(0).clazz()).isEqualTo(String.class);
+    }
+
+    @Test
+    public void testLazyInternedParse() {
+        final ParseOptions options = ParseOptions.builder().lazy(true).intern(true).build();
+        final ClassType interned = ClassType.parse(LazyHandler.class, options);
+        assertThat(interned.isInterned()).isTrue();
+        assertThat(interned).isSameAs(ClassType.parse(LazyHandler.class).intern());
+    }
+
+    @Test
+    public void testConcurrentResolution() throws Exception {
+        final String expected = ClassType.parse(LazyHandler.class).toString();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int run = 0; run < 20; run++) {
+                final ClassType lazy = ClassType.parse(LazyHandler.class, LAZY);
+                final List<Callable<String>> tasks = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    tasks.add(lazy::toString);
+                }
+                for (final Future<String> rendered : executor.invokeAll(tasks)) {
+                    assertThat(rendered.get()).isEqualTo(expected);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
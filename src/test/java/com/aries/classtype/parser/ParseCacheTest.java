@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ParseCache.
+ * 
+ * @author cdancy
+ */
+public class ParseCacheTest {
+
+    abstract static class CachedHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    /**
+     * Restore the default, disabled and empty, cache after every test.
+     */
+    @After
+    public void resetCache() {
+        ParseCache.disable();
+        ParseCache.enable(ParseCache.Policy.DEFAULT);
+        ParseCache.disable();
+        ParseCache.clear();
+    }
+
+    @Test
+    public void testCacheDisabledByDefault() {
+        assertThat(ParseCache.isEnabled()).isFalse();
+        assertThat(ClassType.parse(CachedHandler.class)).isNotSameAs(ClassType.parse(CachedHandler.class));
+        assertThat(ClassType.parse(CachedHandler.class).isFrozen()).isFalse();
+    }
+
+    @Test
+    public void testRepeatParseReturnsCachedInstance() {
+        ParseCache.enable();
+        assertThat(ParseCache.isEnabled()).isTrue();
+
+        final ClassType first = ClassType.parse(CachedHandler.class);
+        final ClassType second = ClassType.parse(CachedHandler.class);
+        assertThat(first).isSameAs(second);
+        assertThat(first.isFrozen()).isTrue();
+    }
+
+    @Test
+    public void testInstancesShareCacheWithTheirClass() {
+        ParseCache.enable();
+        assertThat(ClassType.parse("hello")).isSameAs(ClassType.parse(String.class));
+        assertThat(ClassType.parse(int.class)).isSameAs(ClassType.parse(Integer.class));
+    }
+
+    @Test
+    public void testCacheIsKeyedByParseOptions() {
+        ParseCache.enable();
+
+        final ParseOptions options = ParseOptions.instance(null, null, ".*Comparable.*", null);
+        final ClassType filtered = ClassType.parse(CachedHandler.class, options);
+        final ClassType unfiltered = ClassType.parse(CachedHandler.class);
+        assertThat(filtered).isNotSameAs(unfiltered);
+        assertThat(filtered.children().size()).isEqualTo(1);
+        assertThat(unfiltered.children().size()).isEqualTo(2);
+
+        // equal, but not identical, options should hit the same entry
+        final ParseOptions sameOptions = ParseOptions.instance(null, null, ".*Comparable.*", null);
+        assertThat(ClassType.parse(CachedHandler.class, sameOptions)).isSameAs(filtered);
+    }
+
+    @Test
+    public void testClearDropsCachedInstances() {
+        ParseCache.enable();
+
+        final ClassType first = ClassType.parse(CachedHandler.class);
+        ParseCache.clear();
+        final ClassType second = ClassType.parse(CachedHandler.class);
+        assertThat(first).isNotSameAs(second);
+        assertThat(ClassType.parse(CachedHandler.class)).isSameAs(second);
+    }
+
+    @Test
+    public void testDisableBypassesCache() {
+        ParseCache.enable();
+        final ClassType first = ClassType.parse(CachedHandler.class);
+        ParseCache.disable();
+        assertThat(ClassType.parse(CachedHandler.class)).isNotSameAs(first);
+        ParseCache.enable();
+        assertThat(ClassType.parse(CachedHandler.class)).isSameAs(first);
+    }
+
+    @Test
+    public void testStatsCountHitsAndMisses() {
+        ParseCache.enable();
+
+        ClassType.parse(CachedHandler.class);
+        ClassType.parse(CachedHandler.class);
+        ClassType.parse(CachedHandler.class);
+        final ParseCache.Stats stats = ParseCache.stats();
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(0);
+        assertThat(stats.size()).isEqualTo(1);
+        assertThat(stats.totalLoadTime()).isGreaterThan(0);
+        assertThat(stats.averageLoadTime()).isEqualTo((double) stats.totalLoadTime());
+        assertThat(stats.hitRate()).isEqualTo(2.0D / 3.0D);
+        assertThat(stats.toString()).contains("hits=2");
+
+        ParseCache.clear();
+        assertThat(ParseCache.stats().hits()).isEqualTo(0);
+        assertThat(ParseCache.stats().hitRate()).isEqualTo(1.0D);
+        assertThat(ParseCache.stats().averageLoadTime()).isEqualTo(0.0D);
+    }
+
+    @Test
+    public void testMaximumSizeEvicts() {
+        ParseCache.enable(ParseCache.Policy.builder().maximumSize(2).build());
+        assertThat(ParseCache.policy().maximumSize).isEqualTo(2);
+
+        for (final Class clazz : Arrays.asList(String.class, Integer.class, Long.class, Short.class, Byte.class)) {
+            ClassType.parse(clazz);
+        }
+        final ParseCache.Stats stats = ParseCache.stats();
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(3);
+
+        // the most recently inserted entries survive
+        final ClassType cached = ClassType.parse(Byte.class);
+        assertThat(ClassType.parse(Byte.class)).isSameAs(cached);
+        assertThat(ParseCache.stats().misses()).isEqualTo(5);
+    }
+
+    @Test
+    public void testRecentlyUsedEntriesGetSecondChance() {
+        ParseCache.enable(ParseCache.Policy.builder().maximumSize(2).build());
+
+        final ClassType first = ClassType.parse(String.class);
+        ClassType.parse(Integer.class);
+
+        // touch the eldest entry such that the next eviction passes it over
+        assertThat(ClassType.parse(String.class)).isSameAs(first);
+        ClassType.parse(Long.class);
+        assertThat(ClassType.parse(String.class)).isSameAs(first);
+        assertThat(ParseCache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void testShrinkingPolicyEvictsImmediately() {
+        ParseCache.enable();
+        for (final Class clazz : Arrays.asList(String.class, Integer.class, Long.class)) {
+            ClassType.parse(clazz);
+        }
+        assertThat(ParseCache.stats().size()).isEqualTo(3);
+
+        ParseCache.enable(ParseCache.Policy.builder().maximumSize(1).build());
+        assertThat(ParseCache.stats().size()).isEqualTo(1);
+        assertThat(ParseCache.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    public void testAdmissionIgnoresSyntheticClasses() {
+        ParseCache.enable(ParseCache.Policy.builder().admission(ParseCache.IGNORE_SYNTHETIC).build());
+
+        final Runnable lambda = () -> { };
+        final Object proxy = Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Runnable.class}, (instance, method, args) -> null);
+        assertThat(ClassType.parse(lambda)).isNotSameAs(ClassType.parse(lambda));
+        assertThat(ClassType.parse(proxy)).isNotSameAs(ClassType.parse(proxy));
+        assertThat(ClassType.parse(lambda).isFrozen()).isFalse();
+        assertThat(ClassType.parse(CachedHandler.class)).isSameAs(ClassType.parse(CachedHandler.class));
+        assertThat(ParseCache.stats().size()).isEqualTo(1);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNegativeMaximumSize() {
+        ParseCache.Policy.builder().maximumSize(-1);
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testNullPolicy() {
+        ParseCache.enable(null);
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.exceptions.TypeMismatchException;
+import com.aries.classtype.parser.metrics.Metrics;
+import com.aries.classtype.parser.metrics.MetricsRecorder;
+import com.aries.classtype.parser.metrics.ParseOutcome;
+import com.aries.classtype.parser.metrics.StatisticsRecorder;
+import com.aries.classtype.parser.providers.ClassTypeProvider;
+import com.aries.classtype.parser.providers.ClassTypeProviders;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for exercising the metrics hooks found within ClassType and ParseCache.
+ * 
+ * @author cdancy
+ */
+public class ParseCounterTest {
+
+    abstract static class MeasuredHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    private StatisticsRecorder recorder;
+
+    @Before
+    public void installRecorder() {
+        recorder = new StatisticsRecorder();
+        Metrics.install(recorder);
+    }
+
+    /**
+     * Uninstall the recorder and reset the cache after every test.
+     */
+    @After
+    public void uninstallRecorder() {
+        Metrics.uninstall();
+        ParseCache.disable();
+        ParseCache.clear();
+    }
+
+    @Test
+    public void testParseIsRecorded() {
+        final ClassType classType = ClassType.parse(MeasuredHandler.class);
+        assertThat(recorder.getParseCount()).isEqualTo(1);
+        assertThat(recorder.getNodesBuilt()).isEqualTo(count(classType));
+
+        // class, Function and Comparable each make their own reflective calls
+        assertThat(recorder.getReflectiveCalls()).isGreaterThanOrEqualTo(9);
+    }
+
+    @Test
+    public void testNothingIsTalliedWithoutRecorder() {
+        Metrics.uninstall();
+        ClassType.parse(MeasuredHandler.class);
+        assertThat(recorder.getParseCount()).isEqualTo(0);
+
+        final ParseCounter counter = ParseCounter.begin();
+        ClassType.parse(MeasuredHandler.class);
+        ParseCounter.end(counter);
+        assertThat(counter.nodes).isEqualTo(0);
+        assertThat(counter.reflectiveCalls).isEqualTo(0);
+    }
+
+    @Test
+    public void testNestedTalliesAreRestored() {
+        final ParseCounter outer = ParseCounter.begin();
+        final ParseCounter inner = ParseCounter.begin();
+        ParseCounter.node();
+        ParseCounter.end(inner);
+        ParseCounter.node();
+        ParseCounter.reflectiveCall();
+        ParseCounter.end(outer);
+        ParseCounter.node();
+        assertThat(inner.nodes).isEqualTo(1);
+        assertThat(outer.nodes).isEqualTo(1);
+        assertThat(outer.reflectiveCalls).isEqualTo(1);
+    }
+
+    @Test
+    public void testParseAllIsRecorded() {
+        ClassType.parseAll(Arrays.asList(String.class, Integer.class), ParseOptions.DEFAULT_PARSER_OPTIONS);
+        assertThat(recorder.getParseCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCacheIsRecorded() {
+        ParseCache.enable();
+        ClassType.parse(MeasuredHandler.class);
+        ClassType.parse(MeasuredHandler.class);
+        assertThat(recorder.getCacheMisses()).isEqualTo(1);
+        assertThat(recorder.getCacheHits()).isEqualTo(1);
+        assertThat(recorder.parseNodes().max()).isGreaterThan(0);
+
+        ParseCache.enable(ParseCache.Policy.builder().maximumSize(0).build());
+        assertThat(recorder.getCacheEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCompareIsRecorded() {
+        final ClassType source = ClassType.parse(String.class);
+        source.compare(ClassType.parse(String.class));
+        try {
+            source.compare(ClassType.parse(Integer.class));
+            fail("Expected TypeMismatchException");
+        } catch (final TypeMismatchException e) {
+            assertThat(recorder.getCompareCount()).isEqualTo(2);
+            assertThat(recorder.getMismatchExceptions()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testFirstTypeMatchingIsRecorded() {
+        final ClassType classType = ClassType.parse(MeasuredHandler.class);
+        assertThat(classType.firstTypeMatching(".*Comparable.*")).isNotNull();
+        assertThat(classType.firstTypeMatching(null)).isNull();
+        assertThat(recorder.getFirstTypeMatchingCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDetailedHooksReceiveTokensAndContext() {
+        final List<Object> recorded = new ArrayList<>();
+        Metrics.install(new MetricsRecorder() {
+            @Override
+            public Object startParse() {
+                return "parse-token";
+            }
+
+            @Override
+            public void recordParse(final Object token, final Class root, final ParseOptions options, final long durationNanos,
+                    final int nodes, final IntSupplier depth, final int reflectiveCalls, final ParseOutcome outcome) {
+                recorded.addAll(Arrays.asList(token, root, options, depth.getAsInt(), outcome));
+            }
+
+            @Override
+            public Object startCompare() {
+                return "compare-token";
+            }
+
+            @Override
+            public void recordCompare(final Object token, final ClassType source, final ClassType target,
+                    final long durationNanos, final int code, final boolean thrown) {
+                recorded.addAll(Arrays.asList(token, source.clazz(), code, thrown));
+            }
+        });
+
+        final ClassType classType = ClassType.parse(MeasuredHandler.class);
+        assertThat(recorded).containsExactly("parse-token", MeasuredHandler.class, ParseOptions.DEFAULT_PARSER_OPTIONS, 3,
+                ParseOutcome.PARSED);
+
+        recorded.clear();
+        classType.compareTo(null);
+        assertThat(recorded).containsExactly("compare-token", MeasuredHandler.class, CompareResult.MISMATCH, false);
+
+        // lazily parsed trees only report what has been resolved thus far
+        recorded.clear();
+        ClassType.parse(MeasuredHandler.class, ParseOptions.builder().lazy(true).build());
+        assertThat(recorded.get(3)).isEqualTo(1);
+
+        // cache hits, and provided trees, are reported as such regardless of their nodes
+        ParseCache.enable();
+        ClassType.parse(MeasuredHandler.class);
+        recorded.clear();
+        ClassType.parse(MeasuredHandler.class);
+        assertThat(recorded.get(4)).isEqualTo(ParseOutcome.CACHED);
+
+        ParseCache.disable();
+        final ClassType provided = ClassType.builder(MeasuredHandler.class).build();
+        final ClassTypeProvider provider = (clazz, options) -> clazz == MeasuredHandler.class ? provided : null;
+        ClassTypeProviders.register(provider);
+        try {
+            recorded.clear();
+            ClassType.parse(MeasuredHandler.class);
+            assertThat(recorded.get(3)).isEqualTo(1);
+            assertThat(recorded.get(4)).isEqualTo(ParseOutcome.PROVIDED);
+        } finally {
+            ClassTypeProviders.unregister(provider);
+        }
+
+        // failed parses never compute a depth
+        Metrics.install(new MetricsRecorder() {
+            @Override
+            public void recordParse(final Object token, final Class root, final ParseOptions options, final long durationNanos,
+                    final int nodes, final IntSupplier depth, final int reflectiveCalls, final ParseOutcome outcome) {
+                recorded.addAll(Arrays.asList(depth.getAsInt(), outcome));
+            }
+        });
+        final ClassTypeProvider failing = (clazz, options) -> {
+            throw new IllegalStateException("failed");
+        };
+        ClassTypeProviders.register(failing);
+        try {
+            recorded.clear();
+            ClassType.parse(MeasuredHandler.class);
+            fail("Expected IllegalStateException");
+        } catch (final IllegalStateException e) {
+            assertThat(recorded).containsExactly(0, ParseOutcome.FAILED);
+        } finally {
+            ClassTypeProviders.unregister(failing);
+        }
+    }
+
+    @Test
+    public void testCompareWithAndCompareToAreRecorded() {
+        final ClassType source = ClassType.parse(String.class);
+        source.compareTo(ClassType.parse(Integer.class));
+        source.compareWith(ClassType.parse(Integer.class));
+        assertThat(recorder.getCompareCount()).isEqualTo(2);
+        assertThat(recorder.getMismatchExceptions()).isEqualTo(0);
+    }
+
+    private static int count(final ClassType classType) {
+        int total = 1;
+        for (final ClassType child : classType.children()) {
+            total += count(child);
+        }
+        return total;
+    }
+}
@@ -19,10 +19,12 @@ package com.aries.classtype.parser;
 
 import static org.junit.Assert.assertTrue;
 
+import com.aries.classtype.parser.resolvers.ClassResolver;
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.regex.PatternSyntaxException;
 import org.junit.Test;
 
 /**
@@ -124,4 +126,81 @@ public class ParseOptionsTest {
     public void testExceptionThrownWhenPassingNullParseOptions() {
         ClassType.parse(CustomInterfaceHandler.class, null);
     }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        final ParseOptions first = ParseOptions.instance(".*One.*", null, ".*Two.*", null);
+        final ParseOptions second = ParseOptions.instance(".*One.*", null, ".*Two.*", null);
+        final ParseOptions third = ParseOptions.instance(".*One.*", null, null, null);
+        assertTrue(first.equals(first));
+        assertTrue(first.equals(second));
+        assertTrue(first.hashCode() == second.hashCode());
+        assertTrue(!first.equals(third));
+        assertTrue(!first.equals(null));
+        assertTrue(!first.equals(".*One.*"));
+        assertTrue(first.toString().equals("ParseOptions{classRegex=.*One.*, classParamRegex=null, "
+                + "interfaceRegex=.*Two.*, interfaceParamRegex=null, intern=false, lazy=false, classResolver=default}"));
+    }
+
+    @Test
+    public void testRegexesArePrecompiled() {
+        final ParseOptions options = ParseOptions.instance(".*One.*", null, ".*Two.*", ".*Three.*");
+        assertTrue(options.classPattern.pattern().equals(".*One.*"));
+        assertTrue(options.classParamPattern == null);
+        assertTrue(options.interfacePattern.pattern().equals(".*Two.*"));
+        assertTrue(options.interfaceParamPattern.pattern().equals(".*Three.*"));
+        assertTrue(ParseOptions.DEFAULT_PARSER_OPTIONS.classPattern == null);
+    }
+
+    @Test (expected = PatternSyntaxException.class)
+    public void testInvalidRegexFailsFast() {
+        ParseOptions.instance("(", null, null, null);
+    }
+
+    @Test
+    public void testBuilder() {
+        final ParseOptions options = ParseOptions.builder()
+                .classRegex(".*One.*")
+                .classParamRegex(".*Two.*")
+                .interfaceRegex(".*Three.*")
+                .interfaceParamRegex(".*Four.*")
+                .intern(true)
+                .lazy(true)
+                .build();
+        assertTrue(options.classRegex.equals(".*One.*"));
+        assertTrue(options.classParamRegex.equals(".*Two.*"));
+        assertTrue(options.interfaceRegex.equals(".*Three.*"));
+        assertTrue(options.interfaceParamRegex.equals(".*Four.*"));
+        assertTrue(options.intern);
+        assertTrue(options.lazy);
+        assertTrue(!ParseOptions.DEFAULT_PARSER_OPTIONS.intern);
+        assertTrue(!ParseOptions.DEFAULT_PARSER_OPTIONS.lazy);
+
+        final ParseOptions notInterned = ParseOptions.instance(".*One.*", ".*Two.*", ".*Three.*", ".*Four.*");
+        assertTrue(!options.equals(notInterned));
+        assertTrue(options.equals(ParseOptions.builder()
+                .classRegex(".*One.*")
+                .classParamRegex(".*Two.*")
+                .interfaceRegex(".*Three.*")
+                .interfaceParamRegex(".*Four.*")
+                .intern(true)
+                .lazy(true)
+                .build()));
+    }
+
+    @Test
+    public void testClassResolver() {
+        final ClassResolver resolver = ClassResolver.nonCaching();
+        final ParseOptions options = ParseOptions.builder().classResolver(resolver).build();
+        assertTrue(options.classResolver == resolver);
+        assertTrue(ParseOptions.DEFAULT_PARSER_OPTIONS.classResolver == ClassResolver.defaultResolver());
+        assertTrue(!options.equals(ParseOptions.DEFAULT_PARSER_OPTIONS));
+        assertTrue(options.equals(ParseOptions.builder().classResolver(resolver).build()));
+        assertTrue(options.toString().endsWith("classResolver=" + resolver + "}"));
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testNullClassResolver() {
+        ParseOptions.builder().classResolver(null);
+    }
 }
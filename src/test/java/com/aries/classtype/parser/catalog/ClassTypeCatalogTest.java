@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+import com.aries.classtype.parser.providers.ClassTypeProviders;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for exercising ClassTypeCatalog.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    abstract static class IntegerHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    // names differing only by a suffix whose String hashes collide
+    static class Aa {
+
+    }
+
+    static class BB implements Comparable<BB> {
+
+        @Override
+        public int compareTo(final BB other) {
+            return 0;
+        }
+    }
+
+    /**
+     * Defines its own copy of a class, sharing the name of one already
+     * loaded by its parent, and serves its class file as configured.
+     */
+    static final class IsolatingClassLoader extends ClassLoader {
+
+        private final boolean failClassFiles;
+
+        IsolatingClassLoader(final boolean failClassFiles) {
+            super(ClassTypeCatalogTest.class.getClassLoader());
+            this.failClassFiles = failClassFiles;
+        }
+
+        Class define(final Class clazz) throws IOException {
+            final String resource = clazz.getName().replace('.', '/') + ".class";
+            try (InputStream input = getParent().getResourceAsStream(resource)) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+                return defineClass(clazz.getName(), bytes.toByteArray(), 0, bytes.size());
+            }
+        }
+
+        @Override
+        public InputStream getResourceAsStream(final String name) {
+            if (!failClassFiles) {
+                return null;
+            }
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("unreadable");
+                }
+            };
+        }
+    }
+
+    private static final List<Class> CLASSES = Arrays.asList(HashMap.class, ConcurrentHashMap.class, IntegerHandler.class,
+            Aa.class, BB.class, String.class, Integer.class, Object.class, ClassTypeCatalogTest.class);
+
+    private Path write(final String stamp, final ParseOptions options, final List<Class> classes) throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("catalog.bin");
+        ClassTypeCatalog.builder().stamp(stamp).options(options).addAll(classes).add(HashMap.class).write(file);
+        return file;
+    }
+
+    /**
+     * Find where the passed bytes start within the catalog.
+     */
+    private static int indexOf(final byte[] catalog, final byte[] bytes) {
+        for (int i = 0; i <= catalog.length - bytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(catalog, i, i + bytes.length), bytes)) {
+                return i;
+            }
+        }
+        throw new AssertionError("not found");
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Path file = write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, CLASSES);
+        final ClassTypeCatalog catalog = ClassTypeCatalog.open(file, "1.0");
+        assertThat(catalog.isStale()).isFalse();
+        assertThat(catalog.size()).isEqualTo(CLASSES.size());
+        for (final Class clazz : CLASSES) {
+            final ClassType found = catalog.get(clazz);
+            assertThat(found).isEqualTo(ClassType.parse(clazz));
+            assertThat(found.isFrozen()).isTrue();
+            assertThat(catalog.get(clazz)).isSameAs(found);
+        }
+        assertThat(Aa.class.getName().hashCode()).isEqualTo(BB.class.getName().hashCode());
+        assertThat(catalog.get(Long.class)).isNull();
+        assertThat(catalog.get(ClassTypeCatalog.class)).isNull();
+    }
+
+    @Test
+    public void testCollidingHashWithoutMatchingName() throws IOException {
+        final Path file = write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, Arrays.asList(Aa.class));
+        final ClassTypeCatalog catalog = ClassTypeCatalog.open(file, "1.0");
+        assertThat(catalog.get(BB.class)).isNull();
+        assertThat(catalog.get(Aa.class)).isEqualTo(ClassType.parse(Aa.class));
+    }
+
+    @Test
+    public void testConsultedByParse() throws IOException {
+        final ParseOptions options = ParseOptions.builder().interfaceRegex("^java.lang.Comparable$").build();
+        final ClassTypeCatalog catalog = ClassTypeCatalog.open(write("1.0", options, CLASSES), "1.0");
+        ClassTypeProviders.register(catalog);
+        try {
+            final ClassType parsed = ClassType.parse(IntegerHandler.class, options);
+            assertThat(parsed).isNotSameAs(catalog.get(IntegerHandler.class)).isEqualTo(catalog.get(IntegerHandler.class));
+            assertThat(parsed.isFrozen()).isFalse();
+            assertThat(parsed.children()).hasSize(1);
+
+            // requests made with other regexes fall back to parsing
+            assertThat(catalog.provide(IntegerHandler.class, ParseOptions.DEFAULT_PARSER_OPTIONS)).isNull();
+            assertThat(catalog.provide(IntegerHandler.class, ParseOptions.builder().classRegex("x").build())).isNull();
+            assertThat(catalog.provide(IntegerHandler.class, ParseOptions.builder().classParamRegex("x").build())).isNull();
+            final ParseOptions otherParams = ParseOptions.builder()
+                    .interfaceRegex("^java.lang.Comparable$")
+                    .interfaceParamRegex("x")
+                    .build();
+            assertThat(catalog.provide(IntegerHandler.class, otherParams)).isNull();
+
+            // as do requests made with a custom ClassResolver
+            final ParseOptions otherResolver = ParseOptions.builder()
+                    .interfaceRegex("^java.lang.Comparable$")
+                    .classResolver((name, loader) -> Class.forName(name, false, loader))
+                    .build();
+            assertThat(catalog.provide(IntegerHandler.class, otherResolver)).isNull();
+            assertThat(ClassType.parse(IntegerHandler.class).children()).hasSize(2);
+        } finally {
+            ClassTypeProviders.unregister(catalog);
+        }
+    }
+
+    @Test
+    public void testStaleStamp() throws IOException {
+        final ClassTypeCatalog catalog = ClassTypeCatalog.open(write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, CLASSES), "2.0");
+        assertThat(catalog.isStale()).isTrue();
+        assertThat(catalog.size()).isEqualTo(0);
+        assertThat(catalog.get(HashMap.class)).isNull();
+        assertThat(catalog.provide(HashMap.class, ParseOptions.DEFAULT_PARSER_OPTIONS)).isNull();
+    }
+
+    @Test
+    public void testUnreadableCatalogsAreStale() throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThat(ClassTypeCatalog.open(file, "1.0").isStale()).isTrue();
+
+        Files.write(file, new byte[16]);
+        assertThat(ClassTypeCatalog.open(file, "1.0").isStale()).isTrue();
+
+        for (final int size : new int[] {-1, 1000}) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(ClassTypeCatalog.MAGIC);
+            output.writeInt(ClassTypeCatalog.VERSION);
+            output.writeInt(com.aries.classtype.parser.codec.ClassTypeCodec.VERSION);
+            output.writeInt(3);
+            output.write("1.0".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 4; i++) {
+                output.writeInt(-1);
+            }
+            output.writeInt(size);
+            Files.write(file, bytes.toByteArray());
+            assertThat(ClassTypeCatalog.open(file, "1.0").isStale()).isTrue();
+        }
+    }
+
+    @Test
+    public void testClassFileValidation() throws IOException {
+        final Path file = write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, CLASSES);
+        assertThat(ClassTypeCatalog.open(file, "1.0", ClassTypeCatalog.Validation.CLASS_FILES).get(IntegerHandler.class))
+                .isEqualTo(ClassType.parse(IntegerHandler.class));
+
+        // corrupt the checksum, which directly follows the name, as if the class file had changed
+        final byte[] catalog = Files.readAllBytes(file);
+        final byte[] name = IntegerHandler.class.getName().getBytes(StandardCharsets.UTF_8);
+        catalog[indexOf(catalog, name) + name.length] ^= 1;
+        Files.write(file, catalog);
+
+        final ClassTypeCatalog validated = ClassTypeCatalog.open(file, "1.0", ClassTypeCatalog.Validation.CLASS_FILES);
+        assertThat(validated.get(IntegerHandler.class)).isNull();
+        assertThat(validated.get(IntegerHandler.class)).isNull();
+        assertThat(validated.get(HashMap.class)).isNotNull();
+        assertThat(ClassTypeCatalog.open(file, "1.0").get(IntegerHandler.class)).isNotNull();
+    }
+
+    @Test
+    public void testUndecodableEntry() throws IOException {
+        final Path file = write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, CLASSES);
+        final byte[] catalog = Files.readAllBytes(file);
+        final byte[] name = IntegerHandler.class.getName().getBytes(StandardCharsets.UTF_8);
+        catalog[indexOf(catalog, name) + name.length + 4] = 0;
+        Files.write(file, catalog);
+        assertThat(ClassTypeCatalog.open(file, "1.0").get(IntegerHandler.class)).isNull();
+    }
+
+    @Test
+    public void testCorruptEntryOffset() throws IOException {
+        final Path file = write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, CLASSES);
+        final byte[] catalog = Files.readAllBytes(file);
+
+        // point the index entry of IntegerHandler, following its name hash, past the end of the catalog
+        final int hash = IntegerHandler.class.getName().hashCode();
+        final int offset = indexOf(catalog, ByteBuffer.allocate(4).putInt(hash).array()) + 4;
+        ByteBuffer.wrap(catalog).putInt(offset, Integer.MAX_VALUE - 2);
+        Files.write(file, catalog);
+
+        final ClassTypeCatalog corrupt = ClassTypeCatalog.open(file, "1.0");
+        assertThat(corrupt.get(IntegerHandler.class)).isNull();
+        assertThat(corrupt.get(HashMap.class)).isNotNull();
+        ClassTypeProviders.register(corrupt);
+        try {
+            assertThat(ClassType.parse(IntegerHandler.class)).isNotNull();
+        } finally {
+            ClassTypeProviders.unregister(corrupt);
+        }
+    }
+
+    @Test
+    public void testTruncatedEntry() throws IOException {
+        final Path file = write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, CLASSES);
+        final byte[] catalog = Files.readAllBytes(file);
+
+        // cut the catalog short right after the name, and before the checksum, of IntegerHandler
+        final byte[] name = IntegerHandler.class.getName().getBytes(StandardCharsets.UTF_8);
+        Files.write(file, Arrays.copyOf(catalog, indexOf(catalog, name) + name.length));
+        assertThat(ClassTypeCatalog.open(file, "1.0").get(IntegerHandler.class)).isNull();
+    }
+
+    @Test
+    public void testClassesOfOtherClassLoaders() throws IOException {
+        final Class isolated = new IsolatingClassLoader(false).define(Aa.class);
+        assertThat(isolated).isNotSameAs(Aa.class);
+
+        final Path file = write("1.0", ParseOptions.DEFAULT_PARSER_OPTIONS, CLASSES);
+        final ClassTypeCatalog catalog = ClassTypeCatalog.open(file, "1.0");
+        assertThat(catalog.get(isolated).clazz()).isSameAs(isolated);
+        assertThat(catalog.get(Aa.class).clazz()).isSameAs(Aa.class);
+    }
+
+    @Test
+    public void testChecksumOfMissingAndUnreadableClassFiles() throws IOException {
+        final ClassType missing = ClassType.parse(new IsolatingClassLoader(false).define(Aa.class));
+        final ClassType unreadable = ClassType.parse(new IsolatingClassLoader(true).define(Aa.class));
+        assertThat(ClassTypeCatalog.checksum(missing)).isNotEqualTo(ClassTypeCatalog.checksum(unreadable));
+        assertThat(ClassTypeCatalog.checksum(ClassType.parse(Aa.class))).isNotEqualTo(ClassTypeCatalog.checksum(missing));
+        assertThat(ClassTypeCatalog.checksum(ClassType.parse(HashMap.class))).isEqualTo(0);
+    }
+
+    @Test
+    public void testStampIsRequired() throws IOException {
+        try {
+            ClassTypeCatalog.builder().add(String.class).write(folder.getRoot().toPath().resolve("unstamped.bin"));
+            fail("Expected NullPointerException");
+        } catch (final NullPointerException e) {
+            assertThat(e.getMessage()).isEqualTo("stamp must be set");
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ClassTypeFixtures;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassTypeCodec.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeCodecTest {
+
+    abstract static class IntegerHandler implements Function<Integer, Boolean>, Comparable<String> {
+
+    }
+
+    private static List<ClassType> fixtures() {
+        final List<ClassType> fixtures = ClassTypeFixtures.trees();
+        fixtures.add(ClassType.parse(IntegerHandler.class));
+        return fixtures;
+    }
+
+    private static byte[] record(final int... body) {
+        final ByteBuffer buffer = ByteBuffer.allocate(body.length + 7);
+        buffer.put((byte) ClassTypeCodec.MAGIC);
+        buffer.put((byte) ClassTypeCodec.VERSION);
+        ClassTypeCodec.writeVarint(buffer, body.length);
+        for (final int value : body) {
+            buffer.put((byte) value);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static void assertMalformed(final byte[] bytes, final String message) {
+        try {
+            ClassTypeCodec.DEFAULT_CODEC.decode(bytes);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains(message);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (final ClassType expected : fixtures()) {
+            final ClassType decoded = ClassTypeCodec.DEFAULT_CODEC.decode(ClassTypeCodec.DEFAULT_CODEC.encode(expected));
+            assertThat(decoded).isEqualTo(expected);
+            assertThat(decoded.toString()).isEqualTo(expected.toString());
+            assertThat(decoded.isFrozen()).isTrue();
+            assertThat(decoded.isInterned()).isFalse();
+        }
+    }
+
+    @Test
+    public void testSmallerThanStringForm() {
+        final ClassType classType = ClassType.parse(ConcurrentHashMap.class);
+        final byte[] encoded = ClassTypeCodec.DEFAULT_CODEC.encode(classType);
+        assertThat(encoded.length * 5).isLessThan(classType.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void testDecodedLeavesAreShared() {
+        final ClassType decoded = ClassTypeCodec.DEFAULT_CODEC.decode(ClassTypeCodec.DEFAULT_CODEC.encode(ClassType.parse(HashMap.class)));
+        final ClassType map = decoded.children().get(2);
+        assertThat(decoded.children().get(0)).isSameAs(decoded.children().get(1)).isSameAs(map.children().get(0));
+    }
+
+    @Test
+    public void testInterning() {
+        final ClassTypeCodec codec = ClassTypeCodec.builder().intern(true).build();
+        final ClassType classType = ClassType.parse(HashMap.class);
+        final ClassType first = codec.decode(codec.encode(classType));
+        assertThat(first.isInterned()).isTrue();
+        assertThat(codec.decode(codec.encode(classType))).isSameAs(first).isSameAs(classType.intern());
+    }
+
+    @Test
+    public void testCustomResolverAndClassLoader() {
+        final List<String> resolved = new ArrayList<>();
+        final ClassLoader loader = ClassTypeCodecTest.class.getClassLoader();
+        final ClassTypeCodec codec = ClassTypeCodec.builder()
+                .classLoader(loader)
+                .classResolver((name, classLoader) -> {
+                    assertThat(classLoader).isSameAs(loader);
+                    resolved.add(name);
+                    return Class.forName(name, false, classLoader);
+                }).build();
+        final ClassType classType = ClassType.builder(IntegerHandler.class)
+                .child(ClassType.parse(IntegerHandler.class))
+                .child(ClassType.parse(ClassTypeCodecTest.class))
+                .build();
+        assertThat(codec.decode(codec.encode(classType))).isEqualTo(classType);
+
+        // every distinct name, in sorted order, is resolved exactly once whereas
+        // well-known classes (e.g. java.lang.Object) are never resolved at all.
+        assertThat(resolved).containsExactly(ClassTypeCodecTest.class.getName(), IntegerHandler.class.getName());
+    }
+
+    @Test
+    public void testContextClassLoaderFallback() {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(null);
+        try {
+            final ClassType classType = ClassType.parse(HashMap.class);
+            assertThat(ClassTypeCodec.DEFAULT_CODEC.decode(ClassTypeCodec.DEFAULT_CODEC.encode(classType))).isEqualTo(classType);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Test
+    public void testUnknownClass() {
+        final ClassTypeCodec codec = ClassTypeCodec.builder().classResolver((name, loader) -> {
+            throw new ClassNotFoundException(name);
+        }).build();
+        try {
+            codec.decode(codec.encode(ClassType.parse(IntegerHandler.class)));
+            fail("Expected RuntimeException");
+        } catch (final RuntimeException e) {
+            assertThat(e.getCause()).isInstanceOf(ClassNotFoundException.class);
+        }
+    }
+
+    @Test
+    public void testByteBufferStreaming() {
+        final List<ClassType> fixtures = fixtures();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        for (final ClassType classType : fixtures) {
+            ClassTypeCodec.DEFAULT_CODEC.encode(classType, buffer);
+        }
+        buffer.flip();
+        for (final ClassType classType : fixtures) {
+            assertThat(ClassTypeCodec.DEFAULT_CODEC.decode(buffer)).isEqualTo(classType);
+        }
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    public void testByteBufferOverflowWritesNothing() {
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        try {
+            ClassTypeCodec.DEFAULT_CODEC.encode(ClassType.parse(HashMap.class), buffer);
+            fail("Expected BufferOverflowException");
+        } catch (final BufferOverflowException e) {
+            assertThat(buffer.position()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void testByteBufferUnderflowIsRetryable() {
+        final byte[] encoded = ClassTypeCodec.DEFAULT_CODEC.encode(ClassType.parse(HashMap.class));
+        final ByteBuffer buffer = ByteBuffer.allocate(encoded.length);
+        for (final int partial : new int[] {1, 2, encoded.length - 1}) {
+            buffer.clear();
+            buffer.put(encoded, 0, partial).flip();
+            try {
+                ClassTypeCodec.DEFAULT_CODEC.decode(buffer);
+                fail("Expected BufferUnderflowException");
+            } catch (final BufferUnderflowException e) {
+                assertThat(buffer.position()).isEqualTo(0);
+            }
+        }
+        buffer.clear();
+        buffer.put(encoded).flip();
+        assertThat(ClassTypeCodec.DEFAULT_CODEC.decode(buffer)).isEqualTo(ClassType.parse(HashMap.class));
+    }
+
+    @Test
+    public void testChannelStreaming() throws IOException {
+        final List<ClassType> fixtures = fixtures();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final WritableByteChannel writable = Channels.newChannel(output);
+        for (final ClassType classType : fixtures) {
+            ClassTypeCodec.DEFAULT_CODEC.write(classType, writable);
+        }
+
+        final ReadableByteChannel readable = Channels.newChannel(new ByteArrayInputStream(output.toByteArray()));
+        for (final ClassType classType : fixtures) {
+            assertThat(ClassTypeCodec.DEFAULT_CODEC.read(readable)).isEqualTo(classType);
+        }
+        assertThat(ClassTypeCodec.DEFAULT_CODEC.read(readable)).isNull();
+    }
+
+    @Test
+    public void testChannelEndingMidRecord() throws IOException {
+        final byte[] encoded = ClassTypeCodec.DEFAULT_CODEC.encode(ClassType.parse(HashMap.class));
+        for (final int partial : new int[] {1, 2, 3, encoded.length - 1}) {
+            final ReadableByteChannel readable = Channels.newChannel(new ByteArrayInputStream(Arrays.copyOf(encoded, partial)));
+            try {
+                ClassTypeCodec.DEFAULT_CODEC.read(readable);
+                fail("Expected EOFException");
+            } catch (final EOFException e) {
+                assertThat(e.getMessage()).contains("part way through");
+            }
+        }
+    }
+
+    @Test
+    public void testChannelWithOverlongHeader() throws IOException {
+        final byte[] bytes = {(byte) ClassTypeCodec.MAGIC, (byte) ClassTypeCodec.VERSION, -1, -1, -1, -1, -1, 0};
+        try {
+            ClassTypeCodec.DEFAULT_CODEC.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("longer than 5 bytes");
+        }
+    }
+
+    @Test
+    public void testRecordsExceedingMaximumSize() throws IOException {
+
+        // a forged header declaring a body of Integer.MAX_VALUE bytes
+        final byte[] forged = {(byte) ClassTypeCodec.MAGIC, (byte) ClassTypeCodec.VERSION, -1, -1, -1, -1, 7};
+        try {
+            ClassTypeCodec.DEFAULT_CODEC.read(Channels.newChannel(new ByteArrayInputStream(forged)));
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("ClassType record of " + Integer.MAX_VALUE
+                    + " bytes exceeds maximum record size of " + ClassTypeCodec.DEFAULT_MAX_RECORD_SIZE + " bytes");
+        }
+        try {
+            ClassTypeCodec.DEFAULT_CODEC.decode(ByteBuffer.wrap(forged));
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("exceeds maximum record size");
+        }
+
+        final byte[] encoded = ClassTypeCodec.DEFAULT_CODEC.encode(ClassType.parse(HashMap.class));
+        assertThat(encoded[2]).isNotNegative();
+        final int bodyLength = encoded.length - 3;
+        final ClassTypeCodec small = ClassTypeCodec.builder().maxRecordSize(bodyLength - 1).build();
+        try {
+            small.read(Channels.newChannel(new ByteArrayInputStream(encoded)));
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("exceeds maximum record size of " + (bodyLength - 1));
+        }
+        assertThat(ClassTypeCodec.builder().maxRecordSize(bodyLength).build().decode(encoded))
+                .isEqualTo(ClassType.parse(HashMap.class));
+
+        try {
+            ClassTypeCodec.builder().maxRecordSize(0);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("maxRecordSize must be positive: 0");
+        }
+    }
+
+    @Test
+    public void testSurrogatePairsAreNeverSplit() {
+        final int[] sharedAt = new int[1];
+        final String first = "a." + new String(Character.toChars(0x1F600));
+        final String second = "a." + new String(Character.toChars(0x1F601));
+        final ClassTypeCodec codec = ClassTypeCodec.builder().classResolver((name, loader) -> {
+            assertThat(name).isIn(first, second, "java.lang.Object");
+            sharedAt[0]++;
+            return Object.class;
+        }).build();
+
+        // names of the encoded tree are only ever gotten from their Class hence the
+        // hand-rolled record: dictionary of 2 entries with the second sharing "a."
+        final byte[] firstBytes = first.getBytes(StandardCharsets.UTF_8);
+        final byte[] secondSuffix = second.substring(2).getBytes(StandardCharsets.UTF_8);
+        final List<Integer> body = new ArrayList<>();
+        body.add(2);
+        body.add(0);
+        body.add(firstBytes.length);
+        for (final byte value : firstBytes) {
+            body.add(value & 0xFF);
+        }
+        body.add(2);
+        body.add(secondSuffix.length);
+        for (final byte value : secondSuffix) {
+            body.add(value & 0xFF);
+        }
+        body.addAll(Arrays.asList(2, 1, 1, 2));
+        final ClassType decoded = codec.decode(record(body.stream().mapToInt(Integer::intValue).toArray()));
+        assertThat(decoded.children()).hasSize(1);
+        assertThat(sharedAt[0]).isEqualTo(2);
+
+        assertThat(ClassTypeCodec.sharedPrefix(first, second)).isEqualTo(2);
+        assertThat(ClassTypeCodec.sharedPrefix("java.util.Map", "java.util.HashMap")).isEqualTo(10);
+        assertThat(ClassTypeCodec.sharedPrefix("", "java.util.Map")).isEqualTo(0);
+    }
+
+    @Test
+    public void testWellKnownClassesAreDistinct() {
+        assertThat(ClassTypeCodec.WELL_KNOWN_CLASSES).doesNotHaveDuplicates();
+        assertThat(ClassTypeCodec.WELL_KNOWN_CLASSES.length).isLessThan(127);
+    }
+
+    @Test
+    public void testVarints() {
+        final ByteBuffer buffer = ByteBuffer.allocate(5);
+        for (final int value : new int[] {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE}) {
+            buffer.clear();
+            ClassTypeCodec.writeVarint(buffer, value);
+            assertThat(buffer.position()).isEqualTo(ClassTypeCodec.varintSize(value));
+            buffer.flip();
+            assertThat(ClassTypeCodec.readVarint(buffer)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void testMalformedRecords() {
+        assertMalformed(new byte[] {0, 1, 0}, "Not a ClassType record");
+        assertMalformed(new byte[] {(byte) ClassTypeCodec.MAGIC, 9, 0}, "Unsupported ClassType record version 9");
+        assertMalformed(new byte[] {(byte) ClassTypeCodec.MAGIC, (byte) ClassTypeCodec.VERSION, 3, 0}, "Truncated");
+        assertMalformed(new byte[] {(byte) ClassTypeCodec.MAGIC, (byte) ClassTypeCodec.VERSION, -1, -1, -1, -1, 15}, "exceeds int range");
+        assertMalformed(new byte[] {(byte) ClassTypeCodec.MAGIC, (byte) ClassTypeCodec.VERSION, -1, -1, -1, -1, 16}, "exceeds int range");
+
+        final byte[] encoded = ClassTypeCodec.DEFAULT_CODEC.encode(ClassType.parse(String.class));
+        assertMalformed(Arrays.copyOf(encoded, encoded.length + 1), "1 trailing bytes");
+
+        assertMalformed(record(5, 0), "dictionary size 5 exceeds record");
+        assertMalformed(record(1, 1, 0, 0), "dictionary entry 0 exceeds record");
+        assertMalformed(record(1, 0, 9, 0), "dictionary entry 0 exceeds record");
+        assertMalformed(record(0, 0), "node count 0");
+        assertMalformed(record(0, 3, 0, 0), "node count 3");
+        assertMalformed(record(0, 1, 0xFE, 0x01), "references unknown class 127");
+        assertMalformed(record(0, 1, 1), "body is shorter");
+        assertMalformed(record(0, 1, 0, 7), "1 unread bytes");
+        assertMalformed(record(0, 1, 1, 1), "claims 1 children but only 0 follow");
+        assertMalformed(record(0, 2, 0, 0), "found 2 roots");
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests for exercising Log2Histogram.
+ * 
+ * @author cdancy
+ */
+public class Log2HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final Log2Histogram histogram = new Log2Histogram();
+        assertThat(histogram.count()).isEqualTo(0);
+        assertThat(histogram.mean()).isEqualTo(0.0D);
+        assertThat(histogram.max()).isEqualTo(0);
+        assertThat(histogram.percentile(0.99D)).isEqualTo(0);
+    }
+
+    @Test
+    public void testPercentilesAreBucketUpperBounds() {
+        final Log2Histogram histogram = new Log2Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+        histogram.record(-1);
+
+        assertThat(histogram.count()).isEqualTo(101);
+        assertThat(histogram.sum()).isEqualTo(99 * 100 + 5000);
+        assertThat(histogram.max()).isEqualTo(5000);
+        assertThat(histogram.percentile(0.0D)).isEqualTo(0);
+        assertThat(histogram.percentile(0.5D)).isEqualTo(127);
+        assertThat(histogram.percentile(1.0D)).isEqualTo(5000);
+
+        histogram.reset();
+        assertThat(histogram.count()).isEqualTo(0);
+        assertThat(histogram.percentile(0.5D)).isEqualTo(0);
+    }
+
+    @Test
+    public void testLargestValues() {
+        final Log2Histogram histogram = new Log2Histogram();
+        histogram.record(Long.MAX_VALUE);
+        assertThat(histogram.percentile(1.0D)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new Log2Histogram().percentile(1.5D);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for exercising StatisticsRecorder and its exposure over JMX.
+ * 
+ * @author cdancy
+ */
+public class StatisticsRecorderTest {
+
+    @After
+    public void cleanUp() {
+        Metrics.uninstall();
+        Metrics.unregisterMBean();
+    }
+
+    @Test
+    public void testRecording() {
+        final StatisticsRecorder recorder = new StatisticsRecorder();
+        recorder.recordParse(1000, 5, 12);
+        recorder.recordParse(3000, 0, 0);
+        recorder.recordCompare(100, false);
+        recorder.recordCompare(200, true);
+        recorder.recordFirstTypeMatching(50, true);
+        recorder.recordCacheHit();
+        recorder.recordCacheHit();
+        recorder.recordCacheHit();
+        recorder.recordCacheMiss(4000);
+        recorder.recordCacheEviction();
+
+        assertThat(recorder.getParseCount()).isEqualTo(2);
+        assertThat(recorder.getParseMeanNanos()).isEqualTo(2000.0D);
+        assertThat(recorder.getParseP50Nanos()).isEqualTo(1023);
+        assertThat(recorder.getParseP99Nanos()).isEqualTo(3000);
+        assertThat(recorder.getParseMaxNanos()).isEqualTo(3000);
+        assertThat(recorder.getNodesBuilt()).isEqualTo(5);
+        assertThat(recorder.getNodesPerParseMean()).isEqualTo(2.5D);
+        assertThat(recorder.getReflectiveCalls()).isEqualTo(12);
+        assertThat(recorder.getCompareCount()).isEqualTo(2);
+        assertThat(recorder.getCompareMeanNanos()).isEqualTo(150.0D);
+        assertThat(recorder.getCompareP99Nanos()).isEqualTo(200);
+        assertThat(recorder.getMismatchExceptions()).isEqualTo(1);
+        assertThat(recorder.getFirstTypeMatchingCount()).isEqualTo(1);
+        assertThat(recorder.getFirstTypeMatchingMeanNanos()).isEqualTo(50.0D);
+        assertThat(recorder.getFirstTypeMatchingP99Nanos()).isEqualTo(50);
+        assertThat(recorder.getCacheHits()).isEqualTo(3);
+        assertThat(recorder.getCacheMisses()).isEqualTo(1);
+        assertThat(recorder.getCacheEvictions()).isEqualTo(1);
+        assertThat(recorder.getCacheHitRatio()).isEqualTo(0.75D);
+        assertThat(recorder.getCacheLoadMeanNanos()).isEqualTo(4000.0D);
+        assertThat(recorder.parseLatency().count()).isEqualTo(2);
+        assertThat(recorder.parseNodes().max()).isEqualTo(5);
+        assertThat(recorder.compareLatency().max()).isEqualTo(200);
+        assertThat(recorder.firstTypeMatchingLatency().max()).isEqualTo(50);
+        assertThat(recorder.cacheLoadLatency().max()).isEqualTo(4000);
+
+        recorder.reset();
+        assertThat(recorder.getParseCount()).isEqualTo(0);
+        assertThat(recorder.getMismatchExceptions()).isEqualTo(0);
+        assertThat(recorder.getCacheHitRatio()).isEqualTo(1.0D);
+    }
+
+    @Test
+    public void testInstall() {
+        assertThat(Metrics.isEnabled()).isFalse();
+        assertThat(Metrics.recorder()).isSameAs(MetricsRecorder.NOOP);
+
+        final StatisticsRecorder recorder = new StatisticsRecorder();
+        Metrics.install(recorder);
+        assertThat(Metrics.isEnabled()).isTrue();
+        assertThat(Metrics.recorder()).isSameAs(recorder);
+
+        Metrics.uninstall();
+        assertThat(Metrics.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void testNoopRecorderAcceptsEverything() {
+        final MetricsRecorder recorder = MetricsRecorder.NOOP;
+        recorder.recordParse(1, 1, 1);
+        recorder.recordCompare(1, true);
+        recorder.recordFirstTypeMatching(1, false);
+        recorder.recordCacheHit();
+        recorder.recordCacheMiss(1);
+        recorder.recordCacheEviction();
+        assertThat(Metrics.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void testRegisterMBean() throws Exception {
+        final StatisticsRecorder recorder = new StatisticsRecorder();
+        recorder.recordParse(1000, 5, 12);
+
+        final ObjectName name = Metrics.registerMBean(recorder);
+        assertThat(name.toString()).isEqualTo(Metrics.OBJECT_NAME);
+
+        // registering again replaces the previous registration
+        Metrics.registerMBean(recorder);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertThat(server.getAttribute(name, "ParseCount")).isEqualTo(1L);
+        assertThat(server.getAttribute(name, "NodesBuilt")).isEqualTo(5L);
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertThat(server.getAttribute(name, "ParseCount")).isEqualTo(0L);
+
+        Metrics.unregisterMBean();
+        assertThat(server.isRegistered(name)).isFalse();
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInstallNull() {
+        Metrics.install(null);
+    }
+}
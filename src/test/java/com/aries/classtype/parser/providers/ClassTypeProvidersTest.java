@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.providers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseCache;
+import com.aries.classtype.parser.ParseOptions;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for exercising ClassTypeProviders.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeProvidersTest {
+
+    private static final ClassType PROVIDED = ClassType.builder(HashMap.class).build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static final class ServiceProvider implements ClassTypeProvider {
+
+        @Override
+        public ClassType provide(final Class clazz, final ParseOptions options) {
+            return clazz == HashMap.class ? PROVIDED : null;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        ClassTypeProviders.clear();
+    }
+
+    @Test
+    public void testRegisterAndUnregister() {
+        final ClassTypeProvider first = (clazz, options) -> null;
+        final ClassTypeProvider second = (clazz, options) -> null;
+        assertThat(ClassTypeProviders.providers()).isEmpty();
+
+        ClassTypeProviders.register(first);
+        ClassTypeProviders.register(second);
+        ClassTypeProviders.register(first);
+        assertThat(ClassTypeProviders.providers()).containsExactly(first, second);
+
+        assertThat(ClassTypeProviders.unregister(first)).isTrue();
+        assertThat(ClassTypeProviders.unregister(first)).isFalse();
+        assertThat(ClassTypeProviders.providers()).containsExactly(second);
+
+        ClassTypeProviders.clear();
+        assertThat(ClassTypeProviders.providers()).isEmpty();
+    }
+
+    @Test
+    public void testFirstProviderToProvideWins() {
+        ClassTypeProviders.register((clazz, options) -> null);
+        ClassTypeProviders.register((clazz, options) -> clazz == HashMap.class ? PROVIDED : null);
+        ClassTypeProviders.register((clazz, options) -> ClassType.builder(String.class).build());
+
+        assertThat(ClassTypeProviders.provide(HashMap.class, ParseOptions.DEFAULT_PARSER_OPTIONS)).isSameAs(PROVIDED);
+        assertThat(ClassTypeProviders.provide(Integer.class, ParseOptions.DEFAULT_PARSER_OPTIONS).clazz()).isEqualTo(String.class);
+    }
+
+    @Test
+    public void testConsultedByParse() {
+        assertThat(ClassType.parse(HashMap.class)).isNotSameAs(PROVIDED);
+        ClassTypeProviders.register((clazz, options) -> clazz == HashMap.class ? PROVIDED : null);
+        assertThat(ClassType.parse(HashMap.class)).isEqualTo(PROVIDED);
+        assertThat(ClassType.parse(Integer.class)).isEqualTo(ClassType.parse(Integer.class));
+        assertThat(ClassType.parse(HashMap.class, ParseOptions.builder().intern(true).build())).isSameAs(PROVIDED.intern());
+        assertThat(ClassType.parse(HashMap.class, ParseOptions.builder().lazy(true).build())).isSameAs(PROVIDED);
+    }
+
+    @Test
+    public void testProvidedTreesAreMutable() {
+        final ClassType provided = ClassType.builder(HashMap.class)
+                .child(ClassType.builder(String.class).build())
+                .child(ClassType.builder(Map.class).child(ClassType.builder(String.class).build()).build())
+                .build();
+        ClassTypeProviders.register((clazz, options) -> clazz == HashMap.class ? provided : null);
+
+        final ClassType parsed = ClassType.parse(HashMap.class);
+        assertThat(parsed).isNotSameAs(provided).isEqualTo(provided);
+        assertThat(parsed.isFrozen()).isFalse();
+        assertThat(parsed.children().get(1).isFrozen()).isFalse();
+        parsed.child(ClassType.parse(Integer.class));
+        parsed.children().get(1).child(ClassType.parse(Integer.class));
+        assertThat(parsed.children()).hasSize(3);
+        assertThat(provided.children()).hasSize(2);
+        assertThat(provided.children().get(1).children()).hasSize(1);
+
+        // cached trees on the other hand are shared and thus frozen
+        ParseCache.enable();
+        try {
+            assertThat(ClassType.parse(HashMap.class).isFrozen()).isTrue();
+        } finally {
+            ParseCache.disable();
+            ParseCache.clear();
+        }
+    }
+
+    @Test
+    public void testRegisterServices() throws IOException {
+        final Path services = folder.getRoot().toPath().resolve("META-INF/services");
+        Files.createDirectories(services);
+        Files.write(services.resolve(ClassTypeProvider.class.getName()),
+                Arrays.asList("does.not.Exist", ServiceProvider.class.getName()), StandardCharsets.UTF_8);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {folder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+            assertThat(ClassTypeProviders.registerServices(loader)).isEqualTo(1);
+            assertThat(ClassTypeProviders.registerServices(loader)).isEqualTo(0);
+        }
+        assertThat(ClassTypeProviders.providers()).hasSize(1);
+        assertThat(ClassTypeProviders.providers().get(0)).isInstanceOf(ServiceProvider.class);
+        assertThat(ClassType.parse(HashMap.class)).isEqualTo(PROVIDED);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.resolvers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests for exercising CachingClassResolver.
+ * 
+ * @author cdancy
+ */
+public class CachingClassResolverTest {
+
+    static final List<String> INITIALIZED = new ArrayList<>();
+
+    static class Uninitialized {
+        static {
+            INITIALIZED.add("Uninitialized");
+        }
+    }
+
+    private static final class CountingResolver implements ClassResolver {
+
+        private final List<String> requests = new ArrayList<>();
+
+        @Override
+        public Class resolve(final String name, final ClassLoader loader) throws ClassNotFoundException {
+            requests.add(name);
+            return ClassResolver.nonCaching().resolve(name, loader);
+        }
+    }
+
+    @Test
+    public void testResolvesWithoutInitializing() throws Exception {
+        final ClassLoader loader = getClass().getClassLoader();
+        final Class clazz = ClassResolver.defaultResolver().resolve(Uninitialized.class.getName(), loader);
+        assertThat(clazz).isSameAs(Uninitialized.class);
+        assertThat(INITIALIZED).isEmpty();
+    }
+
+    @Test
+    public void testPositiveResultsAreCachedPerLoader() throws Exception {
+        final CountingResolver counting = new CountingResolver();
+        final CachingClassResolver resolver = new CachingClassResolver(counting);
+        final ClassLoader loader = getClass().getClassLoader();
+        try (URLClassLoader child = new URLClassLoader(new URL[0], loader)) {
+            assertThat(resolver.resolve("java.util.ArrayList", loader)).isSameAs(ArrayList.class);
+            assertThat(resolver.resolve("java.util.ArrayList", loader)).isSameAs(ArrayList.class);
+            assertThat(resolver.resolve("java.util.ArrayList", child)).isSameAs(ArrayList.class);
+            assertThat(resolver.resolve("java.util.ArrayList", null)).isSameAs(ArrayList.class);
+            assertThat(resolver.resolve("java.util.ArrayList", null)).isSameAs(ArrayList.class);
+        }
+        assertThat(counting.requests).hasSize(3);
+    }
+
+    @Test
+    public void testNegativeResultsAreCached() throws Exception {
+        final CountingResolver counting = new CountingResolver();
+        final CachingClassResolver resolver = new CachingClassResolver(counting);
+        final ClassLoader loader = getClass().getClassLoader();
+        for (int i = 0; i < 3; i++) {
+            try {
+                resolver.resolve("com.aries.DoesNotExist", loader);
+                fail("Expected ClassNotFoundException");
+            } catch (final ClassNotFoundException e) {
+                assertThat(e.getMessage()).contains("com.aries.DoesNotExist");
+            }
+        }
+        assertThat(counting.requests).hasSize(1);
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final CountingResolver counting = new CountingResolver();
+        final CachingClassResolver resolver = new CachingClassResolver(counting);
+        final ClassLoader loader = getClass().getClassLoader();
+
+        resolver.resolve("java.lang.String", loader);
+        resolver.resolve("java.lang.String", null);
+        resolver.invalidate(loader);
+        resolver.resolve("java.lang.String", loader);
+        resolver.resolve("java.lang.String", null);
+        assertThat(counting.requests).hasSize(3);
+
+        resolver.invalidate(null);
+        resolver.resolve("java.lang.String", null);
+        assertThat(counting.requests).hasSize(4);
+
+        resolver.invalidateAll();
+        resolver.resolve("java.lang.String", loader);
+        resolver.resolve("java.lang.String", null);
+        assertThat(counting.requests).hasSize(6);
+    }
+
+    @Test
+    public void testNamesAreBoundedPerLoader() throws Exception {
+        final CountingResolver counting = new CountingResolver();
+        final CachingClassResolver resolver = new CachingClassResolver(counting, 1);
+        final ClassLoader loader = getClass().getClassLoader();
+        for (final ClassLoader current : new ClassLoader[] {loader, null}) {
+            counting.requests.clear();
+            resolver.resolve("java.lang.String", current);
+            assertThat(counting.requests).hasSize(1);
+
+            // a second name, found or not, evicts the first not since used
+            try {
+                resolver.resolve("com.aries.DoesNotExist", current);
+                fail("Expected ClassNotFoundException");
+            } catch (final ClassNotFoundException e) {
+                assertThat(counting.requests).hasSize(2);
+            }
+            resolver.resolve("java.lang.String", current);
+            assertThat(counting.requests).hasSize(3);
+        }
+    }
+
+    @Test
+    public void testManyLoaders() throws Exception {
+        final CountingResolver counting = new CountingResolver();
+        final CachingClassResolver resolver = new CachingClassResolver(counting);
+        final ClassLoader loader = getClass().getClassLoader();
+        try (URLClassLoader first = new URLClassLoader(new URL[0], loader);
+                URLClassLoader second = new URLClassLoader(new URL[0], loader)) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(resolver.resolve("java.util.ArrayList", first)).isSameAs(ArrayList.class);
+                assertThat(resolver.resolve("java.util.ArrayList", second)).isSameAs(ArrayList.class);
+            }
+            assertThat(counting.requests).hasSize(2);
+
+            resolver.invalidate(first);
+            resolver.resolve("java.util.ArrayList", first);
+            resolver.resolve("java.util.ArrayList", second);
+            assertThat(counting.requests).hasSize(3);
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNegativeMaximumSize() {
+        new CachingClassResolver(ClassResolver.nonCaching(), -1);
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testNullDelegate() {
+        new CachingClassResolver(null);
+    }
+}
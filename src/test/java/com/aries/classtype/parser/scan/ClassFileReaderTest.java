@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassFileReader.
+ * 
+ * @author cdancy
+ */
+public class ClassFileReaderTest {
+
+    abstract static class Fixture<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = 1L;
+        static final double RATIO = 1.5d;
+        static final String NON_ASCII = "caf" + (char) 0xE9 + " " + (char) 0x20AC + " " + (char) 0;
+
+        final long count = 42L;
+
+        abstract int compute(long first, double second);
+    }
+
+    @Test
+    public void testReadClassFile() throws IOException {
+        final ClassInfo info = read(Fixture.class, 3);
+        assertThat(info.name).isEqualTo(Fixture.class.getName());
+        assertThat(info.superName).isEqualTo(AbstractList.class.getName());
+        assertThat(info.interfaces).containsExactly(RandomAccess.class.getName(), Serializable.class.getName());
+        assertThat(info.signature).isEqualTo("<T:Ljava/lang/Object;>Ljava/util/AbstractList<TT;>;Ljava/util/RandomAccess;Ljava/io/Serializable;");
+        assertThat(info.root).isEqualTo(3);
+        assertThat(info.signature().typeParameters()).isEqualTo(1);
+        assertThat(info.signature()).isSameAs(info.signature());
+    }
+
+    @Test
+    public void testReadClassFileWithoutSignature() throws IOException {
+        final ClassInfo info = read(Object.class, 0);
+        assertThat(info.name).isEqualTo(Object.class.getName());
+        assertThat(info.superName).isNull();
+        assertThat(info.interfaces).isEmpty();
+        assertThat(info.signature).isNull();
+        assertThat(info.signature()).isNull();
+    }
+
+    @Test
+    public void testReadFromBufferPosition() throws IOException {
+        final byte[] bytes = bytes(Fixture.class);
+        final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 5);
+        buffer.position(5);
+        buffer.put(bytes);
+        buffer.position(5);
+        assertThat(ClassFileReader.read(buffer, 0).name).isEqualTo(Fixture.class.getName());
+        assertThat(buffer.position()).isEqualTo(5);
+    }
+
+    @Test
+    public void testReadModifiedUtf8() throws IOException {
+        final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(pool);
+        final String name = "Caf" + (char) 0xE9 + (char) 0x20AC + (char) 0 + new String(Character.toChars(0x1F600));
+        output.writeByte(1);
+        output.writeUTF("p/" + name);
+        output.writeByte(7);
+        output.writeShort(1);
+        assertThat(ClassFileReader.read(classFile(3, pool.toByteArray(), 2, 0), 0).name).isEqualTo("p." + name);
+    }
+
+    @Test
+    public void testMalformedClassFiles() throws IOException {
+        final byte[] valid = bytes(Fixture.class);
+        final byte[] badMagic = valid.clone();
+        badMagic[0] = 0;
+        assertMalformed(ByteBuffer.wrap(badMagic), "bad magic");
+        assertMalformed(ByteBuffer.wrap(valid, 0, valid.length - 1), "truncated");
+        assertMalformed(ByteBuffer.wrap(valid, 0, 12), "truncated");
+
+        // skipped lengths going past the end of the class file
+        assertMalformed(classFile(2, new byte[]{1, (byte) 0xFF, (byte) 0xFF}, 1, 0), "truncated");
+        assertMalformed(classFile(2, new byte[]{99}, 1, 0), "unknown constant pool tag 99");
+        assertMalformed(classFile(2, new byte[]{1, 0, 0}, 1, 0), "bad constant pool index 1");
+        assertMalformed(classFile(2, new byte[]{1, 0, 0}, 0, 0), "bad constant pool index 0");
+        assertMalformed(classFile(2, new byte[]{1, 0, 0}, 2, 0), "bad constant pool index 2");
+        assertMalformed(classFile(3, new byte[]{1, 0, 1, (byte) 0xF0, 7, 0, 1}, 2, 0), "bad modified UTF-8");
+    }
+
+    @Test
+    public void testSkipsEveryConstantPoolTag() throws IOException {
+        final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(pool);
+        output.writeByte(1);
+        output.writeUTF("p/Tags");
+        output.writeByte(7);
+        output.writeShort(1);
+        int count = 3;
+        for (final int tag : new int[]{8, 16, 19, 20}) {
+            output.writeByte(tag);
+            output.writeShort(1);
+            count++;
+        }
+        output.writeByte(15);
+        output.writeByte(1);
+        output.writeShort(1);
+        count++;
+        for (final int tag : new int[]{3, 4, 9, 10, 11, 12, 17, 18}) {
+            output.writeByte(tag);
+            output.writeInt(1);
+            count++;
+        }
+        for (final int tag : new int[]{5, 6}) {
+            output.writeByte(tag);
+            output.writeLong(1);
+            count += 2;
+        }
+        assertThat(ClassFileReader.read(classFile(count, pool.toByteArray(), 2, 0), 0).name).isEqualTo("p.Tags");
+    }
+
+    private static void assertMalformed(final ByteBuffer buffer, final String reason) {
+        try {
+            ClassFileReader.read(buffer, 0);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("Malformed class file: " + reason);
+        }
+    }
+
+    /**
+     * Create a class file of the passed constant pool, this class and super class
+     * with neither interfaces, fields, methods nor attributes.
+     */
+    static ByteBuffer classFile(final int poolCount, final byte[] pool, final int thisClass, final int superClass)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0xCAFEBABE);
+        output.writeShort(0);
+        output.writeShort(52);
+        output.writeShort(poolCount);
+        output.write(pool);
+        output.writeShort(0x21);
+        output.writeShort(thisClass);
+        output.writeShort(superClass);
+        for (int i = 0; i < 4; i++) {
+            output.writeShort(0);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    static byte[] bytes(final Class clazz) throws IOException {
+        try (InputStream input = ClassLoader.getSystemResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+            return ClassPathScanner.readAll(input);
+        }
+    }
+
+    private static ClassInfo read(final Class clazz, final int root) throws IOException {
+        return ClassFileReader.read(ByteBuffer.wrap(bytes(clazz)), root);
+    }
+}
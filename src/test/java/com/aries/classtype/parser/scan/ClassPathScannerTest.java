@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for exercising ClassPathScanner.
+ * 
+ * @author cdancy
+ */
+public class ClassPathScannerTest {
+
+    private static final List<Class> CLASSES = Arrays.asList(TypeIndexTest.Shape.class, TypeIndexTest.Base.class,
+            TypeIndexTest.Concrete.class, TypeIndexTest.Color.class, TypeIndexTest.Plain.class);
+
+    private static final byte[] GARBAGE = {1, 2, 3};
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testScanDirectoriesAndJars() throws IOException {
+        final Map<String, byte[]> firstHalf = entries(CLASSES.subList(0, 3));
+        firstHalf.put("META-INF/versions/9/p/Versioned.class", GARBAGE);
+        firstHalf.put("module-info.class", GARBAGE);
+        firstHalf.put("p/readme.txt", GARBAGE);
+        firstHalf.put("p/directory.class/", null);
+        final Map<String, byte[]> secondHalf = entries(CLASSES.subList(3, 5));
+
+        final ClassPathScanner scanner = ClassPathScanner.builder()
+                .root(directory(firstHalf))
+                .root(jar(secondHalf, false))
+                .root(folder.getRoot().toPath().resolve("does-not-exist.jar"))
+                .threads(2)
+                .queueCapacity(1)
+                .build();
+        assertThat(scanner.roots()).hasSize(3);
+
+        final TypeIndex index = scanner.scan();
+        assertThat(index.size()).isEqualTo(CLASSES.size());
+        for (final Class clazz : CLASSES) {
+            assertThat(index.contains(clazz.getName())).isTrue();
+            assertThat(index.tree(clazz.getName()).toString()).isEqualTo(ClassType.parse(clazz).toString());
+        }
+
+        final TypeIndex jarIndex = ClassPathScanner.builder().root(jar(firstHalf, false)).build().scan();
+        assertThat(jarIndex.classNames()).containsOnly(CLASSES.get(0).getName(), CLASSES.get(1).getName(), CLASSES.get(2).getName());
+    }
+
+    @Test
+    public void testScanStreamedJars() throws IOException {
+        final Map<String, byte[]> entries = entries(CLASSES);
+        entries.put("p/", null);
+        final TypeIndex index = ClassPathScanner.builder().root(jar(entries, true)).build().scan();
+        assertThat(index.classNames()).hasSize(CLASSES.size());
+        assertThat(index.tree(TypeIndexTest.Concrete.class.getName()).toString())
+                .isEqualTo(ClassType.parse(TypeIndexTest.Concrete.class).toString());
+    }
+
+    @Test
+    public void testFirstRootWins() throws IOException {
+        final String name = TypeIndexTest.Plain.class.getName();
+        final Map<String, byte[]> real = entries(Arrays.asList(TypeIndexTest.Plain.class));
+        final Map<String, byte[]> fake = new LinkedHashMap<>();
+        fake.put("fake/Plain.class", fakeClassFile(name));
+
+        final Path realJar = jar(real, false);
+        final Path fakeJar = jar(fake, false);
+        for (int i = 0; i < 10; i++) {
+            assertThat(ClassPathScanner.builder().root(fakeJar).root(realJar).build().scan().tree(name).toString())
+                    .isEqualTo(name);
+            assertThat(ClassPathScanner.builder().root(realJar).root(fakeJar).build().scan().tree(name).toString())
+                    .isEqualTo(ClassType.parse(TypeIndexTest.Plain.class).toString());
+        }
+    }
+
+    @Test
+    public void testMalformedClassFiles() throws IOException {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("p/First.class", GARBAGE);
+        entries.put("p/Second.class", GARBAGE);
+        for (final Path root : new Path[]{directory(entries), jar(entries, false), jar(entries, true)}) {
+            try {
+                ClassPathScanner.builder().root(root).threads(1).build().scan();
+                fail("Expected IOException");
+            } catch (final IOException e) {
+                assertThat(e.getMessage()).startsWith("Could not read ");
+                assertThat(e.getCause()).hasMessage("Malformed class file: truncated");
+                assertThat(e.getSuppressed()).hasSize(1);
+            }
+        }
+    }
+
+    @Test
+    public void testMalformedJar() throws IOException {
+        final Path jar = jar(entries(CLASSES), false);
+        final byte[] bytes = Files.readAllBytes(jar);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        // the first entry claims to be larger than any array could ever be
+        final int directory = buffer.getInt(bytes.length - 6);
+        buffer.putInt(directory + 24, Integer.MIN_VALUE);
+        Files.write(jar, bytes);
+        try {
+            ClassPathScanner.builder().root(jar).build().scan();
+            fail("Expected IOException");
+        } catch (final IOException e) {
+            assertThat(e).hasMessage("Malformed central directory in " + jar);
+        }
+    }
+
+    @Test
+    public void testInterrupted() throws IOException {
+        final Map<String, byte[]> entries = entries(CLASSES);
+        for (final Path root : new Path[]{directory(entries), jar(entries, false), jar(entries, true)}) {
+            Thread.currentThread().interrupt();
+            try {
+                ClassPathScanner.builder().root(root).build().scan();
+                fail("Expected InterruptedIOException");
+            } catch (final InterruptedIOException e) {
+                assertThat(Thread.interrupted()).isTrue();
+                assertThat(e).hasMessage("Interrupted scanning [" + root + "]");
+            }
+        }
+    }
+
+    @Test
+    public void testClassPath() {
+        final ClassPathScanner scanner = ClassPathScanner.builder()
+                .classPath("first.jar" + File.pathSeparator + File.pathSeparator + "classes")
+                .fallback(null)
+                .build();
+        assertThat(scanner.roots()).containsExactly(new File("first.jar").toPath(), new File("classes").toPath());
+    }
+
+    @Test
+    public void testInvalidBuilderArguments() {
+        try {
+            ClassPathScanner.builder().threads(0);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("threads must be positive: 0");
+        }
+        try {
+            ClassPathScanner.builder().queueCapacity(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("queueCapacity must be positive: -1");
+        }
+        try {
+            ClassPathScanner.builder().root(null);
+            fail("Expected NullPointerException");
+        } catch (final NullPointerException e) {
+            assertThat(e).hasMessage("root cannot be NULL");
+        }
+    }
+
+    /**
+     * Class files of the passed classes keyed by their path within a root.
+     */
+    private static Map<String, byte[]> entries(final List<Class> classes) throws IOException {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (final Class clazz : classes) {
+            entries.put(clazz.getName().replace('.', '/') + ".class", ClassFileReaderTest.bytes(clazz));
+        }
+        return entries;
+    }
+
+    /**
+     * A class file of the passed name, whose only super-class is `java.lang.Object`.
+     */
+    private static byte[] fakeClassFile(final String name) throws IOException {
+        final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(pool);
+        output.writeByte(1);
+        output.writeUTF(name.replace('.', '/'));
+        output.writeByte(7);
+        output.writeShort(1);
+        output.writeByte(1);
+        output.writeUTF("java/lang/Object");
+        output.writeByte(7);
+        output.writeShort(3);
+        final ByteBuffer classFile = ClassFileReaderTest.classFile(5, pool.toByteArray(), 2, 4);
+        final byte[] bytes = new byte[classFile.remaining()];
+        classFile.get(bytes);
+        return bytes;
+    }
+
+    private Path directory(final Map<String, byte[]> entries) throws IOException {
+        final Path directory = folder.newFolder().toPath();
+        for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            final Path file = directory.resolve(entry.getKey());
+            if (entry.getValue() == null) {
+                Files.createDirectories(file);
+            } else {
+                Files.createDirectories(file.getParent());
+                Files.write(file, entry.getValue());
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * Write a jar of the passed entries, storing every other one, which, if
+     * requested, claims to be a ZIP64 jar.
+     */
+    private Path jar(final Map<String, byte[]> entries, final boolean zip64) throws IOException {
+        final Path jar = folder.newFile().toPath();
+        try (OutputStream output = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(output)) {
+            boolean stored = false;
+            for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                final ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                final byte[] bytes = entry.getValue() != null ? entry.getValue() : new byte[0];
+                if (stored) {
+                    final CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(bytes.length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+                stored = !stored;
+                zip.putNextEntry(zipEntry);
+                zip.write(bytes);
+            }
+        }
+
+        if (zip64) {
+            final byte[] bytes = Files.readAllBytes(jar);
+            bytes[bytes.length - 12] = (byte) 0xFF;
+            bytes[bytes.length - 11] = (byte) 0xFF;
+            Files.write(jar, bytes);
+        }
+        return jar;
+    }
+}
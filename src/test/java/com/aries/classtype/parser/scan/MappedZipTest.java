@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for exercising MappedZip.
+ * 
+ * @author cdancy
+ */
+public class MappedZipTest {
+
+    private static final byte[] STORED = "stored contents".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DEFLATED = "deflated, deflated, deflated, deflated contents".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadEntries() throws IOException {
+        final MappedZip zip = MappedZip.open(zip("a comment"));
+        assertThat(zip.entries).extracting(entry -> entry.name).containsExactly("stored.txt", "dir/deflated.txt", "dir/empty.txt");
+        assertThat(bytes(zip.read(zip.entries.get(0)))).isEqualTo(STORED);
+        assertThat(bytes(zip.read(zip.entries.get(1)))).isEqualTo(DEFLATED);
+        assertThat(bytes(zip.read(zip.entries.get(2)))).isEmpty();
+        assertThat(zip.entries.get(1).compressedSize).isLessThan(DEFLATED.length);
+    }
+
+    @Test
+    public void testOpenNonZip() throws IOException {
+        for (final byte[] bytes : new byte[][]{new byte[0], "not a zip archive at all, not even close".getBytes(StandardCharsets.UTF_8)}) {
+            final Path file = folder.newFile().toPath();
+            Files.write(file, bytes);
+            try {
+                MappedZip.open(file);
+                fail("Expected IOException");
+            } catch (final IOException e) {
+                assertThat(e).hasMessage("Not a zip archive: " + file);
+            }
+        }
+    }
+
+    @Test
+    public void testOpenZip64() throws IOException {
+        final Path file = zip(null);
+        final int end = (int) Files.size(file) - 22;
+        final int directory = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN).getInt(end + 16);
+
+        assertThat(MappedZip.open(patch(copy(file), end + 10, 0xFF, 0xFF))).isNull();
+        assertThat(MappedZip.open(patch(copy(file), end + 16, 0xFF, 0xFF, 0xFF, 0xFF))).isNull();
+        for (final int field : new int[]{20, 24, 42}) {
+            assertThat(MappedZip.open(patch(copy(file), directory + field, 0xFF, 0xFF, 0xFF, 0xFF))).isNull();
+        }
+
+        // sparse, hence cheap, yet too large to be mapped at once
+        final File large = folder.newFile();
+        try (RandomAccessFile output = new RandomAccessFile(large, "rw")) {
+            output.setLength(Integer.MAX_VALUE + 1L);
+        }
+        assertThat(MappedZip.open(large.toPath())).isNull();
+    }
+
+    @Test
+    public void testOpenMalformedDirectory() throws IOException {
+        final Path file = zip(null);
+        final int end = (int) Files.size(file) - 22;
+        final int directory = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN).getInt(end + 16);
+
+        // sizes and offsets beyond Integer.MAX_VALUE would otherwise turn negative
+        for (final Path malformed : new Path[]{patch(copy(file), directory, 0),
+                patch(copy(file), directory + 28, 0xFF, 0xFF),
+                patch(copy(file), end + 16, 0xFF, 0xFF, 0xFF, 0x7F),
+                patch(copy(file), directory + 20, 0x00, 0x00, 0x00, 0x80),
+                patch(copy(file), directory + 24, 0x00, 0x00, 0x00, 0x80),
+                patch(copy(file), directory + 42, 0x00, 0x00, 0x00, 0x80)}) {
+            try {
+                MappedZip.open(malformed);
+                fail("Expected IOException");
+            } catch (final IOException e) {
+                assertThat(e).hasMessage("Malformed central directory in " + malformed);
+            }
+        }
+    }
+
+    @Test
+    public void testReadMalformedEntries() throws IOException {
+        final Path file = zip(null);
+        final MappedZip zip = MappedZip.open(file);
+        final MappedZip.Entry stored = zip.entries.get(0);
+        final MappedZip.Entry deflated = zip.entries.get(1);
+        assertMalformed(zip, new MappedZip.Entry("header", 0, 1, 1, Integer.MAX_VALUE - 10), "Malformed local header of header");
+        assertMalformed(zip, new MappedZip.Entry("header", 0, 1, 1, deflated.localOffset + 1), "Malformed local header of header");
+        assertMalformed(zip, new MappedZip.Entry("big", 0, Integer.MAX_VALUE, 1, stored.localOffset), "Truncated entry big");
+        assertMalformed(zip, new MappedZip.Entry("method", 12, 1, 1, stored.localOffset), "Unsupported compression method 12 of method");
+        assertMalformed(zip, new MappedZip.Entry("size", 8, deflated.compressedSize, deflated.size + 1, deflated.localOffset),
+                "Corrupt entry size");
+
+        // a stored block with mismatching length and its one's complement
+        final int data = deflated.localOffset + 30 + deflated.name.length();
+        final MappedZip corrupt = MappedZip.open(patch(copy(file), data, 0x00, 0x01, 0x00, 0x01, 0x00));
+        try {
+            corrupt.read(corrupt.entries.get(1));
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("Corrupt entry dir/deflated.txt");
+            assertThat(e.getCause()).isInstanceOf(java.util.zip.DataFormatException.class);
+        }
+    }
+
+    private static void assertMalformed(final MappedZip zip, final MappedZip.Entry entry, final String message) {
+        try {
+            zip.read(entry);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage(message);
+        }
+    }
+
+    private Path zip(final String comment) throws IOException {
+        final Path file = folder.newFile().toPath();
+        try (OutputStream output = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(output)) {
+            final ZipEntry stored = new ZipEntry("stored.txt");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(STORED.length);
+            final CRC32 crc = new CRC32();
+            crc.update(STORED);
+            stored.setCrc(crc.getValue());
+            zip.putNextEntry(stored);
+            zip.write(STORED);
+            zip.putNextEntry(new ZipEntry("dir/"));
+            zip.putNextEntry(new ZipEntry("dir/deflated.txt"));
+            zip.write(DEFLATED);
+            zip.putNextEntry(new ZipEntry("dir/empty.txt"));
+            zip.setComment(comment);
+        }
+        return file;
+    }
+
+    private Path copy(final Path file) throws IOException {
+        final Path copy = folder.newFile().toPath();
+        Files.write(copy, Files.readAllBytes(file));
+        return copy;
+    }
+
+    private static Path patch(final Path file, final int offset, final int... bytes) throws IOException {
+        final byte[] contents = Files.readAllBytes(file);
+        for (int i = 0; i < bytes.length; i++) {
+            contents[offset + i] = (byte) bytes[i];
+        }
+        Files.write(file, contents);
+        return file;
+    }
+
+    private static byte[] bytes(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
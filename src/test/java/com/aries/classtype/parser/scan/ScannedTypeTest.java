@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ScannedType.
+ * 
+ * @author cdancy
+ */
+public class ScannedTypeTest {
+
+    private static ScannedType leaf(final String name) {
+        return new ScannedType(name, Collections.emptyList());
+    }
+
+    private static ScannedType map(final String key) {
+        return new ScannedType("java.util.Map", Arrays.asList(leaf(key), leaf("java.lang.Integer")));
+    }
+
+    @Test
+    public void testAccessors() {
+        final ScannedType map = map("java.lang.String");
+        assertThat(map.name()).isEqualTo("java.util.Map");
+        assertThat(map.children()).containsExactly(leaf("java.lang.String"), leaf("java.lang.Integer"));
+        try {
+            map.children().clear();
+            fail("Expected UnsupportedOperationException");
+        } catch (final UnsupportedOperationException e) {
+            assertThat(map.children()).hasSize(2);
+        }
+    }
+
+    @Test
+    public void testToString() {
+        assertThat(leaf("java.lang.String").toString()).isEqualTo("java.lang.String");
+        assertThat(map("java.lang.String").toString()).isEqualTo("java.util.Map<java.lang.String, java.lang.Integer>");
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        final ScannedType map = map("java.lang.String");
+        assertThat(map).isEqualTo(map);
+        assertThat(map).isEqualTo(map("java.lang.String"));
+        assertThat(map.hashCode()).isEqualTo(map("java.lang.String").hashCode());
+        assertThat(map).isNotEqualTo(map("java.lang.Long"));
+        assertThat(map).isNotEqualTo(leaf("java.util.Map"));
+        assertThat(leaf("Aa")).isNotEqualTo(leaf("BB"));
+        assertThat(map).isNotEqualTo("java.util.Map");
+    }
+
+    @Test
+    public void testToClassType() throws ClassNotFoundException {
+        final ClassType classType = map("java.lang.String").toClassType(ClassResolver.defaultResolver(), null);
+        assertThat(classType.toString()).isEqualTo("java.util.Map<java.lang.String, java.lang.Integer>");
+        assertThat(classType.isFrozen()).isTrue();
+
+        final ScannedType twice = new ScannedType("java.util.Map", Arrays.asList(leaf("java.lang.Long"), leaf("java.lang.Long")));
+        final int[] resolved = new int[1];
+        twice.toClassType((name, loader) -> {
+            resolved[0]++;
+            return Class.forName(name, false, loader);
+        }, null);
+        assertThat(resolved[0]).isEqualTo(2);
+    }
+
+    @Test
+    public void testToClassTypeOfMissingClass() {
+        try {
+            map("does.not.Exist").toClassType(ClassResolver.nonCaching(), ScannedTypeTest.class.getClassLoader());
+            fail("Expected ClassNotFoundException");
+        } catch (final ClassNotFoundException e) {
+            assertThat(e).hasMessageContaining("does.not.Exist");
+        }
+
+        try {
+            map("java.lang.String").toClassType(null, null);
+            fail("Expected NullPointerException");
+        } catch (final NullPointerException | ClassNotFoundException e) {
+            assertThat(e).hasMessage("resolver cannot be NULL");
+        }
+    }
+}
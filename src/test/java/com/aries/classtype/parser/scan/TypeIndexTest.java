@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ParseOptions;
+import com.aries.classtype.parser.resolvers.ClassResolver;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.Test;
+
+/**
+ * Tests for exercising TypeIndex.
+ * 
+ * @author cdancy
+ */
+public class TypeIndexTest {
+
+    interface Shape<T> extends Comparable<T> {
+
+    }
+
+    abstract static class Base<K, V> extends AbstractMap<K, List<V>> implements Shape<String>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    abstract static class Concrete extends Base<Integer, Map<String, ? extends Number>>
+            implements Cloneable, Function<int[], String[]> {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    static class Outer<T> {
+
+        class Inner extends ArrayList<T> {
+
+            private static final long serialVersionUID = 1L;
+        }
+    }
+
+    static class InnerSub extends Outer<String>.Inner {
+
+        private static final long serialVersionUID = 1L;
+
+        InnerSub(final Outer<String> outer) {
+            outer.super();
+        }
+    }
+
+    enum Color {
+        RED
+    }
+
+    abstract static class Bounded<T extends Number & Comparable<T>, U extends T> extends HashMap<T, U> implements Shape<U> {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    interface Recursive<T> extends Comparable<Recursive<T>> {
+
+    }
+
+    abstract static class Plain extends Thread implements Runnable {
+
+    }
+
+    abstract static class Missing extends Plain implements Shape<Plain> {
+
+    }
+
+    private static final List<Class> FIXTURES = Arrays.asList(Shape.class, Base.class, Concrete.class, Outer.Inner.class,
+            InnerSub.class, Color.class, Bounded.class, Plain.class, HashMap.class, Object.class);
+
+    private static final List<ParseOptions> OPTIONS = Arrays.asList(ParseOptions.DEFAULT_PARSER_OPTIONS,
+            ParseOptions.instance("^java.util.AbstractMap$", null, null, null),
+            ParseOptions.instance(null, "^java.lang.Object$", null, null),
+            ParseOptions.instance(null, null, "^java.io.Serializable|java.lang.Runnable$", null),
+            ParseOptions.instance(null, null, null, "^java.lang.(String|Object)$"));
+
+    @Test
+    public void testTreesMatchParsedTrees() throws ClassNotFoundException {
+        final TypeIndex index = index(TypeIndexTest.class.getClassLoader());
+        for (final ParseOptions options : OPTIONS) {
+            for (final Class clazz : FIXTURES) {
+                final ScannedType tree = index.tree(clazz.getName(), options);
+                final ClassType parsed = ClassType.parse(clazz, options);
+                assertThat(tree.toString()).isEqualTo(parsed.toString());
+                assertThat(tree.toClassType(ClassResolver.defaultResolver(), TypeIndexTest.class.getClassLoader())).isEqualTo(parsed);
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultPackageTreesMatchParsedTrees() throws ClassNotFoundException {
+        final TypeIndex index = index(TypeIndexTest.class.getClassLoader());
+        for (final String name : new String[]{"DefaultPackageFixtures$Bar", "DefaultPackageFixtures$Baz"}) {
+            final Class clazz = Class.forName(name);
+            for (final ParseOptions options : OPTIONS) {
+                assertThat(index.tree(name, options).toString()).isEqualTo(ClassType.parse(clazz, options).toString());
+            }
+        }
+        assertThat(index.tree("DefaultPackageFixtures$Bar").toString())
+                .isEqualTo("DefaultPackageFixtures$Bar<java.lang.Object, java.util.Comparator<java.lang.Object>>");
+    }
+
+    @Test
+    public void testUnfilteredTreesAreShared() {
+        final TypeIndex index = index(TypeIndexTest.class.getClassLoader());
+        final ScannedType plain = index.tree(Plain.class.getName());
+        assertThat(index.tree(Plain.class.getName())).isSameAs(plain);
+        assertThat(index.tree(Plain.class.getName(), ParseOptions.builder().intern(true).build())).isSameAs(plain);
+        assertThat(index.tree(Missing.class.getName()).children().get(1)).isSameAs(plain);
+
+        final ParseOptions filtered = OPTIONS.get(3);
+        assertThat(index.tree(Plain.class.getName(), filtered)).isNotSameAs(index.tree(Plain.class.getName(), filtered));
+    }
+
+    @Test
+    public void testScannedClasses() throws IOException {
+        final Map<String, ClassInfo> classes = new HashMap<>();
+        classes.put(Color.class.getName(), ClassFileReader.read(ByteBuffer.wrap(ClassFileReaderTest.bytes(Color.class)), 0));
+        final TypeIndex index = new TypeIndex(classes, null);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.classNames()).containsExactly(Color.class.getName());
+        assertThat(index.contains(Color.class.getName())).isTrue();
+        assertThat(index.contains(Plain.class.getName())).isFalse();
+
+        // without a fallback the hierarchy ends wherever the scanned classes end
+        assertThat(index.tree(Color.class.getName()).toString())
+                .isEqualTo(Color.class.getName() + "<java.lang.Enum<" + Color.class.getName() + ">>");
+        assertThat(index.tree(Plain.class.getName())).isNull();
+    }
+
+    @Test
+    public void testMissingClasses() {
+        final String missing = Missing.class.getName();
+        final TypeIndex index = index(new ClassLoader(TypeIndexTest.class.getClassLoader()) {
+            @Override
+            public URL getResource(final String name) {
+                return name.equals(Plain.class.getName().replace('.', '/') + ".class") ? null : super.getResource(name);
+            }
+
+            @Override
+            public InputStream getResourceAsStream(final String name) {
+                return name.equals(Plain.class.getName().replace('.', '/') + ".class") ? null : super.getResourceAsStream(name);
+            }
+        });
+        assertThat(index.tree(missing).toString())
+                .isEqualTo(missing + "<" + Shape.class.getName() + "<" + Plain.class.getName()
+                        + ", java.lang.Comparable<java.lang.Object>>, " + Plain.class.getName() + ">");
+        assertThat(index.tree("does.not.Exist")).isNull();
+        assertThat(index.tree(Plain.class.getName())).isNull();
+    }
+
+    @Test
+    public void testMismatchingClassFile() {
+        final TypeIndex index = index(new ClassLoader(TypeIndexTest.class.getClassLoader()) {
+            @Override
+            public InputStream getResourceAsStream(final String name) {
+                return super.getResourceAsStream(Plain.class.getName().replace('.', '/') + ".class");
+            }
+        });
+        assertThat(index.tree(Color.class.getName())).isNull();
+    }
+
+    @Test
+    public void testUnreadableClassFile() {
+        final TypeIndex index = index(new ClassLoader(TypeIndexTest.class.getClassLoader()) {
+            @Override
+            public InputStream getResourceAsStream(final String name) {
+                return new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("unreadable");
+                    }
+                };
+            }
+        });
+        try {
+            index.tree(Color.class.getName());
+            fail("Expected UncheckedIOException");
+        } catch (final UncheckedIOException e) {
+            assertThat(e).hasMessage("Could not read class file of " + Color.class.getName());
+        }
+    }
+
+    @Test
+    public void testRecursiveHierarchy() {
+        final TypeIndex index = index(TypeIndexTest.class.getClassLoader());
+        try {
+            index.tree(Recursive.class.getName());
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("Recursive generic hierarchy through java.lang.Comparable");
+        }
+    }
+
+    @Test
+    public void testNullArguments() {
+        final TypeIndex index = index(null);
+        for (final Runnable runnable : Arrays.<Runnable>asList(() -> index.tree(null),
+                () -> index.tree(Color.class.getName(), null))) {
+            try {
+                runnable.run();
+                fail("Expected NullPointerException");
+            } catch (final NullPointerException e) {
+                assertThat(e.getMessage()).endsWith("cannot be NULL");
+            }
+        }
+    }
+
+    private static TypeIndex index(final ClassLoader fallback) {
+        return new TypeIndex(Collections.emptyMap(), fallback);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.signature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassSignature.
+ * 
+ * @author cdancy
+ */
+public class ClassSignatureTest {
+
+    @Test
+    public void testParseTypeParameters() {
+        final ClassSignature signature = ClassSignature.parse("<K:Ljava/lang/Object;V::Ljava/lang/Comparable<TV;>;"
+                + "E:Ljava/lang/Number;:Ljava/io/Serializable;:Ljava/lang/Cloneable;>Ljava/lang/Object;");
+        assertThat(signature.typeParameters()).isEqualTo(3);
+        assertThat(signature.superClass().name()).isEqualTo("java.lang.Object");
+        assertThat(signature.superClass().isParameterized()).isFalse();
+        assertThat(signature.interfaces()).isEmpty();
+    }
+
+    @Test
+    public void testParseTypeArguments() {
+        final ClassSignature signature = ClassSignature.parse("Ljava/util/HashMap<Ljava/lang/String;"
+                + "Ljava/util/List<+Ljava/lang/Number;>;>;Ljava/util/function/Function<*-Ljava/lang/Integer;>;"
+                + "Ljava/lang/Comparable<[I>;Ljava/util/function/Supplier<[[Ljava/lang/String;>;Ljava/util/function/Consumer<TT;>;");
+        assertThat(signature.typeParameters()).isZero();
+        assertThat(signature.superClass().name()).isEqualTo("java.util.HashMap");
+        assertThat(signature.superClass().isParameterized()).isTrue();
+        assertThat(signature.superClass().arguments()).hasSize(2);
+        assertThat(signature.superClass().arguments().get(0).name()).isEqualTo("java.lang.String");
+        assertThat(signature.superClass().arguments().get(0).isParameterized()).isFalse();
+        assertThat(signature.superClass().arguments().get(1).name()).isEqualTo("java.util.List");
+        assertThat(signature.superClass().arguments().get(1).arguments()).containsExactly((ClassSignature.GenericType) null);
+
+        assertThat(signature.interfaces()).hasSize(4);
+        assertThat(signature.interfaces().get(0).arguments()).containsExactly(null, null);
+        assertThat(signature.interfaces().get(1).arguments()).containsExactly((ClassSignature.GenericType) null);
+        assertThat(signature.interfaces().get(2).arguments()).containsExactly((ClassSignature.GenericType) null);
+        assertThat(signature.interfaces().get(3).name()).isEqualTo("java.util.function.Consumer");
+    }
+
+    @Test
+    public void testParseInnerClasses() {
+        final ClassSignature signature = ClassSignature.parse("Lp/Outer<Ljava/lang/String;>.Inner;Lp/Plain$Nested;"
+                + "Lp/Outer<TT;>.Middle.Inner<Ljava/lang/Integer;>;");
+        assertThat(signature.superClass().name()).isEqualTo("p.Outer$Inner");
+        assertThat(signature.superClass().isParameterized()).isTrue();
+        assertThat(signature.superClass().arguments()).isEmpty();
+        assertThat(signature.interfaces().get(0).name()).isEqualTo("p.Plain$Nested");
+        assertThat(signature.interfaces().get(0).isParameterized()).isFalse();
+        assertThat(signature.interfaces().get(1).name()).isEqualTo("p.Outer$Middle$Inner");
+        assertThat(signature.interfaces().get(1).arguments()).hasSize(1);
+        assertThat(signature.interfaces().get(1).arguments().get(0).name()).isEqualTo("java.lang.Integer");
+    }
+
+    @Test
+    public void testParseMalformedSignatures() {
+        for (final String malformed : new String[]{"", "<:Ljava/lang/Object;>Ljava/lang/Object;",
+                "<T>Ljava/lang/Object;", "<T:Ljava/lang/Object;", "Ljava/lang/Object", "Xjava/lang/Object;",
+                "Ljava/util/List<TT>;", "Ljava/util/List<TT", "Ljava/util/List<Q>;", "Ljava/util/List<[Q>;"}) {
+            try {
+                ClassSignature.parse(malformed);
+                fail("Expected IllegalArgumentException for " + malformed);
+            } catch (final IllegalArgumentException e) {
+                assertThat(e.getMessage()).startsWith("Malformed class signature at ").endsWith(": " + malformed);
+            }
+        }
+    }
+}
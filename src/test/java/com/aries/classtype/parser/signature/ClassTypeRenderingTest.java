@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.signature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.domain.Null;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassTypeRendering.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeRenderingTest {
+
+    abstract static class Handler extends HashMap<String, List<Integer>> implements Comparable<Handler[]> {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    private final ClassTypeRendering renderings = ClassTypeRendering.builder().cacheSize(0).build();
+
+    @Test
+    public void testRoundTrips() {
+        for (final Class clazz : Arrays.asList(Object.class, HashMap.class, ConcurrentHashMap.class, String[].class, int[][].class,
+                Handler.class, Null.class, ArrayList.class)) {
+            final ClassType classType = ClassType.parse(clazz);
+            final ClassType parsed = renderings.parse(classType.toString());
+            assertThat(parsed).isEqualTo(classType).isSameAs(classType.intern());
+            assertThat(parsed.toString()).isEqualTo(classType.toString());
+        }
+
+        final ClassType odd = ClassType.builder(int.class)
+                .child(ClassType.builder(String[][].class).child(ClassType.builder(Handler.class).build()).build())
+                .child(ClassType.builder(void.class).build())
+                .child(ClassType.builder(boolean[].class).build())
+                .build();
+        assertThat(renderings.parse(odd.toString())).isEqualTo(odd);
+    }
+
+    @Test
+    public void testWhitespace() {
+        final ClassType parsed = renderings.parse(" java.util.Map <java.lang.String,java.util.List< int >\t>\n");
+        assertThat(parsed.toString()).isEqualTo("java.util.Map<java.lang.String, java.util.List<int>>");
+    }
+
+    @Test
+    public void testMalformedRenderings() {
+        for (final String malformed : new String[]{"", " ", "<", "java.util.List<>", "java.util.List<java.lang.String",
+                "java.util.List<java.lang.String,>", "java.util.List<java.lang.String java.lang.Integer>",
+                "java.util.List<java.lang.String>>", "java.lang.String, java.lang.Integer", "java.lang.String java.lang.Integer"}) {
+            try {
+                renderings.parse(malformed);
+                fail("Expected IllegalArgumentException for " + malformed);
+            } catch (final IllegalArgumentException e) {
+                assertThat(e.getMessage()).startsWith("Malformed rendering at ").endsWith("): " + malformed);
+            }
+        }
+    }
+
+    @Test
+    public void testUnresolvableRenderings() {
+        try {
+            renderings.parse("java.util.List<does.not.Exist>");
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("Could not resolve does.not.Exist of rendering: java.util.List<does.not.Exist>");
+            assertThat(e.getCause()).isInstanceOf(ClassNotFoundException.class);
+        }
+    }
+
+    @Test
+    public void testCaching() {
+        final ClassTypeRendering cached = ClassTypeRendering.builder().cacheSize(2).build();
+        final String rendering = "java.util.List<java.lang.String>";
+        final ClassType parsed = cached.parse(rendering);
+        assertThat(cached.parse(new StringBuilder(rendering))).isSameAs(parsed);
+        assertThat(cached.cacheSize()).isEqualTo(1);
+        cached.clearCache();
+        assertThat(cached.cacheSize()).isZero();
+
+        // trees are canonical whether cached or not
+        assertThat(cached.parse(rendering)).isSameAs(parsed);
+        assertThat(renderings.parse("java.util.List< java.lang.String >")).isSameAs(parsed);
+        assertThat(ClassTypeRendering.DEFAULT_RENDERING.parse(rendering)).isSameAs(parsed);
+    }
+
+    @Test
+    public void testCachingPerClassLoader() {
+        final ClassTypeRendering cached = ClassTypeRendering.builder().build();
+        final String rendering = "java.util.List<java.lang.String>";
+        final Thread thread = Thread.currentThread();
+        final ClassLoader context = thread.getContextClassLoader();
+        final ClassLoader plugin = new ClassLoader(context) { };
+        try {
+            thread.setContextClassLoader(plugin);
+            cached.parse(rendering);
+            assertThat(cached.cacheSize()).isZero();
+
+            thread.setContextClassLoader(ClassLoader.getSystemClassLoader());
+            cached.parse(rendering);
+            assertThat(cached.cacheSize()).isEqualTo(1);
+        } finally {
+            thread.setContextClassLoader(context);
+        }
+
+        final ClassTypeRendering explicit = ClassTypeRendering.builder().classLoader(plugin).build();
+        explicit.parse(rendering);
+        assertThat(explicit.cacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testClassLoaders() {
+        final List<ClassLoader> loaders = new ArrayList<>();
+        final ClassLoader loader = new ClassLoader(ClassTypeRenderingTest.class.getClassLoader()) { };
+        ClassTypeRendering.builder().cacheSize(0).classLoader(loader).classResolver((name, classLoader) -> {
+            loaders.add(classLoader);
+            return Class.forName(name, false, classLoader);
+        }).build().parse("java.lang.String<int>");
+
+        final ClassTypeRendering contextual = ClassTypeRendering.builder().cacheSize(0).classResolver((name, classLoader) -> {
+            loaders.add(classLoader);
+            return Class.forName(name, false, classLoader);
+        }).build();
+        final Thread thread = Thread.currentThread();
+        final ClassLoader context = thread.getContextClassLoader();
+        try {
+            contextual.parse("java.lang.String");
+            thread.setContextClassLoader(null);
+            contextual.parse("java.lang.String");
+        } finally {
+            thread.setContextClassLoader(context);
+        }
+        assertThat(loaders).containsExactly(loader, context, ClassTypeRendering.class.getClassLoader());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        final List<Runnable> invalid = Arrays.asList(
+                () -> renderings.parse(null),
+                () -> ClassTypeRendering.builder().classResolver(null),
+                () -> ClassTypeRendering.builder().classLoader(null));
+        for (final Runnable runnable : invalid) {
+            try {
+                runnable.run();
+                fail("Expected NullPointerException");
+            } catch (final NullPointerException e) {
+                assertThat(e.getMessage()).endsWith("cannot be NULL");
+            }
+        }
+
+        try {
+            ClassTypeRendering.builder().cacheSize(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("cacheSize cannot be negative: -1");
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.signature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.aries.classtype.parser.ClassType;
+import com.aries.classtype.parser.ClassTypeFixtures.IntegerHandler;
+import com.aries.classtype.parser.ClassTypeFixtures.ObjectHandler;
+import com.aries.classtype.parser.domain.Null;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+/**
+ * Tests for exercising ClassTypeSignature.
+ * 
+ * @author cdancy
+ */
+public class ClassTypeSignatureTest {
+
+    static class Outer<T> {
+
+        class Inner<U> {
+
+        }
+    }
+
+    abstract static class Handler extends HashMap<String, List<Integer>> implements Comparable<Handler[]> {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    abstract static class PlainHandler extends Handler implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    enum Color {
+        RED
+    }
+
+    private final ClassTypeSignature signatures = ClassTypeSignature.builder().cacheSize(0).build();
+
+    @Test
+    public void testEncode() {
+        final ClassType map = ClassType.builder(java.util.Map.class)
+                .child(ClassType.builder(String.class).build())
+                .child(ClassType.builder(List.class).child(ClassType.builder(Integer.class).build()).build())
+                .build();
+        assertThat(signatures.encode(map)).isEqualTo("Ljava/util/Map<Ljava/lang/String;Ljava/util/List<Ljava/lang/Integer;>;>;");
+
+        final ClassType odd = ClassType.builder(int.class)
+                .child(ClassType.builder(String[][].class).child(ClassType.builder(Outer.Inner.class).build()).build())
+                .child(ClassType.builder(boolean[].class).build())
+                .build();
+        final StringBuilder builder = new StringBuilder("prefix:");
+        signatures.encode(odd, builder);
+        assertThat(builder.toString()).isEqualTo("prefix:I<[[Ljava/lang/String;<L" + Outer.Inner.class.getName().replace('.', '/') + ";>[Z>");
+    }
+
+    @Test
+    public void testRoundTrips() {
+        for (final Class clazz : Arrays.asList(Object.class, HashMap.class, ConcurrentHashMap.class, String[].class, int[][].class,
+                Handler.class, Outer.Inner.class, Null.class, ArrayList.class)) {
+            final ClassType classType = ClassType.parse(clazz);
+            final ClassType parsed = signatures.parse(signatures.encode(classType));
+            assertThat(parsed).isEqualTo(classType);
+            assertThat(parsed.toString()).isEqualTo(classType.toString());
+            assertThat(parsed.isFrozen()).isTrue();
+        }
+
+        final ClassType odd = ClassType.builder(int.class)
+                .child(ClassType.builder(String[][].class).child(ClassType.builder(Outer.Inner.class).build()).build())
+                .child(ClassType.builder(void.class).build())
+                .build();
+        assertThat(signatures.parse(signatures.encode(odd))).isEqualTo(odd);
+    }
+
+    @Test
+    public void testParseJvmSignatures() {
+        final String outer = Outer.class.getName().replace('.', '/');
+        assertThat(signatures.parse("Ljava/util/List<+Ljava/lang/Number;>;").toString()).isEqualTo("java.util.List<java.lang.Object>");
+        assertThat(signatures.parse("Ljava/util/Map<*TK;>;").toString()).isEqualTo("java.util.Map<java.lang.Object, java.lang.Object>");
+        assertThat(signatures.parse("Ljava/util/List<-Ljava/util/Map<Ljava/lang/String;*>;>;").toString())
+                .isEqualTo("java.util.List<java.lang.Object>");
+        assertThat(signatures.parse("Ljava/util/Map<+[I+[[Ljava/util/List<+TT;>;>;").toString())
+                .isEqualTo("java.util.Map<java.lang.Object, java.lang.Object>");
+        assertThat(signatures.parse("L" + outer + "<Ljava/lang/String;>.Inner<Ljava/lang/Integer;>;").toString())
+                .isEqualTo(Outer.Inner.class.getName() + "<java.lang.Integer>");
+        assertThat(signatures.parse("L" + outer + "<Ljava/lang/String;>.Inner;").toString()).isEqualTo(Outer.Inner.class.getName());
+        assertThat(signatures.parse("Ljava/util/List<[Ljava/util/List<Ljava/lang/String;>;>;").toString())
+                .isEqualTo("java.util.List<[Ljava.util.List;>");
+        assertThat(signatures.parse("[L" + outer + "<TT;>.Inner<TU;>;").clazz()).isEqualTo(Outer.Inner[].class);
+        assertThat(signatures.parse("Ljava/util/List<[TT;>;").toString()).isEqualTo("java.util.List<[Ljava.lang.Object;>");
+    }
+
+    @Test
+    public void testParseClassSignatures() {
+        final Object[][] classSignatures = {
+            {IntegerHandler.class, "Ljava/lang/Object;Ljava/util/function/Function<Ljava/lang/Integer;Ljava/lang/Boolean;>;"
+                    + "Ljava/lang/Comparable<Ljava/lang/String;>;"},
+            {Handler.class, "Ljava/util/HashMap<Ljava/lang/String;Ljava/util/List<Ljava/lang/Integer;>;>;"
+                    + "Ljava/lang/Comparable<[Lcom/aries/classtype/parser/signature/ClassTypeSignatureTest$Handler;>;"},
+            {PlainHandler.class, "Lcom/aries/classtype/parser/signature/ClassTypeSignatureTest$Handler;Ljava/io/Serializable;"},
+            {Outer.class, "<T:Ljava/lang/Object;>Ljava/lang/Object;"},
+            {Outer.Inner.class, "<U:Ljava/lang/Object;>Ljava/lang/Object;"},
+            {Color.class, "Ljava/lang/Enum<Lcom/aries/classtype/parser/signature/ClassTypeSignatureTest$Color;>;"},
+            {ArrayList.class, "<E:Ljava/lang/Object;>Ljava/util/AbstractList<TE;>;Ljava/util/List<TE;>;Ljava/util/RandomAccess;"
+                    + "Ljava/lang/Cloneable;Ljava/io/Serializable;"},
+            {ConcurrentHashMap.class, "<K:Ljava/lang/Object;V:Ljava/lang/Object;>Ljava/util/AbstractMap<TK;TV;>;"
+                    + "Ljava/util/concurrent/ConcurrentMap<TK;TV;>;Ljava/io/Serializable;"},
+        };
+        for (final Object[] classSignature : classSignatures) {
+            final Class clazz = (Class) classSignature[0];
+            final ClassType parsed = signatures.parse(clazz, (String) classSignature[1]);
+            assertThat(parsed).as(clazz.getName()).isEqualTo(ClassType.parse(clazz));
+            assertThat(parsed.toString()).isEqualTo(ClassType.parse(clazz).toString());
+            assertThat(parsed.isFrozen()).isTrue();
+        }
+
+        // unlike those of type signatures arrays are erased, as with reflection
+        assertThat(signatures.parse(Handler.class, (String) classSignatures[1][1]).children().get(0).children().get(0).clazz())
+                .isEqualTo(Object.class);
+    }
+
+    @Test
+    public void testMalformedClassSignatures() {
+        try {
+            signatures.parse(IntegerHandler.class, "Ljava/lang/Object;Ljava/util/function/Function<");
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage()).startsWith("Malformed class signature at ");
+        }
+
+        final String unresolvable = "Ljava/lang/Object;Lcom/aries/Missing<Ljava/lang/String;>;";
+        try {
+            signatures.parse(IntegerHandler.class, unresolvable);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("Could not resolve com.aries.Missing of class signature: " + unresolvable);
+        }
+    }
+
+    @Test
+    public void testCachingClassSignatures() {
+        final ClassTypeSignature cached = ClassTypeSignature.builder().build();
+        final String signature = "Ljava/lang/Object;Ljava/lang/Comparable<Ljava/lang/String;>;";
+        final ClassType parsed = cached.parse(IntegerHandler.class, signature);
+        assertThat(cached.parse(IntegerHandler.class, new StringBuilder(signature))).isSameAs(parsed);
+        assertThat(cached.parse(ObjectHandler.class, signature)).isNotSameAs(parsed);
+
+        final ClassType reparsed = cached.parse(IntegerHandler.class, signature + "Ljava/io/Serializable;");
+        assertThat(reparsed.children()).hasSize(2);
+        assertThat(cached.parse(IntegerHandler.class, signature)).isNotSameAs(parsed).isEqualTo(parsed);
+
+        final ClassType current = cached.parse(IntegerHandler.class, signature);
+        cached.clearCache();
+        assertThat(cached.parse(IntegerHandler.class, signature)).isNotSameAs(current).isEqualTo(current);
+        assertThat(signatures.parse(IntegerHandler.class, signature)).isNotSameAs(signatures.parse(IntegerHandler.class, signature));
+    }
+
+    @Test
+    public void testSharesLeaves() {
+        final ClassType map = signatures.parse("Ljava/util/Map<Ljava/lang/String;Ljava/util/List<Ljava/lang/String;>;>;");
+        assertThat(map.children().get(0)).isSameAs(map.children().get(1).children().get(0));
+    }
+
+    @Test
+    public void testMalformedSignatures() {
+        for (final String malformed : new String[]{"", "Q", "Ljava/lang/String", "Ljava/lang/String;X", "Ljava/util/List<TT>;",
+                "[V", "[Q", "[", "Ljava/util/List<I>X;", "Ljava/util/List>;", "Ljava/util/List<+Q>;", "Ljava/util/List<+Ljava/util/List<Q>;>;",
+                "Ljava/util/List<+Ljava/util/List<TT;", "Ljava/util/List<I"}) {
+            try {
+                signatures.parse(malformed);
+                fail("Expected IllegalArgumentException for " + malformed);
+            } catch (final IllegalArgumentException e) {
+                assertThat(e.getMessage()).startsWith("Malformed signature at ").endsWith("): " + malformed);
+            }
+        }
+    }
+
+    @Test
+    public void testUnresolvableSignatures() {
+        try {
+            signatures.parse("Ljava/util/List<Ldoes/not/Exist;>;");
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("Could not resolve does.not.Exist of signature: Ljava/util/List<Ldoes/not/Exist;>;");
+            assertThat(e.getCause()).isInstanceOf(ClassNotFoundException.class);
+        }
+    }
+
+    @Test
+    public void testEncodeUnnamedClasses() {
+        final Runnable lambda = () -> { };
+        for (final Class clazz : Arrays.asList(lambda.getClass(), Array.newInstance(lambda.getClass(), 0).getClass())) {
+            try {
+                signatures.encode(ClassType.builder(clazz).build());
+                fail("Expected IllegalArgumentException");
+            } catch (final IllegalArgumentException e) {
+                assertThat(e).hasMessage("Cannot encode unnamed class " + clazz.getName());
+            }
+        }
+    }
+
+    @Test
+    public void testCaching() {
+        final ClassTypeSignature cached = ClassTypeSignature.builder().cacheSize(2).build();
+        final String signature = "Ljava/util/List<Ljava/lang/String;>;";
+        final ClassType parsed = cached.parse(signature);
+        assertThat(cached.parse(new StringBuilder(signature))).isSameAs(parsed);
+        assertThat(cached.parse(signature.getBytes(StandardCharsets.UTF_8), 0, signature.length())).isSameAs(parsed);
+        assertThat(cached.cacheSize()).isEqualTo(1);
+        cached.clearCache();
+        assertThat(cached.cacheSize()).isZero();
+        assertThat(cached.parse(signature)).isNotSameAs(parsed).isEqualTo(parsed);
+
+        assertThat(signatures.parse(signature)).isNotSameAs(signatures.parse(signature));
+        assertThat(ClassTypeSignature.DEFAULT_SIGNATURE.parse(signature)).isSameAs(ClassTypeSignature.DEFAULT_SIGNATURE.parse(signature));
+
+        final byte[] bytes = ("xx" + signature + "yy").getBytes(StandardCharsets.UTF_8);
+        assertThat(signatures.parse(bytes, 2, signature.length())).isEqualTo(parsed);
+    }
+
+    @Test
+    public void testCachingPerClassLoader() {
+        final ClassTypeSignature cached = ClassTypeSignature.builder().build();
+        final String signature = "Ljava/util/List<Ljava/lang/String;>;";
+        final Thread thread = Thread.currentThread();
+        final ClassLoader context = thread.getContextClassLoader();
+        final ClassLoader plugin = new ClassLoader(context) { };
+        try {
+            thread.setContextClassLoader(plugin);
+            assertThat(cached.parse(signature)).isNotSameAs(cached.parse(signature));
+            assertThat(cached.cacheSize()).isZero();
+
+            thread.setContextClassLoader(ClassLoader.getSystemClassLoader());
+            assertThat(cached.parse(signature)).isSameAs(cached.parse(signature));
+            assertThat(cached.cacheSize()).isEqualTo(1);
+        } finally {
+            thread.setContextClassLoader(context);
+        }
+
+        final ClassTypeSignature explicit = ClassTypeSignature.builder().classLoader(plugin).build();
+        assertThat(explicit.parse(signature)).isSameAs(explicit.parse(signature));
+        assertThat(explicit.cacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testInterning() {
+        final ClassTypeSignature interning = ClassTypeSignature.builder().intern(true).cacheSize(0).build();
+        final ClassType classType = ClassType.parse(HashMap.class);
+        assertThat(interning.parse(interning.encode(classType))).isSameAs(classType.intern());
+    }
+
+    @Test
+    public void testClassLoaders() {
+        final List<ClassLoader> loaders = new ArrayList<>();
+        final ClassLoader loader = new ClassLoader(ClassTypeSignatureTest.class.getClassLoader()) { };
+        ClassTypeSignature.builder().cacheSize(0).classLoader(loader).classResolver((name, classLoader) -> {
+            loaders.add(classLoader);
+            return Class.forName(name, false, classLoader);
+        }).build().parse("Ljava/lang/String;");
+
+        final ClassTypeSignature contextual = ClassTypeSignature.builder().cacheSize(0).classResolver((name, classLoader) -> {
+            loaders.add(classLoader);
+            return Class.forName(name, false, classLoader);
+        }).build();
+        final Thread thread = Thread.currentThread();
+        final ClassLoader context = thread.getContextClassLoader();
+        try {
+            contextual.parse("Ljava/lang/String;");
+            thread.setContextClassLoader(null);
+            contextual.parse("Ljava/lang/String;");
+        } finally {
+            thread.setContextClassLoader(context);
+        }
+        assertThat(loaders).containsExactly(loader, context, ClassTypeSignature.class.getClassLoader());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        final List<Runnable> invalid = Arrays.asList(
+                () -> signatures.encode(null),
+                () -> signatures.encode(ClassType.parse(String.class), null),
+                () -> signatures.parse((CharSequence) null),
+                () -> signatures.parse(null, "Ljava/lang/Object;"),
+                () -> signatures.parse(String.class, null),
+                () -> ClassTypeSignature.builder().classResolver(null),
+                () -> ClassTypeSignature.builder().classLoader(null));
+        for (final Runnable runnable : invalid) {
+            try {
+                runnable.run();
+                fail("Expected NullPointerException");
+            } catch (final NullPointerException e) {
+                assertThat(e.getMessage()).endsWith("cannot be NULL");
+            }
+        }
+
+        try {
+            signatures.parse(int.class, "Ljava/lang/Object;");
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("Class has no class signature: int");
+        }
+
+        try {
+            ClassTypeSignature.builder().cacheSize(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("cacheSize cannot be negative: -1");
+        }
+    }
+}
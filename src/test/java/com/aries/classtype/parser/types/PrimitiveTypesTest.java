@@ -304,4 +304,66 @@ public class PrimitiveTypesTest {
         final PrimitiveTypes type = PrimitiveTypes.from(UUID.randomUUID().toString());
         assertThat(type).isNull();;
     }
+
+    @Test
+    public void testFromPrimitiveAndBoxedClasses() {
+        for (final PrimitiveTypes type : PrimitiveTypes.values()) {
+            assertThat(PrimitiveTypes.from(type.getPrimitveClass())).isEqualTo(type);
+            assertThat(PrimitiveTypes.from(type.getBoxedClass())).isEqualTo(type);
+            assertThat(PrimitiveTypes.from((Object) type.getBoxedClass())).isEqualTo(type);
+        }
+        assertThat(PrimitiveTypes.from(String.class)).isNull();
+        assertThat(PrimitiveTypes.from((Class) null)).isEqualTo(PrimitiveTypes.NULL);
+    }
+
+    @Test
+    public void testFromPrimitiveTypes() {
+        for (final PrimitiveTypes type : PrimitiveTypes.values()) {
+            assertThat(PrimitiveTypes.from((Object) type)).isSameAs(type);
+        }
+    }
+
+    @Test
+    public void testFromBoxedClassObjects() {
+        assertThat(PrimitiveTypes.from((Object) Integer.class)).isEqualTo(PrimitiveTypes.INT);
+        assertThat(PrimitiveTypes.from((Object) Character.class)).isEqualTo(PrimitiveTypes.CHAR);
+        assertThat(PrimitiveTypes.from((Object) Void.class)).isEqualTo(PrimitiveTypes.VOID);
+    }
+
+    @Test
+    public void testFromValues() {
+        assertThat(PrimitiveTypes.from((Object) 42)).isEqualTo(PrimitiveTypes.INT);
+        assertThat(PrimitiveTypes.from((Object) 42L)).isEqualTo(PrimitiveTypes.LONG);
+        assertThat(PrimitiveTypes.from((Object) 'c')).isEqualTo(PrimitiveTypes.CHAR);
+        assertThat(PrimitiveTypes.from((Object) Boolean.TRUE)).isEqualTo(PrimitiveTypes.BOOLEAN);
+        assertThat(PrimitiveTypes.from(Null.INSTANCE)).isEqualTo(PrimitiveTypes.NULL);
+        assertThat(PrimitiveTypes.from(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    public void testFromNames() {
+        assertThat(PrimitiveTypes.from("  int ")).isEqualTo(PrimitiveTypes.INT);
+        assertThat(PrimitiveTypes.from(new StringBuilder("Double"))).isEqualTo(PrimitiveTypes.DOUBLE);
+        assertThat(PrimitiveTypes.from(Null.class.getName())).isEqualTo(PrimitiveTypes.NULL);
+        assertThat(PrimitiveTypes.from("")).isNull();
+        assertThat(PrimitiveTypes.from("   ")).isNull();
+        assertThat(PrimitiveTypes.from("integer")).isNull();
+        assertThat(PrimitiveTypes.from(Integer.class.getName())).isNull();
+    }
+
+    @Test
+    public void testFromDescriptors() {
+        for (final PrimitiveTypes type : PrimitiveTypes.values()) {
+            if (type != PrimitiveTypes.NULL) {
+                assertThat(PrimitiveTypes.fromDescriptor(type.getDescriptor())).isEqualTo(type);
+            }
+        }
+        assertThat(PrimitiveTypes.INT.getDescriptor()).isEqualTo('I');
+        assertThat(PrimitiveTypes.LONG.getDescriptor()).isEqualTo('J');
+        assertThat(PrimitiveTypes.BOOLEAN.getDescriptor()).isEqualTo('Z');
+        assertThat(PrimitiveTypes.NULL.getDescriptor()).isEqualTo(Character.MIN_VALUE);
+        assertThat(PrimitiveTypes.fromDescriptor('L')).isNull();
+        assertThat(PrimitiveTypes.fromDescriptor('a')).isNull();
+        assertThat(PrimitiveTypes.fromDescriptor(Character.MIN_VALUE)).isNull();
+    }
 }
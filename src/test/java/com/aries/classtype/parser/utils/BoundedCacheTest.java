@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Tests for exercising BoundedCache.
+ * 
+ * @author cdancy
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(4);
+        assertThat(cache.maximumSize()).isEqualTo(4);
+        assertThat(cache.get("one")).isNull();
+        assertThat(cache.putIfAbsent("one", 1)).isEqualTo(1);
+        assertThat(cache.putIfAbsent("one", 2)).isEqualTo(1);
+        assertThat(cache.get("one")).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("one")).isNull();
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(3);
+        for (int i = 0; i < 3; i++) {
+            cache.putIfAbsent(i, i);
+        }
+
+        // recently used entries get a second chance
+        cache.get(0);
+        cache.get(0);
+        cache.putIfAbsent(3, 3);
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get(0)).isEqualTo(0);
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.get(2)).isEqualTo(2);
+        assertThat(cache.get(3)).isEqualTo(3);
+
+        for (int i = 4; i < 100; i++) {
+            cache.putIfAbsent(i, i);
+            assertThat(cache.size()).isLessThanOrEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(0);
+        assertThat(cache.putIfAbsent("one", 1)).isEqualTo(1);
+        assertThat(cache.putIfAbsent("one", 2)).isEqualTo(2);
+        assertThat(cache.get("one")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testNegativeMaximumSize() {
+        try {
+            new BoundedCache<>(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessage("maximumSize cannot be negative: -1");
+        }
+    }
+}
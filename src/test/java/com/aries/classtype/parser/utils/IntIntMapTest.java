@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.aries.classtype.parser.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests for exercising IntIntMap.
+ * 
+ * @author cdancy
+ */
+public class IntIntMapTest {
+
+    @Test
+    public void testBasicOperations() {
+        final IntIntMap map = new IntIntMap(-1);
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(0)).isEqualTo(-1);
+        assertThat(map.put(0, 10)).isEqualTo(-1);
+        assertThat(map.put(Integer.MIN_VALUE, 20)).isEqualTo(-1);
+        assertThat(map.put(0, 30)).isEqualTo(10);
+        assertThat(map.get(0)).isEqualTo(30);
+        assertThat(map.containsKey(Integer.MIN_VALUE)).isTrue();
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.remove(0)).isEqualTo(30);
+        assertThat(map.remove(0)).isEqualTo(-1);
+        assertThat(map.containsKey(0)).isFalse();
+        map.clear();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        final Random random = new Random(42);
+        final IntIntMap map = new IntIntMap(-1, 0);
+        final Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            final int key = random.nextInt(512) * 31;
+            if (random.nextInt(3) == 0) {
+                final Integer previous = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(previous != null ? previous : -1);
+            } else {
+                final Integer previous = expected.put(key, i);
+                assertThat(map.put(key, i)).isEqualTo(previous != null ? previous : -1);
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (final Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+
+        final Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNegativeExpectedSize() {
+        new IntIntMap(-1, -1);
+    }
+}